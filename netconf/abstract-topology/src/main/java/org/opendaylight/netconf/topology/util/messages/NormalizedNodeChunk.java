@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.topology.util.messages;
+
+import com.google.common.base.Preconditions;
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Part of a serialized and compressed {@link NormalizedNodeMessage}, produced by {@link NormalizedNodeChunker}.
+ * Chunks of a single message share transfer id and are sent in order, the last one being marked.
+ */
+public final class NormalizedNodeChunk implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long transferId;
+    private final byte[] data;
+    private final boolean last;
+
+    public NormalizedNodeChunk(final long transferId, final byte[] data, final boolean last) {
+        this.transferId = transferId;
+        this.data = Preconditions.checkNotNull(data);
+        this.last = last;
+    }
+
+    /**
+     * @return random id, so that transfers started by different cluster nodes do not clash
+     */
+    public static long newTransferId() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    public long getTransferId() {
+        return transferId;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.topology.util.messages;
+
+import com.google.common.base.Preconditions;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.opendaylight.controller.cluster.datastore.node.utils.stream.NormalizedNodeDataInput;
+import org.opendaylight.controller.cluster.datastore.node.utils.stream.NormalizedNodeDataOutput;
+import org.opendaylight.controller.cluster.datastore.node.utils.stream.NormalizedNodeInputOutput;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+
+/**
+ * Splits normalized nodes into compressed binary chunks of bounded size and puts them back together. Nodes are
+ * streamed straight into compressed chunks and read back from them, the uncompressed binary form is never held
+ * in memory as a whole. Chunk size keeps messages between cluster nodes below the Akka frame size limit.
+ */
+public final class NormalizedNodeChunker {
+
+    /**
+     * System property with maximal size of a chunk in bytes.
+     */
+    public static final String CHUNK_SIZE_PROPERTY = "org.opendaylight.netconf.topology.chunk-size";
+
+    // Akka remoting limits frames to 128000 bytes by default, leave space for the envelope
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private static final int CHUNK_SIZE = Integer.getInteger(CHUNK_SIZE_PROPERTY, DEFAULT_CHUNK_SIZE);
+
+    private NormalizedNodeChunker() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static List<NormalizedNodeChunk> toChunks(final long transferId, final YangInstanceIdentifier path,
+                                                     final NormalizedNode<?, ?> node) throws IOException {
+        return toChunks(transferId, path, node, CHUNK_SIZE);
+    }
+
+    public static List<NormalizedNodeChunk> toChunks(final long transferId, final YangInstanceIdentifier path,
+                                                     final NormalizedNode<?, ?> node, final int chunkSize)
+            throws IOException {
+        final ChunkingOutputStream chunks = new ChunkingOutputStream(chunkSize);
+        // Serialization is dominated by the stream writer, favour speed over ratio
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (final DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(chunks, deflater))) {
+            final NormalizedNodeDataOutput dataOutput = NormalizedNodeInputOutput.newDataOutput(out);
+            final NormalizedNodeWriter normalizedNodeWriter =
+                    NormalizedNodeWriter.forStreamWriter((NormalizedNodeStreamWriter) dataOutput);
+
+            dataOutput.writeYangInstanceIdentifier(path);
+            normalizedNodeWriter.write(node);
+        } finally {
+            deflater.end();
+        }
+
+        final List<byte[]> data = chunks.getChunks();
+        final List<NormalizedNodeChunk> result = new ArrayList<>(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            result.add(new NormalizedNodeChunk(transferId, data.get(i), i == data.size() - 1));
+        }
+        return result;
+    }
+
+    public static NormalizedNodeMessage fromChunks(final List<NormalizedNodeChunk> chunks) throws IOException {
+        Preconditions.checkArgument(!chunks.isEmpty(), "No chunks to read from");
+        final List<InputStream> streams = new ArrayList<>(chunks.size());
+        for (final NormalizedNodeChunk chunk : chunks) {
+            streams.add(new ByteArrayInputStream(chunk.getData()));
+        }
+
+        try (final DataInputStream in = new DataInputStream(
+                new InflaterInputStream(new SequenceInputStream(Collections.enumeration(streams))))) {
+            final NormalizedNodeDataInput dataInput = NormalizedNodeInputOutput.newDataInput(in);
+            final YangInstanceIdentifier path = dataInput.readYangInstanceIdentifier();
+            return new NormalizedNodeMessage(path, dataInput.readNormalizedNode());
+        }
+    }
+
+    /**
+     * Collects written bytes into arrays of fixed size, only the last one is trimmed.
+     */
+    private static final class ChunkingOutputStream extends OutputStream {
+        private final List<byte[]> chunks = new ArrayList<>();
+        private final int chunkSize;
+        private byte[] current;
+        private int position;
+
+        ChunkingOutputStream(final int chunkSize) {
+            Preconditions.checkArgument(chunkSize > 0, "Invalid chunk size %s", chunkSize);
+            this.chunkSize = chunkSize;
+            this.current = new byte[chunkSize];
+        }
+
+        @Override
+        public void write(final int b) {
+            if (position == chunkSize) {
+                nextChunk();
+            }
+            current[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                if (position == chunkSize) {
+                    nextChunk();
+                }
+                final int length = Math.min(remaining, chunkSize - position);
+                System.arraycopy(b, offset, current, position, length);
+                position += length;
+                offset += length;
+                remaining -= length;
+            }
+        }
+
+        private void nextChunk() {
+            chunks.add(current);
+            current = new byte[chunkSize];
+            position = 0;
+        }
+
+        List<byte[]> getChunks() {
+            final List<byte[]> result = new ArrayList<>(chunks);
+            result.add(Arrays.copyOf(current, position));
+            return result;
+        }
+    }
+}
@@ -41,6 +41,11 @@ public class Commit extends AbstractConfigNetconfOperation {
         return XmlNetconfConstants.COMMIT;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     protected Element handleWithNoSubsequentOperations(Document document, XmlElement xml) throws DocumentedException {
 
@@ -46,6 +46,11 @@ public class DiscardChanges extends AbstractConfigNetconfOperation {
         return DISCARD;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     protected Element handleWithNoSubsequentOperations(Document document, XmlElement xml) throws DocumentedException {
         fromXml(xml);
@@ -61,4 +61,9 @@ public class Lock extends AbstractLastNetconfOperation {
     protected String getOperationName() {
         return LOCK;
     }
+
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
 }
@@ -53,4 +53,9 @@ public class UnLock extends AbstractLastNetconfOperation {
     protected String getOperationName() {
         return UNLOCK;
     }
+
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
 }
@@ -59,6 +59,11 @@ public class Validate extends AbstractConfigNetconfOperation {
         return VALIDATE;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     protected Element handleWithNoSubsequentOperations(Document document, XmlElement xml) throws DocumentedException {
         checkXml(xml);
@@ -64,6 +64,11 @@ public class EditConfig extends AbstractConfigNetconfOperation {
         return EditConfigXmlParser.EDIT_CONFIG;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     protected Element handleWithNoSubsequentOperations(Document document, XmlElement xml) throws DocumentedException {
         ConfigExecution configExecution;
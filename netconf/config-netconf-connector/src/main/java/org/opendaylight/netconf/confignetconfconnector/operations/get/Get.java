@@ -38,6 +38,11 @@ public class Get extends AbstractConfigNetconfOperation {
         return XmlNetconfConstants.GET;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     protected Element handleWithNoSubsequentOperations(Document document, XmlElement xml) throws DocumentedException {
         checkXml(xml);
@@ -56,6 +56,11 @@ public class GetConfig extends AbstractConfigNetconfOperation {
         return GET_CONFIG;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     public Element handleWithNoSubsequentOperations(Document document, XmlElement xml) throws DocumentedException {
         return getConfigSubsystemFacade().getConfiguration(document, fromXml(xml), maybeNamespace);
@@ -47,4 +47,9 @@ public class Commit extends AbstractSingletonNetconfOperation {
         return OPERATION_NAME;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
 }
@@ -60,4 +60,9 @@ public class DiscardChanges extends AbstractSingletonNetconfOperation {
         return OPERATION_NAME;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
 }
@@ -232,4 +232,9 @@ public class EditConfig extends AbstractSingletonNetconfOperation {
         return OPERATION_NAME;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
 }
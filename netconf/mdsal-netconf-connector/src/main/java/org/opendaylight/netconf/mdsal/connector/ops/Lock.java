@@ -53,4 +53,9 @@ public class Lock extends AbstractSingletonNetconfOperation {
         return OPERATION_NAME;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
 }
@@ -46,4 +46,9 @@ public class Unlock extends AbstractSingletonNetconfOperation {
         return OPERATION_NAME;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
 }
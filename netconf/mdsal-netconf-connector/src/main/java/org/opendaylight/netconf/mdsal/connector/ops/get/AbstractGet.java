@@ -8,35 +8,48 @@
 
 package org.opendaylight.netconf.mdsal.connector.ops.get;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
-import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.CheckedFuture;
 import java.io.IOException;
-import javax.xml.stream.XMLOutputFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
-import javax.xml.transform.dom.DOMResult;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
-import org.opendaylight.controller.config.util.xml.DocumentedException.ErrorSeverity;
-import org.opendaylight.controller.config.util.xml.DocumentedException.ErrorTag;
-import org.opendaylight.controller.config.util.xml.DocumentedException.ErrorType;
 import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataReadTransaction;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.netconf.mdsal.connector.ops.Datastore;
 import org.opendaylight.netconf.util.mapping.AbstractSingletonNetconfOperation;
+import org.opendaylight.netconf.util.messages.SubtreeFilter;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
 import org.opendaylight.yangtools.yang.data.impl.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
@@ -60,35 +73,17 @@ public abstract class AbstractGet extends AbstractSingletonNetconfOperation {
         this.validator = new FilterContentValidator(schemaContext);
     }
 
-    private static final XMLOutputFactory XML_OUTPUT_FACTORY;
-
-    static {
-        XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
-        XML_OUTPUT_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
-    }
-
     protected Node transformNormalizedNode(final Document document, final NormalizedNode<?, ?> data, final YangInstanceIdentifier dataRoot) {
-
-        final DOMResult result = new DOMResult(document.createElement(XmlNetconfConstants.DATA_KEY));
-
-        final XMLStreamWriter xmlWriter = getXmlStreamWriter(result);
-
-        final NormalizedNodeStreamWriter nnStreamWriter = XMLStreamNormalizedNodeStreamWriter.create(xmlWriter,
-                schemaContext.getCurrentContext(), getSchemaPath(dataRoot));
-
-        final NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(nnStreamWriter, true);
-
-        writeRootElement(xmlWriter, nnWriter, (ContainerNode) data);
-        return result.getNode();
+        return transformNormalizedNode(document, (ContainerNode) data, dataRoot, false);
     }
 
-
-    private XMLStreamWriter getXmlStreamWriter(final DOMResult result) {
-        try {
-            return XML_OUTPUT_FACTORY.createXMLStreamWriter(result);
-        } catch (final XMLStreamException e) {
-            throw new RuntimeException(e);
-        }
+    private Element transformNormalizedNode(final Document document, final ContainerNode data,
+                                            final YangInstanceIdentifier dataRoot, final boolean filtered) {
+        // Data are written directly to the outgoing message, without building DOM nodes for them
+        final Element dataElement = document.createElement(XmlNetconfConstants.DATA_KEY);
+        StreamedElementContent.attach(dataElement,
+                new NormalizedNodeContent(data, schemaContext.getCurrentContext(), getSchemaPath(dataRoot), filtered));
+        return dataElement;
     }
 
     private static final Function<PathArgument, QName> PATH_ARG_TO_QNAME = new Function<YangInstanceIdentifier.PathArgument, QName>() {
@@ -102,61 +97,197 @@ public abstract class AbstractGet extends AbstractSingletonNetconfOperation {
         return SchemaPath.create(Iterables.transform(dataRoot.getPathArguments(), PATH_ARG_TO_QNAME), dataRoot.equals(ROOT));
     }
 
-    private void writeRootElement(final XMLStreamWriter xmlWriter, final NormalizedNodeWriter nnWriter, final ContainerNode data) {
-        try {
-            if (data.getNodeType().equals(SchemaContext.NAME)) {
-                for (final DataContainerChild<? extends PathArgument, ?> child : data.getValue()) {
-                    nnWriter.write(child);
-                }
-            } else {
-                nnWriter.write(data);
+    /**
+     * Reads all data roots in a single transaction and serializes the merged result. All reads are submitted
+     * before waiting for any of them, so that the datastore can process them in parallel. Subtree filter is applied
+     * to the merged content, so that only the selected nodes are serialized.
+     *
+     * @param document document of the reply
+     * @param tx transaction to read from
+     * @param store datastore to read from
+     * @param dataRoots roots to read, none of them is an ancestor of another
+     * @param filter subtree filter of the request, see {@link #getSubtreeFilter(XmlElement)}
+     * @return data element with content of all data roots
+     * @throws ReadFailedException if any of the reads fails
+     */
+    protected Element readDataRoots(final Document document, final DOMDataReadTransaction tx,
+                                    final LogicalDatastoreType store, final List<YangInstanceIdentifier> dataRoots,
+                                    final Optional<XmlElement> filter) throws ReadFailedException {
+        final List<CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException>> reads =
+                new ArrayList<>(dataRoots.size());
+        for (final YangInstanceIdentifier dataRoot : dataRoots) {
+            reads.add(tx.read(store, dataRoot));
+        }
+
+        NormalizedNode<?, ?> merged = null;
+        for (int i = 0; i < dataRoots.size(); i++) {
+            final Optional<NormalizedNode<?, ?>> node = reads.get(i).checkedGet();
+            if (!node.isPresent()) {
+                continue;
+            }
+            final NormalizedNode<?, ?> withParents = dataRoots.get(i).equals(ROOT) ? node.get()
+                    : ImmutableNodes.fromInstanceId(schemaContext.getCurrentContext(), dataRoots.get(i), node.get());
+            merged = merged == null ? withParents : mergeNodes(merged, withParents);
+        }
+        if (merged == null) {
+            return XmlUtil.createElement(document, XmlNetconfConstants.DATA_KEY, Optional.<String>absent());
+        }
+        if (filter.isPresent()) {
+            final Optional<ContainerNode> pruned = SubtreeFilterPruner.prune(filter.get(), (ContainerNode) merged);
+            if (pruned.isPresent()) {
+                return transformNormalizedNode(document, pruned.get(), ROOT, true);
             }
-            nnWriter.flush();
-            xmlWriter.flush();
-        } catch (XMLStreamException | IOException e) {
-            Throwables.propagate(e);
         }
+        return (Element) transformNormalizedNode(document, merged, ROOT);
     }
 
-    protected Element serializeNodeWithParentStructure(Document document, YangInstanceIdentifier dataRoot, NormalizedNode node) {
-        if (!dataRoot.equals(ROOT)) {
-            return (Element) transformNormalizedNode(document,
-                    ImmutableNodes.fromInstanceId(schemaContext.getCurrentContext(), dataRoot, node),
-                    ROOT);
+    /**
+     * Merges two nodes with the same identifier. Data container nodes and maps are merged recursively, otherwise
+     * the second node wins. Both nodes come from a single transaction, so they never conflict.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static NormalizedNode<?, ?> mergeNodes(final NormalizedNode<?, ?> first, final NormalizedNode<?, ?> second) {
+        final NormalizedNodeContainerBuilder builder = containerBuilderFor(first);
+        if (builder == null || !(second instanceof NormalizedNodeContainer)) {
+            return second;
+        }
+
+        final NormalizedNodeContainer firstContainer = (NormalizedNodeContainer) first;
+        final NormalizedNodeContainer secondContainer = (NormalizedNodeContainer) second;
+        for (final NormalizedNode<?, ?> child : (Collection<NormalizedNode<?, ?>>) firstContainer.getValue()) {
+            final Optional<NormalizedNode<?, ?>> other = secondContainer.getChild(child.getIdentifier());
+            builder.addChild(other.isPresent() ? mergeNodes(child, other.get()) : child);
+        }
+        for (final NormalizedNode<?, ?> child : (Collection<NormalizedNode<?, ?>>) secondContainer.getValue()) {
+            if (!firstContainer.getChild(child.getIdentifier()).isPresent()) {
+                builder.addChild(child);
+            }
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("rawtypes")
+    static NormalizedNodeContainerBuilder containerBuilderFor(final NormalizedNode<?, ?> node) {
+        final NormalizedNodeContainerBuilder builder;
+        if (node instanceof ContainerNode) {
+            builder = Builders.containerBuilder();
+        } else if (node instanceof MapEntryNode) {
+            builder = Builders.mapEntryBuilder();
+        } else if (node instanceof AugmentationNode) {
+            builder = Builders.augmentationBuilder();
+        } else if (node instanceof ChoiceNode) {
+            builder = Builders.choiceBuilder();
+        } else if (node instanceof OrderedMapNode) {
+            builder = Builders.orderedMapBuilder();
+        } else if (node instanceof MapNode) {
+            builder = Builders.mapBuilder();
+        } else {
+            return null;
         }
-        return  (Element) transformNormalizedNode(document, node, ROOT);
+        return builder.withNodeIdentifier(node.getIdentifier());
+    }
+
+    /**
+     * @param operationElement operation element
+     * @return filter element of the operation if it is a subtree filter, absent otherwise
+     */
+    protected static Optional<XmlElement> getSubtreeFilter(final XmlElement operationElement) {
+        final Optional<XmlElement> filterElement = operationElement.getOnlyChildElementOptionally(FILTER,
+                XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0);
+        return filterElement.isPresent() && SubtreeFilter.isSupported(filterElement.get()) ? filterElement
+                : Optional.<XmlElement>absent();
     }
 
     /**
-     *
      * @param operationElement operation element
-     * @return if Filter is present and not empty returns Optional of the InstanceIdentifier to the read location in datastore.
-     *          empty filter returns Optional.absent() which should equal an empty &lt;data/&gt; container in the response.
-     *         if filter is not present we want to read the entire datastore - return ROOT.
-     * @throws DocumentedException
+     * @return if filter is present and not empty returns Optional of data roots covering the filter selection,
+     *         empty filter returns Optional.absent() which should equal an empty &lt;data/&gt; container in the response,
+     *         if filter is not present we want to read the entire datastore - returns ROOT.
+     * @throws DocumentedException if filter content is not valid
      */
-    protected Optional<YangInstanceIdentifier> getDataRootFromFilter(XmlElement operationElement) throws DocumentedException {
-        Optional<XmlElement> filterElement = operationElement.getOnlyChildElementOptionally(FILTER);
-        if (filterElement.isPresent()) {
-            if (filterElement.get().getChildElements().size() == 0) {
-                return Optional.absent();
+    protected Optional<List<YangInstanceIdentifier>> getDataRootsFromFilter(final XmlElement operationElement)
+            throws DocumentedException {
+        final Optional<XmlElement> filterElement = operationElement.getOnlyChildElementOptionally(FILTER);
+        if (!filterElement.isPresent()) {
+            return Optional.<List<YangInstanceIdentifier>>of(Collections.singletonList(ROOT));
+        }
+        final List<XmlElement> filterRoots = filterElement.get().getChildElements();
+        if (filterRoots.isEmpty()) {
+            return Optional.absent();
+        }
+
+        final List<YangInstanceIdentifier> dataRoots = new ArrayList<>();
+        for (final XmlElement filterRoot : filterRoots) {
+            for (final YangInstanceIdentifier dataRoot : validator.getDataRoots(filterRoot)) {
+                addDataRoot(dataRoots, dataRoot);
+            }
+        }
+        return Optional.of(dataRoots);
+    }
+
+    /**
+     * Adds data root unless it is already covered by another root, removing roots covered by the new one.
+     */
+    private static void addDataRoot(final List<YangInstanceIdentifier> dataRoots, final YangInstanceIdentifier dataRoot) {
+        final Iterator<YangInstanceIdentifier> it = dataRoots.iterator();
+        while (it.hasNext()) {
+            final YangInstanceIdentifier existing = it.next();
+            if (existing.contains(dataRoot)) {
+                return;
+            }
+            if (dataRoot.contains(existing)) {
+                it.remove();
             }
-            return Optional.of(getInstanceIdentifierFromFilter(filterElement.get()));
-        } else {
-            return Optional.of(ROOT);
         }
+        dataRoots.add(dataRoot);
     }
 
-    @VisibleForTesting
-    protected YangInstanceIdentifier getInstanceIdentifierFromFilter(XmlElement filterElement) throws DocumentedException {
+    /**
+     * Datastore content serialized as children of the data element.
+     */
+    private static final class NormalizedNodeContent extends StreamedElementContent {
+        private final ContainerNode data;
+        private final SchemaContext schemaContext;
+        private final SchemaPath schemaPath;
+        private final boolean filtered;
+
+        NormalizedNodeContent(final ContainerNode data, final SchemaContext schemaContext, final SchemaPath schemaPath,
+                              final boolean filtered) {
+            this.data = data;
+            this.schemaContext = schemaContext;
+            this.schemaPath = schemaPath;
+            this.filtered = filtered;
+        }
 
-        if (filterElement.getChildElements().size() != 1) {
-            throw new DocumentedException("Multiple filter roots not supported yet",
-                    ErrorType.application, ErrorTag.operation_not_supported, ErrorSeverity.error);
+        @Override
+        public boolean isFiltered() {
+            return filtered;
         }
 
-        XmlElement element = filterElement.getOnlyChildElement();
-        return validator.validate(element);
+        @Override
+        public void writeTo(final XMLStreamWriter xmlWriter) throws XMLStreamException {
+            final NormalizedNodeStreamWriter nnStreamWriter = XMLStreamNormalizedNodeStreamWriter.create(xmlWriter,
+                    schemaContext, schemaPath);
+            final NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(nnStreamWriter, true);
+            try {
+                if (data.getNodeType().equals(SchemaContext.NAME)) {
+                    for (final DataContainerChild<? extends PathArgument, ?> child : data.getValue()) {
+                        nnWriter.write(child);
+                    }
+                } else {
+                    nnWriter.write(data);
+                }
+                nnWriter.flush();
+            } catch (final IOException e) {
+                throw new XMLStreamException("Unable to write " + data.getIdentifier(), e);
+            }
+            xmlWriter.flush();
+        }
+
+        @Override
+        public String toString() {
+            return "NormalizedNodeContent{" + data.getIdentifier() + '}';
+        }
     }
 
     protected static final class GetConfigExecution {
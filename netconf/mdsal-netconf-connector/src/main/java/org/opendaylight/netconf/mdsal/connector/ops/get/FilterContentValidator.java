@@ -7,6 +7,7 @@
  */
 package org.opendaylight.netconf.mdsal.connector.ops.get;
 
+import com.google.common.base.Optional;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayDeque;
@@ -14,20 +15,31 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.MissingNameSpaceException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
+import org.opendaylight.yangtools.yang.data.impl.codec.xml.XmlUtils;
 import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
 import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.UnionTypeDefinition;
 
 /**
  * Class validates filter content against schema context.
@@ -44,19 +56,31 @@ public class FilterContentValidator {
     }
 
     /**
-     * Validates filter content against this validator schema context. If the filter is valid, method returns {@link YangInstanceIdentifier}
-     * of node which can be used as root for data selection.
+     * Validates filter content against this validator schema context and computes data roots, which together cover
+     * all data selected by the filter. Subtrees are read whole only as far as needed for the selection to be applied:
+     * <ul>
+     *     <li>each branch of containment nodes gets its own root,</li>
+     *     <li>list entries selected by content match of all their keys are read as separate entries,</li>
+     *     <li>nodes containing other content match nodes or augmented children are read whole.</li>
+     * </ul>
+     * Selection of the data from the roots is left to subtree filtering.
+     *
      * @param filterContent filter content
-     * @return YangInstanceIdentifier
+     * @return data roots of the filter, none of them is an ancestor of another
      * @throws DocumentedException if filter content is not valid
      */
-    public YangInstanceIdentifier validate(XmlElement filterContent) throws DocumentedException {
+    public List<YangInstanceIdentifier> getDataRoots(XmlElement filterContent) throws DocumentedException {
         try {
             final URI namespace = new URI(filterContent.getNamespace());
             final Module module = schemaContext.getCurrentContext().findModuleByNamespaceAndRevision(namespace, null);
             final DataSchemaNode schema = getRootDataSchemaNode(module, namespace, filterContent.getName());
-            final FilterTree filterTree = validateNode(filterContent, schema, new FilterTree(schema.getQName(), Type.OTHER));
-            return getFilterDataRoot(filterTree, YangInstanceIdentifier.builder());
+            final FilterTree filterTree = FilterTree.forRoot(schema);
+            filterTree.addElement(schema, filterContent);
+            validateNode(filterContent, schema, filterTree);
+
+            final List<YangInstanceIdentifier> roots = new ArrayList<>();
+            collectDataRoots(filterTree, YangInstanceIdentifier.of(schema.getQName()), roots);
+            return roots;
         } catch (DocumentedException e) {
             throw e;
         } catch (Exception e) {
@@ -110,6 +134,7 @@ public class FilterContentValidator {
                         subtree = subtree.addChild(dataSchemaNode);
                 }
                 final DataSchemaNode childSchema = path.getLast();
+                subtree.addElement(childSchema, childElement);
                 validateNode(childElement, childSchema, subtree);
             } catch (URISyntaxException | MissingNameSpaceException e) {
                 throw new RuntimeException("Wrong namespace in element + " + childElement.toString());
@@ -119,28 +144,42 @@ public class FilterContentValidator {
     }
 
     /**
-     * Searches for YangInstanceIdentifier of node, which can be used as root for data selection.
-     * It goes as deep in tree as possible. Method stops traversing, when there are multiple child elements
-     * or when it encounters list node.
-     * @param tree QName tree
-     * @param builder builder
-     * @return YangInstanceIdentifier
+     * Collects data roots of the filter tree into roots.
+     * @param tree filter tree
+     * @param path path of the tree node
+     * @param roots collected roots
      */
-    private YangInstanceIdentifier getFilterDataRoot(FilterTree tree, YangInstanceIdentifier.InstanceIdentifierBuilder builder) {
-        builder.node(tree.getName());
-        while (tree.getChildren().size() == 1) {
-            final FilterTree child = tree.getChildren().iterator().next();
-            if (child.getType() == Type.CHOICE_CASE) {
-                tree = child;
-                continue;
+    private static void collectDataRoots(final FilterTree tree, final YangInstanceIdentifier path,
+                                         final List<YangInstanceIdentifier> roots) {
+        if (tree.getChildren().isEmpty()) {
+            // selection node
+            roots.add(path);
+            return;
+        }
+        if (tree.getType() == Type.LIST) {
+            if (tree.getKeys().isEmpty()) {
+                roots.add(path);
+            } else {
+                for (final Map<QName, Object> keys : tree.getKeys()) {
+                    roots.add(path.node(new YangInstanceIdentifier.NodeIdentifierWithPredicates(tree.getName(), keys)));
+                }
             }
-            builder.node(child.getName());
-            if (child.getType() == Type.LIST) {
-                return builder.build();
+            return;
+        }
+        for (final FilterTree child : tree.getChildren()) {
+            if (child.isContentMatch() || child.isAugmenting()) {
+                // siblings decide whether this node is selected, augmentations are not addressed by their own names
+                roots.add(path);
+                return;
+            }
+        }
+        for (final FilterTree child : tree.getChildren()) {
+            if (child.getType() == Type.CHOICE_CASE) {
+                collectDataRoots(child, path, roots);
+            } else {
+                collectDataRoots(child, path.node(child.getName()), roots);
             }
-            tree = child;
         }
-        return builder.build();
     }
 
     //FIXME this method will also be in yangtools ParserUtils, use that when https://git.opendaylight.org/gerrit/#/c/37031/ will be merged
@@ -203,32 +242,135 @@ public class FilterContentValidator {
 
         private final QName name;
         private final Type type;
+        private final boolean augmenting;
         private final Map<QName, FilterTree> children;
+        // Key values of list entries selected by the filter, empty if the filter selects the whole list
+        private final Set<Map<QName, Object>> keys = new LinkedHashSet<>();
+        private boolean unkeyed;
+        private boolean contentMatch;
 
-        FilterTree(QName name, Type type) {
+        private FilterTree(QName name, Type type, boolean augmenting) {
             this.name = name;
             this.type = type;
+            this.augmenting = augmenting;
             this.children = new HashMap<>();
         }
 
-        FilterTree addChild(DataSchemaNode data) {
-            Type type;
+        static FilterTree forRoot(DataSchemaNode data) {
+            return new FilterTree(data.getQName(), typeOf(data), false);
+        }
+
+        private static Type typeOf(DataSchemaNode data) {
             if (data instanceof ChoiceCaseNode) {
-                type = Type.CHOICE_CASE;
+                return Type.CHOICE_CASE;
             } else if (data instanceof ListSchemaNode) {
-                type = Type.LIST;
+                return Type.LIST;
             } else {
-                type = Type.OTHER;
+                return Type.OTHER;
             }
+        }
+
+        FilterTree addChild(DataSchemaNode data) {
             final QName name = data.getQName();
             FilterTree childTree = children.get(name);
             if (childTree == null) {
-                childTree = new FilterTree(name, type);
+                childTree = new FilterTree(name, typeOf(data), data.isAugmenting());
             }
             children.put(name, childTree);
             return childTree;
         }
 
+        /**
+         * Records content match and list keys of a filter element represented by this tree node.
+         */
+        void addElement(DataSchemaNode schema, XmlElement element) {
+            if (!getContent(element).isEmpty()) {
+                contentMatch = true;
+            }
+            if (type != Type.LIST || unkeyed) {
+                return;
+            }
+            final Optional<Map<QName, Object>> entryKeys = getKeys((ListSchemaNode) schema, element);
+            if (entryKeys.isPresent()) {
+                keys.add(entryKeys.get());
+            } else {
+                unkeyed = true;
+                keys.clear();
+            }
+        }
+
+        private static Optional<Map<QName, Object>> getKeys(ListSchemaNode schema, XmlElement element) {
+            final List<QName> keyDefinition = schema.getKeyDefinition();
+            if (keyDefinition.isEmpty()) {
+                return Optional.absent();
+            }
+            final Map<QName, Object> values = new LinkedHashMap<>();
+            for (final QName key : keyDefinition) {
+                final Optional<XmlElement> keyElement = element.getOnlyChildElementOptionally(key.getLocalName(),
+                        key.getNamespace().toString());
+                final DataSchemaNode keySchema = schema.getDataChildByName(key);
+                if (!keyElement.isPresent() || !(keySchema instanceof LeafSchemaNode)) {
+                    return Optional.absent();
+                }
+                final Optional<Object> value = parseKeyValue((LeafSchemaNode) keySchema, keyElement.get());
+                if (!value.isPresent()) {
+                    return Optional.absent();
+                }
+                values.put(key, value.get());
+            }
+            return Optional.<Map<QName, Object>>of(values);
+        }
+
+        /**
+         * Parses key content match value, only for types whose value does not depend on the context of the element.
+         */
+        private static Optional<Object> parseKeyValue(LeafSchemaNode schema, XmlElement element) {
+            final String text = getContent(element);
+            if (text.isEmpty()) {
+                return Optional.absent();
+            }
+
+            TypeDefinition<?> baseType = schema.getType();
+            while (baseType.getBaseType() != null) {
+                baseType = baseType.getBaseType();
+            }
+            if (baseType instanceof IdentityrefTypeDefinition || baseType instanceof InstanceIdentifierTypeDefinition
+                    || baseType instanceof LeafrefTypeDefinition || baseType instanceof UnionTypeDefinition) {
+                return Optional.absent();
+            }
+
+            final TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>> codec =
+                    XmlUtils.DEFAULT_XML_CODEC_PROVIDER.codecFor(baseType);
+            try {
+                return Optional.of(codec == null ? text : codec.deserialize(text));
+            } catch (final IllegalArgumentException e) {
+                // invalid value matches nothing, leave it to the subtree filter
+                return Optional.absent();
+            }
+        }
+
+        /**
+         * @return trimmed text content of a leaf element, empty for elements with child elements
+         */
+        private static String getContent(XmlElement element) {
+            if (!element.getChildElements().isEmpty()) {
+                return "";
+            }
+            return element.getDomElement().getTextContent().trim();
+        }
+
+        Set<Map<QName, Object>> getKeys() {
+            return keys;
+        }
+
+        boolean isContentMatch() {
+            return contentMatch;
+        }
+
+        boolean isAugmenting() {
+            return augmenting;
+        }
+
         Collection<FilterTree> getChildren() {
             return children.values();
         }
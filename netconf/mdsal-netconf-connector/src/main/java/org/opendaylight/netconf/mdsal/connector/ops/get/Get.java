@@ -9,6 +9,7 @@
 package org.opendaylight.netconf.mdsal.connector.ops.get;
 
 import com.google.common.base.Optional;
+import java.util.List;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.DocumentedException.ErrorSeverity;
 import org.opendaylight.controller.config.util.xml.DocumentedException.ErrorTag;
@@ -23,7 +24,6 @@ import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.netconf.mdsal.connector.TransactionProvider;
 import org.opendaylight.netconf.mdsal.connector.ops.Datastore;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
-import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -44,26 +44,22 @@ public class Get extends AbstractGet {
     @Override
     protected Element handleWithNoSubsequentOperations(Document document, XmlElement operationElement) throws DocumentedException {
 
-        final Optional<YangInstanceIdentifier> dataRootOptional = getDataRootFromFilter(operationElement);
-        if (!dataRootOptional.isPresent()) {
+        final Optional<List<YangInstanceIdentifier>> dataRootsOptional = getDataRootsFromFilter(operationElement);
+        if (!dataRootsOptional.isPresent()) {
             return XmlUtil.createElement(document, XmlNetconfConstants.DATA_KEY, Optional.<String>absent());
         }
 
-        final YangInstanceIdentifier dataRoot = dataRootOptional.get();
+        final List<YangInstanceIdentifier> dataRoots = dataRootsOptional.get();
 
         DOMDataReadWriteTransaction rwTx = getTransaction(Datastore.running);
         try {
-            final Optional<NormalizedNode<?, ?>> normalizedNodeOptional = rwTx.read(LogicalDatastoreType.OPERATIONAL, dataRoot).checkedGet();
+            final Element data = readDataRoots(document, rwTx, LogicalDatastoreType.OPERATIONAL, dataRoots,
+                    getSubtreeFilter(operationElement));
             transactionProvider.abortRunningTransaction(rwTx);
-
-            if (!normalizedNodeOptional.isPresent()) {
-                return XmlUtil.createElement(document, XmlNetconfConstants.DATA_KEY, Optional.<String>absent());
-            }
-
-            return serializeNodeWithParentStructure(document, dataRoot, normalizedNodeOptional.get());
+            return data;
         } catch (ReadFailedException e) {
-            LOG.warn("Unable to read data: {}", dataRoot, e);
-            throw new IllegalStateException("Unable to read data " + dataRoot, e);
+            LOG.warn("Unable to read data: {}", dataRoots, e);
+            throw new IllegalStateException("Unable to read data " + dataRoots, e);
         }
     }
 
@@ -80,4 +76,9 @@ public class Get extends AbstractGet {
     protected String getOperationName() {
         return OPERATION_NAME;
     }
+
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
 }
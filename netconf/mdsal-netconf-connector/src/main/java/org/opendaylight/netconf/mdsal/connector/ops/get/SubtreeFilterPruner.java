@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.mdsal.connector.ops.get;
+
+import com.google.common.base.Optional;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.util.messages.SubtreeFilter;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Attr;
+
+/**
+ * Applies subtree filter of get and get-config to datastore content before it is serialized, so that the reply
+ * contains only the selected nodes and {@link SubtreeFilter} does not need to build a DOM tree of the whole content.
+ * <p>
+ * Matching rules are the same as in {@link SubtreeFilter}: containment nodes select matching children, selection
+ * nodes select whole subtrees, content match nodes select their parent only if all of them match and the parent
+ * is selected whole, if there are no other filter nodes on the same level. Choices, augmentations and lists are
+ * transparent, the same as in the XML representation. Filters which cannot be evaluated on normalized nodes without
+ * serializing them, e.g. attribute matches or content matches of prefixed values, are not applied and the content
+ * is left to {@link SubtreeFilter}.
+ */
+final class SubtreeFilterPruner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SubtreeFilterPruner.class);
+
+    private SubtreeFilterPruner() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param filter subtree filter element of the request
+     * @param data datastore content with the root container as its root
+     * @return content with only the selected nodes, absent if the filter cannot be applied to normalized nodes
+     */
+    static Optional<ContainerNode> prune(final XmlElement filter, final ContainerNode data) {
+        final Map<NormalizedNode<?, ?>, NormalizedNode<?, ?>> selected = new IdentityHashMap<>();
+        try {
+            for (final NormalizedNode<?, ?> child : elementChildren(data)) {
+                for (final XmlElement filterChild : filter.getChildElements()) {
+                    addSubtree(filterChild, child, selected);
+                }
+            }
+            final NormalizedNode<?, ?> pruned = pruneChildren(data, selected);
+            return Optional.of(pruned != null ? (ContainerNode) pruned
+                    : Builders.containerBuilder().withNodeIdentifier(data.getIdentifier()).build());
+        } catch (final UnsupportedFilterException e) {
+            LOG.debug("Filter {} cannot be applied to normalized nodes, leaving it to subtree filter", filter, e);
+            return Optional.absent();
+        }
+    }
+
+    private static MatchingResult addSubtree(final XmlElement filter, final NormalizedNode<?, ?> src,
+                                             final Map<NormalizedNode<?, ?>, NormalizedNode<?, ?>> dst)
+            throws UnsupportedFilterException {
+        final MatchingResult matches = matches(src, filter);
+        if (matches == MatchingResult.NO_MATCH || matches == MatchingResult.CONTENT_MISMATCH) {
+            return matches;
+        }
+
+        final List<XmlElement> filterChildren = filter.getChildElements();
+        if (filterChildren.isEmpty()) {
+            select(dst, src, src);
+            return matches;
+        }
+        if (src instanceof AnyXmlNode) {
+            throw new UnsupportedFilterException("Filter descends into anyxml " + src.getNodeType());
+        }
+
+        final Map<NormalizedNode<?, ?>, NormalizedNode<?, ?>> selectedChildren = new IdentityHashMap<>();
+        int numberOfTextMatchingChildren = 0;
+        boolean shouldAppend = false;
+        for (final NormalizedNode<?, ?> srcChild : elementChildren(src)) {
+            for (final XmlElement filterChild : filterChildren) {
+                final MatchingResult childMatch = addSubtree(filterChild, srcChild, selectedChildren);
+                if (childMatch == MatchingResult.CONTENT_MISMATCH) {
+                    return MatchingResult.NO_MATCH;
+                }
+                if (childMatch == MatchingResult.CONTENT_MATCH) {
+                    numberOfTextMatchingChildren++;
+                }
+                shouldAppend |= childMatch != MatchingResult.NO_MATCH;
+            }
+        }
+        // if only text matching child filters are specified, the whole node is selected
+        if (numberOfTextMatchingChildren == filterChildren.size()) {
+            select(dst, src, src);
+        } else if (shouldAppend) {
+            select(dst, src, pruneChildren(src, selectedChildren));
+        }
+        return matches;
+    }
+
+    private static void select(final Map<NormalizedNode<?, ?>, NormalizedNode<?, ?>> dst,
+                               final NormalizedNode<?, ?> src, final NormalizedNode<?, ?> selected) {
+        // a node selected by several filter nodes contains the union of their selections
+        final NormalizedNode<?, ?> previous = dst.get(src);
+        dst.put(src, previous == null ? selected : AbstractGet.mergeNodes(previous, selected));
+    }
+
+    private static MatchingResult matches(final NormalizedNode<?, ?> src, final XmlElement filter)
+            throws UnsupportedFilterException {
+        final QName name = src.getNodeType();
+        if (!name.getLocalName().equals(filter.getName())
+                || !Optional.of(name.getNamespace().toString()).equals(filter.getNamespaceOptionally())) {
+            return MatchingResult.NO_MATCH;
+        }
+
+        final Optional<String> maybeText = filter.getOnlyTextContentOptionally();
+        if (maybeText.isPresent()) {
+            return contentMatches(src, maybeText.get()) ? MatchingResult.CONTENT_MATCH : MatchingResult.CONTENT_MISMATCH;
+        }
+        for (final Attr attr : filter.getAttributes().values()) {
+            if (!XmlUtil.XMLNS_URI.equals(attr.getNamespaceURI())) {
+                throw new UnsupportedFilterException("Attribute match " + attr + " on " + name);
+            }
+        }
+        return MatchingResult.TAG_MATCH;
+    }
+
+    /**
+     * Compare value of a leaf to content match, only for values whose XML representation is their string value.
+     */
+    private static boolean contentMatches(final NormalizedNode<?, ?> src, final String text)
+            throws UnsupportedFilterException {
+        if (!(src instanceof LeafNode || src instanceof LeafSetEntryNode)) {
+            // nodes with child elements have no text content
+            return false;
+        }
+        final Object value = src.getValue();
+        if (!(value instanceof String || value instanceof Boolean || value instanceof Byte || value instanceof Short
+                || value instanceof Integer || value instanceof Long || value instanceof BigInteger)) {
+            throw new UnsupportedFilterException("Content match of " + src.getNodeType() + " with value " + value);
+        }
+        if (text.equals(value.toString())) {
+            return true;
+        }
+        if (text.indexOf(':') != -1) {
+            // might be a prefixed value, which is matched by namespace of the prefix
+            throw new UnsupportedFilterException("Prefixed content match of " + src.getNodeType());
+        }
+        return false;
+    }
+
+    /**
+     * @return nodes serialized as child elements of the node, in document order
+     */
+    private static List<NormalizedNode<?, ?>> elementChildren(final NormalizedNode<?, ?> node) {
+        if (!(node instanceof DataContainerNode)) {
+            return Collections.emptyList();
+        }
+        final List<NormalizedNode<?, ?>> children = new ArrayList<>();
+        addElementNodes(children, (DataContainerNode<?>) node);
+        return children;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addElementNodes(final List<NormalizedNode<?, ?>> children, final NormalizedNode<?, ?> node) {
+        for (final NormalizedNode<?, ?> child : (Collection<NormalizedNode<?, ?>>) node.getValue()) {
+            if (isTransparent(child)) {
+                addElementNodes(children, child);
+            } else {
+                children.add(child);
+            }
+        }
+    }
+
+    private static boolean isTransparent(final NormalizedNode<?, ?> node) {
+        return node instanceof ChoiceNode || node instanceof AugmentationNode || node instanceof MapNode
+                || node instanceof LeafSetNode || node instanceof UnkeyedListNode;
+    }
+
+    /**
+     * @return copy of the node with selected element nodes only, null if nothing is selected
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static NormalizedNode<?, ?> pruneChildren(final NormalizedNode<?, ?> node,
+                                                      final Map<NormalizedNode<?, ?>, NormalizedNode<?, ?>> selected)
+            throws UnsupportedFilterException {
+        final List<NormalizedNode<?, ?>> children = new ArrayList<>();
+        boolean unchanged = true;
+        for (final NormalizedNode<?, ?> child : (Collection<NormalizedNode<?, ?>>) node.getValue()) {
+            final NormalizedNode<?, ?> pruned = isTransparent(child) ? pruneChildren(child, selected) : selected.get(child);
+            if (pruned != null) {
+                children.add(pruned);
+            }
+            unchanged &= pruned == child;
+        }
+        if (children.isEmpty()) {
+            return null;
+        }
+        if (unchanged) {
+            return node;
+        }
+
+        final NormalizedNodeContainerBuilder builder = AbstractGet.containerBuilderFor(node);
+        if (builder == null) {
+            // leaf-lists and unkeyed lists are only kept whole
+            throw new UnsupportedFilterException("Partial selection of " + node.getNodeType());
+        }
+        for (final NormalizedNode<?, ?> child : children) {
+            builder.addChild(child);
+        }
+        return builder.build();
+    }
+
+    private enum MatchingResult {
+        NO_MATCH, TAG_MATCH, CONTENT_MATCH, CONTENT_MISMATCH
+    }
+
+    private static final class UnsupportedFilterException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedFilterException(final String message) {
+            super(message);
+        }
+    }
+}
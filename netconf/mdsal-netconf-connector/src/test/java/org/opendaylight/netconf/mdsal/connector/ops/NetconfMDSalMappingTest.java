@@ -23,6 +23,7 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import javax.xml.parsers.ParserConfigurationException;
@@ -52,6 +53,7 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.dom.store.impl.InMemoryDOMDataStoreFactory;
 import org.opendaylight.controller.sal.core.api.model.SchemaService;
 import org.opendaylight.controller.sal.core.spi.data.DOMStore;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
 import org.opendaylight.netconf.mapping.api.NetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
 import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
@@ -86,19 +88,14 @@ public class NetconfMDSalMappingTest {
 
     private static final String RPC_REPLY_ELEMENT = "rpc-reply";
     private static final String DATA_ELEMENT = "data";
-    private static final String FILTER_NODE = "filter";
     private static final String GET_CONFIG = "get-config";
     private static final QName TOP = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "top");
     private static final QName USERS = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "users");
     private static final QName USER = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "user");
+    private static final QName USER_NAME = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "name");
+    private static final QName MODULE = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "module");
     private static final QName MODULES = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "modules");
-    private static final QName AUGMENTED_CONTAINER = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "augmented-container");
-    private static final QName AUGMENTED_STRING_IN_CONT = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "identifier");
     private static final QName CHOICE_NODE = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "choice-node");
-    private static final QName AUGMENTED_CASE = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "augmented-case");
-    private static final QName CHOICE_WRAPPER = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "choice-wrapper");
-    private static final QName INNER_CHOICE = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "inner-choice");
-    private static final QName INNER_CHOICE_TEXT = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "text");
 
     private static final YangInstanceIdentifier AUGMENTED_CONTAINER_IN_MODULES =
             YangInstanceIdentifier.builder().node(TOP).node(MODULES).build();
@@ -487,29 +484,45 @@ public class NetconfMDSalMappingTest {
         verifyResponse(edit("messages/mapping/editConfigs/editConfig-filtering-setup.xml"), RPC_REPLY_OK);
         verifyResponse(commit(), RPC_REPLY_OK);
 
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-alluser.xml",
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-alluser.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-company-info.xml",
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-company-info.xml",
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER)
+                        .nodeWithKey(USER, USER_NAME, "root").build(),
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER)
+                        .nodeWithKey(USER, USER_NAME, "admin").build(),
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER)
+                        .nodeWithKey(USER, USER_NAME, "regular").build());
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-only-names-types.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-modules-and-admin.xml",
-                YangInstanceIdentifier.builder().node(TOP).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-only-names-types.xml",
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-superuser.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-specific-module-type-and-user.xml",
-                YangInstanceIdentifier.builder().node(TOP).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-superuser.xml",
-                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-users.xml",
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-users.xml",
                 YangInstanceIdentifier.builder().node(TOP).node(USERS).build());
 
-        YangInstanceIdentifier ident = YangInstanceIdentifier.
-                builder(AUGMENTED_CONTAINER_IN_MODULES).
-                node(AUGMENTED_CONTAINER).
-                node(AUGMENTED_STRING_IN_CONT).build();
-
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-augmented-string.xml", ident);
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-augmented-case.xml",
-                YangInstanceIdentifier.builder().node(TOP).node(CHOICE_NODE).node(AUGMENTED_CASE).build());
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-modules-and-admin.xml",
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER)
+                        .nodeWithKey(USER, USER_NAME, "admin").build(),
+                YangInstanceIdentifier.builder().node(TOP).node(MODULES).build());
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-specific-module-type-and-user.xml",
+                YangInstanceIdentifier.builder().node(TOP).node(USERS).node(USER).build(),
+                YangInstanceIdentifier.builder().node(TOP).node(MODULES).node(MODULE).build());
+        verifyResponse(getConfigWithFilter("messages/mapping/filters/get-filter-modules-and-admin.xml"),
+                XmlFileLoader.xmlFileToDocument("messages/mapping/filters/response-modules-and-admin.xml"));
+
+        // filter is applied to the data read from the datastore
+        verifyResponse(getConfigWithFilter("messages/mapping/filters/get-filter-only-names-types.xml"),
+                XmlFileLoader.xmlFileToDocument("messages/mapping/filters/response-only-names-types.xml"));
+        verifyResponse(getConfigWithFilter("messages/mapping/filters/get-filter-superuser.xml"),
+                XmlFileLoader.xmlFileToDocument("messages/mapping/filters/response-superuser.xml"));
+        verifyResponse(getConfigWithFilter("messages/mapping/filters/get-filter-company-info.xml"),
+                XmlFileLoader.xmlFileToDocument("messages/mapping/filters/response-company-info.xml"));
+
+        // augmented nodes are read together with their parent
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-augmented-string.xml",
+                AUGMENTED_CONTAINER_IN_MODULES);
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-augmented-case.xml",
+                YangInstanceIdentifier.builder().node(TOP).node(CHOICE_NODE).build());
 
         verifyResponse(getConfigWithFilter("messages/mapping/filters/get-filter-augmented-case.xml"),
                 XmlFileLoader.xmlFileToDocument("messages/mapping/filters/response-augmented-case.xml"));
@@ -528,10 +541,10 @@ public class NetconfMDSalMappingTest {
         //verifyResponse(edit("messages/mapping/editConfigs/editConfig-filtering-setup2.xml"), RPC_REPLY_OK);
         //verifyResponse(commit(), RPC_REPLY_OK);
 
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-augmented-case-inner-choice.xml",
-                YangInstanceIdentifier.builder().node(TOP).node(CHOICE_NODE).node(CHOICE_WRAPPER).build());
-        verifyFilterIdentifier("messages/mapping/filters/get-filter-augmented-case-inner-case.xml",
-                YangInstanceIdentifier.builder().node(TOP).node(CHOICE_NODE).node(CHOICE_WRAPPER).node(INNER_CHOICE).node(INNER_CHOICE_TEXT).build());
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-augmented-case-inner-choice.xml",
+                YangInstanceIdentifier.builder().node(TOP).node(CHOICE_NODE).build());
+        verifyFilterDataRoots("messages/mapping/filters/get-filter-augmented-case-inner-case.xml",
+                YangInstanceIdentifier.builder().node(TOP).node(CHOICE_NODE).build());
 
 //        verifyResponse(getConfigWithFilter("messages/mapping/filters/get-filter-augmented-string.xml"),
 //                XmlFileLoader.xmlFileToDocument("messages/mapping/filters/response-augmented-string.xml"));
@@ -545,11 +558,13 @@ public class NetconfMDSalMappingTest {
 
     }
 
-    private void verifyFilterIdentifier(String resource, YangInstanceIdentifier identifier) throws Exception{
+    private void verifyFilterDataRoots(String resource, YangInstanceIdentifier... dataRoots) throws Exception {
         TestingGetConfig getConfig = new TestingGetConfig(sessionIdForReporting, currentSchemaContext, transactionProvider);
         Document request = XmlFileLoader.xmlFileToDocument(resource);
-        YangInstanceIdentifier iid = getConfig.getInstanceIdentifierFromDocument(request);
-        assertEquals(identifier, iid);
+        List<YangInstanceIdentifier> actual = getConfig.getDataRootsFromDocument(request);
+        // order of the roots does not matter
+        assertEquals(dataRoots.length, actual.size());
+        assertEquals(new HashSet<>(Arrays.asList(dataRoots)), new HashSet<>(actual));
     }
 
     private class TestingGetConfig extends GetConfig{
@@ -557,9 +572,8 @@ public class NetconfMDSalMappingTest {
             super(sessionId, schemaContext, transactionProvider);
         }
 
-        public YangInstanceIdentifier getInstanceIdentifierFromDocument(Document request) throws DocumentedException {
-            XmlElement filterElement = XmlElement.fromDomDocument(request).getOnlyChildElement(GET_CONFIG).getOnlyChildElement(FILTER_NODE);
-            return getInstanceIdentifierFromFilter(filterElement);
+        public List<YangInstanceIdentifier> getDataRootsFromDocument(Document request) throws DocumentedException {
+            return getDataRootsFromFilter(XmlElement.fromDomDocument(request).getOnlyChildElement(GET_CONFIG)).get();
         }
     }
 
@@ -670,6 +684,8 @@ public class NetconfMDSalMappingTest {
     private Document executeOperation(NetconfOperation op, String filename) throws ParserConfigurationException, SAXException, IOException, DocumentedException {
         final Document request = XmlFileLoader.xmlFileToDocument(filename);
         final Document response = op.handle(request, NetconfOperationChainedExecution.EXECUTION_TERMINATION_POINT);
+        // Data of get operations are streamed when the reply is sent
+        StreamedElementContent.materialize(response);
 
         LOG.debug("Got response {}" , response);
         return response;
@@ -18,8 +18,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -29,6 +32,7 @@ import org.junit.runners.model.InitializationError;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
 import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
@@ -78,13 +82,18 @@ public class FilterContentValidatorTest {
     }
 
     @Test
-    public void testValidate() throws Exception {
+    public void testGetDataRoots() throws Exception {
         if (expected.startsWith("success")) {
-            final String expId = expected.replace("success=", "");
-            Assert.assertEquals(expId, validator.validate(filterContent).toString());
+            // comma separated data roots, in no particular order
+            final Set<String> expIds = new HashSet<>(Arrays.asList(expected.replace("success=", "").split(",")));
+            final Set<String> ids = new HashSet<>();
+            for (final YangInstanceIdentifier dataRoot : validator.getDataRoots(filterContent)) {
+                ids.add(dataRoot.toString());
+            }
+            Assert.assertEquals(expIds, ids);
         } else if (expected.startsWith("error")) {
             try {
-                validator.validate(filterContent);
+                validator.getDataRoots(filterContent);
                 Assert.fail(XmlUtil.toString(filterContent) + " is not valid and should throw exception.");
             } catch (Exception e) {
                 final String expectedExceptionClass = expected.replace("error=", "");
@@ -17,6 +17,7 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
 import org.w3c.dom.Document;
 
 /**
@@ -52,7 +53,8 @@ public class NetconfMessage {
     @Override
     public String toString() {
         final StreamResult result = new StreamResult(new StringWriter());
-        final DOMSource source = new DOMSource(doc.getDocumentElement());
+        // Streamed content is rendered from a copy, the message is encoded later and has to stay untouched
+        final DOMSource source = new DOMSource(StreamedElementContent.materializedCopy(doc.getDocumentElement()));
 
         try {
             // Slight critical section is a tradeoff. This should be reasonably fast.
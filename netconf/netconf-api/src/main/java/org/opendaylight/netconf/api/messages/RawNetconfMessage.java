@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.api.messages;
+
+import com.google.common.base.Preconditions;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.opendaylight.controller.config.util.xml.DocumentedException;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * NetconfMessage backed by the serialized form of the message as received from the wire. The DOM
+ * {@link Document} is built only when {@link #getDocument()} is invoked, so that consumers able to work
+ * with {@link XMLStreamReader} can process the message without building the DOM tree at all.
+ *
+ * Basic information about the message (root element, message-id, error reply) is available without
+ * building the document, using a scan of the beginning of the message.
+ */
+public final class RawNetconfMessage extends NetconfMessage {
+
+    private static final String MESSAGE_ID_ATTR = "message-id";
+    private static final XMLInputFactory INPUT_FACTORY;
+
+    static {
+        final XMLInputFactory f = XMLInputFactory.newInstance();
+        f.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        f.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        f.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        INPUT_FACTORY = f;
+    }
+
+    private final byte[] content;
+    private volatile Document document;
+    private volatile Header header;
+
+    public RawNetconfMessage(final byte[] content) {
+        super(null);
+        this.content = Preconditions.checkNotNull(content);
+    }
+
+    /**
+     * @return new stream reader positioned at the start of the message
+     */
+    public XMLStreamReader createXMLStreamReader() throws XMLStreamException {
+        return INPUT_FACTORY.createXMLStreamReader(openStream());
+    }
+
+    public InputStream openStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    /**
+     * @return size of the serialized message in bytes
+     */
+    public int size() {
+        return content.length;
+    }
+
+    /**
+     * @return true if DOM document of this message was already built
+     */
+    public boolean isDocumentMaterialized() {
+        return document != null;
+    }
+
+    @Override
+    public Document getDocument() {
+        Document ret = document;
+        if (ret == null) {
+            synchronized (this) {
+                ret = document;
+                if (ret == null) {
+                    try {
+                        ret = XmlUtil.readXmlToDocument(openStream());
+                    } catch (SAXException | IOException e) {
+                        throw new IllegalStateException("Unable to parse message " + this, e);
+                    }
+                    document = ret;
+                }
+            }
+        }
+        return ret;
+    }
+
+    public String getRootElementName() {
+        return getHeader().rootName;
+    }
+
+    public String getRootElementNamespace() {
+        return getHeader().rootNamespace;
+    }
+
+    /**
+     * @return value of message-id attribute of the root element, empty string if not present
+     */
+    public String getMessageId() {
+        return getHeader().messageId;
+    }
+
+    /**
+     * Equivalent of NetconfMessageUtil#isErrorMessage, the message is an error reply if its only
+     * child element is rpc-error.
+     */
+    public boolean isErrorReply() {
+        return getHeader().errorReply;
+    }
+
+    private Header getHeader() {
+        Header ret = header;
+        if (ret == null) {
+            try {
+                ret = scanHeader();
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException("Unable to parse message " + this, e);
+            }
+            header = ret;
+        }
+        return ret;
+    }
+
+    private Header scanHeader() throws XMLStreamException {
+        final XMLStreamReader reader = createXMLStreamReader();
+        try {
+            reader.nextTag();
+            final String rootName = reader.getLocalName();
+            final String rootNamespace = reader.getNamespaceURI();
+            final String messageId = reader.getAttributeValue(null, MESSAGE_ID_ATTR);
+
+            // Error reply has rpc-error as its only child, we need to look past the first child only
+            // if it is an rpc-error, which keeps the scan short for data replies
+            boolean errorReply = false;
+            if (nextChildElement(reader) && DocumentedException.RPC_ERROR.equals(reader.getLocalName())) {
+                skipElement(reader);
+                errorReply = !nextChildElement(reader);
+            }
+
+            return new Header(rootName, rootNamespace, messageId == null ? "" : messageId, errorReply);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static boolean nextChildElement(final XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                return true;
+            case XMLStreamConstants.END_ELEMENT:
+                return false;
+            default:
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    private static final class Header {
+        private final String rootName;
+        private final String rootNamespace;
+        private final String messageId;
+        private final boolean errorReply;
+
+        private Header(final String rootName, final String rootNamespace, final String messageId,
+                       final boolean errorReply) {
+            this.rootName = rootName;
+            this.rootNamespace = rootNamespace;
+            this.messageId = messageId;
+            this.errorReply = errorReply;
+        }
+    }
+}
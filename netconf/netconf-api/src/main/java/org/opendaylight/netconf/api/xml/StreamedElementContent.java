@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.api.xml;
+
+import com.google.common.base.Optional;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Content of a DOM element, which is not present in the DOM tree, but written directly to the output when the
+ * message is serialized. Allows large replies, e.g. datastore content, to be serialized from their original
+ * representation without building an intermediate DOM tree.
+ * <p>
+ * The content is written after the regular child nodes of the element. Code working with the DOM tree of a message,
+ * which might contain streamed content, has to {@link #materialize(Node)} it first. Code which only needs to look at
+ * the content, e.g. for logging, should use {@link #materializedCopy(Element)} and leave the message intact.
+ */
+public abstract class StreamedElementContent {
+
+    private static final String USER_DATA_KEY = StreamedElementContent.class.getName();
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY;
+
+    static {
+        XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+        XML_OUTPUT_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+    }
+
+    /**
+     * Write the content as children of currently open element. Might be invoked multiple times.
+     *
+     * @param writer namespace repairing writer
+     * @throws XMLStreamException if the content cannot be written
+     */
+    public abstract void writeTo(XMLStreamWriter writer) throws XMLStreamException;
+
+    /**
+     * @return true if the content has already been filtered according to the filter of the request, so that filtering
+     *         of the whole reply can leave it as it is, without materializing it
+     */
+    public boolean isFiltered() {
+        return false;
+    }
+
+    /**
+     * @return factory for namespace repairing writers suitable for {@link #writeTo(XMLStreamWriter)}
+     */
+    public static XMLOutputFactory getOutputFactory() {
+        return XML_OUTPUT_FACTORY;
+    }
+
+    /**
+     * Attach streamed content to an element. Previously attached content is replaced.
+     */
+    public static void attach(final Element element, final StreamedElementContent content) {
+        element.setUserData(USER_DATA_KEY, content, null);
+    }
+
+    /**
+     * @return content attached to node, absent if there is none
+     */
+    public static Optional<StreamedElementContent> get(final Node node) {
+        return Optional.fromNullable((StreamedElementContent) node.getUserData(USER_DATA_KEY));
+    }
+
+    /**
+     * Move content attached to one element to another element, e.g. when the element is replaced.
+     */
+    public static void move(final Element from, final Element to) {
+        final Optional<StreamedElementContent> content = get(from);
+        if (content.isPresent()) {
+            from.setUserData(USER_DATA_KEY, null, null);
+            attach(to, content.get());
+        }
+    }
+
+    /**
+     * Create a deep copy of an element with streamed content attached to it and its descendants materialized in the
+     * copy. The element itself is not modified and keeps its streamed content.
+     *
+     * @param element root of the subtree, usually the message document element
+     * @return detached copy of the element, owned by the same document
+     */
+    public static Element materializedCopy(final Element element) {
+        final Element copy = (Element) element.cloneNode(true);
+        materializeInto(element, copy);
+        return copy;
+    }
+
+    private static void materializeInto(final Node original, final Node copy) {
+        // Deep clone has the same structure as the original, user data are not cloned
+        for (Node child = original.getFirstChild(), childCopy = copy.getFirstChild(); child != null;
+                child = child.getNextSibling(), childCopy = childCopy.getNextSibling()) {
+            materializeInto(child, childCopy);
+        }
+
+        final Optional<StreamedElementContent> content = get(original);
+        if (content.isPresent()) {
+            write(content.get(), copy);
+        }
+    }
+
+    /**
+     * Replace streamed content attached to the node and its descendants with DOM nodes.
+     *
+     * @param node root of the subtree, usually the message document
+     */
+    public static void materialize(final Node node) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            materialize(child);
+        }
+
+        final Optional<StreamedElementContent> content = get(node);
+        if (content.isPresent()) {
+            node.setUserData(USER_DATA_KEY, null, null);
+            write(content.get(), node);
+        }
+    }
+
+    private static void write(final StreamedElementContent content, final Node node) {
+        try {
+            final XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(new DOMResult(node));
+            content.writeTo(writer);
+            writer.flush();
+        } catch (final XMLStreamException e) {
+            throw new IllegalStateException("Unable to materialize content of " + node.getNodeName(), e);
+        }
+    }
+}
@@ -15,6 +15,8 @@ import io.netty.channel.Channel;
 import io.netty.util.Timer;
 import io.netty.util.concurrent.Promise;
 import java.util.Set;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXIParameters;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchemaMode;
 import org.opendaylight.netconf.nettyutil.handler.exi.NetconfStartExiMessage;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessage;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
@@ -56,7 +58,7 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
     private final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader;
     private final long connectionTimeoutMillis;
     private final Timer timer;
-    private final EXIOptions options;
+    private final EXIParameters exiParameters;
 
     static {
         final EXIOptions opts = new EXIOptions();
@@ -96,10 +98,21 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
     public NetconfClientSessionNegotiatorFactory(final Timer timer,
                                                  final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
                                                  final long connectionTimeoutMillis, final EXIOptions exiOptions, final Set<String> capabilities) {
+        this(timer, additionalHeader, connectionTimeoutMillis, new EXIParameters(exiOptions, EXISchemaMode.NONE),
+                capabilities);
+    }
+
+    /**
+     * @param exiParameters EXI options and schemas proposed in start-exi. Schemas other than
+     *                      {@link EXISchemaMode#NONE} are only understood by servers supporting the schemas parameter.
+     */
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final EXIParameters exiParameters, final Set<String> capabilities) {
         this.timer = Preconditions.checkNotNull(timer);
         this.additionalHeader = additionalHeader;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
-        this.options = exiOptions;
+        this.exiParameters = Preconditions.checkNotNull(exiParameters);
         this.clientCapabilities = capabilities;
     }
 
@@ -108,7 +121,7 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
                                                                         final Channel channel,
             final Promise<NetconfClientSession> promise) {
 
-        NetconfMessage startExiMessage = NetconfStartExiMessage.create(options, START_EXI_MESSAGE_ID);
+        NetconfMessage startExiMessage = NetconfStartExiMessage.create(exiParameters, START_EXI_MESSAGE_ID);
         NetconfHelloMessage helloMessage = null;
         try {
             helloMessage = NetconfHelloMessage.createClientHello(clientCapabilities, additionalHeader);
@@ -8,6 +8,7 @@
 
 package org.opendaylight.netconf.client;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -18,9 +19,14 @@ import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timer;
 import io.netty.util.concurrent.Promise;
 import org.junit.Test;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.netconf.api.NetconfClientSessionPreferences;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXIParameters;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchemaMode;
 import org.opendaylight.protocol.framework.SessionListenerFactory;
 import org.opendaylight.protocol.framework.SessionNegotiator;
+import org.openexi.proc.common.EXIOptions;
 
 public class NetconfClientSessionNegotiatorFactoryTest {
     @Test
@@ -38,4 +44,19 @@ public class NetconfClientSessionNegotiatorFactoryTest {
         SessionNegotiator<?> sessionNegotiator = negotiatorFactory.getSessionNegotiator(listenerFactory, channel, promise);
         assertNotNull(sessionNegotiator);
     }
+
+    @Test
+    public void testProposedExiSchemas() throws Exception {
+        final EXIParameters proposed = new EXIParameters(new EXIOptions(), EXISchemaMode.BASE_1_0);
+        final NetconfClientSessionNegotiatorFactory negotiatorFactory = new NetconfClientSessionNegotiatorFactory(
+                new HashedWheelTimer(), Optional.<NetconfHelloMessageAdditionalHeader>absent(), 200L, proposed,
+                NetconfClientSessionNegotiatorFactory.EXI_CLIENT_CAPABILITIES);
+
+        final NetconfClientSessionNegotiator negotiator = (NetconfClientSessionNegotiator) negotiatorFactory
+                .getSessionNegotiator(mock(SessionListenerFactory.class), mock(Channel.class), mock(Promise.class));
+        final NetconfClientSessionPreferences preferences = negotiator.getSessionPreferences();
+        final EXIParameters negotiated = EXIParameters.fromXmlElement(
+                XmlElement.fromDomDocument(preferences.getStartExiMessage().getDocument()));
+        assertEquals(EXISchemaMode.BASE_1_0, negotiated.getSchemaMode());
+    }
 }
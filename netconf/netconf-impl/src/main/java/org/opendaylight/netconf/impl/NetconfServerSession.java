@@ -150,6 +150,8 @@ public final class NetconfServerSession extends AbstractNetconfSession<NetconfSe
 
         Session1Builder builder1 = new Session1Builder();
         builder1.setSessionIdentifier(header.getSessionIdentifier());
+        builder1.setQueuedOperations((long) sessionListener.getOperationQueue().getQueueDepth());
+        builder1.setMaxQueuedOperations((long) sessionListener.getOperationQueue().getMaxQueueDepth());
         builder.addAugmentation(Session1.class, builder1.build());
 
         return builder.build();
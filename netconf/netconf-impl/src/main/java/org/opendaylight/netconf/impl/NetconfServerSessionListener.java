@@ -11,8 +11,8 @@ package org.opendaylight.netconf.impl;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
-import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfSessionListener;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
@@ -27,6 +27,7 @@ import org.opendaylight.netconf.util.messages.SendErrorExceptionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
@@ -36,12 +37,29 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
     private final SessionListener monitoringSessionListener;
     private final NetconfOperationRouter operationRouter;
     private final AutoCloseable onSessionDownCloseable;
+    private final SessionOperationExecutor.SessionQueue operationExecutor;
 
     public NetconfServerSessionListener(final NetconfOperationRouter operationRouter, final NetconfMonitoringService monitoringService,
                                         final AutoCloseable onSessionDownCloseable) {
+        this(operationRouter, monitoringService, onSessionDownCloseable,
+                SessionOperationExecutor.inline().newSessionQueue());
+    }
+
+    /**
+     * @param operationExecutor queue executing incoming messages of this session serially in order of arrival,
+     *                          replies are sent from the executing thread
+     */
+    public NetconfServerSessionListener(final NetconfOperationRouter operationRouter, final NetconfMonitoringService monitoringService,
+                                        final AutoCloseable onSessionDownCloseable,
+                                        final SessionOperationExecutor.SessionQueue operationExecutor) {
         this.operationRouter = operationRouter;
         this.monitoringSessionListener = monitoringService.getSessionListener();
         this.onSessionDownCloseable = onSessionDownCloseable;
+        this.operationExecutor = operationExecutor;
+    }
+
+    SessionOperationExecutor.SessionQueue getOperationQueue() {
+        return operationExecutor;
     }
 
     @Override
@@ -58,6 +76,16 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
     public void onDown(final NetconfServerSession netconfNetconfServerSession) {
         monitoringSessionListener.onSessionDown(netconfNetconfServerSession);
 
+        // Close after operations already received from the session are finished
+        operationExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                closeResources();
+            }
+        });
+    }
+
+    private void closeResources() {
         try {
             operationRouter.close();
         } catch (Exception closingEx) {
@@ -80,6 +108,26 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
 
     @Override
     public void onMessage(final NetconfServerSession session, final NetconfMessage netconfMessage) {
+        operationExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                handleMessage(session, netconfMessage);
+            }
+
+            @Override
+            public String toString() {
+                // Message content may be large or contain credentials, identify it only
+                return "message " + getMessageId(netconfMessage) + " of session " + session.getSessionId();
+            }
+        });
+    }
+
+    private static String getMessageId(final NetconfMessage netconfMessage) {
+        final Element root = netconfMessage.getDocument().getDocumentElement();
+        return root == null ? null : root.getAttribute(XmlNetconfConstants.MESSAGE_ID);
+    }
+
+    private void handleMessage(final NetconfServerSession session, final NetconfMessage netconfMessage) {
         try {
 
             Preconditions.checkState(operationRouter != null, "Cannot handle message, session up was not yet received");
@@ -90,11 +138,19 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
             session.sendMessage(message);
             monitoringSessionListener.onSessionEvent(SessionEvent.inRpcSuccess(session));
         } catch (final RuntimeException e) {
-            // TODO: should send generic error or close session?
-            LOG.error("Unexpected exception", e);
+            // Operations are not executed on the netty thread, so the pipeline exception handler does not see
+            // the failure. Reply with an rpc-error here, like that handler would.
+            LOG.error("Unexpected exception while processing message {} of session {}", getMessageId(netconfMessage),
+                    session.getSessionId(), e);
             session.onIncommingRpcFail();
+            session.onOutgoingRpcError();
             monitoringSessionListener.onSessionEvent(SessionEvent.inRpcFail(session));
-            throw new IllegalStateException("Unable to process incoming message " + netconfMessage, e);
+            monitoringSessionListener.onSessionEvent(SessionEvent.outRpcError(session));
+            SendErrorExceptionUtil.sendErrorMessage(session, new DocumentedException(
+                    "Unable to process incoming message: " + e.getMessage(), e,
+                    DocumentedException.ErrorType.application, DocumentedException.ErrorTag.operation_failed,
+                    DocumentedException.ErrorSeverity.error,
+                    Collections.singletonMap("cause", String.valueOf(e.getMessage()))), netconfMessage);
         } catch (DocumentedException e) {
             LOG.trace("Error occurred while processing message",e);
             session.onOutgoingRpcError();
@@ -116,7 +172,6 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
         final Node rootNode = incomingDocument.getDocumentElement();
 
         if (rootNode.getLocalName().equals(XmlNetconfConstants.RPC_KEY)) {
-            final Document responseDocument = XmlUtil.newDocument();
             checkMessageId(rootNode);
 
             Document rpcReply = operationRouter.onNetconfMessage(incomingDocument, session);
@@ -125,8 +180,8 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
 
             session.onIncommingRpcSuccess();
 
-            responseDocument.appendChild(responseDocument.importNode(rpcReply.getDocumentElement(), true));
-            return new NetconfMessage(responseDocument);
+            // Reply is sent as is, copying it would also drop the streamed content
+            return new NetconfMessage(rpcReply);
         } else {
             // unknown command, send RFC 4741 p.70 unknown-element
             /*
@@ -51,11 +51,21 @@ public class NetconfServerSessionNegotiatorFactory implements SessionNegotiatorF
     private final NetconfMonitoringService monitoringService;
     private static final Logger LOG = LoggerFactory.getLogger(NetconfServerSessionNegotiatorFactory.class);
     private final Set<String> baseCapabilities;
+    private final SessionOperationExecutor operationExecutor;
 
     protected NetconfServerSessionNegotiatorFactory(final Timer timer, final NetconfOperationServiceFactory netconfOperationProvider,
                                                  final SessionIdProvider idProvider, final long connectionTimeoutMillis,
                                                  final NetconfMonitoringService monitoringService, final Set<String> baseCapabilities) {
+        this(timer, netconfOperationProvider, idProvider, connectionTimeoutMillis, monitoringService, baseCapabilities,
+                SessionOperationExecutor.getDefault());
+    }
+
+    protected NetconfServerSessionNegotiatorFactory(final Timer timer, final NetconfOperationServiceFactory netconfOperationProvider,
+                                                 final SessionIdProvider idProvider, final long connectionTimeoutMillis,
+                                                 final NetconfMonitoringService monitoringService, final Set<String> baseCapabilities,
+                                                 final SessionOperationExecutor operationExecutor) {
         this.timer = timer;
+        this.operationExecutor = Preconditions.checkNotNull(operationExecutor);
         this.aggregatedOpService = netconfOperationProvider;
         this.idProvider = idProvider;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
@@ -100,14 +110,15 @@ public class NetconfServerSessionNegotiatorFactory implements SessionNegotiatorF
         }
 
         return new NetconfServerSessionNegotiator(proposal, promise, channel, timer,
-                getListener(Long.toString(sessionId), channel.localAddress()), connectionTimeoutMillis);
+                getListener(Long.toString(sessionId), channel), connectionTimeoutMillis);
     }
 
-    private NetconfServerSessionListener getListener(final String netconfSessionIdForReporting, final SocketAddress socketAddress) {
-        final NetconfOperationService service = getOperationServiceForAddress(netconfSessionIdForReporting, socketAddress);
+    private NetconfServerSessionListener getListener(final String netconfSessionIdForReporting, final Channel channel) {
+        final NetconfOperationService service = getOperationServiceForAddress(netconfSessionIdForReporting, channel.localAddress());
         final NetconfOperationRouter operationRouter =
                 new NetconfOperationRouterImpl(service, monitoringService, netconfSessionIdForReporting);
-        return new NetconfServerSessionListener(operationRouter, monitoringService, service);
+        return new NetconfServerSessionListener(operationRouter, monitoringService, service,
+                operationExecutor.newSessionQueue(channel.config()));
 
     }
 
@@ -119,6 +130,10 @@ public class NetconfServerSessionNegotiatorFactory implements SessionNegotiatorF
         return aggregatedOpService;
     }
 
+    public final SessionOperationExecutor getOperationExecutor() {
+        return operationExecutor;
+    }
+
     private NetconfHelloMessage createHelloMessage(final long sessionId, final NetconfMonitoringService capabilityProvider) throws NetconfDocumentedException {
         return NetconfHelloMessage.createServerHello(Sets.union(transformCapabilities(capabilityProvider.getCapabilities()), baseCapabilities), sessionId);
     }
@@ -21,6 +21,7 @@ public class NetconfServerSessionNegotiatorFactoryBuilder {
     private long connectionTimeoutMillis;
     private NetconfMonitoringService monitoringService;
     private Set<String> baseCapabilities;
+    private SessionOperationExecutor operationExecutor;
 
     public NetconfServerSessionNegotiatorFactoryBuilder() {
     }
@@ -55,10 +56,14 @@ public class NetconfServerSessionNegotiatorFactoryBuilder {
         return this;
     }
 
+    public NetconfServerSessionNegotiatorFactoryBuilder setOperationExecutor(final SessionOperationExecutor operationExecutor) {
+        this.operationExecutor = operationExecutor;
+        return this;
+    }
 
     public NetconfServerSessionNegotiatorFactory build() {
         validate();
-        return new NetconfServerSessionNegotiatorFactory(timer, aggregatedOpService, idProvider, connectionTimeoutMillis, monitoringService, baseCapabilities);
+        return new NetconfServerSessionNegotiatorFactory(timer, aggregatedOpService, idProvider, connectionTimeoutMillis, monitoringService, baseCapabilities, operationExecutor);
     }
 
 
@@ -70,5 +75,6 @@ public class NetconfServerSessionNegotiatorFactoryBuilder {
         Preconditions.checkNotNull(monitoringService, "NetconfMonitoringService not initialized");
 
         baseCapabilities = (baseCapabilities == null) ? NetconfServerSessionNegotiatorFactory.DEFAULT_BASE_CAPABILITIES : baseCapabilities;
+        operationExecutor = (operationExecutor == null) ? SessionOperationExecutor.getDefault() : operationExecutor;
     }
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.impl;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.channel.ChannelConfig;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Execution stage for netconf operations received by the server. Operations are taken off the netty event loop,
+ * so that a slow operation of one session does not block other sessions sharing the same event loop.
+ * <p>
+ * Each session gets its own {@link SessionQueue}, which executes the operations of that session one by one
+ * in the order of arrival. Sessions are executed in parallel by the shared executor.
+ * <p>
+ * A session queue bound to the channel of its session stops reading from the channel once it holds
+ * {@link #MAX_QUEUE_DEPTH_PROPERTY} operations and resumes reading once half of them are executed, so a client
+ * sending requests faster than they are executed is slowed down by TCP flow control instead of filling the memory.
+ */
+@ThreadSafe
+public final class SessionOperationExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SessionOperationExecutor.class);
+
+    /**
+     * Number of threads executing netconf operations. 0 executes operations directly on the netty event loop.
+     */
+    public static final String THREADS_PROPERTY = "org.opendaylight.netconf.server.operation.threads";
+    private static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * Number of operations queued in a single session before reading from the session is suspended.
+     */
+    public static final String MAX_QUEUE_DEPTH_PROPERTY = "org.opendaylight.netconf.server.operation.max-queue-depth";
+    private static final int DEFAULT_MAX_QUEUE_DEPTH = 64;
+
+    private static final Executor INLINE = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private static final class Holder {
+        static final SessionOperationExecutor DEFAULT = createDefault();
+    }
+
+    private final Executor executor;
+    private final int maxQueueDepth;
+
+    /**
+     * @param executor executor to execute session operations, has to execute each submitted task eventually,
+     *                 e.g. a bounded thread pool with an unbounded queue. There is at most one task per session
+     *                 submitted at a time.
+     */
+    public SessionOperationExecutor(final Executor executor) {
+        this(executor, Integer.getInteger(MAX_QUEUE_DEPTH_PROPERTY, DEFAULT_MAX_QUEUE_DEPTH));
+    }
+
+    /**
+     * @param executor executor to execute session operations, see {@link #SessionOperationExecutor(Executor)}
+     * @param maxQueueDepth number of operations queued in a session before reading from the session is suspended
+     */
+    public SessionOperationExecutor(final Executor executor, final int maxQueueDepth) {
+        Preconditions.checkArgument(maxQueueDepth > 0, "Queue depth has to be positive, was %s", maxQueueDepth);
+        this.executor = Preconditions.checkNotNull(executor);
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    /**
+     * @return operation executor executing operations directly in the calling thread
+     */
+    public static SessionOperationExecutor inline() {
+        return new SessionOperationExecutor(INLINE);
+    }
+
+    /**
+     * @return executor shared by all netconf servers, configured by {@link #THREADS_PROPERTY}
+     */
+    public static SessionOperationExecutor getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    private static SessionOperationExecutor createDefault() {
+        final int threads = Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS);
+        if (threads <= 0) {
+            LOG.info("Netconf server operations executed on netty threads");
+            return inline();
+        }
+
+        // The pool queue is left unbounded on purpose. Each session queue submits at most one task at a time,
+        // so the pool queue never holds more tasks than there are sessions. Rejecting a task would leave
+        // its session queue scheduled forever, with no thread ever draining it.
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("netconf-server-operation-%d").setDaemon(true).build());
+        pool.allowCoreThreadTimeOut(true);
+        LOG.info("Netconf server operations executed by {} threads", threads);
+        return new SessionOperationExecutor(pool);
+    }
+
+    /**
+     * @return new queue for operations of a single session, which never suspends reading from the session
+     */
+    public SessionQueue newSessionQueue() {
+        return new SessionQueue(null);
+    }
+
+    /**
+     * @param channelConfig configuration of the session channel, used to suspend reading while the queue is full
+     * @return new queue for operations of a single session
+     */
+    public SessionQueue newSessionQueue(final ChannelConfig channelConfig) {
+        return new SessionQueue(Preconditions.checkNotNull(channelConfig));
+    }
+
+    /**
+     * Operations of a single session, executed serially in submission order.
+     */
+    @ThreadSafe
+    public final class SessionQueue implements Executor, Runnable {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final ChannelConfig channelConfig;
+
+        @GuardedBy("this")
+        private boolean readSuspended;
+
+        private SessionQueue(@Nullable final ChannelConfig channelConfig) {
+            this.channelConfig = channelConfig;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add(command);
+            final int queued = depth.incrementAndGet();
+            updateMaxDepth(queued);
+            if (channelConfig != null && queued >= maxQueueDepth) {
+                suspendRead();
+            }
+            schedule();
+        }
+
+        private void updateMaxDepth(final int queued) {
+            int max = maxDepth.get();
+            while (queued > max && !maxDepth.compareAndSet(max, queued)) {
+                max = maxDepth.get();
+            }
+        }
+
+        // Depth is checked again under the lock, the queue might have drained since the caller saw it full
+        private synchronized void suspendRead() {
+            if (!readSuspended && depth.get() >= maxQueueDepth) {
+                LOG.debug("Session queue {} is full, suspending read", this);
+                readSuspended = true;
+                channelConfig.setAutoRead(false);
+            }
+        }
+
+        private synchronized void resumeRead() {
+            if (readSuspended && depth.get() <= maxQueueDepth / 2) {
+                LOG.debug("Session queue {} drained, resuming read", this);
+                readSuspended = false;
+                channelConfig.setAutoRead(true);
+            }
+        }
+
+        private void schedule() {
+            if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (final RuntimeException e) {
+                        // Keep executing remaining operations of the session. Tasks of the session listener
+                        // report failures to the client themselves and identify the message only by its id.
+                        LOG.warn("Failed to execute {}", task, e);
+                    } finally {
+                        if (depth.decrementAndGet() <= maxQueueDepth / 2 && channelConfig != null) {
+                            resumeRead();
+                        }
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // Tasks might have been added after last poll, but before the scheduled flag was cleared
+            schedule();
+        }
+
+        /**
+         * @return number of operations of this session queued or being executed
+         */
+        public int getQueueDepth() {
+            return depth.get();
+        }
+
+        /**
+         * @return highest number of operations of this session queued at the same time
+         */
+        public int getMaxQueueDepth() {
+            return maxDepth.get();
+        }
+    }
+}
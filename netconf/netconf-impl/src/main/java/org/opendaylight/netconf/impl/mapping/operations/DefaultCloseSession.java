@@ -40,6 +40,11 @@ public class DefaultCloseSession extends AbstractSingletonNetconfOperation imple
         return CLOSE_SESSION;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     /**
      * Close netconf operation router associated to this session, which in turn
      * closes NetconfOperationServiceSnapshot with all NetconfOperationService
@@ -43,8 +43,8 @@ public class DefaultStartExi extends AbstractSingletonNetconfOperation implement
         try {
             netconfSession.startExiCommunication(new NetconfMessage(message));
         } catch (IllegalArgumentException e) {
-            throw new DocumentedException("Failed to parse EXI parameters", e, ErrorType.protocol,
-                    ErrorTag.operation_failed, ErrorSeverity.error);
+            throw new DocumentedException("Failed to parse EXI parameters: " + e.getMessage(), e, ErrorType.protocol,
+                    ErrorTag.invalid_value, ErrorSeverity.error);
         }
 
         return super.handle(message, subsequentOperation);
@@ -62,6 +62,11 @@ public class DefaultStartExi extends AbstractSingletonNetconfOperation implement
         return START_EXI;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     protected String getOperationNamespace() {
         return XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_EXI_1_0;
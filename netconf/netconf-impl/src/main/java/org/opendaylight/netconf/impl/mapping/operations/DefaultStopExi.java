@@ -46,6 +46,11 @@ public class DefaultStopExi extends AbstractSingletonNetconfOperation implements
         return STOP_EXI;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     protected String getOperationNamespace() {
         return XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_EXI_1_0;
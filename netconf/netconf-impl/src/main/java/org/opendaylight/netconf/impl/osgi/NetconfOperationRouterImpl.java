@@ -7,12 +7,16 @@
  */
 package org.opendaylight.netconf.impl.osgi;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
@@ -29,6 +33,9 @@ import org.opendaylight.netconf.impl.mapping.operations.DefaultCloseSession;
 import org.opendaylight.netconf.impl.mapping.operations.DefaultNetconfOperation;
 import org.opendaylight.netconf.impl.mapping.operations.DefaultStartExi;
 import org.opendaylight.netconf.impl.mapping.operations.DefaultStopExi;
+import org.opendaylight.netconf.util.mapping.AbstractNetconfOperation;
+import org.opendaylight.netconf.util.mapping.AbstractNetconfOperation.HandledOperation;
+import org.opendaylight.netconf.util.mapping.AbstractNetconfOperation.OperationNameAndNamespace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -38,6 +45,13 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfOperationRouterImpl.class);
     private final NetconfOperationService netconfOperationServiceSnapshot;
     private final Collection<NetconfOperation> allNetconfOperations;
+    // Operations with stable operation element, indexed by namespace and name of the operation element
+    private final Map<String, Map<String, IndexedOperations>> indexedOperations;
+    // Operations deciding based on the whole message, canHandle is invoked for every message
+    private final Collection<NetconfOperation> unindexedOperations;
+
+    private NetconfServerSession boundSession;
+    private boolean sessionBound;
 
     public NetconfOperationRouterImpl(final NetconfOperationService netconfOperationServiceSnapshot,
                                       final NetconfMonitoringService netconfMonitoringService, final String sessionId) {
@@ -51,6 +65,65 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
         ops.addAll(netconfOperationServiceSnapshot.getNetconfOperations());
 
         allNetconfOperations = ImmutableSet.copyOf(ops);
+
+        // Operation snapshot does not change during the lifetime of the router, so the index is built only once
+        final Map<String, Map<String, TreeMap<HandlingPriority, NetconfOperation>>> sorted = new HashMap<>();
+        final Map<String, Map<String, String>> conflicts = new HashMap<>();
+        final ImmutableList.Builder<NetconfOperation> unindexed = ImmutableList.builder();
+        for (final NetconfOperation netconfOperation : allNetconfOperations) {
+            final Optional<HandledOperation> handled = netconfOperation instanceof AbstractNetconfOperation
+                    ? ((AbstractNetconfOperation) netconfOperation).getHandledOperation()
+                    : Optional.<HandledOperation>absent();
+            if (!handled.isPresent()) {
+                unindexed.add(netconfOperation);
+                continue;
+            }
+
+            final HandledOperation operation = handled.get();
+            final HandlingPriority handlingPriority = operation.getHandlingPriority();
+            if (handlingPriority.isCannotHandle()) {
+                continue;
+            }
+            final TreeMap<HandlingPriority, NetconfOperation> byPriority =
+                    nested(sorted, operation.getNamespace(), operation.getOperationName(),
+                            new TreeMap<HandlingPriority, NetconfOperation>());
+            if (byPriority.containsKey(handlingPriority)) {
+                nested(conflicts, operation.getNamespace(), operation.getOperationName(), String.format(
+                        "Multiple %s available to handle operation %s:%s with priority %s, %s and %s",
+                        NetconfOperation.class.getName(), operation.getNamespace(), operation.getOperationName(),
+                        handlingPriority, netconfOperation, byPriority.get(handlingPriority)));
+            } else {
+                byPriority.put(handlingPriority, netconfOperation);
+            }
+        }
+
+        final Map<String, Map<String, IndexedOperations>> index = new HashMap<>();
+        for (final Map.Entry<String, Map<String, TreeMap<HandlingPriority, NetconfOperation>>> namespace : sorted.entrySet()) {
+            final Map<String, IndexedOperations> byName = new HashMap<>();
+            for (final Map.Entry<String, TreeMap<HandlingPriority, NetconfOperation>> name : namespace.getValue().entrySet()) {
+                final Map<String, String> namespaceConflicts = conflicts.get(namespace.getKey());
+                byName.put(name.getKey(), new IndexedOperations(name.getValue(),
+                        namespaceConflicts == null ? null : namespaceConflicts.get(name.getKey())));
+            }
+            index.put(namespace.getKey(), byName);
+        }
+        indexedOperations = index;
+        unindexedOperations = unindexed.build();
+    }
+
+    private static <T> T nested(final Map<String, Map<String, T>> map, final String namespace, final String name,
+                                final T value) {
+        Map<String, T> byName = map.get(namespace);
+        if (byName == null) {
+            byName = new HashMap<>();
+            map.put(namespace, byName);
+        }
+        final T existing = byName.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        byName.put(name, value);
+        return value;
     }
 
     @Override
@@ -113,9 +186,16 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
 
     private NetconfOperationExecution getNetconfOperationWithHighestPriority(
             final Document message, final NetconfServerSession session) throws DocumentedException {
+        bindSession(session);
 
-        NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority = getSortedNetconfOperationsWithCanHandle(
-                message, session);
+        final IndexedOperations indexed = getIndexedOperations(message);
+        final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority =
+                getSortedNetconfOperationsWithCanHandle(message, indexed);
+
+        if (sortedByPriority == null) {
+            // Only indexed operations can handle the message, use their prepared execution chain
+            return indexed.getExecutionChain();
+        }
 
         if (sortedByPriority.isEmpty()) {
             throw new IllegalArgumentException(String.format("No %s available to handle message %s",
@@ -125,19 +205,50 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
         return NetconfOperationExecution.createExecutionChain(sortedByPriority, sortedByPriority.lastKey());
     }
 
-    private TreeMap<HandlingPriority, NetconfOperation> getSortedNetconfOperationsWithCanHandle(final Document message,
-            final NetconfServerSession session) throws DocumentedException {
-        TreeMap<HandlingPriority, NetconfOperation> sortedPriority = Maps.newTreeMap();
-
-        for (NetconfOperation netconfOperation : allNetconfOperations) {
-            final HandlingPriority handlingPriority = netconfOperation.canHandle(message);
+    private void bindSession(final NetconfServerSession session) {
+        // Operations are bound to the session of this router, so they need to be updated only if the session changes
+        if (sessionBound && boundSession == session) {
+            return;
+        }
+        for (final NetconfOperation netconfOperation : allNetconfOperations) {
             if (netconfOperation instanceof DefaultNetconfOperation) {
                 ((DefaultNetconfOperation) netconfOperation).setNetconfSession(session);
             }
-            if(netconfOperation instanceof SessionAwareNetconfOperation) {
+            if (netconfOperation instanceof SessionAwareNetconfOperation) {
                 ((SessionAwareNetconfOperation) netconfOperation).setSession(session);
             }
+        }
+        boundSession = session;
+        sessionBound = true;
+    }
+
+    private IndexedOperations getIndexedOperations(final Document message) throws DocumentedException {
+        if (indexedOperations.isEmpty()) {
+            return null;
+        }
+        final OperationNameAndNamespace operation = new OperationNameAndNamespace(message);
+        final Map<String, IndexedOperations> byName = indexedOperations.get(operation.getNamespace());
+        return byName == null ? null : byName.get(operation.getOperationName());
+    }
+
+    /**
+     * @return operations able to handle the message sorted by priority, null if only indexed operations can handle
+     *         the message
+     */
+    private NavigableMap<HandlingPriority, NetconfOperation> getSortedNetconfOperationsWithCanHandle(
+            final Document message, final IndexedOperations indexed) throws DocumentedException {
+        if (indexed != null) {
+            indexed.checkConflicts();
+        }
+
+        TreeMap<HandlingPriority, NetconfOperation> sortedPriority = null;
+        for (NetconfOperation netconfOperation : unindexedOperations) {
+            final HandlingPriority handlingPriority = netconfOperation.canHandle(message);
             if (!handlingPriority.equals(HandlingPriority.CANNOT_HANDLE)) {
+                if (sortedPriority == null) {
+                    sortedPriority = indexed == null ? Maps.<HandlingPriority, NetconfOperation>newTreeMap()
+                            : Maps.newTreeMap(indexed.sortedByPriority);
+                }
 
                 Preconditions.checkState(!sortedPriority.containsKey(handlingPriority),
                         "Multiple %s available to handle message %s with priority %s, %s and %s",
@@ -145,6 +256,10 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
                 sortedPriority.put(handlingPriority, netconfOperation);
             }
         }
+
+        if (sortedPriority == null && indexed == null) {
+            return Maps.newTreeMap();
+        }
         return sortedPriority;
     }
 
@@ -199,6 +314,30 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
         }
     }
 
+    /**
+     * Indexed operations handling the same operation element, with execution chain resolved up front.
+     */
+    private static final class IndexedOperations {
+        private final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority;
+        private final NetconfOperationExecution executionChain;
+        private final String conflict;
+
+        IndexedOperations(final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority, final String conflict) {
+            this.sortedByPriority = Collections.unmodifiableNavigableMap(sortedByPriority);
+            this.executionChain = NetconfOperationExecution.createExecutionChain(sortedByPriority, sortedByPriority.lastKey());
+            this.conflict = conflict;
+        }
+
+        void checkConflicts() {
+            Preconditions.checkState(conflict == null, conflict);
+        }
+
+        NetconfOperationExecution getExecutionChain() {
+            checkConflicts();
+            return executionChain;
+        }
+    }
+
     @Override
     public String toString() {
         return "NetconfOperationRouterImpl{" + "netconfOperationServiceSnapshot=" + netconfOperationServiceSnapshot
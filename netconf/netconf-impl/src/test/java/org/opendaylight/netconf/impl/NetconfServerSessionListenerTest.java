@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.monitoring.NetconfMonitoringService;
+import org.opendaylight.netconf.api.monitoring.SessionListener;
+import org.opendaylight.netconf.impl.osgi.NetconfOperationRouter;
+import org.w3c.dom.Document;
+
+public class NetconfServerSessionListenerTest {
+
+    private static final String RPC = "<rpc message-id=\"101\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+            + "<get/></rpc>";
+
+    private NetconfOperationRouter router;
+    private NetconfServerSessionListener listener;
+    private EmbeddedChannel channel;
+    private NetconfServerSession session;
+
+    @Before
+    public void setUp() throws Exception {
+        router = mock(NetconfOperationRouter.class);
+        final NetconfMonitoringService monitoring = mock(NetconfMonitoringService.class);
+        doReturn(mock(SessionListener.class)).when(monitoring).getSessionListener();
+        listener = new NetconfServerSessionListener(router, monitoring, mock(AutoCloseable.class));
+        channel = new EmbeddedChannel();
+        session = new NetconfServerSession(listener, channel, 1L, null);
+    }
+
+    @Test
+    public void testUnexpectedFailureRepliesWithRpcError() throws Exception {
+        doThrow(new IllegalStateException("Operation failed unexpectedly"))
+                .when(router).onNetconfMessage(any(Document.class), any(NetconfServerSession.class));
+
+        listener.onMessage(session, new NetconfMessage(XmlUtil.readXmlToDocument(RPC)));
+        channel.runPendingTasks();
+
+        final NetconfMessage reply = (NetconfMessage) channel.readOutbound();
+        assertNotNull(reply);
+        final XmlElement replyElement = XmlElement.fromDomDocument(reply.getDocument());
+        assertEquals("rpc-reply", replyElement.getName());
+        assertEquals("101", replyElement.getAttribute("message-id"));
+        assertEquals("operation-failed", replyElement.getOnlyChildElement("rpc-error")
+                .getOnlyChildElement("error-tag").getTextContent());
+    }
+}
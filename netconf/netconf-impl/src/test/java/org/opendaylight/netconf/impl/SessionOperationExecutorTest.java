@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import io.netty.channel.ChannelConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SessionOperationExecutorTest {
+
+    private ExecutorService pool;
+    private SessionOperationExecutor executor;
+
+    @Before
+    public void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+        executor = new SessionOperationExecutor(pool);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testSessionOrder() throws Exception {
+        final SessionOperationExecutor.SessionQueue session = executor.newSessionQueue();
+        final List<Integer> executed = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final int count = 1000;
+        for (int i = 0; i < count; i++) {
+            final int value = i;
+            session.execute(new Runnable() {
+                @Override
+                public void run() {
+                    executed.add(value);
+                    if (value == count - 1) {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(count, executed.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, executed.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testSlowSessionDoesNotBlockOthers() throws Exception {
+        final SessionOperationExecutor.SessionQueue slow = executor.newSessionQueue();
+        final SessionOperationExecutor.SessionQueue fast = executor.newSessionQueue();
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch fastDone = new CountDownLatch(1);
+        final CountDownLatch slowDone = new CountDownLatch(1);
+
+        slow.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        slow.execute(new Runnable() {
+            @Override
+            public void run() {
+                slowDone.countDown();
+            }
+        });
+        fast.execute(new Runnable() {
+            @Override
+            public void run() {
+                fastDone.countDown();
+            }
+        });
+
+        assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+        assertEquals(2, slow.getQueueDepth());
+        assertEquals(2, slow.getMaxQueueDepth());
+
+        release.countDown();
+        assertTrue(slowDone.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testReadSuspendedWhileQueueFull() throws Exception {
+        final ChannelConfig config = mock(ChannelConfig.class);
+        final SessionOperationExecutor.SessionQueue session = new SessionOperationExecutor(pool, 4)
+                .newSessionQueue(config);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        session.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        session.execute(new NoopTask());
+        session.execute(new NoopTask());
+        verify(config, never()).setAutoRead(false);
+
+        session.execute(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        verify(config).setAutoRead(false);
+        verify(config, never()).setAutoRead(true);
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        verify(config, timeout(5000)).setAutoRead(true);
+        assertEquals(4, session.getMaxQueueDepth());
+    }
+
+    @Test
+    public void testFailedOperation() throws Exception {
+        final SessionOperationExecutor.SessionQueue session = SessionOperationExecutor.inline().newSessionQueue();
+        final CountDownLatch done = new CountDownLatch(1);
+        session.execute(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("failed");
+            }
+        });
+        session.execute(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        assertEquals(0, done.getCount());
+        assertEquals(0, session.getQueueDepth());
+    }
+
+    private static final class NoopTask implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -10,6 +10,7 @@ package org.opendaylight.netconf.impl.osgi;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
@@ -24,12 +25,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
+import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.mapping.api.HandlingPriority;
 import org.opendaylight.netconf.mapping.api.NetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
 import org.opendaylight.netconf.mapping.api.NetconfOperationService;
+import org.opendaylight.netconf.util.mapping.AbstractNetconfOperation;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 public class NetconfOperationRouterImplTest {
@@ -111,10 +115,142 @@ public class NetconfOperationRouterImplTest {
         }
     }
 
+    @Test
+    public void testIndexedOperation() throws Exception {
+        final TestOperation indexedOperation = new TestOperation(true);
+        Assert.assertTrue(indexedOperation.getHandledOperation().isPresent());
+        final NetconfOperationRouterImpl router = createRouter(indexedOperation);
+
+        for (int i = 0; i < 3; i++) {
+            final Document reply = router.onNetconfMessage(TEST_RPC_DOC, null);
+            Assert.assertTrue(XmlUtil.toString(reply).contains("handled"));
+        }
+        // Operation was looked up by its operation element, priority was resolved only when indexing
+        Assert.assertEquals(1, indexedOperation.priorityInvocations);
+        Assert.assertEquals(3, indexedOperation.handleInvocations);
+
+        try {
+            router.onNetconfMessage(XmlUtil.readXmlToDocument(TEST_RPC.replace("test", "other")), null);
+            Assert.fail("Exception expected");
+        } catch (DocumentedException e) {
+            Assert.assertEquals(e.getErrorTag(), DocumentedException.ErrorTag.operation_not_supported);
+        }
+    }
+
+    @Test
+    public void testOperationNotIndexedByDefault() throws Exception {
+        final TestOperation operation = new TestOperation(false);
+        Assert.assertFalse(operation.getHandledOperation().isPresent());
+        final NetconfOperationRouterImpl router = createRouter(operation);
+
+        for (int i = 0; i < 3; i++) {
+            router.onNetconfMessage(TEST_RPC_DOC, null);
+        }
+        // canHandle was consulted for every message
+        Assert.assertEquals(3, operation.priorityInvocations);
+        Assert.assertEquals(3, operation.handleInvocations);
+    }
+
+    @Test
+    public void testOperationRefiningCanHandleNotIndexed() throws Exception {
+        final RefiningOperation operation = new RefiningOperation();
+        Assert.assertFalse(operation.getHandledOperation().isPresent());
+        final NetconfOperationRouterImpl router = createRouter(operation);
+
+        router.onNetconfMessage(TEST_RPC_DOC, null);
+        Assert.assertEquals(1, operation.canHandleInvocations);
+        Assert.assertEquals(1, operation.handleInvocations);
+
+        // Refined canHandle rejects the message even though the operation element matches
+        operation.accept = false;
+        try {
+            router.onNetconfMessage(TEST_RPC_DOC, null);
+            Assert.fail("Exception expected");
+        } catch (DocumentedException e) {
+            Assert.assertEquals(e.getErrorTag(), DocumentedException.ErrorTag.operation_not_supported);
+        }
+        Assert.assertEquals(2, operation.canHandleInvocations);
+        Assert.assertEquals(1, operation.handleInvocations);
+    }
+
+    @Test
+    public void testIndexedAndUnindexedOperation() throws Exception {
+        final TestOperation indexedOperation = new TestOperation(true);
+        final Set<NetconfOperation> operations = new HashSet<>();
+        operations.add(indexedOperation);
+        operations.add(maxPrioMock);
+        doReturn(operations).when(operationService2).getNetconfOperations();
+        final NetconfOperationRouterImpl router = new NetconfOperationRouterImpl(operationService2, null, "session-1");
+
+        ArgumentCaptor<NetconfOperationChainedExecution> highPriorityChainEx = ArgumentCaptor.forClass(NetconfOperationChainedExecution.class);
+        final Document document = router.onNetconfMessage(TEST_RPC_DOC, null);
+        Assert.assertEquals(MAX_PRIORITY_REPLY, XmlUtil.toString(document).trim());
+
+        // indexed operation follows the max priority operation in chain
+        verify(maxPrioMock).handle(any(Document.class), highPriorityChainEx.capture());
+        final Document execute = highPriorityChainEx.getValue().execute(TEST_RPC_DOC);
+        Assert.assertTrue(XmlUtil.toString(execute).contains("handled"));
+        Assert.assertEquals(1, indexedOperation.priorityInvocations);
+    }
+
     @Test
     public void testClose() throws Exception {
         operationRouter.close();
         verify(operationService).close();
     }
 
-}
\ No newline at end of file
+    private static NetconfOperationRouterImpl createRouter(final NetconfOperation operation) {
+        final NetconfOperationService service = mock(NetconfOperationService.class);
+        doReturn(Collections.singleton(operation)).when(service).getNetconfOperations();
+        return new NetconfOperationRouterImpl(service, null, "session-1");
+    }
+
+    private static class TestOperation extends AbstractNetconfOperation {
+        private final boolean indexable;
+        int priorityInvocations;
+        int handleInvocations;
+
+        TestOperation(final boolean indexable) {
+            super("session-1");
+            this.indexable = indexable;
+        }
+
+        @Override
+        protected String getOperationName() {
+            return "test";
+        }
+
+        @Override
+        protected boolean isIndexable() {
+            return indexable;
+        }
+
+        @Override
+        protected HandlingPriority getHandlingPriority() {
+            priorityInvocations++;
+            return super.getHandlingPriority();
+        }
+
+        @Override
+        protected Element handle(final Document document, final XmlElement message,
+                                 final NetconfOperationChainedExecution subsequentOperation) {
+            handleInvocations++;
+            return document.createElement("handled");
+        }
+    }
+
+    private static final class RefiningOperation extends TestOperation {
+        boolean accept = true;
+        int canHandleInvocations;
+
+        RefiningOperation() {
+            super(true);
+        }
+
+        @Override
+        public HandlingPriority canHandle(final Document message) throws DocumentedException {
+            canHandleInvocations++;
+            return accept ? super.canHandle(message) : HandlingPriority.CANNOT_HANDLE;
+        }
+    }
+}
@@ -45,6 +45,11 @@ public class Get extends AbstractNetconfOperation {
         return XmlNetconfConstants.GET;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     protected HandlingPriority getHandlingPriority() {
         return HandlingPriority.HANDLE_WITH_DEFAULT_PRIORITY.increasePriority(1);
@@ -40,6 +40,11 @@ public class GetSchema extends AbstractSingletonNetconfOperation {
         return GET_SCHEMA;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     protected String getOperationNamespace() {
         return XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_YANG_IETF_NETCONF_MONITORING;
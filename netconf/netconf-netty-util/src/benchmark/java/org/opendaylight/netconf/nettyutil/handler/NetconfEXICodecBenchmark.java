@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchemaMode;
+import org.openexi.proc.common.AlignmentType;
+import org.openexi.proc.common.EXIOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+
+/**
+ * Compares encoding and decoding of a get-config reply as plain XML and as EXI with the negotiable schemas.
+ * Sizes of the encoded reply are logged before the benchmarks are run. Built by the benchmarks profile:
+ * <pre>
+ *     mvn test-compile -Pbenchmarks
+ *     java -cp ... org.opendaylight.netconf.nettyutil.handler.NetconfEXICodecBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class NetconfEXICodecBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfEXICodecBenchmark.class);
+    private static final String XML = "XML";
+
+    @Param({XML, "NONE", "BUILTIN", "BASE_1_0"})
+    public String encoding;
+
+    @Param({"1000"})
+    public int entries;
+
+    private NetconfMessage reply;
+    private NetconfMessageToEXIEncoder encoder;
+    private NetconfEXIToMessageDecoder decoder;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        reply = createReply(entries);
+        if (!XML.equals(encoding)) {
+            final NetconfEXICodec codec = new NetconfEXICodec(createOptions(), EXISchemaMode.valueOf(encoding));
+            encoder = NetconfMessageToEXIEncoder.create(codec);
+            decoder = NetconfEXIToMessageDecoder.create(codec);
+        }
+
+        final ByteBuf buffer = encode();
+        encoded = new byte[buffer.readableBytes()];
+        buffer.readBytes(encoded);
+    }
+
+    @Benchmark
+    public ByteBuf encode() throws Exception {
+        if (encoder == null) {
+            return Unpooled.wrappedBuffer(XmlUtil.toString(reply.getDocument()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ByteBuf buffer = Unpooled.buffer();
+        encoder.encode(null, reply, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Document decode() throws Exception {
+        if (decoder == null) {
+            return XmlUtil.readXmlToDocument(new ByteArrayInputStream(encoded));
+        }
+
+        final List<Object> out = new ArrayList<>(1);
+        decoder.decode(null, Unpooled.wrappedBuffer(encoded), out);
+        return ((NetconfMessage) out.get(0)).getDocument();
+    }
+
+    private static EXIOptions createOptions() throws Exception {
+        // Same options as used by the NETCONF client by default
+        final EXIOptions options = new EXIOptions();
+        options.setPreserveDTD(true);
+        options.setPreserveNS(true);
+        options.setPreserveLexicalValues(true);
+        options.setAlignmentType(AlignmentType.byteAligned);
+        return options;
+    }
+
+    private static NetconfMessage createReply(final int entries) throws Exception {
+        final StringBuilder builder = new StringBuilder(
+                "<rpc-reply message-id=\"m-1\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><data>")
+                .append("<interfaces xmlns=\"urn:ietf:params:xml:ns:yang:ietf-interfaces\">");
+        for (int i = 0; i < entries; i++) {
+            builder.append("<interface><name>eth").append(i).append("</name>")
+                    .append("<description>Interface ").append(i).append("</description>")
+                    .append("<type xmlns:ianaift=\"urn:ietf:params:xml:ns:yang:iana-if-type\">")
+                    .append("ianaift:ethernetCsmacd</type>")
+                    .append("<enabled>true</enabled></interface>");
+        }
+        builder.append("</interfaces></data></rpc-reply>");
+        return new NetconfMessage(XmlUtil.readXmlToDocument(builder.toString()));
+    }
+
+    public static void main(final String[] args) throws Exception {
+        for (final String encoding : new String[] { XML, "NONE", "BUILTIN", "BASE_1_0" }) {
+            final NetconfEXICodecBenchmark benchmark = new NetconfEXICodecBenchmark();
+            benchmark.encoding = encoding;
+            benchmark.entries = 1000;
+            benchmark.setUp();
+            LOG.info("{}: {} bytes", encoding, benchmark.encoded.length);
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(NetconfEXICodecBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
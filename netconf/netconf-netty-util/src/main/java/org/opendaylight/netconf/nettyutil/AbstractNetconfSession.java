@@ -150,7 +150,7 @@ public abstract class AbstractNetconfSession<S extends NetconfSession, L extends
             throw new IllegalArgumentException("Cannot parse options", e);
         }
 
-        final NetconfEXICodec exiCodec = new NetconfEXICodec(exiParams.getOptions());
+        final NetconfEXICodec exiCodec = new NetconfEXICodec(exiParams.getOptions(), exiParams.getSchemaMode());
         final NetconfMessageToEXIEncoder exiEncoder;
         try {
             exiEncoder = NetconfMessageToEXIEncoder.create(exiCodec);
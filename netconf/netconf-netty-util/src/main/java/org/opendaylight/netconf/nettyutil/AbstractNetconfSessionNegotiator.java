@@ -192,7 +192,7 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
      * It caches any non-hello messages while negotiation is still in progress
      */
     protected final void replaceHelloMessageInboundHandler(final S session) {
-        ChannelHandler helloMessageHandler = replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_DECODER, new NetconfXMLToMessageDecoder());
+        ChannelHandler helloMessageHandler = replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_DECODER, createMessageDecoder());
 
         Preconditions.checkState(helloMessageHandler instanceof NetconfXMLToHelloMessageDecoder,
                 "Pipeline handlers misplaced on session: %s, pipeline: %s", session, channel.pipeline());
@@ -207,6 +207,13 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
         }
     }
 
+    /**
+     * Create decoder for regular netconf messages, which replaces hello message decoder after negotiation.
+     */
+    protected ChannelHandler createMessageDecoder() {
+        return new NetconfXMLToMessageDecoder();
+    }
+
     /**
      * Remove special outbound handler for hello message. Insert regular netconf xml message (en|de)coders.
      */
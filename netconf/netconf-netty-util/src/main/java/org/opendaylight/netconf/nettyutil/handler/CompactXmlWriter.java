@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.nettyutil.handler;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
+import org.w3c.dom.Attr;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Serializes DOM nodes as compact (non-indented) UTF-8 encoded XML directly into a {@link ByteBuf}.
+ * <p>
+ * This is a replacement of identity JAXP Transformer for the netconf message encoders, which avoids
+ * the Transformer setup cost, intermediate Writer and char buffers and the indentation whitespace.
+ * Namespace declarations missing in the DOM tree (e.g. elements created with createElementNS without
+ * explicit xmlns attributes) are added to the output the same way the Transformer does it.
+ * <p>
+ * {@link StreamedElementContent} attached to elements is written directly after their child nodes.
+ */
+@NotThreadSafe
+final class CompactXmlWriter {
+
+    private static final byte[] XML_DECLARATION =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>".getBytes(StandardCharsets.UTF_8);
+    private static final String XMLNS = XMLConstants.XMLNS_ATTRIBUTE;
+    private static final String GENERATED_PREFIX = "ns";
+
+    private final ByteBuf out;
+
+    // Namespace bindings in scope, pairs of prefix and namespace, default namespace has empty prefix
+    private final List<String> bindings = new ArrayList<>();
+    private int generatedPrefixes = 0;
+
+    private CompactXmlWriter(final ByteBuf out) {
+        this.out = Preconditions.checkNotNull(out);
+    }
+
+    /**
+     * Write node and its subtree to the buffer. Document nodes are written with XML declaration.
+     *
+     * @param node node to serialize
+     * @param out target buffer
+     */
+    static void write(final Node node, final ByteBuf out) {
+        new CompactXmlWriter(out).writeNode(node);
+    }
+
+    private void writeNode(final Node node) {
+        switch (node.getNodeType()) {
+        case Node.DOCUMENT_NODE:
+            out.writeBytes(XML_DECLARATION);
+            writeChildren(node);
+            break;
+        case Node.DOCUMENT_FRAGMENT_NODE:
+        case Node.ENTITY_REFERENCE_NODE:
+            writeChildren(node);
+            break;
+        case Node.ELEMENT_NODE:
+            writeElement(node);
+            break;
+        case Node.TEXT_NODE:
+            writeEscaped(node.getNodeValue(), false);
+            break;
+        case Node.CDATA_SECTION_NODE:
+            writeAscii("<![CDATA[");
+            writeUtf8(node.getNodeValue().replace("]]>", "]]]]><![CDATA[>"));
+            writeAscii("]]>");
+            break;
+        case Node.COMMENT_NODE:
+            writeAscii("<!--");
+            writeUtf8(node.getNodeValue());
+            writeAscii("-->");
+            break;
+        case Node.PROCESSING_INSTRUCTION_NODE:
+            writeAscii("<?");
+            writeUtf8(node.getNodeName());
+            final String data = node.getNodeValue();
+            if (data != null && !data.isEmpty()) {
+                out.writeByte(' ');
+                writeUtf8(data);
+            }
+            writeAscii("?>");
+            break;
+        default:
+            // Document type and other nodes are not part of netconf messages
+            break;
+        }
+    }
+
+    private void writeChildren(final Node node) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            writeNode(child);
+        }
+    }
+
+    private void writeElement(final Node element) {
+        final int scope = bindings.size();
+        final String name = qualifiedName(element);
+
+        out.writeByte('<');
+        writeUtf8(name);
+
+        final NamedNodeMap attributes = element.getAttributes();
+        // Declarations present in the tree go first, so that the element and attribute fixup sees them
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final Attr attr = (Attr) attributes.item(i);
+            if (isNamespaceDeclaration(attr)) {
+                final String prefix = XMLNS.equals(attr.getNodeName()) ? "" : attr.getLocalName();
+                bind(prefix, attr.getValue());
+                writeAttribute(attr.getNodeName(), attr.getValue());
+            }
+        }
+
+        if (element.getLocalName() != null) {
+            ensureDeclared(nullToEmpty(element.getPrefix()), nullToEmpty(element.getNamespaceURI()));
+        }
+
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final Attr attr = (Attr) attributes.item(i);
+            if (!isNamespaceDeclaration(attr)) {
+                writeAttribute(attributeName(attr), attr.getValue());
+            }
+        }
+
+        final Optional<StreamedElementContent> streamed = StreamedElementContent.get(element);
+        if (element.hasChildNodes() || streamed.isPresent()) {
+            out.writeByte('>');
+            writeChildren(element);
+            if (streamed.isPresent()) {
+                writeStreamed(streamed.get());
+            }
+            writeAscii("</");
+            writeUtf8(name);
+            out.writeByte('>');
+        } else {
+            writeAscii("/>");
+        }
+
+        bindings.subList(scope, bindings.size()).clear();
+    }
+
+    private void writeStreamed(final StreamedElementContent content) {
+        try {
+            final XMLStreamWriter writer = StreamedElementContent.getOutputFactory().createXMLStreamWriter(
+                    new ByteBufOutputStream(out), StandardCharsets.UTF_8.name());
+            content.writeTo(writer);
+            writer.flush();
+        } catch (final XMLStreamException e) {
+            throw new IllegalStateException("Unable to write streamed element content " + content, e);
+        }
+    }
+
+    private String attributeName(final Attr attr) {
+        final String namespace = attr.getNamespaceURI();
+        if (attr.getLocalName() == null || namespace == null || namespace.isEmpty()
+                || XMLConstants.XML_NS_URI.equals(namespace)) {
+            return attr.getNodeName();
+        }
+
+        // Attributes do not use default namespace, a prefix is required
+        String prefix = nullToEmpty(attr.getPrefix());
+        if (prefix.isEmpty()) {
+            prefix = findPrefix(namespace);
+            if (prefix == null) {
+                prefix = GENERATED_PREFIX + generatedPrefixes++;
+            }
+        }
+        ensureDeclared(prefix, namespace);
+        return prefix + ':' + attr.getLocalName();
+    }
+
+    private void ensureDeclared(final String prefix, final String namespace) {
+        if (!namespace.equals(lookup(prefix))) {
+            bind(prefix, namespace);
+            writeAttribute(prefix.isEmpty() ? XMLNS : XMLNS + ':' + prefix, namespace);
+        }
+    }
+
+    private void bind(final String prefix, final String namespace) {
+        bindings.add(prefix);
+        bindings.add(namespace);
+    }
+
+    private String lookup(final String prefix) {
+        for (int i = bindings.size() - 2; i >= 0; i -= 2) {
+            if (bindings.get(i).equals(prefix)) {
+                return bindings.get(i + 1);
+            }
+        }
+        // Unbound default namespace is the empty namespace
+        return prefix.isEmpty() ? "" : null;
+    }
+
+    private String findPrefix(final String namespace) {
+        for (int i = bindings.size() - 2; i >= 0; i -= 2) {
+            final String prefix = bindings.get(i);
+            if (!prefix.isEmpty() && bindings.get(i + 1).equals(namespace) && namespace.equals(lookup(prefix))) {
+                return prefix;
+            }
+        }
+        return null;
+    }
+
+    private void writeAttribute(final String name, final String value) {
+        out.writeByte(' ');
+        writeUtf8(name);
+        writeAscii("=\"");
+        writeEscaped(value, true);
+        out.writeByte('"');
+    }
+
+    private void writeAscii(final String string) {
+        for (int i = 0; i < string.length(); i++) {
+            out.writeByte(string.charAt(i));
+        }
+    }
+
+    private void writeUtf8(final String string) {
+        for (int i = 0; i < string.length(); i++) {
+            i = writeChar(string, i);
+        }
+    }
+
+    private void writeEscaped(final String string, final boolean attribute) {
+        for (int i = 0; i < string.length(); i++) {
+            final char c = string.charAt(i);
+            switch (c) {
+            case '&':
+                writeAscii("&amp;");
+                break;
+            case '<':
+                writeAscii("&lt;");
+                break;
+            case '>':
+                writeAscii("&gt;");
+                break;
+            case '\r':
+                writeAscii("&#13;");
+                break;
+            case '"':
+                if (attribute) {
+                    writeAscii("&quot;");
+                } else {
+                    out.writeByte(c);
+                }
+                break;
+            case '\n':
+                if (attribute) {
+                    writeAscii("&#10;");
+                } else {
+                    out.writeByte(c);
+                }
+                break;
+            case '\t':
+                if (attribute) {
+                    writeAscii("&#9;");
+                } else {
+                    out.writeByte(c);
+                }
+                break;
+            default:
+                i = writeChar(string, i);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Write character at index as UTF-8, consuming the low surrogate as well if a surrogate pair is present.
+     *
+     * @return index of the last consumed character
+     */
+    private int writeChar(final String string, final int index) {
+        final char c = string.charAt(index);
+        if (c < 0x80) {
+            out.writeByte(c);
+        } else if (c < 0x800) {
+            out.writeByte(0xC0 | (c >> 6));
+            out.writeByte(0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && index + 1 < string.length()
+                && Character.isLowSurrogate(string.charAt(index + 1))) {
+            final int codePoint = Character.toCodePoint(c, string.charAt(index + 1));
+            out.writeByte(0xF0 | (codePoint >> 18));
+            out.writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+            out.writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+            out.writeByte(0x80 | (codePoint & 0x3F));
+            return index + 1;
+        } else if (Character.isSurrogate(c)) {
+            // Unpaired surrogate cannot be encoded
+            out.writeByte('?');
+        } else {
+            out.writeByte(0xE0 | (c >> 12));
+            out.writeByte(0x80 | ((c >> 6) & 0x3F));
+            out.writeByte(0x80 | (c & 0x3F));
+        }
+        return index;
+    }
+
+    private static boolean isNamespaceDeclaration(final Attr attr) {
+        return XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attr.getNamespaceURI());
+    }
+
+    private static String qualifiedName(final Node element) {
+        final String localName = element.getLocalName();
+        if (localName == null) {
+            return element.getNodeName();
+        }
+        final String prefix = element.getPrefix();
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    private static String nullToEmpty(final String string) {
+        return string == null ? "" : string;
+    }
+}
@@ -14,6 +14,11 @@ import io.netty.handler.codec.MessageToByteEncoder;
 import org.opendaylight.netconf.util.messages.NetconfMessageConstants;
 
 public class EOMFramingMechanismEncoder extends MessageToByteEncoder<ByteBuf> {
+    public EOMFramingMechanismEncoder() {
+        // Framed messages go to ssh mostly, which writes heap buffers without copying them
+        super(false);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
         out.writeBytes(msg);
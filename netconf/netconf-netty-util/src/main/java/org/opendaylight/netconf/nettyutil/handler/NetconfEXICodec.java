@@ -12,6 +12,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchemaMode;
 import org.openexi.proc.HeaderOptionsOutputType;
 import org.openexi.proc.common.EXIOptions;
 import org.openexi.proc.common.EXIOptionsException;
@@ -42,13 +43,13 @@ public final class NetconfEXICodec {
     };
 
     /**
-     * Since we have a limited number of options we can have, instantiating a weak cache
+     * Since we have a limited number of options and schemas we can have, instantiating a weak cache
      * will allow us to reuse instances where possible.
      */
-    private static final LoadingCache<Short, GrammarCache> GRAMMAR_CACHES = CacheBuilder.newBuilder().weakValues().build(new CacheLoader<Short, GrammarCache>() {
+    private static final LoadingCache<GrammarKey, GrammarCache> GRAMMAR_CACHES = CacheBuilder.newBuilder().weakValues().build(new CacheLoader<GrammarKey, GrammarCache>() {
         @Override
-        public GrammarCache load(final Short key) {
-            return new GrammarCache(key);
+        public GrammarCache load(final GrammarKey key) {
+            return new GrammarCache(key.schemaMode.getSchema(), key.grammarOptions);
         }
     });
 
@@ -60,11 +61,15 @@ public final class NetconfEXICodec {
     private final EXIOptions exiOptions;
 
     public NetconfEXICodec(final EXIOptions exiOptions) {
+        this(exiOptions, EXISchemaMode.NONE);
+    }
+
+    public NetconfEXICodec(final EXIOptions exiOptions, final EXISchemaMode schemaMode) {
         this.exiOptions = Preconditions.checkNotNull(exiOptions);
-        this.exiGrammarCache = createGrammarCache(exiOptions);
+        this.exiGrammarCache = createGrammarCache(exiOptions, Preconditions.checkNotNull(schemaMode));
     }
 
-    private static GrammarCache createGrammarCache(final EXIOptions exiOptions) {
+    private static GrammarCache createGrammarCache(final EXIOptions exiOptions, final EXISchemaMode schemaMode) {
         short go = GrammarOptions.DEFAULT_OPTIONS;
         if (exiOptions.getPreserveComments()) {
             go = GrammarOptions.addCM(go);
@@ -79,7 +84,7 @@ public final class NetconfEXICodec {
             go = GrammarOptions.addPI(go);
         }
 
-        return GRAMMAR_CACHES.getUnchecked(go);
+        return GRAMMAR_CACHES.getUnchecked(new GrammarKey(schemaMode, go));
     }
 
     EXIReader getReader() throws EXIOptionsException {
@@ -100,4 +105,31 @@ public final class NetconfEXICodec {
         transmogrifier.setResolveExternalGeneralEntities(false);
         return transmogrifier;
     }
+
+    private static final class GrammarKey {
+        private final EXISchemaMode schemaMode;
+        private final short grammarOptions;
+
+        GrammarKey(final EXISchemaMode schemaMode, final short grammarOptions) {
+            this.schemaMode = schemaMode;
+            this.grammarOptions = grammarOptions;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * schemaMode.hashCode() + grammarOptions;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof GrammarKey)) {
+                return false;
+            }
+            final GrammarKey other = (GrammarKey) obj;
+            return schemaMode == other.schemaMode && grammarOptions == other.grammarOptions;
+        }
+    }
 }
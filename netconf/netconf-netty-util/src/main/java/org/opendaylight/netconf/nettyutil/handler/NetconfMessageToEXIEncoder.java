@@ -19,11 +19,13 @@ import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXResult;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
 import org.openexi.proc.common.EXIOptionsException;
 import org.openexi.sax.Transmogrifier;
 import org.openexi.sax.TransmogrifierException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
 import org.xml.sax.ContentHandler;
 
 public final class NetconfMessageToEXIEncoder extends MessageToByteEncoder<NetconfMessage> {
@@ -47,11 +49,17 @@ public final class NetconfMessageToEXIEncoder extends MessageToByteEncoder<Netco
     protected void encode(final ChannelHandlerContext ctx, final NetconfMessage msg, final ByteBuf out) throws EXIOptionsException, IOException, TransformerException, TransmogrifierException {
         LOG.trace("Sent to encode : {}", msg);
 
+        Document document = msg.getDocument();
+        try {
+            StreamedElementContent.materialize(document);
+        } catch (final IllegalStateException e) {
+            document = StreamedContentFailures.toErrorReply(document, e);
+        }
         try (final OutputStream os = new ByteBufOutputStream(out)) {
             transmogrifier.setOutputStream(os);
             final ContentHandler handler = transmogrifier.getSAXTransmogrifier();
             final Transformer transformer = ThreadLocalTransformers.getDefaultTransformer();
-            transformer.transform(new DOMSource(msg.getDocument()), new SAXResult(handler));
+            transformer.transform(new DOMSource(document), new SAXResult(handler));
         } finally {
             // Make sure we do not retain any reference to state by removing
             // the output stream reference and resetting internal state.
@@ -20,21 +20,40 @@ import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Comment;
+import org.w3c.dom.Document;
 
+/**
+ * Serializes netconf messages as XML. Messages are written in compact form directly into the outbound buffer,
+ * indented output is available as a debugging aid, either per encoder or globally using
+ * {@value #PRETTY_PRINT_PROPERTY} system property.
+ * <p>
+ * An rpc-reply, whose streamed content cannot be serialized, is replaced with an rpc-error reply carrying the same
+ * message-id. Failures of other messages fail the write.
+ */
 public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMessage> {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfMessageToXMLEncoder.class);
 
+    public static final String PRETTY_PRINT_PROPERTY = "org.opendaylight.netconf.encoder.pretty";
+    private static final boolean PRETTY_PRINT = Boolean.getBoolean(PRETTY_PRINT_PROPERTY);
+
     private final Optional<String> clientId;
+    private final boolean prettyPrint;
 
     public NetconfMessageToXMLEncoder() {
         this(Optional.<String>absent());
     }
 
     public NetconfMessageToXMLEncoder(final Optional<String> clientId) {
+        this(clientId, PRETTY_PRINT);
+    }
+
+    public NetconfMessageToXMLEncoder(final Optional<String> clientId, final boolean prettyPrint) {
         this.clientId = clientId;
+        this.prettyPrint = prettyPrint;
     }
 
     @Override
@@ -47,13 +66,32 @@ public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMess
             msg.getDocument().appendChild(comment);
         }
 
+        if (!prettyPrint) {
+            final int start = out.writerIndex();
+            try {
+                CompactXmlWriter.write(msg.getDocument(), out);
+            } catch (final IllegalStateException e) {
+                // Streamed content failed half way through the reply, discard it
+                out.writerIndex(start);
+                CompactXmlWriter.write(StreamedContentFailures.toErrorReply(msg.getDocument(), e), out);
+            }
+            return;
+        }
+
+        // Transformer works with the DOM tree only
+        Document document = msg.getDocument();
+        try {
+            StreamedElementContent.materialize(document);
+        } catch (final IllegalStateException e) {
+            document = StreamedContentFailures.toErrorReply(document, e);
+        }
         try (OutputStream os = new ByteBufOutputStream(out)) {
             // Wrap OutputStreamWriter with BufferedWriter as suggested in javadoc for OutputStreamWriter
 
             // Using custom BufferedWriter that does not provide newLine method as performance improvement
             // see javadoc for BufferedWriter
             StreamResult result = new StreamResult(new BufferedWriter(new OutputStreamWriter(os)));
-            DOMSource source = new DOMSource(msg.getDocument());
+            DOMSource source = new DOMSource(document);
             ThreadLocalTransformers.getPrettyTransformer().transform(source, result);
         }
     }
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.util.List;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.messages.RawNetconfMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
@@ -24,6 +25,20 @@ import org.xml.sax.SAXException;
 public final class NetconfXMLToMessageDecoder extends ByteToMessageDecoder {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfXMLToMessageDecoder.class);
 
+    private final boolean rawMessages;
+
+    public NetconfXMLToMessageDecoder() {
+        this(false);
+    }
+
+    /**
+     * @param rawMessages if true, messages are passed on as {@link RawNetconfMessage}s, which build
+     *                    their DOM document only on demand
+     */
+    public NetconfXMLToMessageDecoder(final boolean rawMessages) {
+        this.rawMessages = rawMessages;
+    }
+
     @Override
     public void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out) throws IOException, SAXException {
         if (in.isReadable()) {
@@ -67,7 +82,13 @@ public final class NetconfXMLToMessageDecoder extends ByteToMessageDecoder {
             }
         }
         if (in.isReadable()) {
-            out.add(new NetconfMessage(XmlUtil.readXmlToDocument(new ByteBufInputStream(in))));
+            if (rawMessages) {
+                final byte[] content = new byte[in.readableBytes()];
+                in.readBytes(content);
+                out.add(new RawNetconfMessage(content));
+            } else {
+                out.add(new NetconfMessage(XmlUtil.readXmlToDocument(new ByteBufInputStream(in))));
+            }
         } else {
             LOG.debug("No more content in incoming buffer.");
         }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.nettyutil.handler;
+
+import java.util.Collections;
+import org.opendaylight.controller.config.util.xml.DocumentedException;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlMappingConstants;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+
+/**
+ * Replies which carry {@link StreamedElementContent} are serialized only in the encoder, so a failure to write the
+ * content, e.g. data not matching the schema, surfaces there rather than in the operation. Encoders use this class to
+ * send an rpc-error with the message-id of the failed reply instead, like the server would do for a failure in the
+ * operation. Other messages are not replaced and the failure is propagated to the write promise.
+ */
+final class StreamedContentFailures {
+    private static final Logger LOG = LoggerFactory.getLogger(StreamedContentFailures.class);
+
+    private StreamedContentFailures() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param message message which failed to serialize
+     * @param cause failure
+     * @return rpc-reply with rpc-error replacing the message
+     * @throws RuntimeException cause, if the message is not an rpc-reply
+     */
+    static Document toErrorReply(final Document message, final RuntimeException cause) {
+        final Element reply = message.getDocumentElement();
+        if (!XmlMappingConstants.RPC_REPLY_KEY.equals(XmlElement.fromDomElement(reply).getName())) {
+            throw cause;
+        }
+
+        LOG.warn("Unable to serialize reply {}, replacing it with rpc-error",
+                reply.getAttribute(XmlNetconfConstants.MESSAGE_ID), cause);
+        final Document error = new DocumentedException("Unable to serialize reply: " + cause.getMessage(), cause,
+                DocumentedException.ErrorType.application, DocumentedException.ErrorTag.operation_failed,
+                DocumentedException.ErrorSeverity.error,
+                Collections.singletonMap("cause", String.valueOf(cause.getMessage()))).toXMLDocument();
+
+        final Element errorReply = error.getDocumentElement();
+        final NamedNodeMap attributes = reply.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final Attr attr = (Attr) attributes.item(i);
+            if (!attr.getNodeName().equals(XmlUtil.XMLNS_ATTRIBUTE_KEY)) {
+                errorReply.setAttributeNode((Attr) error.importNode(attr, true));
+            }
+        }
+        return error;
+    }
+}
@@ -7,6 +7,7 @@
  */
 package org.opendaylight.netconf.nettyutil.handler.exi;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.openexi.proc.common.AlignmentType;
@@ -31,14 +32,24 @@ public final class EXIParameters {
     private static final String EXI_FIDELITY_PIS = "pis";
     private static final String EXI_FIDELITY_PREFIXES = "prefixes";
 
+    static final String EXI_PARAMETER_SCHEMAS = "schemas";
+
     private final EXIOptions options;
+    private final EXISchemaMode schemaMode;
     private static final Logger LOG = LoggerFactory.getLogger(EXIParameters.class);
 
-    private EXIParameters(final EXIOptions options) {
+    public EXIParameters(final EXIOptions options, final EXISchemaMode schemaMode) {
         this.options = Preconditions.checkNotNull(options);
+        this.schemaMode = Preconditions.checkNotNull(schemaMode);
     }
 
 
+    /**
+     * @param root start-exi element
+     * @return parameters of the start-exi element
+     * @throws EXIOptionsException if the options are not valid
+     * @throws IllegalArgumentException if the schemas are not supported
+     */
     public static EXIParameters fromXmlElement(final XmlElement root) throws EXIOptionsException {
         final EXIOptions options =  new EXIOptions();
         final NodeList alignmentElements = root.getElementsByTagName(EXI_PARAMETER_ALIGNMENT);
@@ -85,10 +96,24 @@ public final class EXIParameters {
                 options.setPreserveNS(true);
             }
         }
-        return new EXIParameters(options);
+
+        EXISchemaMode schemaMode = EXISchemaMode.NONE;
+        final NodeList schemaElements = root.getElementsByTagName(EXI_PARAMETER_SCHEMAS);
+        if (schemaElements.getLength() > 0) {
+            final String schemasTextContent = schemaElements.item(0).getTextContent().trim();
+            final Optional<EXISchemaMode> mode = EXISchemaMode.forOption(schemasTextContent);
+            // Falling back to other grammars than the peer asked for would make its messages undecodable
+            Preconditions.checkArgument(mode.isPresent(), "Unsupported schemas %s", schemasTextContent);
+            schemaMode = mode.get();
+        }
+        return new EXIParameters(options, schemaMode);
     }
 
     public EXIOptions getOptions() {
         return options;
     }
+
+    public EXISchemaMode getSchemaMode() {
+        return schemaMode;
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler.exi;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import java.io.IOException;
+import java.io.InputStream;
+import org.opendaylight.netconf.util.xml.XmlNetconfValidator;
+import org.openexi.schema.EXISchema;
+import org.openexi.schema.EmptySchema;
+import org.openexi.scomp.EXISchemaFactory;
+import org.openexi.scomp.EXISchemaFactoryException;
+import org.openexi.scomp.EntityResolverEx;
+import org.xml.sax.InputSource;
+
+/**
+ * Schemas the EXI grammars are built from, negotiated by the schemas element of start-exi. Schema-informed grammars
+ * know the element and attribute names and the value types upfront, so they do not have to be learned
+ * and transmitted as string literals in every message.
+ * <p>
+ * Grammars are not derived from the YANG modules of a device, there is no YANG to XML Schema mapping available here.
+ * Each mode therefore has a single fixed schema and the mode itself identifies the compiled schema in grammar caches.
+ */
+public enum EXISchemaMode {
+    /**
+     * Schema-less grammars, the default.
+     */
+    NONE("none") {
+        @Override
+        EXISchema loadSchema() {
+            return null;
+        }
+    },
+    /**
+     * Grammars informed by XML Schema built-in types only.
+     */
+    BUILTIN("builtin") {
+        @Override
+        EXISchema loadSchema() {
+            return EmptySchema.getEXISchema();
+        }
+    },
+    /**
+     * Grammars informed by the NETCONF base 1.0 schema of RFC 4741, covering the rpc, rpc-reply and rpc-error
+     * envelopes. Content of the envelopes is encoded by the built-in grammars.
+     * <p>
+     * This is a private extension, understood only by OpenDaylight peers. The EXI capability draft defines
+     * {@code base:1.1}, informed by the schema of RFC 6241, which is not shipped here and is therefore not supported.
+     * Peers asking for it are refused.
+     */
+    BASE_1_0("base:1.0") {
+        @Override
+        EXISchema loadSchema() {
+            final EXISchemaFactory factory = new EXISchemaFactory();
+            factory.setEntityResolver(LOCAL_RESOLVER);
+            try (final InputStream xsd = openResource(NETCONF_BASE_XSD)) {
+                return factory.compile(new InputSource(xsd));
+            } catch (IOException | EXISchemaFactoryException e) {
+                throw new IllegalStateException("Failed to compile " + NETCONF_BASE_XSD, e);
+            }
+        }
+    };
+
+    private static final String NETCONF_BASE_XSD = "/rfc4741.xsd";
+    private static final String XML_XSD = "/xml.xsd";
+    private static final String XML_NAMESPACE = "http://www.w3.org/XML/1998/namespace";
+
+    /**
+     * Resolves the only import of the NETCONF base schema to the local copy, nothing is fetched from network.
+     */
+    private static final EntityResolverEx LOCAL_RESOLVER = new EntityResolverEx() {
+        @Override
+        public InputSource resolveEntity(final String publicId, final String systemId, final String namespaceURI) {
+            if (XML_NAMESPACE.equals(namespaceURI)) {
+                final InputSource source = new InputSource(openResource(XML_XSD));
+                source.setSystemId(systemId);
+                return source;
+            }
+            return new InputSource();
+        }
+
+        @Override
+        public InputSource resolveEntity(final String publicId, final String systemId) {
+            return resolveEntity(publicId, systemId, null);
+        }
+    };
+
+    private final String option;
+    // Compiling the schema is expensive, do it once and only if the mode is actually negotiated
+    private final Supplier<EXISchema> schema = Suppliers.memoize(new Supplier<EXISchema>() {
+        @Override
+        public EXISchema get() {
+            return loadSchema();
+        }
+    });
+
+    EXISchemaMode(final String option) {
+        this.option = option;
+    }
+
+    /**
+     * @return value of the schemas element in start-exi
+     */
+    public String getOption() {
+        return option;
+    }
+
+    /**
+     * @return schema the grammars are built from, null for schema-less grammars
+     */
+    public EXISchema getSchema() {
+        return schema.get();
+    }
+
+    abstract EXISchema loadSchema();
+
+    /**
+     * @param option value of the schemas element in start-exi
+     * @return matching mode, absent if the schemas are not supported
+     */
+    public static Optional<EXISchemaMode> forOption(final String option) {
+        for (final EXISchemaMode mode : values()) {
+            if (mode.option.equals(option)) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.absent();
+    }
+
+    private static InputStream openResource(final String name) {
+        // Schemas are shipped with netconf-util, load them through its class loader
+        final InputStream stream = XmlNetconfValidator.class.getResourceAsStream(name);
+        Preconditions.checkState(stream != null, "Cannot find %s", name);
+        return stream;
+    }
+}
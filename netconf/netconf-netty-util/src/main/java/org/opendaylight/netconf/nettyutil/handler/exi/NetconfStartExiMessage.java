@@ -32,12 +32,18 @@ public final class NetconfStartExiMessage extends NetconfMessage {
     public static final String LEXICAL_VALUES_KEY = "lexical-values";
     public static final String PIS_KEY = "pis";
     public static final String PREFIXES_KEY = "prefixes";
+    public static final String SCHEMAS_KEY = EXIParameters.EXI_PARAMETER_SCHEMAS;
     private static final Logger LOG = LoggerFactory.getLogger(NetconfStartExiMessage.class);
     private NetconfStartExiMessage(final Document doc) {
         super(doc);
     }
 
     public static NetconfStartExiMessage create(final EXIOptions exiOptions, final String messageId) {
+        return create(new EXIParameters(exiOptions, EXISchemaMode.NONE), messageId);
+    }
+
+    public static NetconfStartExiMessage create(final EXIParameters exiParameters, final String messageId) {
+        final EXIOptions exiOptions = exiParameters.getOptions();
         final Document doc = XmlUtil.newDocument();
         final Element rpcElement = doc.createElementNS(XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0,
                 XmlNetconfConstants.RPC_KEY);
@@ -50,6 +56,7 @@ public final class NetconfStartExiMessage extends NetconfMessage {
 
         addAlignment(exiOptions, doc, startExiElement);
         addFidelity(exiOptions, doc, startExiElement);
+        addSchemas(exiParameters.getSchemaMode(), doc, startExiElement);
 
         rpcElement.appendChild(startExiElement);
 
@@ -75,6 +82,16 @@ public final class NetconfStartExiMessage extends NetconfMessage {
         }
     }
 
+    private static void addSchemas(final EXISchemaMode schemaMode, final Document doc, final Element startExiElement) {
+        // Schema-less mode is the default, leave it out for peers which do not know the schemas parameter
+        if (schemaMode != EXISchemaMode.NONE) {
+            final Element schemasElement = doc.createElementNS(
+                    XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_EXI_1_0, SCHEMAS_KEY);
+            schemasElement.setTextContent(schemaMode.getOption());
+            startExiElement.appendChild(schemasElement);
+        }
+    }
+
     private static void addAlignment(final EXIOptions exiOptions, final Document doc, final Element startExiElement) {
         final Element alignmentElement = doc.createElementNS(XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_EXI_1_0,
                 ALIGNMENT_KEY);
@@ -8,14 +8,19 @@
 
 package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
-import com.google.common.base.Preconditions;
+import com.google.common.annotations.VisibleForTesting;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.ChannelPromise;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
 import org.apache.sshd.common.future.SshFutureListener;
 import org.apache.sshd.common.io.IoOutputStream;
 import org.apache.sshd.common.io.IoWriteFuture;
@@ -27,23 +32,48 @@ import org.slf4j.LoggerFactory;
 /**
  * Async Ssh writer. Takes messages(byte arrays) and sends them encrypted to remote server.
  * Also handles pending writes by caching requests until pending state is over.
+ * <p>
+ * Only one write is outstanding on the ssh channel at a time. Messages written in the meantime are queued and once
+ * the outstanding write finishes, queued messages are coalesced into a single write. Heap buffers of single messages
+ * are handed over to ssh without copying, which is why the framing encoders produce heap buffers.
+ * <p>
+ * The queue is bounded by the amount of queued bytes. Above high watermark the netty channel is marked as not
+ * writable, it becomes writable again once the queue drops below low watermark. Writes over the hard limit fail.
  */
 public final class AsyncSshHandlerWriter implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(AsyncSshHandlerWriter.class);
 
-    // public static final int MAX_PENDING_WRITES = 1000;
-    // TODO implement Limiting mechanism for pending writes
-    // But there is a possible issue with limiting:
-    // 1. What to do when queue is full ? Immediate Fail for every request ?
-    // 2. At this level we might be dealing with Chunks of messages(not whole messages) and unexpected behavior might occur
-    // when we send/queue 1 chunk and fail the other chunks
+    public static final String LOW_WATERMARK_PROPERTY = "org.opendaylight.netconf.ssh.write.low.watermark";
+    public static final String HIGH_WATERMARK_PROPERTY = "org.opendaylight.netconf.ssh.write.high.watermark";
+    public static final String MAX_PENDING_BYTES_PROPERTY = "org.opendaylight.netconf.ssh.write.max.pending";
+
+    private static final int LOW_WATERMARK = Integer.getInteger(LOW_WATERMARK_PROPERTY, 256 * 1024);
+    private static final int HIGH_WATERMARK = Integer.getInteger(HIGH_WATERMARK_PROPERTY, 1024 * 1024);
+    @VisibleForTesting
+    static final long MAX_PENDING_BYTES = Long.getLong(MAX_PENDING_BYTES_PROPERTY, 64L * 1024 * 1024);
+
+    // Limit of a coalesced write, ssh splits writes into packets according to remote window anyway
+    private static final int MAX_COALESCED_BYTES = 256 * 1024;
+
+    // Delay of a retry after ssh reported a write still pending
+    private static final long WRITE_RETRY_DELAY_MILLIS = 10;
+
+    // Writability bit of the channel used by this writer, bit 0 is used by netty itself
+    private static final int WRITABILITY_INDEX = 1;
 
     private volatile IoOutputStream asyncIn;
 
     // Order has to be preserved for queued writes
-    private final Deque<PendingWriteRequest> pending = new LinkedList<>();
+    @GuardedBy("asyncIn")
+    private final Deque<PendingWriteRequest> pending = new ArrayDeque<>();
+    @GuardedBy("asyncIn")
+    private long pendingBytes;
+    @GuardedBy("asyncIn")
+    private boolean writeInProgress;
+    @GuardedBy("asyncIn")
+    private boolean writable = true;
 
     public AsyncSshHandlerWriter(final IoOutputStream asyncIn) {
         this.asyncIn = asyncIn;
@@ -51,7 +81,8 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
 
     public void write(final ChannelHandlerContext ctx,
             final Object msg, final ChannelPromise promise) {
-        if (asyncIn == null) {
+        final IoOutputStream out = asyncIn;
+        if (out == null) {
             promise.setFailure(new IllegalStateException("Channel closed"));
             return;
         }
@@ -59,91 +90,145 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         // writes and pending writes would lock the underlyinch channel session
         // window resize write would try to write the message on an already locked channelSession
         // while the pending write was in progress from the write callback
-        synchronized (asyncIn) {
+        synchronized (out) {
             // TODO check for isClosed, isClosing might be performed by mina SSH internally and is not required here
             // If we are closed/closing, set immediate fail
-            if (asyncIn.isClosed() || asyncIn.isClosing()) {
+            if (out.isClosed() || out.isClosing()) {
                 promise.setFailure(new IllegalStateException("Channel closed"));
-            } else {
-                final ByteBuf byteBufMsg = (ByteBuf) msg;
-                if (pending.isEmpty() == false) {
-                    queueRequest(ctx, byteBufMsg, promise);
-                    return;
-                }
+                return;
+            }
+
+            final ByteBuf byteBufMsg = (ByteBuf) msg;
+            if (pendingBytes + byteBufMsg.readableBytes() > MAX_PENDING_BYTES) {
+                LOG.warn("Too many pending writes ({} bytes) on channel: {}, remote window is not getting read or is too small",
+                        pendingBytes, ctx.channel());
+                byteBufMsg.release();
+                promise.setFailure(new IllegalStateException("Limit of pending writes reached on channel " + ctx.channel()));
+                return;
+            }
 
-                writeWithPendingDetection(ctx, promise, byteBufMsg, false);
+            queueRequest(ctx, byteBufMsg, promise);
+            if (!writeInProgress) {
+                writeBatch(out);
             }
         }
     }
 
-    //sending message with pending
-    //if resending message not succesfull, then attribute wasPending is true
-    private void writeWithPendingDetection(final ChannelHandlerContext ctx, final ChannelPromise promise, final ByteBuf byteBufMsg, final boolean wasPending) {
+    /**
+     * Write queued requests as a single ssh write. Has to be invoked with no write in progress.
+     */
+    @GuardedBy("asyncIn")
+    private void writeBatch(final IoOutputStream out) {
+        final List<PendingWriteRequest> batch = pollBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        final ChannelHandlerContext ctx = batch.get(0).ctx;
+        final boolean copied = !isWrappable(batch);
+        final Buffer buffer = toBuffer(batch);
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Writing {} request(s) on channel: {}, message: {}", batch.size(), ctx.channel(),
+                    new String(buffer.array(), buffer.rpos(), buffer.available(), StandardCharsets.UTF_8));
+        }
+
+        writeInProgress = true;
+        final IoWriteFuture writeFuture;
         try {
+            writeFuture = out.write(buffer);
+        } catch (final WritePendingException e) {
+            // Should not happen, we are the only writer. Put the batch back and retry later, no write of ours
+            // is going to complete and trigger the next one
+            LOG.debug("Write pending on channel: {}, requeueing {} request(s)", ctx.channel(), batch.size(), e);
+            writeInProgress = false;
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                final PendingWriteRequest request = batch.get(i);
+                pending.addFirst(request);
+                pendingBytes += request.size;
+            }
+            updateWritability(ctx);
+            scheduleRetry(ctx, out);
+            return;
+        }
 
-            if (LOG.isTraceEnabled()) {
-                LOG.trace("Writing request on channel: {}, message: {}", ctx.channel(), byteBufToString(byteBufMsg));
+        if (copied) {
+            // Content was copied into the ssh buffer, messages are not needed anymore
+            for (final PendingWriteRequest request : batch) {
+                request.release();
             }
-            asyncIn.write(toBuffer(byteBufMsg)).addListener(new SshFutureListener<IoWriteFuture>() {
-
-                @Override
-                public void operationComplete(final IoWriteFuture future) {
-                    // synchronized block due to deadlock that happens on ssh window resize
-                    // writes and pending writes would lock the underlyinch channel session
-                    // window resize write would try to write the message on an already locked channelSession,
-                    // while the pending write was in progress from the write callback
-                    synchronized (asyncIn) {
-                        if (LOG.isTraceEnabled()) {
-                            LOG.trace("Ssh write request finished on channel: {} with result: {}: and ex:{}, message: {}",
-                                    ctx.channel(), future.isWritten(), future.getException(), byteBufToString(byteBufMsg));
-                        }
+        }
 
-                        // Notify success or failure
-                        if (future.isWritten()) {
-                            promise.setSuccess();
-                        } else {
-                            LOG.warn("Ssh write request failed on channel: {} for message: {}", ctx.channel(), byteBufToString(byteBufMsg), future.getException());
-                            promise.setFailure(future.getException());
-                        }
+        writeFuture.addListener(new SshFutureListener<IoWriteFuture>() {
 
-                        // Not needed anymore, release
-                        byteBufMsg.release();
+            @Override
+            public void operationComplete(final IoWriteFuture future) {
+                // synchronized block due to deadlock that happens on ssh window resize
+                // writes and pending writes would lock the underlyinch channel session
+                // window resize write would try to write the message on an already locked channelSession,
+                // while the pending write was in progress from the write callback
+                synchronized (out) {
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("Ssh write request finished on channel: {} with result: {}: and ex:{}",
+                                ctx.channel(), future.isWritten(), future.getException());
+                    }
+                    writeInProgress = false;
 
-                        //rescheduling message from queue after successfully sent
-                        if (wasPending) {
-                            byteBufMsg.resetReaderIndex();
-                            pending.remove();
+                    // Notify success or failure
+                    for (final PendingWriteRequest request : batch) {
+                        if (future.isWritten()) {
+                            request.promise.setSuccess();
+                        } else {
+                            // Message content may be released already, log just its size
+                            LOG.warn("Ssh write request failed on channel: {} for message of {} bytes", ctx.channel(),
+                                    request.size, future.getException());
+                            request.promise.setFailure(future.getException());
                         }
+                        // Not needed anymore, release unless released after copying
+                        request.release();
                     }
 
-                    // Check pending queue and schedule next
-                    // At this time we are guaranteed that we are not in pending state anymore so the next request should succeed
-                    writePendingIfAny();
+                    // Check pending queue and schedule next, queued requests are written as one batch
+                    if (!out.isClosed() && !out.isClosing()) {
+                        writeBatch(out);
+                    }
                 }
-            });
-
-        } catch (final WritePendingException e) {
-
-            if(wasPending == false){
-                queueRequest(ctx, byteBufMsg, promise);
             }
-        }
+        });
     }
 
-    private void writePendingIfAny() {
-        synchronized (asyncIn) {
-            if (pending.peek() == null) {
-                return;
+    private void scheduleRetry(final ChannelHandlerContext ctx, final IoOutputStream out) {
+        ctx.channel().eventLoop().schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (out) {
+                    // A write issued in the meantime might have taken the queued requests already
+                    if (!writeInProgress && !out.isClosed() && !out.isClosing()) {
+                        writeBatch(out);
+                    }
+                }
             }
+        }, WRITE_RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
 
-            final PendingWriteRequest pendingWrite = pending.peek();
-            final ByteBuf msg = pendingWrite.msg;
-            if (LOG.isTraceEnabled()) {
-                LOG.trace("Writing pending request on channel: {}, message: {}", pendingWrite.ctx.channel(), byteBufToString(msg));
+    @GuardedBy("asyncIn")
+    private List<PendingWriteRequest> pollBatch() {
+        final List<PendingWriteRequest> batch = new ArrayList<>();
+        int batchBytes = 0;
+        while (!pending.isEmpty()) {
+            final PendingWriteRequest next = pending.peek();
+            // Always take at least one request, even if it is larger than the limit
+            if (!batch.isEmpty() && batchBytes + next.size > MAX_COALESCED_BYTES) {
+                break;
             }
-
-            writeWithPendingDetection(pendingWrite.ctx, pendingWrite.promise, msg, true);
+            pending.poll();
+            pendingBytes -= next.size;
+            batchBytes += next.size;
+            batch.add(next);
         }
+        if (!batch.isEmpty()) {
+            updateWritability(batch.get(0).ctx);
+        }
+        return batch;
     }
 
     public static String byteBufToString(final ByteBuf msg) {
@@ -152,30 +237,84 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         return s;
     }
 
+    @GuardedBy("asyncIn")
     private void queueRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final ChannelPromise promise) {
-//        try {
-        LOG.debug("Write pending on channel: {}, queueing, current queue size: {}", ctx.channel(), pending.size());
-        if (LOG.isTraceEnabled()) {
-            LOG.trace("Queueing request due to pending: {}", byteBufToString(msg));
-        }
-        new PendingWriteRequest(ctx, msg, promise).pend(pending);
-//        } catch (final Exception ex) {
-//            LOG.warn("Unable to queue write request on channel: {}. Setting fail for the request: {}", ctx.channel(), ex, byteBufToString(msg));
-//            msg.release();
-//            promise.setFailure(ex);
-//        }
+        if (writeInProgress) {
+            LOG.debug("Write pending on channel: {}, queueing, current queue size: {}", ctx.channel(), pending.size());
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Queueing request due to pending: {}", byteBufToString(msg));
+            }
+        }
+        final PendingWriteRequest request = new PendingWriteRequest(ctx, msg, promise);
+        pending.offer(request);
+        pendingBytes += request.size;
+        updateWritability(ctx);
+    }
+
+    @GuardedBy("asyncIn")
+    private void updateWritability(final ChannelHandlerContext ctx) {
+        if (writable && pendingBytes > HIGH_WATERMARK) {
+            writable = false;
+            LOG.debug("Pending writes on channel: {} over high watermark ({} bytes)", ctx.channel(), pendingBytes);
+            setUserDefinedWritability(ctx.channel(), false);
+        } else if (!writable && pendingBytes < LOW_WATERMARK) {
+            writable = true;
+            LOG.debug("Pending writes on channel: {} under low watermark ({} bytes)", ctx.channel(), pendingBytes);
+            setUserDefinedWritability(ctx.channel(), true);
+        }
+    }
+
+    private static void setUserDefinedWritability(final Channel channel, final boolean writable) {
+        final Channel.Unsafe unsafe = channel.unsafe();
+        final ChannelOutboundBuffer outboundBuffer = unsafe == null ? null : unsafe.outboundBuffer();
+        // Outbound buffer is not available once the channel is closed
+        if (outboundBuffer != null) {
+            outboundBuffer.setUserDefinedWritability(WRITABILITY_INDEX, writable);
+        }
     }
 
     @Override
     public void close() {
+        final IoOutputStream out = asyncIn;
         asyncIn = null;
+        if (out == null) {
+            return;
+        }
+
+        synchronized (out) {
+            PendingWriteRequest request;
+            while ((request = pending.poll()) != null) {
+                request.promise.setFailure(new IllegalStateException("Channel closed"));
+                request.release();
+            }
+            pendingBytes = 0;
+        }
     }
 
-    private static Buffer toBuffer(final ByteBuf msg) {
-        // TODO Buffer vs ByteBuf translate, Can we handle that better ?
-        msg.resetReaderIndex();
-        final byte[] temp = new byte[msg.readableBytes()];
-        msg.readBytes(temp, 0, msg.readableBytes());
+    /**
+     * Single heap buffer can be handed over to ssh without copying.
+     */
+    private static boolean isWrappable(final List<PendingWriteRequest> batch) {
+        return batch.size() == 1 && batch.get(0).msg.hasArray();
+    }
+
+    private static Buffer toBuffer(final List<PendingWriteRequest> batch) {
+        if (isWrappable(batch)) {
+            // Heap buffer is handed over as it is, it is released once the write finishes
+            final ByteBuf msg = batch.get(0).msg;
+            return new Buffer(msg.array(), msg.arrayOffset() + msg.readerIndex(), msg.readableBytes());
+        }
+
+        int size = 0;
+        for (final PendingWriteRequest request : batch) {
+            size += request.size;
+        }
+        final byte[] temp = new byte[size];
+        int offset = 0;
+        for (final PendingWriteRequest request : batch) {
+            request.msg.getBytes(request.msg.readerIndex(), temp, offset, request.size);
+            offset += request.size;
+        }
         return new Buffer(temp);
     }
 
@@ -183,21 +322,21 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         private final ChannelHandlerContext ctx;
         private final ByteBuf msg;
         private final ChannelPromise promise;
+        private final int size;
+        private boolean released;
 
-        public PendingWriteRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final ChannelPromise promise) {
+        PendingWriteRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final ChannelPromise promise) {
             this.ctx = ctx;
-            // Reset reader index, last write (failed) attempt moved index to the end
-            msg.resetReaderIndex();
             this.msg = msg;
             this.promise = promise;
+            this.size = msg.readableBytes();
         }
 
-        public void pend(final Queue<PendingWriteRequest> pending) {
-            // Preconditions.checkState(pending.size() < MAX_PENDING_WRITES,
-            // "Too much pending writes(%s) on channel: %s, remote window is not getting read or is too small",
-            // pending.size(), ctx.channel());
-            Preconditions.checkState(pending.offer(this), "Cannot pend another request write (pending count: %s) on channel: %s",
-                    pending.size(), ctx.channel());
+        void release() {
+            if (!released) {
+                released = true;
+                msg.release();
+            }
         }
     }
 }
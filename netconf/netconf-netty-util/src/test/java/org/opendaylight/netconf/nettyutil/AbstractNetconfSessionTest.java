@@ -9,12 +9,15 @@
 package org.opendaylight.netconf.nettyutil;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -37,6 +40,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfSession;
 import org.opendaylight.netconf.api.NetconfSessionListener;
@@ -142,6 +146,25 @@ public class AbstractNetconfSessionTest {
         verify(testingNetconfSession).addExiHandlers(any(ByteToMessageDecoder.class), any(MessageToByteEncoder.class));
     }
 
+    @Test
+    public void testStartExiUnsupportedSchemas() throws Exception {
+        TestingNetconfSession testingNetconfSession = new TestingNetconfSession(listener, channel, 1L);
+        testingNetconfSession = spy(testingNetconfSession);
+
+        final NetconfMessage startExi = new NetconfMessage(XmlUtil.readXmlToDocument(
+                "<rpc message-id=\"4\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+                + "<start-exi xmlns=\"urn:ietf:params:xml:ns:netconf:exi:1.0\"><schemas>dynamic</schemas></start-exi>"
+                + "</rpc>"));
+        try {
+            testingNetconfSession.startExiCommunication(startExi);
+            fail("Unsupported schemas should be refused");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("dynamic"));
+        }
+        verify(testingNetconfSession, never()).addExiHandlers(any(ByteToMessageDecoder.class),
+                any(MessageToByteEncoder.class));
+    }
+
     @Test
     public void testEndOfInput() throws Exception {
         final TestingNetconfSession testingNetconfSession = new TestingNetconfSession(listener, channel, 1L);
@@ -10,6 +10,7 @@ package org.opendaylight.netconf.nettyutil.handler;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Lists;
 import io.netty.buffer.ByteBuf;
@@ -24,6 +25,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchemaMode;
 import org.openexi.proc.common.EXIOptions;
 import org.openexi.proc.common.EXIOptionsException;
 import org.openexi.sax.Transmogrifier;
@@ -74,4 +76,23 @@ public class NetconfEXIHandlersTest {
 
         XMLUnit.compareXML(msg.getDocument(), ((NetconfMessage) out.get(0)).getDocument());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSchemaInformedEncodeDecode() throws Exception {
+        final String replyAsString = "<rpc-reply message-id=\"101\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+                + "<data><top xmlns=\"urn:test\"><name>test</name></top></data></rpc-reply>";
+        final NetconfMessage reply = new NetconfMessage(XmlUtil.readXmlToDocument(replyAsString));
+
+        final NetconfEXICodec schemaless = new NetconfEXICodec(new EXIOptions());
+        final NetconfEXICodec schemaInformed = new NetconfEXICodec(new EXIOptions(), EXISchemaMode.BASE_1_0);
+
+        final ByteBuf buffer = Unpooled.buffer();
+        NetconfMessageToEXIEncoder.create(schemaInformed).encode(null, reply, buffer);
+        // NETCONF envelope names are known from the schema and are not transmitted
+        assertTrue(buffer.readableBytes() < msgToExi(replyAsString, schemaless).length);
+
+        final List<Object> out = Lists.newArrayList();
+        NetconfEXIToMessageDecoder.create(schemaInformed).decode(null, buffer, out);
+        assertTrue(XMLUnit.compareXML(reply.getDocument(), ((NetconfMessage) out.get(0)).getDocument()).similar());
+    }
+}
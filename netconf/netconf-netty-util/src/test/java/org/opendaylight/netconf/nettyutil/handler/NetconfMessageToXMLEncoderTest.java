@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.custommonkey.xmlunit.Diff;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Test;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class NetconfMessageToXMLEncoderTest {
+
+    private static final String RPC = "<rpc xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"m-1\">"
+            + "<edit-config><target><candidate/></target><config>"
+            + "<top xmlns=\"urn:test\" xmlns:t=\"urn:test:types\"><name attr=\"a&quot;&lt;&#10;\">x &amp; y &lt; z \u010D\uD83D\uDE00</name>"
+            + "<type>t:identity</type></top></config></edit-config></rpc>";
+
+    private static final String REPLY = "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"m-1\">"
+            + "<data><state xmlns=\"urn:test:state\"/></data></rpc-reply>";
+
+    @Test
+    public void testCompactEncode() throws Exception {
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument(RPC));
+        final ByteBuf out = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder(Optional.<String>absent(), false).encode(null, msg, out);
+
+        final String encoded = out.toString(StandardCharsets.UTF_8);
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + RPC, encoded);
+        assertXmlEqual(msg.getDocument(), out);
+    }
+
+    @Test
+    public void testCompactEncodeAddsMissingNamespaces() throws Exception {
+        final Document document = XmlUtil.newDocument();
+        final Element rpc = document.createElementNS("urn:ietf:params:xml:ns:netconf:base:1.0", "rpc");
+        document.appendChild(rpc);
+        final Element prefixed = document.createElementNS("urn:test", "t:top");
+        prefixed.setAttributeNS("urn:test:attr", "a:attr", "value");
+        rpc.appendChild(prefixed);
+        rpc.appendChild(document.createElementNS(null, "no-namespace"));
+
+        final ByteBuf out = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder(Optional.<String>absent(), false).encode(null, new NetconfMessage(document), out);
+
+        final String encoded = out.toString(StandardCharsets.UTF_8);
+        assertThat(encoded, containsString("<rpc xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"));
+        assertThat(encoded, containsString("<t:top xmlns:t=\"urn:test\" xmlns:a=\"urn:test:attr\" a:attr=\"value\"/>"));
+        assertThat(encoded, containsString("<no-namespace xmlns=\"\"/>"));
+        assertXmlEqual(document, out);
+    }
+
+    @Test
+    public void testCompactEncodeWithClientId() throws Exception {
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument(RPC));
+        final ByteBuf out = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder(Optional.of("client"), false).encode(null, msg, out);
+
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("</rpc><!--clientId:client-->"));
+    }
+
+    @Test
+    public void testPrettyEncode() throws Exception {
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument(RPC));
+        final ByteBuf compact = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder(Optional.<String>absent(), false).encode(null, msg, compact);
+        final ByteBuf pretty = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder(Optional.<String>absent(), true).encode(null, msg, pretty);
+
+        assertFalse(compact.toString(StandardCharsets.UTF_8).contains("\n"));
+        assertTrue(pretty.toString(StandardCharsets.UTF_8).contains("\n"));
+        assertTrue(compact.readableBytes() < pretty.readableBytes());
+        assertXmlEqual(msg.getDocument(), pretty);
+    }
+
+    @Test
+    public void testCompactEncodeStreamedContent() throws Exception {
+        final Document document = XmlUtil.readXmlToDocument(REPLY);
+        final Element data = (Element) document.getDocumentElement().getFirstChild();
+        StreamedElementContent.attach(data, new StreamedElementContent() {
+            @Override
+            public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+                writer.writeStartElement("", "top", "urn:test");
+                writer.writeStartElement("", "name", "urn:test");
+                writer.writeCharacters("x & y");
+                writer.writeEndElement();
+                writer.writeEndElement();
+            }
+        });
+
+        // Rendering the message for logs leaves the streamed content in place
+        final NetconfMessage msg = new NetconfMessage(document);
+        assertThat(msg.toString(), containsString("x &amp; y"));
+        assertTrue(StreamedElementContent.get(data).isPresent());
+        assertEquals(0, data.getElementsByTagNameNS("urn:test", "top").getLength());
+
+        final ByteBuf out = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder(Optional.<String>absent(), false).encode(null, msg, out);
+
+        // Streamed content follows regular children of the element
+        final Document expected = XmlUtil.readXmlToDocument(REPLY.replace("</data>",
+                "<top xmlns=\"urn:test\"><name>x &amp; y</name></top></data>"));
+        assertXmlEqual(expected, out);
+
+        // Materialized content produces the same message
+        StreamedElementContent.materialize(document);
+        assertFalse(StreamedElementContent.get(data).isPresent());
+        final ByteBuf materialized = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder(Optional.<String>absent(), false).encode(null, new NetconfMessage(document), materialized);
+        assertXmlEqual(expected, materialized);
+    }
+
+    @Test
+    public void testStreamedContentFailureRepliesWithRpcError() throws Exception {
+        final Document document = XmlUtil.readXmlToDocument(REPLY);
+        final Element data = (Element) document.getDocumentElement().getFirstChild();
+        StreamedElementContent.attach(data, new StreamedElementContent() {
+            @Override
+            public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+                writer.writeStartElement("", "top", "urn:test");
+                throw new XMLStreamException("Data do not match the schema");
+            }
+        });
+
+        for (final boolean prettyPrint : new boolean[] {false, true}) {
+            final ByteBuf out = Unpooled.buffer();
+            new NetconfMessageToXMLEncoder(Optional.<String>absent(), prettyPrint)
+                    .encode(null, new NetconfMessage(document), out);
+
+            final XmlElement reply = XmlElement.fromDomDocument(XmlUtil.readXmlToDocument(new ByteBufInputStream(out)));
+            assertEquals("rpc-reply", reply.getName());
+            assertEquals("m-1", reply.getAttribute("message-id"));
+            assertEquals("operation-failed", reply.getOnlyChildElement("rpc-error")
+                    .getOnlyChildElement("error-tag").getTextContent());
+        }
+    }
+
+    private static void assertXmlEqual(final Document expected, final ByteBuf actual) throws Exception {
+        XMLUnit.setIgnoreWhitespace(true);
+        final Diff diff = XMLUnit.compareXML(expected, XmlUtil.readXmlToDocument(new ByteBufInputStream(actual)));
+        assertTrue(diff.toString(), diff.similar());
+    }
+}
@@ -9,11 +9,14 @@
 package org.opendaylight.netconf.nettyutil.handler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Lists;
 import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
 import org.junit.Test;
+import org.opendaylight.netconf.api.messages.RawNetconfMessage;
 import org.xml.sax.SAXParseException;
 
 public class NetconfXMLToMessageDecoderTest {
@@ -87,5 +90,20 @@ public class NetconfXMLToMessageDecoderTest {
                 out);
         assertEquals(1, out.size());
     }
-}
 
+    @Test
+    public void testDecodeRawMessage() throws Exception {
+        final ArrayList<Object> out = Lists.newArrayList();
+        new NetconfXMLToMessageDecoder(true).decode(null, Unpooled.wrappedBuffer(
+                "\n<rpc-reply message-id=\"m-1\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><ok/></rpc-reply>".getBytes()), out);
+        assertEquals(1, out.size());
+        assertTrue(out.get(0) instanceof RawNetconfMessage);
+
+        final RawNetconfMessage message = (RawNetconfMessage) out.get(0);
+        assertEquals("rpc-reply", message.getRootElementName());
+        assertEquals("m-1", message.getMessageId());
+        assertFalse(message.isErrorReply());
+        assertFalse(message.isDocumentMaterialized());
+        assertEquals("rpc-reply", message.getDocument().getDocumentElement().getLocalName());
+    }
+}
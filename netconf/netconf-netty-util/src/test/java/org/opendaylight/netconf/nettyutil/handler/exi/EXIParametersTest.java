@@ -40,6 +40,7 @@ public class EXIParametersTest {
                 "<pis/>\n" +
                 "<prefixes/>\n" +
                 "</fidelity>\n" +
+                "<schemas>base:1.0</schemas>\n" +
                 "</start-exi>\n";
 
         final EXIOptions fullOptions = new EXIOptions();
@@ -51,17 +52,19 @@ public class EXIParametersTest {
         fullOptions.setPreservePIs(true);
 
         return Arrays.asList(new Object[][]{
-            {noChangeXml, new EXIOptions()},
-            {fullOptionsXml, fullOptions},
+            {noChangeXml, new EXIOptions(), EXISchemaMode.NONE},
+            {fullOptionsXml, fullOptions, EXISchemaMode.BASE_1_0},
         });
     }
 
     private final String sourceXml;
     private final EXIOptions exiOptions;
+    private final EXISchemaMode schemaMode;
 
-    public EXIParametersTest(final String sourceXml, final EXIOptions exiOptions) {
+    public EXIParametersTest(final String sourceXml, final EXIOptions exiOptions, final EXISchemaMode schemaMode) {
         this.sourceXml = sourceXml;
         this.exiOptions = exiOptions;
+        this.schemaMode = schemaMode;
     }
 
     @Test
@@ -78,5 +81,6 @@ public class EXIParametersTest {
         assertEquals(opts.getOptions().getPreserveNS(), exiOptions.getPreserveNS());
         assertEquals(opts.getOptions().getPreserveDTD(), exiOptions.getPreserveDTD());
         assertEquals(opts.getOptions().getPreserveNS(), exiOptions.getPreserveNS());
+        assertEquals(schemaMode, opts.getSchemaMode());
     }
 }
\ No newline at end of file
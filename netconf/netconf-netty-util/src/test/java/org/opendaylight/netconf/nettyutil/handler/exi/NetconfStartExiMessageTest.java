@@ -41,6 +41,7 @@ public class NetconfStartExiMessageTest {
                 "<pis/>\n" +
                 "<prefixes/>\n" +
                 "</fidelity>\n" +
+                "<schemas>base:1.0</schemas>\n" +
                 "</start-exi>\n" +
                 "</rpc>";
 
@@ -53,22 +54,22 @@ public class NetconfStartExiMessageTest {
         fullOptions.setPreservePIs(true);
 
         return Arrays.asList(new Object[][]{
-            {noChangeXml, new EXIOptions()},
-            {fullOptionsXml, fullOptions},
+            {noChangeXml, new EXIParameters(new EXIOptions(), EXISchemaMode.NONE)},
+            {fullOptionsXml, new EXIParameters(fullOptions, EXISchemaMode.BASE_1_0)},
         });
     }
 
     private final String controlXml;
-    private final EXIOptions exiOptions;
+    private final EXIParameters exiParameters;
 
-    public NetconfStartExiMessageTest(final String controlXml, final EXIOptions exiOptions) {
+    public NetconfStartExiMessageTest(final String controlXml, final EXIParameters exiParameters) {
         this.controlXml = controlXml;
-        this.exiOptions = exiOptions;
+        this.exiParameters = exiParameters;
     }
 
     @Test
     public void testCreate() throws Exception {
-        final NetconfStartExiMessage startExiMessage = NetconfStartExiMessage.create(exiOptions, "id");
+        final NetconfStartExiMessage startExiMessage = NetconfStartExiMessage.create(exiParameters, "id");
 
         XMLUnit.setIgnoreWhitespace(true);
         XMLUnit.setIgnoreAttributeOrder(true);
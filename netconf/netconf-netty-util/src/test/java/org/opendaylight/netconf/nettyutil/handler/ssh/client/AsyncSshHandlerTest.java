@@ -8,8 +8,12 @@
 
 package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doAnswer;
@@ -33,8 +37,12 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.DefaultChannelPromise;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
 import java.io.IOException;
 import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 import org.apache.sshd.ClientChannel;
 import org.apache.sshd.ClientSession;
 import org.apache.sshd.SshClient;
@@ -52,13 +60,14 @@ import org.apache.sshd.common.io.IoWriteFuture;
 import org.apache.sshd.common.util.Buffer;
 import org.junit.After;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.opendaylight.netconf.nettyutil.handler.ChunkedFramingMechanismEncoder;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 
 public class AsyncSshHandlerTest {
@@ -358,9 +367,76 @@ public class AsyncSshHandlerTest {
         verify(secondWritePromise).setSuccess();
     }
 
-    @Ignore("Pending queue is not limited")
     @Test
-    public void testWritePendingMax() throws Exception {
+    public void testWriteEncodedMessageWithoutCopy() throws Exception {
+        asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
+
+        final IoInputStream asyncOut = getMockedIoInputStream();
+        final IoOutputStream asyncIn = getMockedIoOutputStream();
+        final ChannelSubsystem subsystemChannel = getMockedSubsystemChannel(asyncOut, asyncIn);
+        final ClientSession sshSession = getMockedSshSession(subsystemChannel);
+        final ConnectFuture connectFuture = getSuccessConnectFuture(sshSession);
+
+        sshConnectListener.operationComplete(connectFuture);
+        sshAuthListener.operationComplete(getSuccessAuthFuture());
+        sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
+
+        // Message framed by the encoder used in netconf pipelines
+        final EmbeddedChannel encoder = new EmbeddedChannel(new ChunkedFramingMechanismEncoder());
+        encoder.writeOutbound(Unpooled.copiedBuffer("<rpc/>", StandardCharsets.UTF_8));
+        final ByteBuf encoded = (ByteBuf) encoder.readOutbound();
+        final byte[] encodedArray = encoded.array();
+        final int encodedOffset = encoded.arrayOffset() + encoded.readerIndex();
+
+        final ChannelPromise writePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, encoded, writePromise);
+
+        // Ssh writes the array backing the framed message
+        final ArgumentCaptor<Buffer> bufferCaptor = ArgumentCaptor.forClass(Buffer.class);
+        verify(asyncIn).write(bufferCaptor.capture());
+        assertSame(encodedArray, bufferCaptor.getValue().array());
+        assertEquals(encodedOffset, bufferCaptor.getValue().rpos());
+        verify(writePromise).setSuccess();
+        assertEquals(0, encoded.refCnt());
+        encoder.finish();
+    }
+
+    @Test
+    public void testWritePendingRetried() throws Exception {
+        asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
+
+        final IoInputStream asyncOut = getMockedIoInputStream();
+        final IoOutputStream asyncIn = getMockedIoOutputStream();
+        final IoWriteFuture ioWriteFuture = asyncIn.write(null);
+
+        final ChannelSubsystem subsystemChannel = getMockedSubsystemChannel(asyncOut, asyncIn);
+        final ClientSession sshSession = getMockedSshSession(subsystemChannel);
+        final ConnectFuture connectFuture = getSuccessConnectFuture(sshSession);
+
+        sshConnectListener.operationComplete(connectFuture);
+        sshAuthListener.operationComplete(getSuccessAuthFuture());
+        sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
+
+        final EventLoop eventLoop = mock(EventLoop.class);
+        doReturn(eventLoop).when(channel).eventLoop();
+
+        // ssh has a write pending, even though there is no write of the handler in progress
+        doThrow(org.apache.sshd.common.io.WritePendingException.class).when(asyncIn).write(any(Buffer.class));
+        final ChannelPromise writePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), writePromise);
+        verifyZeroInteractions(writePromise);
+
+        final ArgumentCaptor<Runnable> retryCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(eventLoop).schedule(retryCaptor.capture(), anyLong(), any(TimeUnit.class));
+
+        // Retry writes the queued message once ssh is done with the pending write
+        doReturn(ioWriteFuture).when(asyncIn).write(any(Buffer.class));
+        retryCaptor.getValue().run();
+        verify(writePromise).setSuccess();
+    }
+
+    @Test
+    public void testWritePendingCoalesced() throws Exception {
         asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
 
         final IoInputStream asyncOut = getMockedIoInputStream();
@@ -375,20 +451,81 @@ public class AsyncSshHandlerTest {
         sshAuthListener.operationComplete(getSuccessAuthFuture());
         sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
 
+        // intercept listener for first write, so writes issued in the meantime get queued
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> firstWriteListenerFuture = stubAddListener(ioWriteFuture);
         final ChannelPromise firstWritePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2}), firstWritePromise);
+        final SshFutureListener<IoWriteFuture> firstWriteListener = firstWriteListenerFuture.get();
 
-        // intercept listener for first write, so we can invoke successful write later thus simulate pending of the first write
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> batchListener = stubAddListener(ioWriteFuture);
+        final ChannelPromise secondWritePromise = getMockedPromise();
+        final ChannelPromise thirdWritePromise = getMockedPromise();
+        final ByteBuf second = Unpooled.copiedBuffer(new byte[]{3, 4});
+        final ByteBuf third = Unpooled.copiedBuffer(new byte[]{5});
+        asyncSshHandler.write(ctx, second, secondWritePromise);
+        asyncSshHandler.write(ctx, third, thirdWritePromise);
+
+        // only the first write was handed to ssh so far
+        verify(asyncIn, times(2)).write(any(Buffer.class));
+        verifyZeroInteractions(secondWritePromise, thirdWritePromise);
+
+        final ArgumentCaptor<Buffer> bufferCaptor = ArgumentCaptor.forClass(Buffer.class);
+        firstWriteListener.operationComplete(ioWriteFuture);
+        verify(firstWritePromise).setSuccess();
+
+        // both queued messages are written at once
+        verify(asyncIn, times(3)).write(bufferCaptor.capture());
+        assertArrayEquals(new byte[]{3, 4, 5}, bufferCaptor.getValue().getCompactData());
+        assertEquals(0, second.refCnt());
+        assertEquals(0, third.refCnt());
+
+        batchListener.get().operationComplete(ioWriteFuture);
+        verify(secondWritePromise).setSuccess();
+        verify(thirdWritePromise).setSuccess();
+    }
+
+    @Test
+    public void testWritePendingMax() throws Exception {
+        asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
+
+        final IoInputStream asyncOut = getMockedIoInputStream();
+        final IoOutputStream asyncIn = getMockedIoOutputStream();
+        final IoWriteFuture ioWriteFuture = asyncIn.write(null);
+
+        final ChannelSubsystem subsystemChannel = getMockedSubsystemChannel(asyncOut, asyncIn);
+        final ClientSession sshSession = getMockedSshSession(subsystemChannel);
+        final ConnectFuture connectFuture = getSuccessConnectFuture(sshSession);
+
+        sshConnectListener.operationComplete(connectFuture);
+        sshAuthListener.operationComplete(getSuccessAuthFuture());
+        sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
+
+        // intercept listener for first write, so writes issued in the meantime get queued
         final ListenableFuture<SshFutureListener<IoWriteFuture>> firstWriteListenerFuture = stubAddListener(ioWriteFuture);
-        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0,1,2,3,4,5}), firstWritePromise);
+        final ChannelPromise firstWritePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), firstWritePromise);
+        final SshFutureListener<IoWriteFuture> firstWriteListener = firstWriteListenerFuture.get();
 
         final ChannelPromise secondWritePromise = getMockedPromise();
-        // now make write throw pending exception
-        doThrow(org.apache.sshd.common.io.WritePendingException.class).when(asyncIn).write(any(Buffer.class));
-        for (int i = 0; i < 1001; i++) {
-            asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), secondWritePromise);
-        }
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), secondWritePromise);
 
-        verify(secondWritePromise, times(1)).setFailure(any(Throwable.class));
+        // queued bytes would exceed the limit, write fails right away and the message is released
+        final ByteBuf tooLarge = mock(ByteBuf.class);
+        doReturn((int) AsyncSshHandlerWriter.MAX_PENDING_BYTES).when(tooLarge).readableBytes();
+        final ChannelPromise thirdWritePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, tooLarge, thirdWritePromise);
+
+        verify(thirdWritePromise).setFailure(any(Throwable.class));
+        verify(tooLarge).release();
+        verifyZeroInteractions(secondWritePromise);
+
+        // queued write is not affected by the failed one
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> secondWriteListener = stubAddListener(ioWriteFuture);
+        firstWriteListener.operationComplete(ioWriteFuture);
+        verify(firstWritePromise).setSuccess();
+        secondWriteListener.get().operationComplete(ioWriteFuture);
+        verify(secondWritePromise).setSuccess();
+        verify(asyncIn, times(3)).write(any(Buffer.class));
     }
 
     @Test
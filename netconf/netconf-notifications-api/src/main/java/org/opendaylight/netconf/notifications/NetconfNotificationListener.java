@@ -20,4 +20,12 @@ public interface NetconfNotificationListener {
      */
     void onNotification(StreamNameType stream, NetconfNotification notification);
 
+    /**
+     * Callback used to notify the listener that it was not consuming notifications fast enough and its registration
+     * was closed. No more notifications will be delivered to the listener.
+     */
+    default void onOverflow(final StreamNameType stream) {
+        // Nothing to clean up by default
+    }
+
 }
@@ -9,15 +9,22 @@
 package org.opendaylight.netconf.notifications.impl;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayDeque;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import org.opendaylight.netconf.notifications.BaseNotificationPublisherRegistration;
@@ -60,11 +67,16 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfNotificationManager.class);
 
-    // TODO excessive synchronization provides thread safety but is most likely not optimal (combination of concurrent collections might improve performance)
-    // And also calling callbacks from a synchronized block is dangerous since the listeners/publishers can block the whole notification processing
+    public static final String QUEUE_SIZE_PROPERTY = "org.opendaylight.netconf.notifications.queue.size";
+    public static final String OVERFLOW_POLICY_PROPERTY = "org.opendaylight.netconf.notifications.overflow.policy";
 
-    @GuardedBy("this")
-    private final Multimap<StreamNameType, GenericNotificationListenerReg> notificationListeners = HashMultimap.create();
+    private static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    // Stream and publisher bookkeeping is rare and stays synchronized. Notifications are dispatched without any lock
+    // into per listener queues and delivered from the executor, so that a slow listener does not block the others
+
+    private final ConcurrentMap<StreamNameType, Set<GenericNotificationListenerReg>> notificationListeners =
+            new ConcurrentHashMap<>();
 
     @GuardedBy("this")
     private final Set<NetconfNotificationStreamListener> streamListeners = Sets.newHashSet();
@@ -78,20 +90,44 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
     @GuardedBy("this")
     private final Set<GenericNotificationPublisherReg> notificationPublishers = Sets.newHashSet();
 
+    private final int queueSize;
+    private final NotificationOverflowPolicy overflowPolicy;
+    private final ExecutorService deliveryExecutor;
+
+    public NetconfNotificationManager() {
+        this(Integer.getInteger(QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE), NotificationOverflowPolicy.valueOf(
+                System.getProperty(OVERFLOW_POLICY_PROPERTY, NotificationOverflowPolicy.DROP_OLDEST.name())));
+    }
+
+    /**
+     * @param queueSize maximum number of notifications queued for a single listener
+     * @param overflowPolicy handling of notifications for a listener with full queue
+     */
+    public NetconfNotificationManager(final int queueSize, final NotificationOverflowPolicy overflowPolicy) {
+        Preconditions.checkArgument(queueSize > 0, "Queue size has to be positive, was %s", queueSize);
+        this.queueSize = queueSize;
+        this.overflowPolicy = Preconditions.checkNotNull(overflowPolicy);
+        this.deliveryExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("netconf-notification-delivery-%d").setDaemon(true).build());
+    }
+
     @Override
-    public synchronized void onNotification(final StreamNameType stream, final NetconfNotification notification) {
+    public void onNotification(final StreamNameType stream, final NetconfNotification notification) {
         LOG.debug("Notification of type {} detected", stream);
         if (LOG.isTraceEnabled()) {
             LOG.debug("Notification of type {} detected: {}", stream, notification);
         }
 
-        for (final GenericNotificationListenerReg listenerReg : notificationListeners.get(BASE_STREAM_NAME)) {
-            listenerReg.getListener().onNotification(BASE_STREAM_NAME, notification);
+        final Set<GenericNotificationListenerReg> listeners = notificationListeners.get(BASE_STREAM_NAME);
+        if (listeners != null) {
+            for (final GenericNotificationListenerReg listenerReg : listeners) {
+                listenerReg.enqueue(notification);
+            }
         }
     }
 
     @Override
-    public synchronized NotificationListenerRegistration registerNotificationListener(final StreamNameType stream, final NetconfNotificationListener listener) {
+    public NotificationListenerRegistration registerNotificationListener(final StreamNameType stream, final NetconfNotificationListener listener) {
         Preconditions.checkNotNull(stream);
         Preconditions.checkNotNull(listener);
 
@@ -100,14 +136,20 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
         final GenericNotificationListenerReg genericNotificationListenerReg = new GenericNotificationListenerReg(listener) {
             @Override
             public void close() {
-                synchronized (NetconfNotificationManager.this) {
-                    LOG.trace("Notification listener unregistered for stream: {}", stream);
-                    super.close();
-                }
+                LOG.trace("Notification listener unregistered for stream: {}", stream);
+                super.close();
             }
         };
 
-        notificationListeners.put(BASE_STREAM_NAME, genericNotificationListenerReg);
+        Set<GenericNotificationListenerReg> listeners = notificationListeners.get(BASE_STREAM_NAME);
+        if (listeners == null) {
+            final Set<GenericNotificationListenerReg> newListeners = new CopyOnWriteArraySet<>();
+            listeners = notificationListeners.putIfAbsent(BASE_STREAM_NAME, newListeners);
+            if (listeners == null) {
+                listeners = newListeners;
+            }
+        }
+        listeners.add(genericNotificationListenerReg);
         return genericNotificationListenerReg;
     }
 
@@ -143,10 +185,13 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
     @Override
     public synchronized void close() {
         // Unregister all listeners
-        for (final GenericNotificationListenerReg genericNotificationListenerReg : notificationListeners.values()) {
-            genericNotificationListenerReg.close();
+        for (final Set<GenericNotificationListenerReg> listeners : notificationListeners.values()) {
+            for (final GenericNotificationListenerReg genericNotificationListenerReg : listeners) {
+                genericNotificationListenerReg.close();
+            }
         }
         notificationListeners.clear();
+        deliveryExecutor.shutdown();
 
         // Unregister all publishers
         for (final GenericNotificationPublisherReg notificationPublisher : notificationPublishers) {
@@ -283,9 +328,22 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
         }
     }
 
-    private class GenericNotificationListenerReg implements NotificationListenerRegistration {
+    /**
+     * Listener registration with its own bounded queue of notifications. Notifications are delivered in order from
+     * the delivery executor, by at most one task at a time.
+     */
+    private class GenericNotificationListenerReg implements NotificationListenerRegistration, Runnable {
         private final NetconfNotificationListener listener;
 
+        @GuardedBy("this")
+        private final Queue<NetconfNotification> queue = new ArrayDeque<>();
+        @GuardedBy("this")
+        private boolean scheduled;
+        @GuardedBy("this")
+        private boolean closed;
+        @GuardedBy("this")
+        private long droppedNotifications;
+
         public GenericNotificationListenerReg(final NetconfNotificationListener listener) {
             this.listener = listener;
         }
@@ -294,9 +352,100 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
             return listener;
         }
 
+        void enqueue(final NetconfNotification notification) {
+            synchronized (this) {
+                while (!closed && queue.size() >= queueSize) {
+                    switch (overflowPolicy) {
+                    case DROP_OLDEST:
+                        queue.poll();
+                        if (droppedNotifications++ == 0) {
+                            LOG.warn("Notification listener {} is too slow, dropping oldest notifications", listener);
+                        }
+                        break;
+                    case DISCONNECT:
+                        LOG.warn("Notification listener {} is too slow, unregistering", listener);
+                        disconnect();
+                        return;
+                    case BLOCK:
+                        try {
+                            wait();
+                        } catch (final InterruptedException e) {
+                            LOG.warn("Interrupted while waiting for listener {}, notification dropped", listener, e);
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown overflow policy " + overflowPolicy);
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+
+                queue.add(notification);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+
+            try {
+                deliveryExecutor.execute(this);
+            } catch (final RejectedExecutionException e) {
+                LOG.debug("Notification manager closed, notification for {} dropped", listener, e);
+                close();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final NetconfNotification notification;
+                synchronized (this) {
+                    notification = queue.poll();
+                    if (notification == null) {
+                        scheduled = false;
+                        return;
+                    }
+                    // Wake up blocked publishers
+                    notifyAll();
+                }
+
+                try {
+                    listener.onNotification(BASE_STREAM_NAME, notification);
+                } catch (final RuntimeException e) {
+                    LOG.warn("Notification listener {} failed to process notification {}", listener, notification, e);
+                }
+            }
+        }
+
+        @GuardedBy("this")
+        private void disconnect() {
+            close();
+            try {
+                deliveryExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onOverflow(BASE_STREAM_NAME);
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                LOG.debug("Notification manager closed, listener {} not notified about overflow", listener, e);
+            }
+        }
+
         @Override
         public void close() {
-            notificationListeners.remove(BASE_STREAM_NAME, this);
+            final Set<GenericNotificationListenerReg> listeners = notificationListeners.get(BASE_STREAM_NAME);
+            if (listeners != null) {
+                listeners.remove(this);
+            }
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+                notifyAll();
+            }
         }
     }
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.notifications.impl;
+
+/**
+ * Handling of notifications for a listener, whose delivery queue is full.
+ */
+public enum NotificationOverflowPolicy {
+    /**
+     * Oldest queued notification is dropped to make room for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * Listener is unregistered and notified about the overflow, e.g. to close its session.
+     */
+    DISCONNECT,
+    /**
+     * Publisher is blocked until the listener makes room in the queue. Slow listener slows down its publishers.
+     */
+    BLOCK
+}
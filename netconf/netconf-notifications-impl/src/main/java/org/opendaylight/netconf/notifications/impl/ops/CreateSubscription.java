@@ -11,7 +11,6 @@ package org.opendaylight.netconf.notifications.impl.ops;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
-import java.util.Date;
 import java.util.List;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
@@ -25,7 +24,6 @@ import org.opendaylight.netconf.notifications.NetconfNotificationRegistry;
 import org.opendaylight.netconf.notifications.NotificationListenerRegistration;
 import org.opendaylight.netconf.notifications.impl.NetconfNotificationManager;
 import org.opendaylight.netconf.util.mapping.AbstractSingletonNetconfOperation;
-import org.opendaylight.netconf.util.messages.SubtreeFilter;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.CreateSubscriptionInput;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
 import org.slf4j.Logger;
@@ -78,8 +76,11 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation implem
             LOG.warn("Registering premature stream {}. No publisher available yet for session {}", streamNameType, getNetconfSessionIdForReporting());
         }
 
+        // Filter is compiled once and shared with other subscriptions using the same filter
+        final Optional<SharedNotificationFilter> compiledFilter = filter.isPresent()
+                ? Optional.of(SharedNotificationFilter.create(filter.get())) : Optional.<SharedNotificationFilter>absent();
         final NotificationListenerRegistration notificationListenerRegistration =
-                notifications.registerNotificationListener(streamNameType, new NotificationSubscription(netconfSession, filter));
+                notifications.registerNotificationListener(streamNameType, new NotificationSubscription(netconfSession, compiledFilter));
         subscriptions.add(notificationListenerRegistration);
 
         return XmlUtil.createElement(document, XmlNetconfConstants.OK, Optional.<String>absent());
@@ -95,6 +96,11 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation implem
         return CREATE_SUBSCRIPTION;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     protected String getOperationNamespace() {
         return CreateSubscriptionInput.QNAME.getNamespace().toString();
@@ -116,9 +122,9 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation implem
 
     private static class NotificationSubscription implements NetconfNotificationListener {
         private final NetconfSession currentSession;
-        private final Optional<XmlElement> filter;
+        private final Optional<SharedNotificationFilter> filter;
 
-        public NotificationSubscription(final NetconfSession currentSession, final Optional<XmlElement> filter) {
+        public NotificationSubscription(final NetconfSession currentSession, final Optional<SharedNotificationFilter> filter) {
             this.currentSession = currentSession;
             this.filter = filter;
         }
@@ -126,19 +132,19 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation implem
         @Override
         public void onNotification(final StreamNameType stream, final NetconfNotification notification) {
             if (filter.isPresent()) {
-                try {
-                    final Optional<Document> filtered = SubtreeFilter.applySubtreeNotificationFilter(this.filter.get(), notification.getDocument());
-                    if (filtered.isPresent()) {
-                        final Date eventTime = notification.getEventTime();
-                        currentSession.sendMessage(new NetconfNotification(filtered.get(), eventTime));
-                    }
-                } catch (DocumentedException e) {
-                    LOG.warn(e.toString());
-                    currentSession.sendMessage(notification);
+                final Optional<NetconfNotification> filtered = filter.get().filter(notification);
+                if (filtered.isPresent()) {
+                    currentSession.sendMessage(filtered.get());
                 }
             } else {
                 currentSession.sendMessage(notification);
             }
         }
+
+        @Override
+        public void onOverflow(final StreamNameType stream) {
+            LOG.warn("Session {} is not reading notifications from stream {} fast enough, closing", currentSession, stream);
+            currentSession.close();
+        }
     }
 }
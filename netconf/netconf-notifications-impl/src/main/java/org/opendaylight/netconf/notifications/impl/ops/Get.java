@@ -52,6 +52,11 @@ public class Get extends AbstractNetconfOperation implements AutoCloseable {
         return GET;
     }
 
+    @Override
+    protected boolean isIndexable() {
+        return true;
+    }
+
     @Override
     public Document handle(final Document requestMessage, final NetconfOperationChainedExecution subsequentOperation) throws DocumentedException {
         final Document partialResponse = subsequentOperation.execute(requestMessage);
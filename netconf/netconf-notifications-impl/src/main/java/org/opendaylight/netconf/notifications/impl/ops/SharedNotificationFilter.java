@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.notifications.impl.ops;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.netconf.notifications.NetconfNotification;
+import org.opendaylight.netconf.util.messages.CompiledSubtreeFilter;
+import org.w3c.dom.Document;
+
+/**
+ * Notification filter shared by all subscriptions with an identical filter. Each notification is filtered once and
+ * the resulting notification is sent to all of these subscriptions.
+ */
+@ThreadSafe
+final class SharedNotificationFilter {
+
+    private static final Interner<SharedNotificationFilter> FILTERS = Interners.newWeakInterner();
+
+    // Subscribers receive notifications from their own queues, keep results until the slower ones catch up
+    private static final int MAX_CACHED_RESULTS = 256;
+
+    private final CompiledSubtreeFilter filter;
+    // Keys are weak, so notifications are compared by identity
+    private final Cache<NetconfNotification, Optional<NetconfNotification>> results =
+            CacheBuilder.newBuilder().weakKeys().maximumSize(MAX_CACHED_RESULTS).build();
+
+    private SharedNotificationFilter(final CompiledSubtreeFilter filter) {
+        this.filter = filter;
+    }
+
+    static SharedNotificationFilter create(final XmlElement filter) {
+        return FILTERS.intern(new SharedNotificationFilter(CompiledSubtreeFilter.compile(filter)));
+    }
+
+    /**
+     * @return filtered notification with the same event time or absent if nothing matched
+     */
+    Optional<NetconfNotification> filter(final NetconfNotification notification) {
+        try {
+            return results.get(notification, new Callable<Optional<NetconfNotification>>() {
+                @Override
+                public Optional<NetconfNotification> call() {
+                    final Optional<Document> filtered = filter.applyToNotification(notification.getDocument());
+                    return filtered.isPresent()
+                            ? Optional.of(new NetconfNotification(filtered.get(), notification.getEventTime()))
+                            : Optional.<NetconfNotification>absent();
+                }
+            });
+        } catch (final ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof SharedNotificationFilter
+                && filter.equals(((SharedNotificationFilter) obj).filter);
+    }
+
+    @Override
+    public int hashCode() {
+        return filter.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return filter.toString();
+    }
+}
@@ -8,16 +8,24 @@
 
 package org.opendaylight.netconf.notifications.impl;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import com.google.common.collect.Lists;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -82,7 +90,7 @@ public class NetconfNotificationManagerTest {
         final NetconfCapabilityChange notification = capabilityChangedBuilder.build();
         baseNotificationPublisherRegistration.onCapabilityChanged(notification);
 
-        verify(listener).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+        verify(listener, timeout(5000)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
 
         notificationListenerRegistration.close();
 
@@ -143,4 +151,122 @@ public class NetconfNotificationManagerTest {
 
         verify(streamListener).onStreamUnregistered(NetconfNotificationManager.BASE_STREAM_NAME);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSlowListenerDoesNotBlockOthers() throws Exception {
+        final NetconfNotificationManager netconfNotificationManager =
+                new NetconfNotificationManager(10, NotificationOverflowPolicy.DROP_OLDEST);
+        final BaseNotificationPublisherRegistration publisher = netconfNotificationManager.registerBaseNotificationPublisher();
+
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final BlockingListener slowListener = new BlockingListener(unblock);
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME, slowListener);
+        final NetconfNotificationListener fastListener = mock(NetconfNotificationListener.class);
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME, fastListener);
+
+        publisher.onCapabilityChanged(new NetconfCapabilityChangeBuilder().build());
+        assertTrue(slowListener.started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 20; i++) {
+            publisher.onCapabilityChanged(new NetconfCapabilityChangeBuilder().build());
+        }
+
+        verify(fastListener, timeout(5000).times(20)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+
+        // First notification was being processed, 10 latest were queued, the rest were dropped
+        unblock.countDown();
+        slowListener.awaitNotifications(11);
+        Thread.sleep(100);
+        assertEquals(11, slowListener.notifications.size());
+        netconfNotificationManager.close();
+    }
+
+    @Test
+    public void testDisconnectSlowListener() throws Exception {
+        final NetconfNotificationManager netconfNotificationManager =
+                new NetconfNotificationManager(2, NotificationOverflowPolicy.DISCONNECT);
+        final BaseNotificationPublisherRegistration publisher = netconfNotificationManager.registerBaseNotificationPublisher();
+
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final BlockingListener slowListener = new BlockingListener(unblock);
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME, slowListener);
+
+        publisher.onCapabilityChanged(new NetconfCapabilityChangeBuilder().build());
+        assertTrue(slowListener.started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 4; i++) {
+            publisher.onCapabilityChanged(new NetconfCapabilityChangeBuilder().build());
+        }
+        assertTrue(slowListener.overflow.await(5, TimeUnit.SECONDS));
+
+        // Queued notifications are discarded, only the one in progress is delivered
+        unblock.countDown();
+        publisher.onCapabilityChanged(new NetconfCapabilityChangeBuilder().build());
+        slowListener.awaitNotifications(1);
+        Thread.sleep(100);
+        assertEquals(1, slowListener.notifications.size());
+        netconfNotificationManager.close();
+    }
+
+    @Test
+    public void testBlockPublisher() throws Exception {
+        final NetconfNotificationManager netconfNotificationManager =
+                new NetconfNotificationManager(1, NotificationOverflowPolicy.BLOCK);
+        final BaseNotificationPublisherRegistration publisher = netconfNotificationManager.registerBaseNotificationPublisher();
+
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final BlockingListener slowListener = new BlockingListener(unblock);
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME, slowListener);
+
+        final CountDownLatch published = new CountDownLatch(1);
+        final Thread publisherThread = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 5; i++) {
+                    publisher.onCapabilityChanged(new NetconfCapabilityChangeBuilder().build());
+                }
+                published.countDown();
+            }
+        };
+        publisherThread.start();
+
+        // One notification in progress, one queued and the publisher waits
+        assertFalse(published.await(200, TimeUnit.MILLISECONDS));
+        unblock.countDown();
+        assertTrue(published.await(5, TimeUnit.SECONDS));
+        slowListener.awaitNotifications(5);
+        netconfNotificationManager.close();
+    }
+
+    private static final class BlockingListener implements NetconfNotificationListener {
+        private final CountDownLatch unblock;
+        private final List<NetconfNotification> notifications = new CopyOnWriteArrayList<>();
+        private final CountDownLatch overflow = new CountDownLatch(1);
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        BlockingListener(final CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void onNotification(final StreamNameType stream, final NetconfNotification notification) {
+            started.countDown();
+            try {
+                unblock.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            notifications.add(notification);
+        }
+
+        @Override
+        public void onOverflow(final StreamNameType stream) {
+            overflow.countDown();
+        }
+
+        void awaitNotifications(final int count) throws InterruptedException {
+            for (int i = 0; i < 500 && notifications.size() < count; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(count, notifications.size());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.notifications.impl.ops;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import java.util.Date;
+import org.junit.Test;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.notifications.NetconfNotification;
+
+public class SharedNotificationFilterTest {
+
+    private static final String FILTER = "<filter xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\" type=\"subtree\">"
+            + "<netconf-session-end xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-notifications\">"
+            + "<username/></netconf-session-end></filter>";
+
+    private static final String SESSION_END = "<netconf-session-end xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-notifications\">"
+            + "<username>admin</username><session-id>2</session-id></netconf-session-end>";
+
+    private static final String SESSION_START = "<netconf-session-start xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-notifications\">"
+            + "<username>admin</username><session-id>2</session-id></netconf-session-start>";
+
+    @Test
+    public void testIdenticalFiltersShared() throws Exception {
+        final SharedNotificationFilter filter = SharedNotificationFilter.create(getFilter(FILTER));
+        assertSame(filter, SharedNotificationFilter.create(getFilter(FILTER)));
+        assertNotSame(filter, SharedNotificationFilter.create(getFilter(FILTER.replace("username", "session-id"))));
+    }
+
+    @Test
+    public void testFilterEvaluatedOnce() throws Exception {
+        final SharedNotificationFilter filter = SharedNotificationFilter.create(getFilter(FILTER));
+        final Date eventTime = new Date();
+        final NetconfNotification notification = new NetconfNotification(XmlUtil.readXmlToDocument(SESSION_END), eventTime);
+
+        final Optional<NetconfNotification> filtered = filter.filter(notification);
+        assertTrue(filtered.isPresent());
+        assertEquals(eventTime, filtered.get().getEventTime());
+        assertTrue(XmlUtil.toString(filtered.get().getDocument()).contains("admin"));
+        assertFalse(XmlUtil.toString(filtered.get().getDocument()).contains("session-id"));
+        // Second subscription receives the same filtered notification
+        assertSame(filtered.get(), filter.filter(notification).get());
+
+        final NetconfNotification other = new NetconfNotification(XmlUtil.readXmlToDocument(SESSION_START), eventTime);
+        assertFalse(filter.filter(other).isPresent());
+    }
+
+    private static XmlElement getFilter(final String filter) throws Exception {
+        return XmlElement.fromDomElement(XmlUtil.readXmlToElement(filter));
+    }
+}
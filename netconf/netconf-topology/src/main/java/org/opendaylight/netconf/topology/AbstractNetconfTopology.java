@@ -55,6 +55,7 @@ import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommun
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.listener.UserPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.sal.KeepaliveSalFacade;
+import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceSalFacade;
 import org.opendaylight.netconf.sal.connect.netconf.schema.YangLibrarySchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.pipeline.TopologyMountPointFacade.ConnectionStatusListenerRegistration;
@@ -278,8 +279,9 @@ public abstract class AbstractNetconfTopology implements NetconfTopology, Bindin
                 node.getPort().getValue());
         RemoteDeviceId remoteDeviceId = new RemoteDeviceId(nodeId.getValue(), address);
 
-        RemoteDeviceHandler<NetconfSessionPreferences> salFacade =
+        final RemoteDeviceHandler<NetconfSessionPreferences> deviceSalFacade =
                 createSalFacade(remoteDeviceId, domBroker, bindingAwareBroker);
+        RemoteDeviceHandler<NetconfSessionPreferences> salFacade = deviceSalFacade;
 
         if (keepaliveDelay > 0) {
             LOG.warn("Adding keepalive facade, for device {}", nodeId);
@@ -334,11 +336,19 @@ public abstract class AbstractNetconfTopology implements NetconfTopology, Bindin
             LOG.info("Concurrent rpc limit is smaller than 1, no limit will be enforced for device {}", remoteDeviceId);
         }
 
-        return new NetconfConnectorDTO(
-                userCapabilities.isPresent() ?
-                        new NetconfDeviceCommunicator(
-                                remoteDeviceId, device, new UserPreferences(userCapabilities.get(), node.getYangModuleCapabilities().isOverride()), rpcMessageLimit):
-                        new NetconfDeviceCommunicator(remoteDeviceId, device, rpcMessageLimit), salFacade);
+        final boolean rpcPipelining = Boolean.TRUE.equals(node.isRpcPipelining());
+
+        final NetconfDeviceCommunicator communicator = userCapabilities.isPresent() ?
+                new NetconfDeviceCommunicator(
+                        remoteDeviceId, device, new UserPreferences(userCapabilities.get(), node.getYangModuleCapabilities().isOverride()),
+                        rpcMessageLimit, rpcPipelining):
+                new NetconfDeviceCommunicator(remoteDeviceId, device, rpcMessageLimit, rpcPipelining);
+
+        if (deviceSalFacade instanceof NetconfDeviceSalFacade) {
+            ((NetconfDeviceSalFacade) deviceSalFacade).setRpcStatisticsSource(communicator, keepaliveExecutor.getExecutor());
+        }
+
+        return new NetconfConnectorDTO(communicator, salFacade);
     }
 
     protected NetconfDevice.SchemaResourcesDTO setupSchemaCacheDTO(final NodeId nodeId, final NetconfNode node) {
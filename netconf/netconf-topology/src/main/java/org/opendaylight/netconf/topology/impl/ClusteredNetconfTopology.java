@@ -76,6 +76,7 @@ public class ClusteredNetconfTopology extends AbstractNetconfTopology implements
     private final ActorSystem actorSystem;
     private final EntityOwnershipService entityOwnershipService;
     private TopologyManager topologyManager;
+    private TopologyNodeWriter nodeWriter;
 
     public ClusteredNetconfTopology(final String topologyId, final NetconfClientDispatcher clientDispatcher,
                                final BindingAwareBroker bindingAwareBroker, final Broker domBroker,
@@ -107,7 +108,8 @@ public class ClusteredNetconfTopology extends AbstractNetconfTopology implements
     @Override
     public void onSessionInitiated(final ProviderContext session) {
         dataBroker = session.getSALService(DataBroker.class);
-        final NodeWriter writer = new TopologyNodeWriter(topologyId, dataBroker);
+        nodeWriter = new TopologyNodeWriter(topologyId, dataBroker);
+        final NodeWriter writer = nodeWriter;
         TypedActorExtension typedActorExtension = TypedActor.get(this.actorSystem);
         LOG.warn("Registering actor on path {}", actorSystem.name() + "/user/" + topologyId);
         topologyManager = typedActorExtension.typedActorOf(new TypedProps<>(TopologyManager.class, new Creator<BaseTopologyManager>() {
@@ -132,6 +134,10 @@ public class ClusteredNetconfTopology extends AbstractNetconfTopology implements
             connectorDTO.getCommunicator().close();
         }
         activeConnectors.clear();
+        if (nodeWriter != null) {
+            nodeWriter.close();
+            nodeWriter = null;
+        }
     }
 
     @Override
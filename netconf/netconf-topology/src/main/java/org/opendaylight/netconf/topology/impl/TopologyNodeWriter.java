@@ -9,19 +9,13 @@
 package org.opendaylight.netconf.topology.impl;
 
 import com.google.common.base.Preconditions;
-import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
-import java.util.concurrent.locks.ReentrantLock;
+import com.google.common.util.concurrent.ListenableFuture;
 import javax.annotation.Nonnull;
-import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
-import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
-import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
-import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
-import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.netconf.sal.connect.util.CoalescingOperationalWriter;
 import org.opendaylight.netconf.topology.util.NodeWriter;
 import org.opendaylight.netconf.topology.util.TopologyUtil;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
@@ -38,138 +32,94 @@ import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class TopologyNodeWriter implements NodeWriter{
+public class TopologyNodeWriter implements NodeWriter, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(TopologyNodeWriter.class);
 
     private final String topologyId;
-    private final BindingTransactionChain txChain;
+    private final CoalescingOperationalWriter statusWriter;
 
     private final InstanceIdentifier<NetworkTopology> networkTopologyPath;
     private final KeyedInstanceIdentifier<Topology, TopologyKey> topologyListPath;
 
-    private final ReentrantLock lock = new ReentrantLock(true);
-
     public TopologyNodeWriter(final String topologyId, final DataBroker dataBroker) {
         this.topologyId = topologyId;
-        this.txChain = Preconditions.checkNotNull(dataBroker).createTransactionChain(new TransactionChainListener() {
-            @Override
-            public void onTransactionChainFailed(TransactionChain<?, ?> chain, AsyncTransaction<?, ?> transaction, Throwable cause) {
-                LOG.error("{}: TransactionChain({}) {} FAILED!", chain,
-                        transaction.getIdentifier(), cause);
-                throw new IllegalStateException("Clustered topology writer TransactionChain(" + chain + ") not committed correctly", cause);
-            }
-
-            @Override
-            public void onTransactionChainSuccessful(TransactionChain<?, ?> chain) {
-                LOG.trace("Clustered topology writer TransactionChain({}) SUCCESSFUL", chain);
-            }
-        });
+        this.statusWriter = CoalescingOperationalWriter.getShared(Preconditions.checkNotNull(dataBroker));
 
         this.networkTopologyPath = InstanceIdentifier.builder(NetworkTopology.class).build();
         this.topologyListPath = networkTopologyPath.child(Topology.class, new TopologyKey(new TopologyId(topologyId)));
 
         // write an empty topology container at the start
-        final WriteTransaction wTx = txChain.newWriteOnlyTransaction();
-        createNetworkTopologyIfNotPresent(wTx, LogicalDatastoreType.OPERATIONAL);
-        createNetworkTopologyIfNotPresent(wTx, LogicalDatastoreType.CONFIGURATION);
-        commitTransaction(wTx, "init topology container", new NodeId("topology-netconf"));
+        final CoalescingOperationalWriter.Batch batch = statusWriter.newBatch();
+        createNetworkTopologyIfNotPresent(batch, LogicalDatastoreType.OPERATIONAL);
+        createNetworkTopologyIfNotPresent(batch, LogicalDatastoreType.CONFIGURATION);
+        commitTransaction(batch, "init topology container", new NodeId("topology-netconf"));
     }
 
     @Override
     public void init(@Nonnull NodeId id, @Nonnull Node operationalDataNode) {
-        lock.lock();
-        try {
-            final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
-
-            createNetworkTopologyIfNotPresent(writeTx, LogicalDatastoreType.OPERATIONAL);
-            final InstanceIdentifier<Node> path = TopologyUtil.createTopologyNodeListPath(new NodeKey(id), topologyId);
-
-            LOG.trace("{}: Init device state transaction {} putting if absent operational data started. Putting data on path {}",
-                    id.getValue(), writeTx.getIdentifier(), path);
-            writeTx.put(LogicalDatastoreType.OPERATIONAL, path, operationalDataNode);
-            LOG.trace("{}: Init device state transaction {} putting operational data ended.",
-                    id.getValue(), writeTx.getIdentifier());
-
-            commitTransaction(writeTx, "init", id);
-        } finally {
-            lock.unlock();
-        }
+        final CoalescingOperationalWriter.Batch batch = statusWriter.newBatch();
+
+        createNetworkTopologyIfNotPresent(batch, LogicalDatastoreType.OPERATIONAL);
+        final InstanceIdentifier<Node> path = TopologyUtil.createTopologyNodeListPath(new NodeKey(id), topologyId);
+
+        LOG.trace("{}: Init device state putting operational data on path {}", id.getValue(), path);
+        batch.put(path, operationalDataNode);
+
+        commitTransaction(batch, "init", id);
     }
 
     @Override
     public void update(@Nonnull NodeId id, @Nonnull Node operationalDataNode) {
-        lock.lock();
-        try {
-            final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
-
-            final InstanceIdentifier<Node> path = TopologyUtil.createTopologyNodeListPath(new NodeKey(id), topologyId);
-            LOG.trace("{}: Update device state transaction {} merging operational data started. Putting data on path {}",
-                    id, writeTx.getIdentifier(), operationalDataNode);
-            writeTx.put(LogicalDatastoreType.OPERATIONAL, path, operationalDataNode);
-            LOG.trace("{}: Update device state transaction {} merging operational data ended.",
-                    id, writeTx.getIdentifier());
-
-            commitTransaction(writeTx, "update", id);
-        } finally {
-            lock.unlock();
-        }
+        final InstanceIdentifier<Node> path = TopologyUtil.createTopologyNodeListPath(new NodeKey(id), topologyId);
 
+        LOG.trace("{}: Update device state putting operational data on path {}", id.getValue(), path);
+        commitTransaction(statusWriter.newBatch().put(path, operationalDataNode), "update", id);
     }
 
     @Override
     public void delete(@Nonnull NodeId id) {
-        lock.lock();
-        try {
-            final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
-
-            final InstanceIdentifier<Node> path = TopologyUtil.createTopologyNodeListPath(new NodeKey(id), topologyId);
-
-            LOG.trace(
-                    "{}: Close device state transaction {} removing all data started. Path: {}",
-                    id, writeTx.getIdentifier(), path);
-            writeTx.delete(LogicalDatastoreType.OPERATIONAL, path);
-            LOG.trace(
-                    "{}: Close device state transaction {} removing all data ended.",
-                    id, writeTx.getIdentifier());
-
-            commitTransaction(writeTx, "close", id);
-        } finally {
-            lock.unlock();
-        }
+        final InstanceIdentifier<Node> path = TopologyUtil.createTopologyNodeListPath(new NodeKey(id), topologyId);
+
+        LOG.trace("{}: Close device state removing all data on path {}", id.getValue(), path);
+        commitTransaction(statusWriter.newBatch().delete(path), "close", id);
+    }
+
+    /**
+     * Release the shared status writer.
+     */
+    @Override
+    public void close() {
+        statusWriter.close();
     }
 
-    private void commitTransaction(final WriteTransaction transaction, final String txType, final NodeId id) {
-        LOG.trace("{}: Committing Transaction {}:{}", id.getValue(), txType,
-                transaction.getIdentifier());
-        final CheckedFuture<Void, TransactionCommitFailedException> result = transaction.submit();
+    private void commitTransaction(final CoalescingOperationalWriter.Batch batch, final String txType, final NodeId id) {
+        LOG.trace("{}: Committing Transaction {}", id.getValue(), txType);
+        final ListenableFuture<Void> result = batch.submit();
 
         Futures.addCallback(result, new FutureCallback<Void>() {
             @Override
             public void onSuccess(final Void result) {
-                LOG.trace("{}: Transaction({}) {} SUCCESSFUL", id.getValue(), txType,
-                        transaction.getIdentifier());
+                LOG.trace("{}: Transaction({}) SUCCESSFUL", id.getValue(), txType);
             }
 
             @Override
             public void onFailure(final Throwable t) {
-                LOG.error("{}: Transaction({}) {} FAILED!", id.getValue(), txType,
-                        transaction.getIdentifier(), t);
+                LOG.error("{}: Transaction({}) FAILED!", id.getValue(), txType, t);
                 throw new IllegalStateException(id.getValue() + "  Transaction(" + txType + ") not committed correctly", t);
             }
         });
     }
 
-    private void createNetworkTopologyIfNotPresent(final WriteTransaction writeTx, final LogicalDatastoreType datastoreType) {
+    private void createNetworkTopologyIfNotPresent(final CoalescingOperationalWriter.Batch batch,
+                                                   final LogicalDatastoreType datastoreType) {
 
         final NetworkTopology networkTopology = new NetworkTopologyBuilder().build();
-        LOG.trace("{}: Merging {} container to ensure its presence", topologyId,
-                NetworkTopology.QNAME, writeTx.getIdentifier());
-        writeTx.merge(datastoreType, networkTopologyPath, networkTopology);
+        LOG.trace("{}: Merging {} container to ensure its presence", topologyId, NetworkTopology.QNAME);
+        batch.merge(datastoreType, networkTopologyPath, networkTopology);
 
         final Topology topology = new TopologyBuilder().setTopologyId(new TopologyId(topologyId)).build();
-        LOG.trace("{}: Merging {} container to ensure its presence", topologyId,
-                Topology.QNAME, writeTx.getIdentifier());
-        writeTx.merge(datastoreType, topologyListPath, topology);
+        LOG.trace("{}: Merging {} container to ensure its presence", topologyId, Topology.QNAME);
+        batch.merge(datastoreType, topologyListPath, topology);
     }
 }
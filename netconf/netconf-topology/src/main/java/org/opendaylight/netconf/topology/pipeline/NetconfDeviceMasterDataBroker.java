@@ -10,19 +10,31 @@ package org.opendaylight.netconf.topology.pipeline;
 
 import akka.actor.ActorSystem;
 import akka.actor.TypedActor;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.common.api.TransactionStatus;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBrokerExtension;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataChangeListener;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
@@ -36,31 +48,60 @@ import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadWriteTx;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.pipeline.tx.ProxyReadOnlyTransaction;
 import org.opendaylight.netconf.topology.pipeline.tx.ProxyWriteOnlyTransaction;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunk;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunker;
 import org.opendaylight.netconf.topology.util.messages.NormalizedNodeMessage;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import scala.concurrent.Future;
 import scala.concurrent.impl.Promise.DefaultPromise;
 
 public class NetconfDeviceMasterDataBroker implements ProxyNetconfDeviceDataBroker {
 
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfDeviceMasterDataBroker.class);
+
+    // Reads abandoned by the reader, e.g. after it went down, are dropped after this time
+    private static final long READ_TRANSFER_TIMEOUT_SECONDS = 60;
+
     private final RemoteDeviceId id;
 
-    private final NetconfDeviceDataBroker delegateBroker;
+    private final DOMDataBroker delegateBroker;
     private final ActorSystem actorSystem;
+    // Serialization and compression of read data, kept off the netconf threads completing the reads
+    private final Executor chunkingExecutor;
 
     private DOMDataReadOnlyTransaction readTx;
     private DOMDataWriteTransaction writeTx;
 
+    // Remaining chunks of reads, stored by the chunking executor and pulled from the actor
+    private final Cache<Long, Iterator<NormalizedNodeChunk>> pendingReads;
+    // Chunks of writes received so far, accessed from the actor only
+    private final Map<Long, List<NormalizedNodeChunk>> pendingWrites = new HashMap<>();
+    // Failure to reassemble written data fails the transaction on submit
+    private Throwable writeFailure;
+
     public NetconfDeviceMasterDataBroker(final ActorSystem actorSystem, final RemoteDeviceId id,
                                          final SchemaContext schemaContext, final DOMRpcService rpc,
                                          final NetconfSessionPreferences netconfSessionPreferences) {
+        this(actorSystem, id, new NetconfDeviceDataBroker(id, schemaContext, rpc, netconfSessionPreferences),
+                actorSystem.dispatcher(), Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    NetconfDeviceMasterDataBroker(final ActorSystem actorSystem, final RemoteDeviceId id,
+                                  final DOMDataBroker delegateBroker, final Executor chunkingExecutor,
+                                  final Ticker ticker) {
         this.id = id;
-        delegateBroker = new NetconfDeviceDataBroker(id, schemaContext, rpc, netconfSessionPreferences);
+        this.delegateBroker = delegateBroker;
         this.actorSystem = actorSystem;
+        this.chunkingExecutor = chunkingExecutor;
+        pendingReads = CacheBuilder.newBuilder().ticker(ticker)
+                .expireAfterAccess(READ_TRANSFER_TIMEOUT_SECONDS, TimeUnit.SECONDS).build();
 
         // only ever need 1 readTx since it doesnt need to be closed
         readTx = delegateBroker.newReadOnlyTransaction();
@@ -100,28 +141,57 @@ public class NetconfDeviceMasterDataBroker implements ProxyNetconfDeviceDataBrok
     }
 
     @Override
-    public Future<Optional<NormalizedNodeMessage>> read(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
+    public Future<Optional<NormalizedNodeChunk>> read(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
         final CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readFuture = readTx.read(store, path);
 
-        final DefaultPromise<Optional<NormalizedNodeMessage>> promise = new DefaultPromise<>();
+        final DefaultPromise<Optional<NormalizedNodeChunk>> promise = new DefaultPromise<>();
         Futures.addCallback(readFuture, new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
             @Override
             public void onSuccess(Optional<NormalizedNode<?, ?>> result) {
                 if (!result.isPresent()) {
-                    promise.success(Optional.<NormalizedNodeMessage>absent());
-                } else {
-                    promise.success(Optional.of(new NormalizedNodeMessage(path, result.get())));
+                    promise.success(Optional.<NormalizedNodeChunk>absent());
+                    return;
+                }
+
+                final List<NormalizedNodeChunk> chunks;
+                try {
+                    chunks = NormalizedNodeChunker.toChunks(NormalizedNodeChunk.newTransferId(), path, result.get());
+                } catch (IOException e) {
+                    promise.failure(e);
+                    return;
+                }
+
+                final Iterator<NormalizedNodeChunk> iterator = chunks.iterator();
+                final NormalizedNodeChunk first = iterator.next();
+                if (!first.isLast()) {
+                    pendingReads.put(first.getTransferId(), iterator);
                 }
+                promise.success(Optional.of(first));
             }
 
             @Override
             public void onFailure(Throwable t) {
                 promise.failure(t);
             }
-        });
+        }, chunkingExecutor);
         return promise.future();
     }
 
+    @Override
+    public Future<NormalizedNodeChunk> readNextChunk(final long transferId) {
+        final Iterator<NormalizedNodeChunk> iterator = pendingReads.getIfPresent(transferId);
+        if (iterator == null) {
+            return akka.dispatch.Futures.failed(
+                    new IllegalStateException(id + ": Read transfer " + transferId + " does not exist or expired"));
+        }
+
+        final NormalizedNodeChunk chunk = iterator.next();
+        if (chunk.isLast()) {
+            pendingReads.invalidate(transferId);
+        }
+        return akka.dispatch.Futures.successful(chunk);
+    }
+
     @Override
     public Future<Boolean> exists(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
         final CheckedFuture<Boolean, ReadFailedException> existsFuture = readTx.exists(store, path);
@@ -142,19 +212,69 @@ public class NetconfDeviceMasterDataBroker implements ProxyNetconfDeviceDataBrok
     }
 
     @Override
-    public void put(final LogicalDatastoreType store, final NormalizedNodeMessage data) {
+    public void put(final LogicalDatastoreType store, final NormalizedNodeChunk chunk) {
+        final Optional<NormalizedNodeMessage> data = receiveChunk(chunk);
+        if (!data.isPresent()) {
+            return;
+        }
         if (writeTx == null) {
             writeTx = delegateBroker.newWriteOnlyTransaction();
         }
-        writeTx.put(store, data.getIdentifier(), data.getNode());
+        writeTx.put(store, data.get().getIdentifier(), data.get().getNode());
     }
 
     @Override
-    public void merge(final LogicalDatastoreType store, final NormalizedNodeMessage data) {
+    public void merge(final LogicalDatastoreType store, final NormalizedNodeChunk chunk) {
+        final Optional<NormalizedNodeMessage> data = receiveChunk(chunk);
+        if (!data.isPresent()) {
+            return;
+        }
         if (writeTx == null) {
             writeTx = delegateBroker.newWriteOnlyTransaction();
         }
-        writeTx.merge(store, data.getIdentifier(), data.getNode());
+        writeTx.merge(store, data.get().getIdentifier(), data.get().getNode());
+    }
+
+    /**
+     * @return written data once the last chunk of the transfer is received
+     */
+    private Optional<NormalizedNodeMessage> receiveChunk(final NormalizedNodeChunk chunk) {
+        List<NormalizedNodeChunk> chunks = pendingWrites.get(chunk.getTransferId());
+        if (chunks == null) {
+            chunks = new ArrayList<>();
+            if (!chunk.isLast()) {
+                pendingWrites.put(chunk.getTransferId(), chunks);
+            }
+        }
+        chunks.add(chunk);
+        if (!chunk.isLast()) {
+            return Optional.absent();
+        }
+
+        pendingWrites.remove(chunk.getTransferId());
+        try {
+            return Optional.of(NormalizedNodeChunker.fromChunks(chunks));
+        } catch (IOException e) {
+            LOG.warn("{}: Failed to read written data", id, e);
+            writeFailure = e;
+            return Optional.absent();
+        }
+    }
+
+    private <T> Future<T> abortWithWriteFailure() {
+        final Throwable failure = writeFailure;
+        if (writeTx != null) {
+            writeTx.cancel();
+            writeTx = null;
+        }
+        resetWrites();
+        return akka.dispatch.Futures.failed(
+                new TransactionCommitFailedException(id + ": Failed to receive written data", failure));
+    }
+
+    private void resetWrites() {
+        pendingWrites.clear();
+        writeFailure = null;
     }
 
     @Override
@@ -167,11 +287,17 @@ public class NetconfDeviceMasterDataBroker implements ProxyNetconfDeviceDataBrok
 
     @Override
     public boolean cancel() {
+        resetWrites();
         return writeTx.cancel();
     }
 
     @Override
     public Future<Void> submit() {
+        if (writeFailure != null) {
+            return abortWithWriteFailure();
+        }
+        pendingWrites.clear();
+
         final CheckedFuture<Void, TransactionCommitFailedException> submitFuture = writeTx.submit();
         final DefaultPromise<Void> promise = new DefaultPromise<>();
         Futures.addCallback(submitFuture, new FutureCallback<Void>() {
@@ -193,6 +319,11 @@ public class NetconfDeviceMasterDataBroker implements ProxyNetconfDeviceDataBrok
     @Override
     @Deprecated
     public Future<RpcResult<TransactionStatus>> commit() {
+        if (writeFailure != null) {
+            return abortWithWriteFailure();
+        }
+        pendingWrites.clear();
+
         final ListenableFuture<RpcResult<TransactionStatus>> commitFuture = writeTx.commit();
         final DefaultPromise<RpcResult<TransactionStatus>> promise = new DefaultPromise<>();
         Futures.addCallback(commitFuture, new FutureCallback<RpcResult<TransactionStatus>>() {
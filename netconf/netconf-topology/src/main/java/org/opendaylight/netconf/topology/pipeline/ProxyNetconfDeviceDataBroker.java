@@ -12,19 +12,44 @@ import com.google.common.base.Optional;
 import org.opendaylight.controller.md.sal.common.api.TransactionStatus;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
-import org.opendaylight.netconf.topology.util.messages.NormalizedNodeMessage;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunk;
 import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import scala.concurrent.Future;
 
+/**
+ * Data broker of the master mount point, accessed by slave mount points through a typed actor. Data are transferred
+ * in compressed chunks of bounded size, see {@link org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunker}.
+ */
 public interface ProxyNetconfDeviceDataBroker extends DOMDataBroker{
-    Future<Optional<NormalizedNodeMessage>> read(LogicalDatastoreType store, YangInstanceIdentifier path);
+    /**
+     * @return first chunk of the read data, absent if there are no data on the path. Unless the chunk is the last one,
+     *         remaining chunks have to be requested one by one using {@link #readNextChunk(long)}.
+     */
+    Future<Optional<NormalizedNodeChunk>> read(LogicalDatastoreType store, YangInstanceIdentifier path);
+
+    /**
+     * Request next chunk of a read. Reads are pulled by the reader, so that the master does not send more data than
+     * the reader has consumed.
+     *
+     * @param transferId transfer id of the previous chunk
+     */
+    Future<NormalizedNodeChunk> readNextChunk(long transferId);
 
     Future<Boolean> exists(LogicalDatastoreType store, YangInstanceIdentifier path);
 
-    void put(LogicalDatastoreType store, NormalizedNodeMessage data);
-
-    void merge(LogicalDatastoreType store, NormalizedNodeMessage data);
+    /**
+     * Data are written after the last chunk of the transfer has been received.
+     * <p>
+     * Chunks of writes are sent without acknowledgement, there is no flow control between the writer and the master.
+     * The writer holds the whole node anyway, and failures to receive the data fail the transaction on submit.
+     */
+    void put(LogicalDatastoreType store, NormalizedNodeChunk data);
+
+    /**
+     * Data are merged after the last chunk of the transfer has been received.
+     */
+    void merge(LogicalDatastoreType store, NormalizedNodeChunk data);
 
     void delete(LogicalDatastoreType store, YangInstanceIdentifier path);
 
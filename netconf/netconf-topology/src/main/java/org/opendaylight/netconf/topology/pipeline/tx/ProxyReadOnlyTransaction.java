@@ -15,13 +15,17 @@ import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.pipeline.ProxyNetconfDeviceDataBroker;
-import org.opendaylight.netconf.topology.util.messages.NormalizedNodeMessage;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunk;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunker;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import scala.concurrent.Future;
@@ -45,7 +49,7 @@ public class ProxyReadOnlyTransaction implements DOMDataReadOnlyTransaction{
 
     @Override
     public CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> read(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
-        final Future<Optional<NormalizedNodeMessage>> future = delegate.read(store, path);
+        final Future<Optional<NormalizedNodeChunk>> future = delegate.read(store, path);
         final SettableFuture<Optional<NormalizedNode<?, ?>>> settableFuture = SettableFuture.create();
         final CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> checkedFuture = Futures.makeChecked(settableFuture, new Function<Exception, ReadFailedException>() {
             @Nullable
@@ -54,29 +58,48 @@ public class ProxyReadOnlyTransaction implements DOMDataReadOnlyTransaction{
                 return new ReadFailedException("Read from transaction failed", cause);
             }
         });
-        future.onComplete(new OnComplete<Optional<NormalizedNodeMessage>>() {
+        future.onComplete(new OnComplete<Optional<NormalizedNodeChunk>>() {
             @Override
-            public void onComplete(Throwable throwable, Optional<NormalizedNodeMessage> normalizedNodeMessage) throws Throwable {
-                if (throwable == null) {
-                    if (normalizedNodeMessage.isPresent()) {
-                        settableFuture.set(normalizedNodeMessage.transform(new Function<NormalizedNodeMessage, NormalizedNode<?, ?>>() {
-                            @Nullable
-                            @Override
-                            public NormalizedNode<?, ?> apply(NormalizedNodeMessage input) {
-                                return input.getNode();
-                            }
-                        }));
-                    } else {
-                        settableFuture.set(Optional.absent());
-                    }
-                } else {
+            public void onComplete(Throwable throwable, Optional<NormalizedNodeChunk> chunk) throws Throwable {
+                if (throwable != null) {
                     settableFuture.setException(throwable);
+                } else if (chunk.isPresent()) {
+                    receiveChunk(chunk.get(), new ArrayList<NormalizedNodeChunk>(), settableFuture);
+                } else {
+                    settableFuture.set(Optional.<NormalizedNode<?, ?>>absent());
                 }
             }
         }, actorSystem.dispatcher());
         return checkedFuture;
     }
 
+    /**
+     * Collect chunks of a read, next chunk is requested only after the previous one has arrived.
+     */
+    private void receiveChunk(final NormalizedNodeChunk chunk, final List<NormalizedNodeChunk> chunks,
+                              final SettableFuture<Optional<NormalizedNode<?, ?>>> result) {
+        chunks.add(chunk);
+        if (chunk.isLast()) {
+            try {
+                result.set(Optional.<NormalizedNode<?, ?>>of(NormalizedNodeChunker.fromChunks(chunks).getNode()));
+            } catch (IOException e) {
+                result.setException(e);
+            }
+            return;
+        }
+
+        delegate.readNextChunk(chunk.getTransferId()).onComplete(new OnComplete<NormalizedNodeChunk>() {
+            @Override
+            public void onComplete(Throwable throwable, NormalizedNodeChunk nextChunk) throws Throwable {
+                if (throwable == null) {
+                    receiveChunk(nextChunk, chunks, result);
+                } else {
+                    result.setException(throwable);
+                }
+            }
+        }, actorSystem.dispatcher());
+    }
+
     @Override
     public CheckedFuture<Boolean, ReadFailedException> exists(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
         final Future<Boolean> existsFuture = delegate.exists(store, path);
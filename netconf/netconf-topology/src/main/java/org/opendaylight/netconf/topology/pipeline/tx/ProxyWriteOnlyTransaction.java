@@ -15,13 +15,16 @@ import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import java.io.IOException;
+import java.util.List;
 import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.common.api.TransactionStatus;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
 import org.opendaylight.netconf.topology.pipeline.ProxyNetconfDeviceDataBroker;
-import org.opendaylight.netconf.topology.util.messages.NormalizedNodeMessage;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunk;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunker;
 import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
@@ -39,12 +42,25 @@ public class ProxyWriteOnlyTransaction implements DOMDataWriteTransaction {
 
     @Override
     public void put (final LogicalDatastoreType store, final YangInstanceIdentifier path, final NormalizedNode < ?,?>data){
-        delegate.put(store, new NormalizedNodeMessage(path, data));
+        // Chunks are sent in order without waiting, the master applies the data once the last one arrives
+        for (final NormalizedNodeChunk chunk : toChunks(path, data)) {
+            delegate.put(store, chunk);
+        }
     }
 
     @Override
     public void merge (final LogicalDatastoreType store, final YangInstanceIdentifier path, final NormalizedNode < ?,?>data){
-        delegate.merge(store, new NormalizedNodeMessage(path, data));
+        for (final NormalizedNodeChunk chunk : toChunks(path, data)) {
+            delegate.merge(store, chunk);
+        }
+    }
+
+    private static List<NormalizedNodeChunk> toChunks(final YangInstanceIdentifier path, final NormalizedNode<?, ?> data) {
+        try {
+            return NormalizedNodeChunker.toChunks(NormalizedNodeChunk.newTransferId(), path, data);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to serialize data for " + path, e);
+        }
     }
 
     @Override
@@ -19,6 +19,7 @@ import static org.mockito.MockitoAnnotations.initMocks;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Futures;
 import java.util.ArrayList;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -114,6 +115,11 @@ public class TopologyNodeWriterTest {
 
     }
 
+    @After
+    public void tearDown() throws Exception {
+        writer.close();
+    }
+
     @Test
     public void testInit() throws Exception {
         writer.init(NODE_ID, operationalNode);
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.topology.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunk;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunker;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import scala.concurrent.Await;
+import scala.concurrent.Future;
+import scala.concurrent.duration.Duration;
+
+public class NetconfDeviceMasterDataBrokerTest {
+
+    private static final QName CONTAINER_QNAME = QName.create("urn:test", "2016-01-01", "container");
+    private static final QName LIST_QNAME = QName.create(CONTAINER_QNAME, "list");
+    private static final QName KEY_QNAME = QName.create(CONTAINER_QNAME, "key");
+    private static final YangInstanceIdentifier PATH = YangInstanceIdentifier.of(CONTAINER_QNAME);
+
+    @Mock
+    private DOMDataBroker delegate;
+    @Mock
+    private DOMDataReadOnlyTransaction readTx;
+    @Mock
+    private DOMDataWriteTransaction writeTx;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private NormalizedNode<?, ?> node;
+    private NetconfDeviceMasterDataBroker broker;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(readTx).when(delegate).newReadOnlyTransaction();
+        doReturn(writeTx).when(delegate).newWriteOnlyTransaction();
+
+        // Random keys do not compress well, so the node does not fit into one chunk of default size
+        final Random random = new Random(0);
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = ImmutableNodes.mapNodeBuilder(LIST_QNAME);
+        for (int i = 0; i < 20000; i++) {
+            list.withChild(ImmutableNodes.mapEntry(LIST_QNAME, KEY_QNAME, Long.toHexString(random.nextLong())));
+        }
+        node = Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(CONTAINER_QNAME))
+                .withChild(list.build()).build();
+
+        final Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        broker = new NetconfDeviceMasterDataBroker(null, new RemoteDeviceId("test", new InetSocketAddress(99)),
+                delegate, MoreExecutors.directExecutor(), ticker);
+    }
+
+    @Test
+    public void testChunkedRead() throws Exception {
+        doReturn(Futures.immediateCheckedFuture(Optional.of(node))).when(readTx)
+                .read(LogicalDatastoreType.CONFIGURATION, PATH);
+
+        final NormalizedNodeChunk first = await(broker.read(LogicalDatastoreType.CONFIGURATION, PATH)).get();
+        assertFalse(first.isLast());
+
+        final List<NormalizedNodeChunk> chunks = new ArrayList<>();
+        chunks.add(first);
+        NormalizedNodeChunk chunk = first;
+        while (!chunk.isLast()) {
+            chunk = await(broker.readNextChunk(first.getTransferId()));
+            chunks.add(chunk);
+        }
+        assertEquals(node, NormalizedNodeChunker.fromChunks(chunks).getNode());
+
+        // Finished transfer is released
+        assertReadNextChunkFails(first.getTransferId());
+    }
+
+    @Test
+    public void testAbandonedReadExpires() throws Exception {
+        doReturn(Futures.immediateCheckedFuture(Optional.of(node))).when(readTx)
+                .read(LogicalDatastoreType.CONFIGURATION, PATH);
+
+        final NormalizedNodeChunk first = await(broker.read(LogicalDatastoreType.CONFIGURATION, PATH)).get();
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertReadNextChunkFails(first.getTransferId());
+    }
+
+    @Test
+    public void testChunkedPut() throws Exception {
+        final List<NormalizedNodeChunk> chunks = NormalizedNodeChunker.toChunks(NormalizedNodeChunk.newTransferId(),
+                PATH, node, 1024);
+        assertTrue(chunks.size() > 1);
+
+        for (final NormalizedNodeChunk chunk : chunks.subList(0, chunks.size() - 1)) {
+            broker.put(LogicalDatastoreType.CONFIGURATION, chunk);
+        }
+        // Data are written once the last chunk arrives
+        verify(writeTx, never()).put(any(LogicalDatastoreType.class), any(YangInstanceIdentifier.class),
+                any(NormalizedNode.class));
+
+        broker.put(LogicalDatastoreType.CONFIGURATION, chunks.get(chunks.size() - 1));
+        final ArgumentCaptor<NormalizedNode> written = ArgumentCaptor.forClass(NormalizedNode.class);
+        verify(writeTx).put(eq(LogicalDatastoreType.CONFIGURATION), eq(PATH), written.capture());
+        assertEquals(node, written.getValue());
+    }
+
+    @Test
+    public void testWriteFailureFailsSubmit() throws Exception {
+        broker.delete(LogicalDatastoreType.CONFIGURATION, PATH);
+        broker.merge(LogicalDatastoreType.CONFIGURATION,
+                new NormalizedNodeChunk(NormalizedNodeChunk.newTransferId(), new byte[] { 1, 2, 3 }, true));
+
+        try {
+            await(broker.submit());
+            fail("Submit should fail");
+        } catch (final TransactionCommitFailedException e) {
+            // expected
+        }
+        verify(writeTx).cancel();
+        verify(writeTx, never()).submit();
+    }
+
+    private void assertReadNextChunkFails(final long transferId) throws Exception {
+        try {
+            await(broker.readNextChunk(transferId));
+            fail("Transfer should not exist");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private static <T> T await(final Future<T> future) throws Exception {
+        return Await.result(future, Duration.create(5, TimeUnit.SECONDS));
+    }
+}
@@ -14,6 +14,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -24,6 +25,8 @@ import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -32,13 +35,21 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.pipeline.ProxyNetconfDeviceDataBroker;
-import org.opendaylight.netconf.topology.util.messages.NormalizedNodeMessage;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunk;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunker;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import scala.concurrent.Future;
 
 public class ProxyReadOnlyTransactionTest {
     private static final RemoteDeviceId REMOTE_DEVICE_ID = new RemoteDeviceId("testing-device", new InetSocketAddress(9999));
     private static final YangInstanceIdentifier path = YangInstanceIdentifier.create();
+    private static final QName CONTAINER_QNAME = QName.create("urn:test", "2016-01-01", "container");
+    private static final QName LEAF_QNAME = QName.create(CONTAINER_QNAME, "leaf");
+    private static final long TRANSFER_ID = 1;
 
     @Mock
     private ProxyNetconfDeviceDataBroker mockedProxyDataBroker;
@@ -46,11 +57,7 @@ public class ProxyReadOnlyTransactionTest {
     @Mock
     private ActorSystem mockedActorSystem;
 
-    @Mock
-    private NormalizedNodeMessage mockedNodeMessage;
-
-    @Mock
-    private NormalizedNode mockedNode;
+    private NormalizedNode<?, ?> node;
 
     private ProxyReadOnlyTransaction proxyReadOnlyTx;
 
@@ -59,25 +66,67 @@ public class ProxyReadOnlyTransactionTest {
         MockitoAnnotations.initMocks(this);
 
         when(mockedActorSystem.dispatcher()).thenReturn(ExecutionContexts.fromExecutorService(MoreExecutors.newDirectExecutorService()));
-        when(mockedNodeMessage.getNode()).thenReturn(mockedNode);
+        node = Builders.containerBuilder().withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(CONTAINER_QNAME))
+                .withChild(ImmutableNodes.leafNode(LEAF_QNAME, "value")).build();
 
         proxyReadOnlyTx = new ProxyReadOnlyTransaction(mockedActorSystem, REMOTE_DEVICE_ID, mockedProxyDataBroker);
     }
 
     @Test
-    public void testSuccessfulRead() throws ReadFailedException {
+    public void testSuccessfulRead() throws Exception {
+        final List<NormalizedNodeChunk> chunks = NormalizedNodeChunker.toChunks(TRANSFER_ID, path, node);
+        assertEquals(1, chunks.size());
         when(mockedProxyDataBroker.read(any(LogicalDatastoreType.class), any(YangInstanceIdentifier.class)))
-                .thenReturn(Futures.successful(Optional.of(mockedNodeMessage)));
+                .thenReturn(Futures.successful(Optional.of(chunks.get(0))));
         CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readResultFuture =  proxyReadOnlyTx.read(LogicalDatastoreType.CONFIGURATION, path);
         verify(mockedProxyDataBroker).read(eq(LogicalDatastoreType.CONFIGURATION), eq(path));
+        verify(mockedProxyDataBroker, times(0)).readNextChunk(TRANSFER_ID);
+        assertTrue(readResultFuture.isDone());
+        assertEquals(node, readResultFuture.checkedGet().get());
+    }
+
+    @Test
+    public void testSuccessfulChunkedRead() throws Exception {
+        final List<NormalizedNodeChunk> chunks = NormalizedNodeChunker.toChunks(TRANSFER_ID, path, node, 8);
+        assertTrue(chunks.size() > 2);
+        when(mockedProxyDataBroker.read(any(LogicalDatastoreType.class), any(YangInstanceIdentifier.class)))
+                .thenReturn(Futures.successful(Optional.of(chunks.get(0))));
+        @SuppressWarnings("unchecked")
+        final Future<NormalizedNodeChunk>[] nextChunks = new Future[chunks.size() - 1];
+        for (int i = 1; i < chunks.size(); i++) {
+            nextChunks[i - 1] = Futures.successful(chunks.get(i));
+        }
+        when(mockedProxyDataBroker.readNextChunk(TRANSFER_ID)).thenReturn(nextChunks[0],
+                Arrays.copyOfRange(nextChunks, 1, nextChunks.length));
+
+        CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readResultFuture =  proxyReadOnlyTx.read(LogicalDatastoreType.CONFIGURATION, path);
+        verify(mockedProxyDataBroker, times(chunks.size() - 1)).readNextChunk(TRANSFER_ID);
+        assertTrue(readResultFuture.isDone());
+        assertEquals(node, readResultFuture.checkedGet().get());
+    }
+
+    @Test
+    public void testFailedChunkedRead() throws Exception {
+        final List<NormalizedNodeChunk> chunks = NormalizedNodeChunker.toChunks(TRANSFER_ID, path, node, 8);
+        when(mockedProxyDataBroker.read(any(LogicalDatastoreType.class), any(YangInstanceIdentifier.class)))
+                .thenReturn(Futures.successful(Optional.of(chunks.get(0))));
+        when(mockedProxyDataBroker.readNextChunk(TRANSFER_ID))
+                .thenReturn(Futures.<NormalizedNodeChunk>failed(new IllegalStateException("Transfer expired")));
+
+        CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readResultFuture =  proxyReadOnlyTx.read(LogicalDatastoreType.CONFIGURATION, path);
         assertTrue(readResultFuture.isDone());
-        assertEquals(readResultFuture.checkedGet().get(), mockedNode);
+        try {
+            readResultFuture.checkedGet();
+            fail("Exception expected");
+        } catch(Exception e) {
+            assertTrue(e instanceof ReadFailedException);
+        }
     }
 
     @Test
     public void testFailedRead() {
         when(mockedProxyDataBroker.read(any(LogicalDatastoreType.class), any(YangInstanceIdentifier.class)))
-                .thenReturn(Futures.<Optional<NormalizedNodeMessage>>failed(new ReadFailedException("Test read failed!")));
+                .thenReturn(Futures.<Optional<NormalizedNodeChunk>>failed(new ReadFailedException("Test read failed!")));
         CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readResultFuture =  proxyReadOnlyTx.read(LogicalDatastoreType.CONFIGURATION, path);
         verify(mockedProxyDataBroker).read(eq(LogicalDatastoreType.CONFIGURATION), eq(path));
         assertTrue(readResultFuture.isDone());
@@ -24,6 +24,7 @@ import akka.dispatch.Futures;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Collections;
 import java.util.concurrent.ExecutionException;
 import org.junit.Before;
 import org.junit.Test;
@@ -34,14 +35,19 @@ import org.opendaylight.controller.md.sal.common.api.TransactionStatus;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.netconf.topology.pipeline.ProxyNetconfDeviceDataBroker;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunk;
+import org.opendaylight.netconf.topology.util.messages.NormalizedNodeChunker;
 import org.opendaylight.netconf.topology.util.messages.NormalizedNodeMessage;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 
 public class ProxyWriteOnlyTransactionTest {
     private static final YangInstanceIdentifier path = YangInstanceIdentifier.create();
-    private ArgumentCaptor<NormalizedNodeMessage> nodeMessageArgumentCaptor;
+    private static final QName CONTAINER_QNAME = QName.create("urn:test", "2016-01-01", "container");
+    private ArgumentCaptor<NormalizedNodeChunk> chunkArgumentCaptor;
 
     @Mock
     private ProxyNetconfDeviceDataBroker mockedDelegate;
@@ -49,8 +55,7 @@ public class ProxyWriteOnlyTransactionTest {
     @Mock
     private ActorSystem mockedActorSystem;
 
-    @Mock
-    private NormalizedNode<?, ?> normalizedNode;
+    private final NormalizedNode<?, ?> normalizedNode = ImmutableNodes.containerNode(CONTAINER_QNAME);
 
     private ProxyWriteOnlyTransaction tx;
 
@@ -60,26 +65,30 @@ public class ProxyWriteOnlyTransactionTest {
 
         when(mockedActorSystem.dispatcher()).thenReturn(ExecutionContexts.fromExecutorService(MoreExecutors.newDirectExecutorService()));
 
-        nodeMessageArgumentCaptor = ArgumentCaptor.forClass(NormalizedNodeMessage.class);
+        chunkArgumentCaptor = ArgumentCaptor.forClass(NormalizedNodeChunk.class);
         tx = new ProxyWriteOnlyTransaction(mockedActorSystem, mockedDelegate);
     }
 
     @Test
-    public void testPut() {
-        doNothing().when(mockedDelegate).put(any(LogicalDatastoreType.class), any(NormalizedNodeMessage.class));
+    public void testPut() throws Exception {
+        doNothing().when(mockedDelegate).put(any(LogicalDatastoreType.class), any(NormalizedNodeChunk.class));
         tx.put(LogicalDatastoreType.OPERATIONAL, path, normalizedNode);
-        verify(mockedDelegate).put(eq(LogicalDatastoreType.OPERATIONAL), nodeMessageArgumentCaptor.capture());
-        assertEquals(path, nodeMessageArgumentCaptor.getValue().getIdentifier());
-        assertEquals(normalizedNode, nodeMessageArgumentCaptor.getValue().getNode());
+        verify(mockedDelegate).put(eq(LogicalDatastoreType.OPERATIONAL), chunkArgumentCaptor.capture());
+        assertTrue(chunkArgumentCaptor.getValue().isLast());
+        final NormalizedNodeMessage message = NormalizedNodeChunker.fromChunks(Collections.singletonList(chunkArgumentCaptor.getValue()));
+        assertEquals(path, message.getIdentifier());
+        assertEquals(normalizedNode, message.getNode());
     }
 
     @Test
-    public void testMerge() {
-        doNothing().when(mockedDelegate).merge(any(LogicalDatastoreType.class), any(NormalizedNodeMessage.class));
+    public void testMerge() throws Exception {
+        doNothing().when(mockedDelegate).merge(any(LogicalDatastoreType.class), any(NormalizedNodeChunk.class));
         tx.merge(LogicalDatastoreType.CONFIGURATION, path, normalizedNode);
-        verify(mockedDelegate).merge(eq(LogicalDatastoreType.CONFIGURATION), nodeMessageArgumentCaptor.capture());
-        assertEquals(path, nodeMessageArgumentCaptor.getValue().getIdentifier());
-        assertEquals(normalizedNode, nodeMessageArgumentCaptor.getValue().getNode());
+        verify(mockedDelegate).merge(eq(LogicalDatastoreType.CONFIGURATION), chunkArgumentCaptor.capture());
+        assertTrue(chunkArgumentCaptor.getValue().isLast());
+        final NormalizedNodeMessage message = NormalizedNodeChunker.fromChunks(Collections.singletonList(chunkArgumentCaptor.getValue()));
+        assertEquals(path, message.getIdentifier());
+        assertEquals(normalizedNode, message.getNode());
     }
 
     @Test
@@ -14,16 +14,35 @@ import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlMappingConstants;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.mapping.api.HandlingPriority;
 import org.opendaylight.netconf.mapping.api.NetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 public abstract class AbstractNetconfOperation implements NetconfOperation {
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractNetconfOperation.class);
+
+    // Classes refining canHandle, their operations are never indexed even if they or their superclass opt in
+    private static final ClassValue<Boolean> REFINES_CAN_HANDLE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            for (Class<?> c = type; c != AbstractNetconfOperation.class; c = c.getSuperclass()) {
+                if (declaresMethod(c, "canHandle", Document.class)
+                        || declaresMethod(c, "canHandle", String.class, String.class)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
     private final String netconfSessionIdForReporting;
 
     protected AbstractNetconfOperation(final String netconfSessionIdForReporting) {
@@ -41,6 +60,69 @@ public abstract class AbstractNetconfOperation implements NetconfOperation {
         return canHandle(operationNameAndNamespace.getOperationName(), operationNameAndNamespace.getNamespace());
     }
 
+    /**
+     * Operation element handled by this operation. Allows the operation to be looked up by the name and namespace of
+     * the operation element instead of invoking {@link #canHandle(Document)} for every message. Only operations
+     * that opt in through {@link #isIndexable()} are looked up this way.
+     *
+     * @return handled operation element with handling priority, absent if the operation is not indexable
+     */
+    public final Optional<HandledOperation> getHandledOperation() {
+        if (!isIndexable()) {
+            return Optional.absent();
+        }
+        if (REFINES_CAN_HANDLE.get(getClass())) {
+            LOG.debug("Operation {} overrides canHandle, it is not indexed", this);
+            return Optional.absent();
+        }
+        return Optional.of(new HandledOperation(getOperationName(), getOperationNamespace(), getHandlingPriority()));
+    }
+
+    private static boolean declaresMethod(final Class<?> type, final String name, final Class<?>... parameterTypes) {
+        try {
+            type.getDeclaredMethod(name, parameterTypes);
+            return true;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether this operation can be looked up by its operation element. An indexable operation handles exactly
+     * the element given by {@link #getOperationName()} and {@link #getOperationNamespace()} with a constant
+     * {@link #getHandlingPriority()}, and its {@code canHandle} methods are never invoked. Operations whose class
+     * hierarchy overrides {@code canHandle} are not indexed even if they opt in.
+     *
+     * @return true if the operation can be indexed, false by default
+     */
+    protected boolean isIndexable() {
+        return false;
+    }
+
+    public static final class HandledOperation {
+        private final String operationName, namespace;
+        private final HandlingPriority handlingPriority;
+
+        public HandledOperation(final String operationName, final String namespace,
+                                final HandlingPriority handlingPriority) {
+            this.operationName = operationName;
+            this.namespace = namespace;
+            this.handlingPriority = handlingPriority;
+        }
+
+        public String getOperationName() {
+            return operationName;
+        }
+
+        public String getNamespace() {
+            return namespace;
+        }
+
+        public HandlingPriority getHandlingPriority() {
+            return handlingPriority;
+        }
+    }
+
     public static final class OperationNameAndNamespace {
         private final String operationName, namespace;
         private final XmlElement operationElement;
@@ -109,6 +191,7 @@ public abstract class AbstractNetconfOperation implements NetconfOperation {
             while(list.getLength()!=0) {
                 responseNS.appendChild(list.item(0));
             }
+            StreamedElementContent.move(response, responseNS);
             rpcReply.appendChild(responseNS);
         }
 
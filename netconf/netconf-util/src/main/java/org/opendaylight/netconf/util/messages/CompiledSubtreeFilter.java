@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util.messages;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.concurrent.Immutable;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.opendaylight.netconf.util.messages.SubtreeFilter.MatchingResult;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.Text;
+
+/**
+ * Subtree filter for notifications, compiled once and applied to any number of notifications.
+ * <p>
+ * The filter element is turned into a tree of matchers with names, namespaces, expected content and attributes
+ * resolved up front. Notifications are matched directly on their DOM without modifying it, and a result document
+ * is only created once something matches. Matching rules are the same as in {@link SubtreeFilter}.
+ * <p>
+ * Compiled filters are equal if they were compiled from equivalent filter elements, which allows subscriptions
+ * with identical filters to share the results.
+ */
+@Immutable
+public final class CompiledSubtreeFilter {
+
+    private final boolean subtree;
+    private final List<FilterNode> children;
+
+    private CompiledSubtreeFilter(final boolean subtree, final List<FilterNode> children) {
+        this.subtree = subtree;
+        this.children = children;
+    }
+
+    /**
+     * Compile filter element. Filters of type other than subtree are compiled into a filter which passes all
+     * notifications unchanged.
+     *
+     * @param filter filter element of create-subscription
+     * @return compiled filter
+     */
+    public static CompiledSubtreeFilter compile(final XmlElement filter) {
+        final boolean subtree = SubtreeFilter.isSupported(filter);
+        final ImmutableList.Builder<FilterNode> children = ImmutableList.builder();
+        if (subtree) {
+            for (final Element child : childElements(filter.getDomElement())) {
+                children.add(FilterNode.compile(child));
+            }
+        }
+        return new CompiledSubtreeFilter(subtree, children.build());
+    }
+
+    /**
+     * Filter notification content. The notification document is not modified.
+     *
+     * @param notification notification document including the notification and eventTime elements
+     * @return new document containing filtered notification content, absent if nothing matched
+     */
+    public Optional<Document> applyToNotification(final Document notification) {
+        final Element content = notificationContent(notification);
+        if (content == null) {
+            return Optional.absent();
+        }
+        if (!subtree) {
+            final Document result = XmlUtil.newDocument();
+            result.appendChild(result.importNode(content, true));
+            return Optional.of(result);
+        }
+
+        final Evaluation evaluation = new Evaluation();
+        final List<Element> matched = new ArrayList<>(1);
+        for (final FilterNode child : children) {
+            child.evaluate(content, evaluation, matched);
+        }
+        if (matched.isEmpty()) {
+            return Optional.absent();
+        }
+        // Notification contains a single element, so only the first match is relevant
+        final Document result = evaluation.document();
+        result.appendChild(matched.get(0));
+        return Optional.of(result);
+    }
+
+    private static Element notificationContent(final Document notification) {
+        for (final Element child : childElements(notification.getDocumentElement())) {
+            if (!(XmlNetconfConstants.EVENT_TIME.equals(child.getLocalName())
+                    && XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_CAPABILITY_NOTIFICATION_1_0.equals(child.getNamespaceURI()))) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static List<Element> childElements(final Element element) {
+        final NodeList childNodes = element.getChildNodes();
+        final List<Element> result = new ArrayList<>(childNodes.getLength());
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            final Node item = childNodes.item(i);
+            if (item instanceof Element) {
+                result.add((Element) item);
+            }
+        }
+        return result;
+    }
+
+    private static String nameOf(final Element element) {
+        final String localName = element.getLocalName();
+        return Strings.isNullOrEmpty(localName) ? element.getTagName() : localName;
+    }
+
+    private static String onlyTextContent(final Element element) {
+        final NodeList childNodes = element.getChildNodes();
+        if (childNodes.getLength() == 1 && childNodes.item(0) instanceof Text) {
+            return ((Text) childNodes.item(0)).getWholeText();
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CompiledSubtreeFilter)) {
+            return false;
+        }
+        final CompiledSubtreeFilter other = (CompiledSubtreeFilter) obj;
+        return subtree == other.subtree && children.equals(other.children);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(subtree, children);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("subtree", subtree).add("children", children).toString();
+    }
+
+    /**
+     * Lazily created result document.
+     */
+    private static final class Evaluation {
+        private Document document;
+
+        Document document() {
+            if (document == null) {
+                document = XmlUtil.newDocument();
+            }
+            return document;
+        }
+
+        Element copy(final Element src, final boolean deep) {
+            return (Element) document().importNode(src, deep);
+        }
+    }
+
+    @Immutable
+    private static final class FilterNode {
+        private final String name;
+        private final String namespace;
+        // Expected text content, null if content is not matched
+        private final String content;
+        // Namespace and local part of prefixed content, null if content is not prefixed
+        private final String contentNamespace;
+        private final String unprefixedContent;
+        private final List<AttributeMatch> attributes;
+        private final List<FilterNode> children;
+
+        private FilterNode(final String name, final String namespace, final String content,
+                final String contentNamespace, final String unprefixedContent, final List<AttributeMatch> attributes,
+                final List<FilterNode> children) {
+            this.name = name;
+            this.namespace = namespace;
+            this.content = content;
+            this.contentNamespace = contentNamespace;
+            this.unprefixedContent = unprefixedContent;
+            this.attributes = attributes;
+            this.children = children;
+        }
+
+        static FilterNode compile(final Element filter) {
+            final String content = onlyTextContent(filter);
+            String contentNamespace = null;
+            String unprefixedContent = null;
+            if (content != null) {
+                final int colon = content.indexOf(':');
+                if (colon > 0) {
+                    contentNamespace = filter.lookupNamespaceURI(content.substring(0, colon));
+                    if (contentNamespace != null) {
+                        unprefixedContent = content.substring(colon + 1);
+                    }
+                }
+            }
+
+            final ImmutableList.Builder<AttributeMatch> attributes = ImmutableList.builder();
+            final NamedNodeMap filterAttributes = filter.getAttributes();
+            for (int i = 0; i < filterAttributes.getLength(); i++) {
+                final Attr attr = (Attr) filterAttributes.item(i);
+                // ignore namespace declarations
+                if (!XmlUtil.XMLNS_URI.equals(attr.getNamespaceURI())) {
+                    attributes.add(new AttributeMatch(attr.getLocalName(), attr.getNamespaceURI(), attr.getValue()));
+                }
+            }
+
+            final ImmutableList.Builder<FilterNode> children = ImmutableList.builder();
+            for (final Element child : childElements(filter)) {
+                children.add(compile(child));
+            }
+
+            return new FilterNode(nameOf(filter), Strings.nullToEmpty(filter.getNamespaceURI()), content,
+                    contentNamespace, unprefixedContent, attributes.build(), children.build());
+        }
+
+        /**
+         * Match src against this filter node, adding copy of matching src to matched elements.
+         */
+        MatchingResult evaluate(final Element src, final Evaluation evaluation, final List<Element> matched) {
+            final MatchingResult matches = matches(src);
+            if (matches == MatchingResult.NO_MATCH || matches == MatchingResult.CONTENT_MISMATCH) {
+                return matches;
+            }
+
+            if (children.isEmpty()) {
+                // copy to depth if this is leaf of filter tree
+                matched.add(evaluation.copy(src, true));
+                return matches;
+            }
+
+            // this implies TAG_MATCH
+            final List<Element> matchedChildren = new ArrayList<>();
+            boolean shouldAppend = false;
+            int numberOfTextMatchingChildren = 0;
+            for (final Element srcChild : childElements(src)) {
+                for (final FilterNode filterChild : children) {
+                    final MatchingResult childMatch = filterChild.evaluate(srcChild, evaluation, matchedChildren);
+                    if (childMatch == MatchingResult.CONTENT_MISMATCH) {
+                        return MatchingResult.NO_MATCH;
+                    }
+                    if (childMatch == MatchingResult.CONTENT_MATCH) {
+                        numberOfTextMatchingChildren++;
+                    }
+                    shouldAppend |= childMatch != MatchingResult.NO_MATCH;
+                }
+            }
+
+            if (numberOfTextMatchingChildren == children.size()) {
+                // if only text matching child filters are specified, all children are added
+                matched.add(evaluation.copy(src, true));
+            } else if (shouldAppend) {
+                final Element copied = evaluation.copy(src, false);
+                for (final Element matchedChild : matchedChildren) {
+                    copied.appendChild(matchedChild);
+                }
+                matched.add(copied);
+            }
+            return matches;
+        }
+
+        private MatchingResult matches(final Element src) {
+            if (!name.equals(nameOf(src)) || !namespace.equals(Strings.nullToEmpty(src.getNamespaceURI()))) {
+                return MatchingResult.NO_MATCH;
+            }
+            if (content != null) {
+                return content.equals(onlyTextContent(src)) || prefixedContentMatches(src)
+                        ? MatchingResult.CONTENT_MATCH : MatchingResult.CONTENT_MISMATCH;
+            }
+            // match attributes, combination of content and tag is not supported
+            for (final AttributeMatch attribute : attributes) {
+                if (!attribute.matches(src)) {
+                    return MatchingResult.NO_MATCH;
+                }
+            }
+            return MatchingResult.TAG_MATCH;
+        }
+
+        private boolean prefixedContentMatches(final Element src) {
+            if (unprefixedContent == null) {
+                return false;
+            }
+            final String srcContent = src.getTextContent();
+            final int colon = srcContent.indexOf(':');
+            if (colon <= 0) {
+                return false;
+            }
+            return contentNamespace.equals(src.lookupNamespaceURI(srcContent.substring(0, colon)))
+                    && unprefixedContent.equals(srcContent.substring(colon + 1));
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FilterNode)) {
+                return false;
+            }
+            final FilterNode other = (FilterNode) obj;
+            return name.equals(other.name) && namespace.equals(other.namespace)
+                    && Objects.equals(content, other.content) && Objects.equals(contentNamespace, other.contentNamespace)
+                    && attributes.equals(other.attributes) && children.equals(other.children);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, namespace, content, contentNamespace, attributes, children);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this).omitNullValues().add("name", name).add("namespace", namespace)
+                    .add("content", content).add("attributes", attributes).add("children", children).toString();
+        }
+    }
+
+    @Immutable
+    private static final class AttributeMatch {
+        private final String localName;
+        private final String namespace;
+        private final String value;
+
+        AttributeMatch(final String localName, final String namespace, final String value) {
+            this.localName = localName;
+            this.namespace = namespace;
+            this.value = value;
+        }
+
+        boolean matches(final Element src) {
+            return value.equals(src.getAttributeNS(namespace, localName));
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof AttributeMatch)) {
+                return false;
+            }
+            final AttributeMatch other = (AttributeMatch) obj;
+            return Objects.equals(localName, other.localName) && Objects.equals(namespace, other.namespace)
+                    && value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(localName, namespace, value);
+        }
+
+        @Override
+        public String toString() {
+            return (namespace == null ? "" : "{" + namespace + "}") + localName + "=" + value;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import java.util.Map;
 import org.opendaylight.controller.config.util.xml.DocumentedException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.util.mapping.AbstractNetconfOperation.OperationNameAndNamespace;
 import org.slf4j.Logger;
@@ -55,63 +56,48 @@ public class SubtreeFilter {
 
     /**
      * Filters notification content. If filter type isn't of type "subtree", returns unchanged notification content.
-     * If no match is found, absent is returned.
+     * If no match is found, absent is returned. Notification document is not modified. Filters applied to multiple
+     * notifications should be compiled once with {@link CompiledSubtreeFilter#compile(XmlElement)}.
      * @param filter filter
      * @param notification notification
      * @return document containing filtered notification content
      * @throws DocumentedException
      */
     public static Optional<Document> applySubtreeNotificationFilter(XmlElement filter, Document notification) throws DocumentedException {
-        removeEventTimeNode(notification);
-        if (isSupported(filter)) {
-            return Optional.fromNullable(filteredNotification(filter, notification));
-        }
-        return Optional.of(extractNotificationContent(notification));
-    }
-
-    private static void removeEventTimeNode(Document document) {
-        final Node eventTimeNode = document.getDocumentElement().getElementsByTagNameNS(
-                XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_CAPABILITY_NOTIFICATION_1_0, XmlNetconfConstants.EVENT_TIME).item(0);
-        document.getDocumentElement().removeChild(eventTimeNode);
+        return CompiledSubtreeFilter.compile(filter).applyToNotification(notification);
     }
 
-    private static boolean isSupported(XmlElement filter) {
+    /**
+     * @param filter filter element of a request
+     * @return true if it is a subtree filter
+     */
+    public static boolean isSupported(XmlElement filter) {
         return "subtree".equals(filter.getAttribute("type"))||
                 "subtree".equals(filter.getAttribute("type", XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0));
     }
 
-    private static Document extractNotificationContent(Document notification) throws DocumentedException {
-        XmlElement root = XmlElement.fromDomElement(notification.getDocumentElement());
-        XmlElement content = root.getOnlyChildElement();
-        notification.removeChild(root.getDomElement());
-        notification.appendChild(content.getDomElement());
-        return notification;
-    }
-
-    private static Document filteredNotification(XmlElement filter, Document originalNotification) throws DocumentedException {
-        Document result = XmlUtil.newDocument();
-        XmlElement dataSrc = XmlElement.fromDomDocument(originalNotification);
-        Element dataDst = (Element) result.importNode(dataSrc.getDomElement(), false);
-        for (XmlElement filterChild : filter.getChildElements()) {
-            addSubtree2(filterChild, dataSrc.getOnlyChildElement(), XmlElement.fromDomElement(dataDst));
-        }
-        if(dataDst.getFirstChild() != null) {
-            result.appendChild(dataDst.getFirstChild());
-            return result;
-        } else {
-            return null;
+    private static Document filtered(XmlElement filter, Document originalReplyDocument) throws DocumentedException {
+        Element rpcReply = originalReplyDocument.getDocumentElement();
+        XmlElement dataSrc = XmlElement.fromDomElement(rpcReply).getOnlyChildElement("data", XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0);
+        Optional<StreamedElementContent> streamed = StreamedElementContent.get(dataSrc.getDomElement());
+        boolean prefiltered = streamed.isPresent() && streamed.get().isFiltered();
+        if (prefiltered && !dataSrc.getDomElement().hasChildNodes()) {
+            // content was filtered by the operation which produced it
+            return originalReplyDocument;
         }
-    }
 
-    private static Document filtered(XmlElement filter, Document originalReplyDocument) throws DocumentedException {
         Document result = XmlUtil.newDocument();
         // even if filter is empty, copy /rpc/data
-        Element rpcReply = originalReplyDocument.getDocumentElement();
         Node rpcReplyDst = result.importNode(rpcReply, false);
         result.appendChild(rpcReplyDst);
-        XmlElement dataSrc = XmlElement.fromDomElement(rpcReply).getOnlyChildElement("data", XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0);
         Element dataDst = (Element) result.importNode(dataSrc.getDomElement(), false);
         rpcReplyDst.appendChild(dataDst);
+        if (prefiltered) {
+            // keep filtered content streamed, only the rest of the data is filtered
+            StreamedElementContent.move(dataSrc.getDomElement(), dataDst);
+        }
+        // filtering works with the DOM tree
+        StreamedElementContent.materialize(originalReplyDocument);
         addSubtree(filter, dataSrc, XmlElement.fromDomElement(dataDst));
 
         return result;
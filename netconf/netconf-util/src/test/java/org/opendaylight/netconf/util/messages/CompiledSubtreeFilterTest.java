@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util.messages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import java.io.IOException;
+import org.custommonkey.xmlunit.Diff;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+public class CompiledSubtreeFilterTest {
+
+    private static final String SESSION_END_FILTER =
+            "<filter xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\" type=\"subtree\">"
+            + "<netconf-session-end xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-notifications\">"
+            + "<username>admin</username></netconf-session-end></filter>";
+
+    @Before
+    public void setUp() {
+        XMLUnit.setIgnoreWhitespace(true);
+    }
+
+    @Test
+    public void testApplyDoesNotModifyNotification() throws Exception {
+        final CompiledSubtreeFilter filter = CompiledSubtreeFilter.compile(getFilter("0"));
+        final Document notification = getDocument("0", "pre-filter.xml");
+        final String original = XmlUtil.toString(notification);
+
+        // Same notification document filtered repeatedly, as done for multiple subscribers
+        for (int i = 0; i < 3; i++) {
+            final Optional<Document> filtered = filter.applyToNotification(notification);
+            assertTrue(filtered.isPresent());
+            final Diff diff = XMLUnit.compareXML(getDocument("0", "post-filter.xml"), filtered.get());
+            assertTrue(diff.toString(), diff.similar());
+        }
+        assertEquals(original, XmlUtil.toString(notification));
+    }
+
+    @Test
+    public void testNoMatch() throws Exception {
+        final CompiledSubtreeFilter filter = CompiledSubtreeFilter.compile(getFilter("3"));
+        assertFalse(filter.applyToNotification(getDocument("3", "pre-filter.xml")).isPresent());
+    }
+
+    @Test
+    public void testContentMatch() throws Exception {
+        final CompiledSubtreeFilter filter =
+                CompiledSubtreeFilter.compile(XmlElement.fromDomElement(XmlUtil.readXmlToElement(SESSION_END_FILTER)));
+        // Only content matching filter children, whole element is included
+        final Optional<Document> filtered = filter.applyToNotification(getDocument("0", "pre-filter.xml"));
+        assertTrue(filtered.isPresent());
+        final Diff diff = XMLUnit.compareXML(getDocument("4", "post-filter.xml"), filtered.get());
+        assertTrue(diff.toString(), diff.similar());
+
+        final CompiledSubtreeFilter mismatch = CompiledSubtreeFilter.compile(XmlElement.fromDomElement(
+                XmlUtil.readXmlToElement(SESSION_END_FILTER.replace(">admin<", ">root<"))));
+        assertFalse(mismatch.applyToNotification(getDocument("0", "pre-filter.xml")).isPresent());
+    }
+
+    @Test
+    public void testEquality() throws Exception {
+        final CompiledSubtreeFilter filter = CompiledSubtreeFilter.compile(getFilter("0"));
+        assertEquals(filter, CompiledSubtreeFilter.compile(getFilter("0")));
+        assertEquals(filter.hashCode(), CompiledSubtreeFilter.compile(getFilter("0")).hashCode());
+        // Different filter type
+        assertNotEquals(filter, CompiledSubtreeFilter.compile(getFilter("1")));
+        // Different filter content
+        assertNotEquals(filter, CompiledSubtreeFilter.compile(getFilter("4")));
+    }
+
+    private XmlElement getFilter(final String directory) throws SAXException, IOException {
+        return XmlElement.fromDomDocument(getDocument(directory, "filter.xml"));
+    }
+
+    private Document getDocument(final String directory, final String fileName) throws SAXException, IOException {
+        return XmlUtil.readXmlToDocument(getClass().getResourceAsStream("/subtree/notification/" + directory + "/"
+                + fileName));
+    }
+}
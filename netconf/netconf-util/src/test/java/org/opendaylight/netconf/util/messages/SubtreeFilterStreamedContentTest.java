@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util.messages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.junit.Test;
+import org.opendaylight.controller.config.util.xml.XmlElement;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.netconf.api.xml.StreamedElementContent;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class SubtreeFilterStreamedContentTest {
+
+    private static final String REQUEST = "<rpc message-id=\"1\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+            + "<get><filter type=\"subtree\"><top xmlns=\"urn:test\"><name/></top></filter></get></rpc>";
+    private static final String REPLY = "<rpc-reply message-id=\"1\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+            + "<data/></rpc-reply>";
+    private static final String REPLY_WITH_DOM_DATA =
+            "<rpc-reply message-id=\"1\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+            + "<data><netconf-state xmlns=\"urn:monitoring\"><schemas/></netconf-state></data></rpc-reply>";
+
+    @Test
+    public void testPrefilteredContentNotMaterialized() throws Exception {
+        final Document reply = XmlUtil.readXmlToDocument(REPLY);
+        final TopContent content = new TopContent(true);
+        StreamedElementContent.attach(getData(reply), content);
+
+        final Document filtered = SubtreeFilter.applyRpcSubtreeFilter(XmlUtil.readXmlToDocument(REQUEST), reply);
+        assertSame(reply, filtered);
+        assertSame(content, StreamedElementContent.get(getData(filtered)).get());
+        assertEquals(0, content.writes);
+    }
+
+    @Test
+    public void testPrefilteredContentKeptWithFilteredDomData() throws Exception {
+        final Document reply = XmlUtil.readXmlToDocument(REPLY_WITH_DOM_DATA);
+        final TopContent content = new TopContent(true);
+        StreamedElementContent.attach(getData(reply), content);
+
+        final Document filtered = SubtreeFilter.applyRpcSubtreeFilter(XmlUtil.readXmlToDocument(REQUEST), reply);
+        final Element data = getData(filtered);
+        // netconf-state does not match the filter, content of top is still streamed
+        assertFalse(data.hasChildNodes());
+        assertSame(content, StreamedElementContent.get(data).get());
+        assertEquals(0, content.writes);
+    }
+
+    @Test
+    public void testStreamedContentFiltered() throws Exception {
+        final Document reply = XmlUtil.readXmlToDocument(REPLY);
+        final TopContent content = new TopContent(false);
+        StreamedElementContent.attach(getData(reply), content);
+
+        final Document filtered = SubtreeFilter.applyRpcSubtreeFilter(XmlUtil.readXmlToDocument(REQUEST), reply);
+        assertEquals(1, content.writes);
+        final XmlElement top = XmlElement.fromDomElement(getData(filtered)).getOnlyChildElement("top", "urn:test");
+        assertEquals(1, top.getChildElements().size());
+        assertTrue(top.getOnlyChildElementOptionally("name").isPresent());
+    }
+
+    private static Element getData(final Document reply) {
+        return XmlElement.fromDomDocument(reply).getOnlyChildElement(XmlNetconfConstants.DATA_KEY).getDomElement();
+    }
+
+    private static final class TopContent extends StreamedElementContent {
+        private final boolean filtered;
+        private int writes;
+
+        TopContent(final boolean filtered) {
+            this.filtered = filtered;
+        }
+
+        @Override
+        public boolean isFiltered() {
+            return filtered;
+        }
+
+        @Override
+        public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+            writes++;
+            writer.writeStartElement("", "top", "urn:test");
+            writer.writeStartElement("", "name", "urn:test");
+            writer.writeCharacters("a");
+            writer.writeEndElement();
+            writer.writeStartElement("", "value", "urn:test");
+            writer.writeCharacters("b");
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.messages.RawNetconfMessage;
+import org.opendaylight.yangtools.sal.binding.generator.impl.ModuleInfoBackedContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares DOM and stream based parsing of a get-config reply, including parsing of the message bytes,
+ * which is done by the decoder for DOM based messages. Compiled only with the benchmarks profile
+ * ({@code mvn -Pbenchmarks test-compile}), run with allocation profiler to compare GC pressure:
+ * <pre>
+ *     java -cp ... org.opendaylight.netconf.sal.connect.netconf.schema.mapping.NetconfMessageTransformerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class NetconfMessageTransformerBenchmark {
+
+    @Param({"100", "10000"})
+    public int entries;
+
+    private NetconfMessageTransformer transformer;
+    private byte[] reply;
+
+    @Setup
+    public void setUp() {
+        final ModuleInfoBackedContext moduleInfoBackedContext = ModuleInfoBackedContext.create();
+        moduleInfoBackedContext.addModuleInfos(Collections.singleton(
+                org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.$YangModuleInfoImpl.getInstance()));
+        moduleInfoBackedContext.addModuleInfos(Collections.singleton(
+                org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.$YangModuleInfoImpl.getInstance()));
+        final SchemaContext schemaContext = moduleInfoBackedContext.tryToCreateSchemaContext().get();
+        transformer = new NetconfMessageTransformer(schemaContext, true);
+
+        final StringBuilder builder = new StringBuilder("<rpc-reply message-id=\"m-1\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">")
+                .append("<data><netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\"><schemas>");
+        for (int i = 0; i < entries; i++) {
+            builder.append("<schema><identifier>module-").append(i).append("</identifier>")
+                    .append("<version>2016-01-01</version>")
+                    .append("<format xmlns:x=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">x:yang</format>")
+                    .append("<namespace>urn:test:module-").append(i).append("</namespace>")
+                    .append("<location>NETCONF</location></schema>");
+        }
+        builder.append("</schemas></netconf-state></data></rpc-reply>");
+        reply = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public DOMRpcResult domParser() throws Exception {
+        final NetconfMessage message = new NetconfMessage(XmlUtil.readXmlToDocument(new ByteArrayInputStream(reply)));
+        return transformer.toRpcResult(message, toPath(NETCONF_GET_CONFIG_QNAME));
+    }
+
+    @Benchmark
+    public DOMRpcResult streamParser() {
+        return transformer.toRpcResult(new RawNetconfMessage(reply), toPath(NETCONF_GET_CONFIG_QNAME));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NetconfMessageTransformerBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
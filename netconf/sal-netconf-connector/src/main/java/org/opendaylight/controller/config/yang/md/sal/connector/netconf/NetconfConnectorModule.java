@@ -205,14 +205,13 @@ public final class NetconfConnectorModule extends org.opendaylight.controller.co
 
         final ExecutorService globalProcessingExecutor = processingExecutor.getExecutor();
 
-        RemoteDeviceHandler<NetconfSessionPreferences> salFacade
-                = new NetconfDeviceSalFacade(id, domRegistry, bindingRegistry);
+        final NetconfDeviceSalFacade deviceSalFacade = new NetconfDeviceSalFacade(id, domRegistry, bindingRegistry);
+        RemoteDeviceHandler<NetconfSessionPreferences> salFacade = deviceSalFacade;
 
+        // Keepalive executor is optional for now and a default instance is supported
+        final ScheduledExecutorService executor = keepaliveExecutor == null ? DEFAULT_KEEPALIVE_EXECUTOR : keepaliveExecutor.getExecutor();
         final Long keepaliveDelay = getKeepaliveDelay();
         if (shouldSendKeepalive()) {
-            // Keepalive executor is optional for now and a default instance is supported
-            final ScheduledExecutorService executor = keepaliveExecutor == null ? DEFAULT_KEEPALIVE_EXECUTOR : keepaliveExecutor.getExecutor();
-
             salFacade = new KeepaliveSalFacade(id, salFacade, executor, keepaliveDelay, getDefaultRequestTimeoutMillis());
         }
 
@@ -300,14 +299,18 @@ public final class NetconfConnectorModule extends org.opendaylight.controller.co
             LOG.info("Concurrent rpc limit is smaller than 1, no limit will be enforced for device {}", id);
         }
 
+        final boolean rpcPipelining = Boolean.TRUE.equals(getRpcPipelining());
         final NetconfDeviceCommunicator listener = userCapabilities.isPresent() ?
                 new NetconfDeviceCommunicator(id, device,
-                        new UserPreferences(userCapabilities.get(), getYangModuleCapabilities().getOverride()), getConcurrentRpcLimit()):
-                new NetconfDeviceCommunicator(id, device, getConcurrentRpcLimit());
+                        new UserPreferences(userCapabilities.get(), getYangModuleCapabilities().getOverride()), getConcurrentRpcLimit(),
+                        rpcPipelining):
+                new NetconfDeviceCommunicator(id, device, getConcurrentRpcLimit(), rpcPipelining);
 
         if (shouldSendKeepalive()) {
             ((KeepaliveSalFacade) salFacade).setListener(listener);
         }
+        // Rpc statistics are light periodic tasks just as keepalives
+        deviceSalFacade.setRpcStatisticsSource(listener, executor);
 
         final NetconfReconnectingClientConfiguration clientConfig = getClientConfig(listener);
         listener.initializeRemoteConnection(clientDispatcher, clientConfig);
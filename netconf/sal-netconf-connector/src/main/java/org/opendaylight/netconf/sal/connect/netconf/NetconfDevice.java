@@ -44,6 +44,7 @@ import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommun
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceRpc;
 import org.opendaylight.netconf.sal.connect.netconf.schema.NetconfRemoteSchemaYangSourceProvider;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaContextCache;
 import org.opendaylight.netconf.sal.connect.netconf.schema.YangLibrarySchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.BaseSchema;
 import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.NetconfMessageTransformer;
@@ -93,6 +94,7 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
     private final ListeningExecutorService processingExecutor;
     protected final SchemaSourceRegistry schemaRegistry;
     protected final SchemaRepository schemaRepository;
+    private final SchemaContextCache schemaContextCache;
     private final NetconfDeviceSchemasResolver stateSchemasResolver;
     private final NotificationHandler notificationHandler;
     protected final List<SchemaSourceRegistration<? extends SchemaSourceRepresentation>> sourceRegistrations = Lists.newArrayList();
@@ -118,6 +120,7 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
         this.schemaRegistry = schemaResourcesDTO.getSchemaRegistry();
         this.schemaRepository = schemaResourcesDTO.getSchemaRepository();
         this.schemaContextFactory = schemaResourcesDTO.getSchemaContextFactory();
+        this.schemaContextCache = schemaResourcesDTO.getSchemaContextCache();
         this.salFacade = salFacade;
         this.stateSchemasResolver = schemaResourcesDTO.getStateSchemasResolver();
         this.processingExecutor = MoreExecutors.listeningDecorator(globalProcessingExecutor);
@@ -273,15 +276,26 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
         private final SchemaRepository schemaRepository;
         private final SchemaContextFactory schemaContextFactory;
         private final NetconfDeviceSchemasResolver stateSchemasResolver;
+        private final SchemaContextCache schemaContextCache;
 
         public SchemaResourcesDTO(final SchemaSourceRegistry schemaRegistry,
                                   final SchemaRepository schemaRepository,
                                   final SchemaContextFactory schemaContextFactory,
                                   final NetconfDeviceSchemasResolver deviceSchemasResolver) {
+            this(schemaRegistry, schemaRepository, schemaContextFactory, deviceSchemasResolver,
+                    SchemaContextCache.getDefault());
+        }
+
+        public SchemaResourcesDTO(final SchemaSourceRegistry schemaRegistry,
+                                  final SchemaRepository schemaRepository,
+                                  final SchemaContextFactory schemaContextFactory,
+                                  final NetconfDeviceSchemasResolver deviceSchemasResolver,
+                                  final SchemaContextCache schemaContextCache) {
             this.schemaRegistry = Preconditions.checkNotNull(schemaRegistry);
             this.schemaRepository = Preconditions.checkNotNull(schemaRepository);
             this.schemaContextFactory = Preconditions.checkNotNull(schemaContextFactory);
             this.stateSchemasResolver = Preconditions.checkNotNull(deviceSchemasResolver);
+            this.schemaContextCache = Preconditions.checkNotNull(schemaContextCache);
         }
 
         public SchemaSourceRegistry getSchemaRegistry() {
@@ -299,6 +313,10 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
         public NetconfDeviceSchemasResolver getStateSchemasResolver() {
             return stateSchemasResolver;
         }
+
+        public SchemaContextCache getSchemaContextCache() {
+            return schemaContextCache;
+        }
     }
 
     /**
@@ -448,8 +466,8 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
             while (!requiredSources.isEmpty()) {
                 LOG.trace("{}: Trying to build schema context from {}", id, requiredSources);
                 try {
-                    final CheckedFuture<SchemaContext, SchemaResolutionException> schemaBuilderFuture = schemaContextFactory.createSchemaContext(requiredSources);
-                    final SchemaContext result = schemaBuilderFuture.checkedGet();
+                    // Devices with the same sources share the schema context
+                    final SchemaContext result = schemaContextCache.getSchemaContext(id, schemaRepository, schemaContextFactory, requiredSources);
                     LOG.debug("{}: Schema context built successfully from {}", id, requiredSources);
                     final Collection<QName> filteredQNames = Sets.difference(deviceSources.getRequiredSourcesQName(), capabilities.getUnresolvedCapabilites().keySet());
                     capabilities.addCapabilities(filteredQNames);
@@ -460,7 +478,7 @@ public class NetconfDevice implements RemoteDevice<NetconfSessionPreferences, Ne
                     if (t instanceof MissingSchemaSourceException){
                         requiredSources = handleMissingSchemaSourceException(requiredSources, (MissingSchemaSourceException) t);
                     } else if (t instanceof SchemaResolutionException) {
-                        // schemaBuilderFuture.checkedGet() throws only SchemaResolutionException
+                        // schema context build throws only SchemaResolutionException
                         // that might be wrapping a MissingSchemaSourceException so we need to look
                         // at the cause of the exception to make sure we don't misinterpret it.
                         if (t.getCause() instanceof MissingSchemaSourceException) {
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+import com.google.common.base.Preconditions;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Number of rpc requests that can be pipelined to a device without waiting for replies, adapted to observed
+ * reply latency.
+ * <p>
+ * Lowest latency observed is taken as the latency of an idle device. Once per epoch (as many replies as is the
+ * current window, roughly one round trip) the window grows by one if the smoothed latency stays close to the
+ * baseline and shrinks by a quarter if requests are queuing up at the device, which shows as the latency going up.
+ * The baseline slowly drifts upwards unless renewed by lower samples, so a device which became slower permanently
+ * does not keep the window at its minimum.
+ */
+@ThreadSafe
+final class AdaptiveRpcWindow {
+
+    static final int INITIAL_WINDOW = 8;
+
+    // Weight of a sample in the smoothed latency
+    private static final double LATENCY_ALPHA = 0.125;
+    // Grow the window while smoothed latency is below GROW_FACTOR times the baseline
+    private static final int GROW_FACTOR = 2;
+    // Shrink the window when smoothed latency is above SHRINK_FACTOR times the baseline
+    private static final int SHRINK_FACTOR = 4;
+    // Baseline growth per epoch
+    private static final double BASELINE_DRIFT = 1.0 / 16;
+
+    private final int maxWindow;
+
+    @GuardedBy("this")
+    private int window;
+    @GuardedBy("this")
+    private int inFlight;
+    @GuardedBy("this")
+    private double smoothedLatency = -1;
+    @GuardedBy("this")
+    private double baselineLatency = Double.MAX_VALUE;
+    @GuardedBy("this")
+    private long epochMinLatency = Long.MAX_VALUE;
+    @GuardedBy("this")
+    private int epochReplies;
+
+    AdaptiveRpcWindow(final int maxWindow) {
+        Preconditions.checkArgument(maxWindow > 0, "Window has to be positive, was %s", maxWindow);
+        this.maxWindow = maxWindow;
+        this.window = Math.min(maxWindow, INITIAL_WINDOW);
+    }
+
+    /**
+     * @return true if the window allows another request to be sent, the request then has to be released
+     */
+    synchronized boolean tryAcquire() {
+        if (inFlight < window) {
+            inFlight++;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void release() {
+        Preconditions.checkState(inFlight > 0, "No request in flight");
+        inFlight--;
+    }
+
+    /**
+     * Record latency of a reply and adapt the window if an epoch has ended.
+     *
+     * @param latencyNanos time between sending the request and receiving its reply
+     */
+    synchronized void onReply(final long latencyNanos) {
+        smoothedLatency = smoothedLatency < 0 ? latencyNanos
+                : smoothedLatency + LATENCY_ALPHA * (latencyNanos - smoothedLatency);
+        epochMinLatency = Math.min(epochMinLatency, latencyNanos);
+
+        if (++epochReplies < window) {
+            return;
+        }
+
+        baselineLatency = Math.min(baselineLatency == Double.MAX_VALUE ? Double.MAX_VALUE
+                : baselineLatency * (1 + BASELINE_DRIFT), epochMinLatency);
+        if (smoothedLatency < GROW_FACTOR * baselineLatency) {
+            window = Math.min(maxWindow, window + 1);
+        } else if (smoothedLatency > SHRINK_FACTOR * baselineLatency) {
+            window = Math.max(1, window - Math.max(1, window / 4));
+        }
+        epochReplies = 0;
+        epochMinLatency = Long.MAX_VALUE;
+    }
+
+    synchronized int getWindow() {
+        return window;
+    }
+
+    int getMaxWindow() {
+        return maxWindow;
+    }
+}
@@ -16,11 +16,15 @@ import com.google.common.util.concurrent.SettableFuture;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.GenericFutureListener;
-import java.util.ArrayDeque;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import org.opendaylight.controller.config.util.xml.XmlElement;
@@ -28,6 +32,7 @@ import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
+import org.opendaylight.netconf.api.messages.RawNetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.client.NetconfClientDispatcher;
 import org.opendaylight.netconf.client.NetconfClientSession;
@@ -44,7 +49,20 @@ import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-
+import org.w3c.dom.Document;
+
+/**
+ * Session listener and request sender for a single netconf device. Requests are correlated with replies
+ * using their message-id, so replies can arrive in any order. Message-ids are not unique among requests of a
+ * session, as a device uses several message transformers, each counting its own message-ids. A request whose
+ * message-id is already pending is sent as a copy with message-id made unique by the communicator. Replies not
+ * matching any pending request are dropped. Sending requests and processing replies does
+ * not require any lock, the session lock only serializes session establishment and tear down.
+ * <p>
+ * Number of requests waiting for reply can be limited. By default, requests over the limit are rejected. In rpc
+ * pipelining mode requests over the limit are queued instead and the limit is the maximal size of
+ * {@link AdaptiveRpcWindow}, which is adapted to the reply latency of the device.
+ */
 public class NetconfDeviceCommunicator implements NetconfClientSessionListener, RemoteDeviceCommunicator<NetconfMessage> {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfDeviceCommunicator.class);
@@ -54,34 +72,73 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
     protected final RemoteDeviceId id;
     private final Lock sessionLock = new ReentrantLock();
 
+    // Requests queued per request in the window, when pipelining
+    private static final int QUEUED_REQUESTS_PER_WINDOW = 16;
+
     private final Semaphore semaphore;
     private final int concurentRpcMsgs;
 
-    private final Queue<Request> requests = new ArrayDeque<>();
-    private NetconfClientSession session;
+    private final AdaptiveRpcWindow window;
+    private final int maxQueuedRequests;
+    private final Queue<Request> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedRequests = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    // Counters of requests which never got sent, exported in operational state of the device
+    private final AtomicLong rejectedRequests = new AtomicLong();
+    private final AtomicLong timedOutRequests = new AtomicLong();
+
+    private final ConcurrentMap<String, Request> requests = new ConcurrentHashMap<>();
+    private final AtomicLong requestSequence = new AtomicLong();
+    private final AtomicInteger maxInFlightRequests = new AtomicInteger();
+    private final AtomicLong unmatchedReplies = new AtomicLong();
+    private volatile NetconfClientSession session;
 
     private Future<?> initFuture;
     private SettableFuture<NetconfDeviceCapabilities> firstConnectionFuture;
 
     public NetconfDeviceCommunicator(final RemoteDeviceId id, final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
             final UserPreferences NetconfSessionPreferences, final int rpcMessageLimit) {
-        this(id, remoteDevice, Optional.of(NetconfSessionPreferences), rpcMessageLimit);
+        this(id, remoteDevice, Optional.of(NetconfSessionPreferences), rpcMessageLimit, false);
     }
 
     public NetconfDeviceCommunicator(final RemoteDeviceId id,
                                      final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
                                      final int rpcMessageLimit) {
-        this(id, remoteDevice, Optional.<UserPreferences>absent(), rpcMessageLimit);
+        this(id, remoteDevice, Optional.<UserPreferences>absent(), rpcMessageLimit, false);
+    }
+
+    public NetconfDeviceCommunicator(final RemoteDeviceId id, final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
+            final UserPreferences NetconfSessionPreferences, final int rpcMessageLimit, final boolean rpcPipelining) {
+        this(id, remoteDevice, Optional.of(NetconfSessionPreferences), rpcMessageLimit, rpcPipelining);
+    }
+
+    public NetconfDeviceCommunicator(final RemoteDeviceId id,
+                                     final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
+                                     final int rpcMessageLimit, final boolean rpcPipelining) {
+        this(id, remoteDevice, Optional.<UserPreferences>absent(), rpcMessageLimit, rpcPipelining);
     }
 
     private NetconfDeviceCommunicator(final RemoteDeviceId id, final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
-                                      final Optional<UserPreferences> overrideNetconfCapabilities, final int rpcMessageLimit) {
+                                      final Optional<UserPreferences> overrideNetconfCapabilities, final int rpcMessageLimit,
+                                      final boolean rpcPipelining) {
         this.concurentRpcMsgs = rpcMessageLimit;
         this.id = id;
         this.remoteDevice = remoteDevice;
         this.overrideNetconfCapabilities = overrideNetconfCapabilities;
         this.firstConnectionFuture = SettableFuture.create();
-        this.semaphore = rpcMessageLimit > 0 ? new Semaphore(rpcMessageLimit) : null;
+        if (rpcPipelining && rpcMessageLimit < 1) {
+            LOG.warn("{}: Rpc pipelining requires concurrent rpc limit, pipelining disabled", id);
+        }
+        if (rpcPipelining && rpcMessageLimit > 0) {
+            this.semaphore = null;
+            this.window = new AdaptiveRpcWindow(rpcMessageLimit);
+            this.maxQueuedRequests = rpcMessageLimit * QUEUED_REQUESTS_PER_WINDOW;
+        } else {
+            this.semaphore = rpcMessageLimit > 0 ? new Semaphore(rpcMessageLimit) : null;
+            this.window = null;
+            this.maxQueuedRequests = 0;
+        }
     }
 
     @Override
@@ -162,18 +219,12 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
                 session = null;
 
                 /*
-                 * Walk all requests, check if they have been executing
-                 * or cancelled and remove them from the queue.
+                 * Remove all pending requests. Requests registered concurrently with this
+                 * walk are failed by sendRequest, once it sees the session is gone.
                  */
-                final Iterator<Request> it = requests.iterator();
-                while (it.hasNext()) {
-                    final Request r = it.next();
-                    if (r.future.isUncancellable()) {
-                        futuresToCancel.add( r.future );
-                        it.remove();
-                    } else if (r.future.isCancelled()) {
-                        // This just does some house-cleaning
-                        it.remove();
+                for (final Map.Entry<String, Request> e : requests.entrySet()) {
+                    if (removeRequest(e.getKey(), e.getValue())) {
+                        futuresToCancel.add( e.getValue().future );
                     }
                 }
 
@@ -193,6 +244,9 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
                 future.set( createErrorRpcResult( RpcError.ErrorType.TRANSPORT, reason ) );
             }
         }
+
+        // Queued requests are failed as they get dispatched without a session
+        dispatchQueued();
     }
 
     private RpcResult<NetconfMessage> createSessionDownRpcResult() {
@@ -240,70 +294,67 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
             processNotification(message);
         } else {
             processMessage(message);
+            dispatchQueued();
         }
     }
 
     private void processMessage(final NetconfMessage message) {
-        Request request = null;
-        sessionLock.lock();
-
-        try {
-            request = requests.peek();
-            if (request != null && request.future.isUncancellable()) {
-                requests.poll();
-                // we have just removed one request from the queue
-                // we can also release one permit
-                if(semaphore != null) {
-                    semaphore.release();
-                }
-            } else {
-                request = null;
-                LOG.warn("{}: Ignoring unsolicited message {}", id,
-                        msgToS(message));
-            }
+        final String messageId = NetconfMessageTransformUtil.getMessageId(message);
+        final Request request = requests.get(messageId);
+        if (request == null || !removeRequest(messageId, request)) {
+            // Without a matching message-id there is no telling which request the reply belongs to
+            unmatchedReplies.incrementAndGet();
+            LOG.warn("{}: Ignoring unsolicited message {}", id,
+                    msgToS(message));
+            return;
         }
-        finally {
-            sessionLock.unlock();
+        if (window != null) {
+            window.onReply(System.nanoTime() - request.sentNanos);
         }
 
-        if( request != null ) {
-
-            LOG.debug("{}: Message received {}", id, message);
-
-            if(LOG.isTraceEnabled()) {
-                LOG.trace( "{}: Matched request: {} to response: {}", id, msgToS( request.request ), msgToS( message ) );
-            }
+        LOG.debug("{}: Message received {}", id, message);
 
-            try {
-                NetconfMessageTransformUtil.checkValidReply( request.request, message );
-            } catch (final NetconfDocumentedException e) {
-                LOG.warn(
-                        "{}: Invalid request-reply match, reply message contains different message-id, request: {}, response: {}",
-                        id, msgToS(request.request), msgToS(message), e);
-
-                request.future.set( RpcResultBuilder.<NetconfMessage>failed()
-                        .withRpcError( NetconfMessageTransformUtil.toRpcError( e ) ).build() );
-
-                //recursively processing message to eventually find matching request
-                processMessage(message);
+        if(LOG.isTraceEnabled()) {
+            LOG.trace( "{}: Matched request: {} to response: {}", id, msgToS( request.request ), msgToS( message ) );
+        }
 
-                return;
-            }
+        try {
+            NetconfMessageTransformUtil.checkValidReply( request.request, message );
+        } catch (final NetconfDocumentedException e) {
+            LOG.warn(
+                    "{}: Invalid request-reply match, reply message contains different message-id, request: {}, response: {}",
+                    id, msgToS(request.request), msgToS(message), e);
+
+            request.future.set( RpcResultBuilder.<NetconfMessage>failed()
+                    .withRpcError( NetconfMessageTransformUtil.toRpcError( e ) ).build() );
+            return;
+        }
 
-            try {
-                NetconfMessageTransformUtil.checkSuccessReply(message);
-            } catch(final NetconfDocumentedException e) {
-                LOG.warn(
-                        "{}: Error reply from remote device, request: {}, response: {}",
-                        id, msgToS(request.request), msgToS(message), e);
+        try {
+            NetconfMessageTransformUtil.checkSuccessReply(message);
+        } catch(final NetconfDocumentedException e) {
+            LOG.warn(
+                    "{}: Error reply from remote device, request: {}, response: {}",
+                    id, msgToS(request.request), msgToS(message), e);
+
+            request.future.set( RpcResultBuilder.<NetconfMessage>failed()
+                    .withRpcError( NetconfMessageTransformUtil.toRpcError( e ) ).build() );
+            return;
+        }
 
-                request.future.set( RpcResultBuilder.<NetconfMessage>failed()
-                        .withRpcError( NetconfMessageTransformUtil.toRpcError( e ) ).build() );
-                return;
-            }
+        request.future.set( RpcResultBuilder.success( message ).build() );
+    }
 
-            request.future.set( RpcResultBuilder.success( message ).build() );
+    /**
+     * Remove pending request and release its permit. Only the caller that actually removed
+     * the request is responsible for completing its future.
+     */
+    private boolean removeRequest(final String messageId, final Request request) {
+        if (requests.remove(messageId, request)) {
+            releasePermit();
+            return true;
         }
+        return false;
     }
 
     private static String msgToS(final NetconfMessage msg) {
@@ -312,40 +363,105 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
 
     @Override
     public ListenableFuture<RpcResult<NetconfMessage>> sendRequest(final NetconfMessage message, final QName rpc) {
-        sessionLock.lock();
+        if (window != null) {
+            return queueRequest(message);
+        }
 
         if (semaphore != null && !semaphore.tryAcquire()) {
+            rejectedRequests.incrementAndGet();
             LOG.warn("Limit of concurrent rpc messages was reached (limit :" +
                     concurentRpcMsgs + "). Rpc reply message is needed. Discarding request of Netconf device with id" + id.getName());
-            sessionLock.unlock();
             return Futures.immediateFailedFuture(new NetconfDocumentedException("Limit of rpc messages was reached (Limit :" +
                     concurentRpcMsgs + ") waiting for emptying the queue of Netconf device with id" + id.getName()));
         }
 
-        try {
-            return sendRequestWithLock(message, rpc);
-        } finally {
-            sessionLock.unlock();
+        final Request req = new Request( new UncancellableFuture<RpcResult<NetconfMessage>>(true), message );
+        dispatchRequest(req);
+        return req.future;
+    }
+
+    private ListenableFuture<RpcResult<NetconfMessage>> queueRequest(final NetconfMessage message) {
+        if (session == null) {
+            LOG.warn("{}: Session is disconnected, failing RPC request {}",
+                    id, message);
+            return Futures.immediateFuture( createSessionDownRpcResult() );
+        }
+
+        if (queuedRequests.incrementAndGet() > maxQueuedRequests) {
+            queuedRequests.decrementAndGet();
+            rejectedRequests.incrementAndGet();
+            LOG.warn("{}: Limit of queued rpc messages was reached (limit: {}), discarding request", id, maxQueuedRequests);
+            return Futures.immediateFailedFuture(new NetconfDocumentedException("Limit of queued rpc messages was reached (Limit :" +
+                    maxQueuedRequests + ") waiting for replies of Netconf device with id" + id.getName()));
+        }
+
+        // Queued request can be cancelled until it gets dispatched
+        final Request req = new Request( new UncancellableFuture<RpcResult<NetconfMessage>>(false), message );
+        queue.add(req);
+        dispatchQueued();
+        return req.future;
+    }
+
+    /**
+     * Send queued requests while the window allows it. Only one thread dispatches at a time, others just make sure
+     * the dispatching thread does one more round.
+     */
+    private void dispatchQueued() {
+        if (window == null || drainRequests.getAndIncrement() != 0) {
+            return;
         }
+
+        do {
+            while (!queue.isEmpty() && window.tryAcquire()) {
+                final Request req = queue.poll();
+                if (req == null) {
+                    window.release();
+                    break;
+                }
+                queuedRequests.decrementAndGet();
+
+                if (!req.future.setUncancellable()) {
+                    // Caller gave up waiting, typically due to request timeout of the mount point
+                    timedOutRequests.incrementAndGet();
+                    window.release();
+                    continue;
+                }
+                dispatchRequest(req);
+            }
+        } while (drainRequests.decrementAndGet() != 0);
     }
 
-    private ListenableFuture<RpcResult<NetconfMessage>> sendRequestWithLock(
-                                               final NetconfMessage message, final QName rpc) {
+    /**
+     * Register and send request, which already holds a permit. The request future is failed if it cannot be sent.
+     */
+    private void dispatchRequest(final Request req) {
+        final NetconfMessage message = req.request;
         if(LOG.isTraceEnabled()) {
             LOG.trace("{}: Sending message {}", id, msgToS(message));
         }
 
-        if (session == null) {
+        final NetconfClientSession currentSession = session;
+        if (currentSession == null) {
             LOG.warn("{}: Session is disconnected, failing RPC request {}",
                     id, message);
-            return Futures.immediateFuture( createSessionDownRpcResult() );
+            releasePermit();
+            req.future.set( createSessionDownRpcResult() );
+            return;
         }
 
-        final Request req = new Request( new UncancellableFuture<RpcResult<NetconfMessage>>(true),
-                                         message );
-        requests.add(req);
+        final String messageId = registerRequest(req);
+        updateMaxInFlightRequests();
 
-        session.sendMessage(req.request).addListener(new FutureListener<Void>() {
+        if (session != currentSession) {
+            // Session went down while the request was being registered, tearDown might have missed it
+            if (removeRequest(messageId, req)) {
+                req.future.set( createSessionDownRpcResult() );
+            }
+            return;
+        }
+
+        req.sentNanos = System.nanoTime();
+        currentSession.sendMessage(req.request).addListener(new FutureListener<Void>() {
             @Override
             public void operationComplete(final Future<Void> future) throws Exception {
                 if( !future.isSuccess() ) {
@@ -354,6 +470,8 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
                             XmlUtil.toString(req.request.getDocument()),
                             future.cause());
 
+                    // No reply is going to come, request is not pending anymore
+                    removeRequest(messageId, req);
                     if( future.cause() != null ) {
                         req.future.set( createErrorRpcResult( RpcError.ErrorType.TRANSPORT,
                                                               future.cause().getLocalizedMessage() ) );
@@ -361,14 +479,111 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
                         req.future.set( createSessionDownRpcResult() ); // assume session is down
                     }
                     req.future.setException( future.cause() );
+                    dispatchQueued();
                 }
                 else {
                     LOG.trace("Finished sending request {}", req.request);
                 }
             }
         });
+    }
 
-        return req.future;
+    /**
+     * Register request as pending under its message-id. Message-id already pending is replaced in a copy of the
+     * request, the caller's message is not modified as callers may send the same message repeatedly.
+     *
+     * @return message-id the request was registered under
+     */
+    private String registerRequest(final Request req) {
+        final String messageId = NetconfMessageTransformUtil.getMessageId(req.request);
+        if (requests.putIfAbsent(messageId, req) == null) {
+            return messageId;
+        }
+
+        final Document copy = (Document) req.request.getDocument().cloneNode(true);
+        req.request = new NetconfMessage(copy);
+        while (true) {
+            final String uniqueId = messageId + "-" + requestSequence.getAndIncrement();
+            if (copy.getDocumentElement() != null) {
+                copy.getDocumentElement().setAttribute(NetconfMessageTransformUtil.MESSAGE_ID_ATTR, uniqueId);
+            }
+            if (requests.putIfAbsent(uniqueId, req) == null) {
+                LOG.debug("{}: Request with message-id {} is already pending, sending it with message-id {}",
+                        id, messageId, uniqueId);
+                return uniqueId;
+            }
+        }
+    }
+
+    private void releasePermit() {
+        if (semaphore != null) {
+            semaphore.release();
+        }
+        if (window != null) {
+            window.release();
+        }
+    }
+
+    private void updateMaxInFlightRequests() {
+        final int inFlight = requests.size();
+        int max = maxInFlightRequests.get();
+        while (inFlight > max && !maxInFlightRequests.compareAndSet(max, inFlight)) {
+            max = maxInFlightRequests.get();
+        }
+    }
+
+    /**
+     * @return number of requests sent to the device and waiting for reply
+     */
+    public int getInFlightRequests() {
+        return requests.size();
+    }
+
+    /**
+     * @return highest number of requests waiting for reply at the same time since the communicator was created
+     */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests.get();
+    }
+
+    /**
+     * @return number of replies whose message-id did not match any pending request, these replies are dropped
+     */
+    public long getUnmatchedReplies() {
+        return unmatchedReplies.get();
+    }
+
+    /**
+     * @return number of requests waiting for the rpc window, always 0 without rpc pipelining
+     */
+    public int getQueuedRequests() {
+        return queuedRequests.get();
+    }
+
+    /**
+     * @return number of requests rejected since the communicator was created, due to concurrent rpc limit or full
+     * queue of requests
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.get();
+    }
+
+    /**
+     * @return number of queued requests which timed out before they could be sent
+     */
+    public long getTimedOutRequests() {
+        return timedOutRequests.get();
+    }
+
+    /**
+     * @return number of requests that can wait for reply at the same time, adapted to the device with rpc
+     * pipelining, 0 if not limited
+     */
+    public int getRpcWindow() {
+        if (window != null) {
+            return window.getWindow();
+        }
+        return semaphore != null ? concurentRpcMsgs : 0;
     }
 
     private void processNotification(final NetconfMessage notification) {
@@ -380,13 +595,17 @@ public class NetconfDeviceCommunicator implements NetconfClientSessionListener,
     }
 
     private static boolean isNotification(final NetconfMessage message) {
+        if (message instanceof RawNetconfMessage) {
+            return XmlNetconfConstants.NOTIFICATION_ELEMENT_NAME.equals(((RawNetconfMessage) message).getRootElementName());
+        }
         final XmlElement xmle = XmlElement.fromDomDocument(message.getDocument());
         return XmlNetconfConstants.NOTIFICATION_ELEMENT_NAME.equals(xmle.getName()) ;
     }
 
     private static final class Request {
         final UncancellableFuture<RpcResult<NetconfMessage>> future;
-        final NetconfMessage request;
+        volatile NetconfMessage request;
+        volatile long sentNanos;
 
         private Request(final UncancellableFuture<RpcResult<NetconfMessage>> future,
                         final NetconfMessage request) {
@@ -112,6 +112,7 @@ public final class NetconfSessionPreferences {
                 .add("monitoring", isMonitoringSupported())
                 .add("candidate", isCandidateSupported())
                 .add("writableRunning", isRunningWritable())
+                .add("confirmedCommit", isConfirmedCommitSupported())
                 .toString();
     }
 
@@ -123,6 +124,10 @@ public final class NetconfSessionPreferences {
         return containsNonModuleCapability(NetconfMessageTransformUtil.NETCONF_CANDIDATE_URI.toString());
     }
 
+    public boolean isConfirmedCommitSupported() {
+        return containsNonModuleCapability(NetconfMessageTransformUtil.NETCONF_CONFIRMED_COMMIT_URI.toString());
+    }
+
     public boolean isRunningWritable() {
         return containsNonModuleCapability(NetconfMessageTransformUtil.NETCONF_RUNNING_WRITABLE_URI.toString());
     }
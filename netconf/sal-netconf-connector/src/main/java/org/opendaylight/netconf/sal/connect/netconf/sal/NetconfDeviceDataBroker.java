@@ -34,10 +34,25 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
 public final class NetconfDeviceDataBroker implements DOMDataBroker {
+    /**
+     * System property enabling combination of all edits of a write transaction into single edit-config sent on submit,
+     * instead of sending one edit-config per put, merge or delete.
+     */
+    public static final String BATCH_EDIT_CONFIG_PROPERTY = "org.opendaylight.netconf.batch-edit-config";
+
+    /**
+     * System property with timeout in seconds of confirmed commit used by candidate transactions, when the device
+     * supports :confirmed-commit:1.1. Commit is then confirmed only after all RPCs of the transaction succeeded.
+     * Confirmed commit is not used by default.
+     */
+    public static final String CONFIRMED_COMMIT_TIMEOUT_PROPERTY = "org.opendaylight.netconf.confirmed-commit-timeout";
+
     private final RemoteDeviceId id;
     private final NetconfBaseOps netconfOps;
 
     private final boolean rollbackSupport;
+    private final boolean batchEdits = Boolean.getBoolean(BATCH_EDIT_CONFIG_PROPERTY);
+    private final long confirmTimeout;
     private boolean candidateSupported;
     private boolean runningWritable;
 
@@ -49,6 +64,8 @@ public final class NetconfDeviceDataBroker implements DOMDataBroker {
         candidateSupported = netconfSessionPreferences.isCandidateSupported();
         runningWritable = netconfSessionPreferences.isRunningWritable();
         rollbackSupport = netconfSessionPreferences.isRollbackSupported();
+        confirmTimeout = netconfSessionPreferences.isConfirmedCommitSupported()
+                ? Math.max(0, Long.getLong(CONFIRMED_COMMIT_TIMEOUT_PROPERTY, 0)) : 0;
         Preconditions.checkArgument(candidateSupported || runningWritable,
             "Device %s has advertised neither :writable-running nor :candidate capability. At least one of these should be advertised. Failed to establish a session.", id.getName());
     }
@@ -67,12 +84,12 @@ public final class NetconfDeviceDataBroker implements DOMDataBroker {
     public DOMDataWriteTransaction newWriteOnlyTransaction() {
         if(candidateSupported) {
             if(runningWritable) {
-                return new WriteCandidateRunningTx(id, netconfOps, rollbackSupport);
+                return new WriteCandidateRunningTx(id, netconfOps, rollbackSupport, batchEdits, confirmTimeout);
             } else {
-                return new WriteCandidateTx(id, netconfOps, rollbackSupport);
+                return new WriteCandidateTx(id, netconfOps, rollbackSupport, batchEdits, confirmTimeout);
             }
         } else {
-            return new WriteRunningTx(id, netconfOps, rollbackSupport);
+            return new WriteRunningTx(id, netconfOps, rollbackSupport, batchEdits);
         }
     }
 
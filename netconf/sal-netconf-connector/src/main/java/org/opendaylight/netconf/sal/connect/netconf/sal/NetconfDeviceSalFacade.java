@@ -8,7 +8,12 @@
 package org.opendaylight.netconf.sal.connect.netconf.sal;
 
 import com.google.common.collect.Lists;
+import java.math.BigInteger;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
@@ -16,21 +21,41 @@ import org.opendaylight.controller.sal.binding.api.BindingAwareBroker;
 import org.opendaylight.controller.sal.core.api.Broker;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
+import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommunicator;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.RpcStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.RpcStatisticsBuilder;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessionPreferences> {
 
+    /**
+     * System property with the period in seconds of publishing rpc statistics of a connected device, 10 by default.
+     * Statistics are not published if the period is not positive.
+     */
+    public static final String RPC_STATISTICS_PERIOD_PROPERTY = "org.opendaylight.netconf.rpc-statistics-period-seconds";
+
     private static final Logger LOG = LoggerFactory.getLogger(NetconfDeviceSalFacade.class);
 
+    private static final long RPC_STATISTICS_PERIOD_SECONDS = Long.getLong(RPC_STATISTICS_PERIOD_PROPERTY, 10);
+
     private final RemoteDeviceId id;
     private final NetconfDeviceSalProvider salProvider;
 
     private final List<AutoCloseable> salRegistrations = Lists.newArrayList();
 
+    @GuardedBy("this")
+    private NetconfDeviceCommunicator communicator;
+    @GuardedBy("this")
+    private ScheduledExecutorService statisticsExecutor;
+    @GuardedBy("this")
+    private ScheduledFuture<?> statisticsTask;
+    @GuardedBy("this")
+    private RpcStatistics lastStatistics;
+
     public NetconfDeviceSalFacade(final RemoteDeviceId id, final Broker domBroker, final BindingAwareBroker bindingBroker) {
         this.id = id;
         this.salProvider = new NetconfDeviceSalProvider(id);
@@ -42,6 +67,19 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
         bindingBroker.registerProvider(salProvider);
     }
 
+    /**
+     * Set the communicator of the device whenever ready, its rpc statistics are then published into operational
+     * state of the device while the device is connected.
+     *
+     * @param communicator netconf session listener of the device
+     * @param executor executor publishing the statistics
+     */
+    public synchronized void setRpcStatisticsSource(final NetconfDeviceCommunicator communicator,
+                                                    final ScheduledExecutorService executor) {
+        this.communicator = communicator;
+        this.statisticsExecutor = executor;
+    }
+
     @Override
     public synchronized void onNotification(final DOMNotification domNotification) {
         salProvider.getMountInstance().publish(domNotification);
@@ -57,28 +95,82 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
 
         salProvider.getMountInstance().onTopologyDeviceConnected(schemaContext, domBroker, deviceRpc, notificationService);
         salProvider.getTopologyDatastoreAdapter().updateDeviceData(true, netconfSessionPreferences.getNetconfDeviceCapabilities());
+        startRpcStatistics();
     }
 
     @Override
     public synchronized void onDeviceDisconnected() {
+        stopRpcStatistics();
         salProvider.getTopologyDatastoreAdapter().updateDeviceData(false, new NetconfDeviceCapabilities());
         salProvider.getMountInstance().onTopologyDeviceDisconnected();
     }
 
     @Override
     public synchronized void onDeviceFailed(final Throwable throwable) {
+        stopRpcStatistics();
         salProvider.getTopologyDatastoreAdapter().setDeviceAsFailed(throwable);
         salProvider.getMountInstance().onTopologyDeviceDisconnected();
     }
 
     @Override
     public synchronized void close() {
+        stopRpcStatistics();
         for (final AutoCloseable reg : Lists.reverse(salRegistrations)) {
             closeGracefully(reg);
         }
         closeGracefully(salProvider);
     }
 
+    @GuardedBy("this")
+    private void startRpcStatistics() {
+        stopRpcStatistics();
+        if (communicator == null || RPC_STATISTICS_PERIOD_SECONDS <= 0) {
+            return;
+        }
+
+        statisticsTask = statisticsExecutor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                publishRpcStatistics();
+            }
+        }, 0, RPC_STATISTICS_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @GuardedBy("this")
+    private void stopRpcStatistics() {
+        if (statisticsTask != null) {
+            statisticsTask.cancel(false);
+            statisticsTask = null;
+        }
+        // Device data are replaced on connect, statistics have to be written again
+        lastStatistics = null;
+    }
+
+    private synchronized void publishRpcStatistics() {
+        if (statisticsTask == null) {
+            // Device disconnected while the task was about to run
+            return;
+        }
+
+        final RpcStatistics statistics = buildRpcStatistics(communicator);
+        if (!statistics.equals(lastStatistics)) {
+            salProvider.getTopologyDatastoreAdapter().updateRpcStatistics(statistics);
+            lastStatistics = statistics;
+        }
+    }
+
+    static RpcStatistics buildRpcStatistics(final NetconfDeviceCommunicator communicator) {
+        return new RpcStatisticsBuilder()
+                .setInFlightRequests((long) communicator.getInFlightRequests())
+                .setMaxInFlightRequests((long) communicator.getMaxInFlightRequests())
+                .setQueuedRequests((long) communicator.getQueuedRequests())
+                .setRpcWindow((long) communicator.getRpcWindow())
+                .setRejectedRequests(BigInteger.valueOf(communicator.getRejectedRequests()))
+                .setTimedOutRequests(BigInteger.valueOf(communicator.getTimedOutRequests()))
+                .setUnmatchedReplies(BigInteger.valueOf(communicator.getUnmatchedReplies()))
+                .build();
+    }
+
     private void closeGracefully(final AutoCloseable resource) {
         if (resource != null) {
             try {
@@ -12,11 +12,7 @@ import com.google.common.base.Preconditions;
 import java.util.Collection;
 import java.util.Collections;
 
-import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
-import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
-import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
-import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMMountPoint;
 import org.opendaylight.controller.md.sal.dom.api.DOMMountPointService;
@@ -27,6 +23,7 @@ import org.opendaylight.controller.sal.binding.api.BindingAwareBroker;
 import org.opendaylight.controller.sal.binding.api.BindingAwareProvider;
 import org.opendaylight.controller.sal.core.api.Broker;
 import org.opendaylight.controller.sal.core.api.Provider;
+import org.opendaylight.netconf.sal.connect.util.CoalescingOperationalWriter;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yangtools.concepts.ObjectRegistration;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -41,24 +38,9 @@ public class NetconfDeviceSalProvider implements AutoCloseable, Provider, Bindin
     private MountInstance mountInstance;
 
     private volatile NetconfDeviceTopologyAdapter topologyDatastoreAdapter;
+    private CoalescingOperationalWriter statusWriter;
 
     private DataBroker dataBroker;
-    private BindingTransactionChain txChain;
-
-    private final TransactionChainListener transactionChainListener =  new TransactionChainListener() {
-        @Override
-        public void onTransactionChainFailed(TransactionChain<?, ?> chain, AsyncTransaction<?, ?> transaction, Throwable cause) {
-            logger.error("{}: TransactionChain({}) {} FAILED!", id, chain, transaction.getIdentifier(), cause);
-            chain.close();
-            resetTransactionChainForAdapaters();
-            throw new IllegalStateException(id + "  TransactionChain(" + chain + ") not committed correctly", cause);
-        }
-
-        @Override
-        public void onTransactionChainSuccessful(TransactionChain<?, ?> chain) {
-            logger.trace("{}: TransactionChain({}) {} SUCCESSFUL", id, chain);
-        }
-    };
 
     public NetconfDeviceSalProvider(final RemoteDeviceId deviceId) {
         this.id = deviceId;
@@ -96,25 +78,19 @@ public class NetconfDeviceSalProvider implements AutoCloseable, Provider, Bindin
         logger.debug("{}: Session with sal established {}", id, session);
 
         this.dataBroker = session.getSALService(DataBroker.class);
-        txChain = Preconditions.checkNotNull(dataBroker).createTransactionChain(transactionChainListener);
-
-        topologyDatastoreAdapter = new NetconfDeviceTopologyAdapter(id, txChain);
-    }
-
-    private void resetTransactionChainForAdapaters() {
-        txChain = Preconditions.checkNotNull(dataBroker).createTransactionChain(transactionChainListener);
-
-        topologyDatastoreAdapter.setTxChain(txChain);
-
-        logger.trace("{}: Resetting TransactionChain {}", id, txChain);
 
+        // With non-zero window status writes of all devices share single writer, to be committed together
+        statusWriter = CoalescingOperationalWriter.getShared(Preconditions.checkNotNull(dataBroker));
+        topologyDatastoreAdapter = new NetconfDeviceTopologyAdapter(id, statusWriter);
     }
 
     public void close() throws Exception {
         mountInstance.close();
         topologyDatastoreAdapter.close();
         topologyDatastoreAdapter = null;
-        txChain.close();
+        // Release the writer, last device to close a shared one flushes and closes its transaction chain
+        statusWriter.close();
+        statusWriter = null;
     }
 
     public static final class MountInstance implements AutoCloseable {
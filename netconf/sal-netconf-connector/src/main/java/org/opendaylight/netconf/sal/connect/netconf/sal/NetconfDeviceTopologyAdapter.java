@@ -11,24 +11,22 @@ package org.opendaylight.netconf.sal.connect.netconf.sal;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.FluentIterable;
-import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutionException;
-import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
-import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
-import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
+import org.opendaylight.netconf.sal.connect.util.CoalescingOperationalWriter;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionStatus.ConnectionStatus;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.AvailableCapabilitiesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.RpcStatistics;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.UnavailableCapabilities;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.UnavailableCapabilitiesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.unavailable.capabilities.UnavailableCapability;
@@ -71,15 +69,15 @@ final class NetconfDeviceTopologyAdapter implements AutoCloseable {
     };
 
     private final RemoteDeviceId id;
-    private BindingTransactionChain txChain;
+    private final CoalescingOperationalWriter statusWriter;
 
     private final InstanceIdentifier<NetworkTopology> networkTopologyPath;
     private final KeyedInstanceIdentifier<Topology, TopologyKey> topologyListPath;
     private static final String UNKNOWN_REASON = "Unknown reason";
 
-    NetconfDeviceTopologyAdapter(final RemoteDeviceId id, final BindingTransactionChain txChain) {
+    NetconfDeviceTopologyAdapter(final RemoteDeviceId id, final CoalescingOperationalWriter statusWriter) {
         this.id = id;
-        this.txChain = Preconditions.checkNotNull(txChain);
+        this.statusWriter = Preconditions.checkNotNull(statusWriter);
 
         this.networkTopologyPath = InstanceIdentifier.builder(NetworkTopology.class).build();
         this.topologyListPath = networkTopologyPath.child(Topology.class, new TopologyKey(new TopologyId(TopologyNetconf.QNAME.getLocalName())));
@@ -88,9 +86,9 @@ final class NetconfDeviceTopologyAdapter implements AutoCloseable {
     }
 
     private void initDeviceData() {
-        final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
+        final CoalescingOperationalWriter.Batch batch = statusWriter.newBatch();
 
-        createNetworkTopologyIfNotPresent(writeTx);
+        createNetworkTopologyIfNotPresent(batch);
 
         final InstanceIdentifier<Node> path = id.getTopologyBindingPath();
         NodeBuilder nodeBuilder = getNodeIdBuilder(id);
@@ -101,37 +99,20 @@ final class NetconfDeviceTopologyAdapter implements AutoCloseable {
         nodeBuilder.addAugmentation(NetconfNode.class, netconfNodeBuilder.build());
         Node node = nodeBuilder.build();
 
-        LOG.trace(
-                "{}: Init device state transaction {} putting if absent operational data started.",
-                id, writeTx.getIdentifier());
-        writeTx.put(LogicalDatastoreType.OPERATIONAL, path, node);
-        LOG.trace(
-                "{}: Init device state transaction {} putting operational data ended.",
-                id, writeTx.getIdentifier());
-
-        LOG.trace(
-                "{}: Init device state transaction {} putting if absent config data started.",
-                id, writeTx.getIdentifier());
-        LOG.trace(
-                "{}: Init device state transaction {} putting config data ended.",
-                id, writeTx.getIdentifier());
-
-        commitTransaction(writeTx, "init");
+        LOG.trace("{}: Init device state putting operational data.", id);
+        batch.put(path, node);
+
+        commitTransaction(batch, "init");
     }
 
     public void updateDeviceData(boolean up, NetconfDeviceCapabilities capabilities) {
         final NetconfNode data = buildDataForNetconfNode(up, capabilities);
 
-        final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
-        LOG.trace(
-                "{}: Update device state transaction {} merging operational data started.",
-                id, writeTx.getIdentifier());
-        writeTx.put(LogicalDatastoreType.OPERATIONAL, id.getTopologyBindingPath().augmentation(NetconfNode.class), data, true);
-        LOG.trace(
-                "{}: Update device state transaction {} merging operational data ended.",
-                id, writeTx.getIdentifier());
+        LOG.trace("{}: Update device state putting operational data.", id);
+        final CoalescingOperationalWriter.Batch batch = statusWriter.newBatch()
+                .put(id.getTopologyBindingPath().augmentation(NetconfNode.class), data, true);
 
-        commitTransaction(writeTx, "update");
+        commitTransaction(batch, "update");
     }
 
     public void setDeviceAsFailed(Throwable throwable) {
@@ -139,16 +120,19 @@ final class NetconfDeviceTopologyAdapter implements AutoCloseable {
 
         final NetconfNode data = new NetconfNodeBuilder().setConnectionStatus(ConnectionStatus.UnableToConnect).setConnectedMessage(reason).build();
 
-        final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
-        LOG.trace(
-                "{}: Setting device state as failed {} putting operational data started.",
-                id, writeTx.getIdentifier());
-        writeTx.put(LogicalDatastoreType.OPERATIONAL, id.getTopologyBindingPath().augmentation(NetconfNode.class), data, true);
-        LOG.trace(
-                "{}: Setting device state as failed {} putting operational data ended.",
-                id, writeTx.getIdentifier());
+        LOG.trace("{}: Setting device state as failed putting operational data.", id);
+        final CoalescingOperationalWriter.Batch batch = statusWriter.newBatch()
+                .put(id.getTopologyBindingPath().augmentation(NetconfNode.class), data, true);
+
+        commitTransaction(batch, "update-failed-device");
+    }
+
+    public void updateRpcStatistics(final RpcStatistics statistics) {
+        LOG.trace("{}: Update rpc statistics putting operational data.", id);
+        final CoalescingOperationalWriter.Batch batch = statusWriter.newBatch()
+                .put(id.getTopologyBindingPath().augmentation(NetconfNode.class).child(RpcStatistics.class), statistics);
 
-        commitTransaction(writeTx, "update-failed-device");
+        commitTransaction(batch, "update-rpc-statistics");
     }
 
     private NetconfNode buildDataForNetconfNode(boolean up, NetconfDeviceCapabilities capabilities) {
@@ -173,53 +157,41 @@ final class NetconfDeviceTopologyAdapter implements AutoCloseable {
     }
 
     public void removeDeviceConfiguration() {
-        final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
-
-        LOG.trace(
-                "{}: Close device state transaction {} removing all data started.",
-                id, writeTx.getIdentifier());
-        writeTx.delete(LogicalDatastoreType.OPERATIONAL, id.getTopologyBindingPath());
-        LOG.trace(
-                "{}: Close device state transaction {} removing all data ended.",
-                id, writeTx.getIdentifier());
+        LOG.trace("{}: Close device state removing all data.", id);
+        final CoalescingOperationalWriter.Batch batch = statusWriter.newBatch().delete(id.getTopologyBindingPath());
 
         try {
-            writeTx.submit().get();
+            batch.submit().get();
         } catch (InterruptedException | ExecutionException e) {
-            LOG.error("{}: Transaction(close) {} FAILED!", id, writeTx.getIdentifier(), e);
+            LOG.error("{}: Transaction(close) FAILED!", id, e);
             throw new IllegalStateException(id + "  Transaction(close) not committed correctly", e);
         }
     }
 
-    private void createNetworkTopologyIfNotPresent(final WriteTransaction writeTx) {
+    private void createNetworkTopologyIfNotPresent(final CoalescingOperationalWriter.Batch batch) {
 
         final NetworkTopology networkTopology = new NetworkTopologyBuilder().build();
-        LOG.trace("{}: Merging {} container to ensure its presence", id,
-                networkTopology.QNAME, writeTx.getIdentifier());
-        writeTx.merge(LogicalDatastoreType.OPERATIONAL, networkTopologyPath, networkTopology);
+        LOG.trace("{}: Merging {} container to ensure its presence", id, networkTopology.QNAME);
+        batch.merge(networkTopologyPath, networkTopology);
 
         final Topology topology = new TopologyBuilder().setTopologyId(new TopologyId(TopologyNetconf.QNAME.getLocalName())).build();
-        LOG.trace("{}: Merging {} container to ensure its presence", id,
-                topology.QNAME, writeTx.getIdentifier());
-        writeTx.merge(LogicalDatastoreType.OPERATIONAL, topologyListPath, topology);
+        LOG.trace("{}: Merging {} container to ensure its presence", id, topology.QNAME);
+        batch.merge(topologyListPath, topology);
     }
 
-    private void commitTransaction(final WriteTransaction transaction, final String txType) {
-        LOG.trace("{}: Committing Transaction {}:{}", id, txType,
-                transaction.getIdentifier());
-        final CheckedFuture<Void, TransactionCommitFailedException> result = transaction.submit();
+    private void commitTransaction(final CoalescingOperationalWriter.Batch batch, final String txType) {
+        LOG.trace("{}: Committing Transaction {}", id, txType);
+        final ListenableFuture<Void> result = batch.submit();
 
         Futures.addCallback(result, new FutureCallback<Void>() {
             @Override
             public void onSuccess(final Void result) {
-                LOG.trace("{}: Transaction({}) {} SUCCESSFUL", id, txType,
-                        transaction.getIdentifier());
+                LOG.trace("{}: Transaction({}) SUCCESSFUL", id, txType);
             }
 
             @Override
             public void onFailure(final Throwable t) {
-                LOG.error("{}: Transaction({}) {} FAILED!", id, txType,
-                        transaction.getIdentifier(), t);
+                LOG.error("{}: Transaction({}) FAILED!", id, txType, t);
                 throw new IllegalStateException(id + "  Transaction(" + txType + ") not committed correctly", t);
             }
         });
@@ -241,8 +213,4 @@ final class NetconfDeviceTopologyAdapter implements AutoCloseable {
     public void close() throws Exception {
         removeDeviceConfiguration();
     }
-
-    public void setTxChain(BindingTransactionChain txChain) {
-        this.txChain = Preconditions.checkNotNull(txChain);
-    }
 }
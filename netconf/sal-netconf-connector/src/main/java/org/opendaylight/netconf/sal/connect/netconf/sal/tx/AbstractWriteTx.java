@@ -42,14 +42,22 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
     protected final NetconfBaseOps netOps;
     protected final boolean rollbackSupport;
     protected final List<ListenableFuture<DOMRpcResult>> resultsFutures;
+    // Edits combined into single edit-config sent on commit, null if every edit is sent immediately
+    private final EditConfigBatch editBatch;
     // Allow commit to be called only once
     protected boolean finished = false;
 
     public AbstractWriteTx(final NetconfBaseOps netOps, final RemoteDeviceId id, final boolean rollbackSupport) {
+        this(netOps, id, rollbackSupport, false);
+    }
+
+    public AbstractWriteTx(final NetconfBaseOps netOps, final RemoteDeviceId id, final boolean rollbackSupport,
+            final boolean batchEdits) {
         this.netOps = netOps;
         this.id = id;
         this.rollbackSupport = rollbackSupport;
         this.resultsFutures = Lists.newArrayList();
+        this.editBatch = batchEdits ? new EditConfigBatch() : null;
         init();
     }
 
@@ -95,6 +103,11 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
             return;
         }
 
+        if (editBatch != null) {
+            batchEditConfig(path, Optional.<NormalizedNode<?, ?>>fromNullable(data), ModifyAction.REPLACE, "put");
+            return;
+        }
+
         final DataContainerChild<?, ?> editStructure = netOps.createEditConfigStrcture(Optional.<NormalizedNode<?, ?>>fromNullable(data), Optional.of(ModifyAction.REPLACE), path);
         editConfig(path, Optional.fromNullable(data), editStructure, Optional.of(ModifyAction.NONE), "put");
     }
@@ -109,6 +122,11 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
             return;
         }
 
+        if (editBatch != null) {
+            batchEditConfig(path, Optional.<NormalizedNode<?, ?>>fromNullable(data), ModifyAction.MERGE, "merge");
+            return;
+        }
+
         final DataContainerChild<?, ?> editStructure = netOps.createEditConfigStrcture(Optional.<NormalizedNode<?, ?>>fromNullable(data), Optional.<ModifyAction>absent(), path);
         editConfig(path, Optional.fromNullable(data), editStructure, Optional.<ModifyAction>absent(), "merge");
     }
@@ -125,6 +143,12 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
     @Override
     public synchronized void delete(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
         checkEditable(store);
+
+        if (editBatch != null) {
+            batchEditConfig(path, Optional.<NormalizedNode<?, ?>>absent(), ModifyAction.DELETE, "delete");
+            return;
+        }
+
         final DataContainerChild<?, ?> editStructure = netOps.createEditConfigStrcture(Optional.<NormalizedNode<?, ?>>absent(), Optional.of(ModifyAction.DELETE), path);
         editConfig(path, Optional.<NormalizedNode<?, ?>>absent(), editStructure, Optional.of(ModifyAction.NONE), "delete");
     }
@@ -134,9 +158,34 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
         checkNotFinished();
         finished = true;
 
+        if (editBatch != null) {
+            flushEditConfig();
+        }
         return performCommit();
     }
 
+    /**
+     * Add edit to the batch sent on commit. Every edit carries its own operation, so the batch is sent with default
+     * operation none.
+     */
+    private void batchEditConfig(final YangInstanceIdentifier path, final Optional<NormalizedNode<?, ?>> data,
+            final ModifyAction action, final String operation) {
+        final DataContainerChild<?, ?> editStructure = netOps.createEditConfigStrcture(data, Optional.of(action), path);
+        if (!editBatch.add(path, action, editStructure)) {
+            LOG.debug("{}: Sending {} of {} separately, it cannot be combined with other edits", id, operation, path);
+            // Keep the order of edits
+            flushEditConfig();
+            editConfig(path, data, editStructure, Optional.of(ModifyAction.NONE), operation);
+        }
+    }
+
+    private void flushEditConfig() {
+        for (final DataContainerChild<?, ?> editStructure : editBatch.drain()) {
+            editConfig(YangInstanceIdentifier.EMPTY, Optional.<NormalizedNode<?, ?>>absent(), editStructure,
+                    Optional.of(ModifyAction.NONE), "batch");
+        }
+    }
+
     protected abstract ListenableFuture<RpcResult<TransactionStatus>> performCommit();
 
     private void checkEditable(final LogicalDatastoreType store) {
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_OPERATION_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toId;
+
+import com.google.common.base.Preconditions;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.edit.config.input.EditContent;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.ModifyAction;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Combines edit structures of single put/merge/delete operations into as few edit-config contents as possible.
+ * Every edited node keeps its operation attribute, so the combined edit-config has to be sent with default operation
+ * none. Nodes on path to merged nodes get operation merge, so that missing ancestors are created as they would be
+ * by a merge sent on its own with default operation merge.
+ * <p>
+ * Overlapping edits are resolved locally when the result does not depend on the order of operations, i.e. a replace
+ * supersedes all previous edits of the same node and its descendants. Edits which would need the device to apply them
+ * in order, e.g. merge into previously replaced node, start a new edit-config content. So do edits of a whole list
+ * or leaf-list together with edits of its entries, since they are identified by different path arguments.
+ * <p>
+ * This class is not thread-safe, it is guarded by the transaction.
+ */
+final class EditConfigBatch {
+
+    private EditNode root = new EditNode(null, null);
+    private final List<EditNode> completed = new ArrayList<>();
+
+    /**
+     * Add an edit to the batch.
+     *
+     * @param path path of the edited node
+     * @param action operation of the edit, which is set on the edited node in edit structure
+     * @param editStructure edit-config content of the single edit
+     * @return false if the edit cannot be combined with others and has to be sent on its own, e.g. when a whole list
+     *         is written at once
+     */
+    boolean add(final YangInstanceIdentifier path, final ModifyAction action, final DataContainerChild<?, ?> editStructure) {
+        final List<Entry<PathArgument, Element>> chain = resolveChain(path, getConfigElement(editStructure));
+        if (chain == null) {
+            return false;
+        }
+
+        if (!merge(root, chain, action)) {
+            completed.add(root);
+            root = new EditNode(null, null);
+            Preconditions.checkState(merge(root, chain, action), "Failed to add %s to empty batch", path);
+        }
+        return true;
+    }
+
+    /**
+     * Remove all edits from the batch.
+     *
+     * @return combined edit-config contents in the order they have to be sent
+     */
+    List<DataContainerChild<?, ?>> drain() {
+        if (!root.children.isEmpty()) {
+            completed.add(root);
+        }
+
+        final List<DataContainerChild<?, ?>> structures = new ArrayList<>(completed.size());
+        for (final EditNode config : completed) {
+            structures.add(toEditStructure(config));
+        }
+        completed.clear();
+        root = new EditNode(null, null);
+        return structures;
+    }
+
+    private static boolean merge(final EditNode root, final List<Entry<PathArgument, Element>> chain,
+            final ModifyAction action) {
+        // Check the whole chain first, the batch is left untouched when the edit cannot be added
+        EditNode parent = root;
+        for (final Entry<PathArgument, Element> pathElement : chain) {
+            if (parent.isEdited() || overlapsListOrEntry(parent, pathElement.getKey())) {
+                // Edit inside already edited subtree, depends on order
+                return false;
+            }
+            parent = parent.children.get(pathElement.getKey());
+            if (parent == null) {
+                break;
+            }
+        }
+        final Entry<PathArgument, Element> target = chain.get(chain.size() - 1);
+        if (parent != null && action != ModifyAction.REPLACE) {
+            // Only replace makes previous edits of the node and its descendants irrelevant
+            return false;
+        }
+
+        parent = root;
+        for (final Entry<PathArgument, Element> pathElement : chain.subList(0, chain.size() - 1)) {
+            EditNode child = parent.children.get(pathElement.getKey());
+            if (child == null) {
+                child = new EditNode(null, copyWithoutChildElement(pathElement.getValue(), chain));
+                parent.children.put(pathElement.getKey(), child);
+            }
+            child.pathToMerge |= action == ModifyAction.MERGE;
+            parent = child;
+        }
+        parent.children.put(target.getKey(), new EditNode(action, target.getValue()));
+        return true;
+    }
+
+    /**
+     * A whole list or leaf-list is identified by node identifier, its entries by keys or values. Both address the same
+     * elements, so they overlap whenever they share the node type.
+     */
+    private static boolean overlapsListOrEntry(final EditNode parent, final PathArgument argument) {
+        for (final PathArgument existing : parent.children.keySet()) {
+            if (!existing.equals(argument) && existing.getNodeType().equals(argument.getNodeType())
+                    && (existing instanceof NodeIdentifier || argument instanceof NodeIdentifier)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walk edit structure along the path. Mixin path arguments do not have their own elements.
+     *
+     * @return elements of non-mixin path arguments, last one being the edited node, null if edit structure
+     *         does not follow the path
+     */
+    private static List<Entry<PathArgument, Element>> resolveChain(final YangInstanceIdentifier path,
+            final Element config) {
+        final List<PathArgument> arguments = path.getPathArguments();
+        if (config == null || arguments.isEmpty()) {
+            return null;
+        }
+
+        final List<Entry<PathArgument, Element>> chain = new ArrayList<>(arguments.size());
+        Element parent = config;
+        for (int i = 0; i < arguments.size(); i++) {
+            final PathArgument argument = arguments.get(i);
+            final boolean last = i == arguments.size() - 1;
+            if (argument instanceof AugmentationIdentifier) {
+                continue;
+            }
+            // Map and leaf-set nodes are followed by their entry
+            if (!last && argument instanceof NodeIdentifier && !(arguments.get(i + 1) instanceof AugmentationIdentifier)
+                    && argument.getNodeType().equals(arguments.get(i + 1).getNodeType())) {
+                continue;
+            }
+
+            final Element child = getSingleChildElement(parent, argument.getNodeType());
+            if (child == null) {
+                // Choice nodes do not have their own elements either
+                if (!last && argument instanceof NodeIdentifier) {
+                    continue;
+                }
+                return null;
+            }
+            chain.add(new SimpleImmutableEntry<>(argument, child));
+            parent = child;
+        }
+
+        if (chain.isEmpty() || !chain.get(chain.size() - 1).getKey().equals(arguments.get(arguments.size() - 1))) {
+            return null;
+        }
+        return chain;
+    }
+
+    private static Element getSingleChildElement(final Element parent, final QName name) {
+        final String namespace = name.getNamespace().toString();
+        Element found = null;
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && name.getLocalName().equals(child.getLocalName())
+                    && namespace.equals(child.getNamespaceURI())) {
+                if (found != null) {
+                    return null;
+                }
+                found = (Element) child;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Copy of path element with its keys, without the element continuing to the edited node.
+     */
+    private static Element copyWithoutChildElement(final Element element, final List<Entry<PathArgument, Element>> chain) {
+        final Element copy = (Element) element.cloneNode(false);
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (!isInChain(child, chain)) {
+                copy.appendChild(child.cloneNode(true));
+            }
+        }
+        return copy;
+    }
+
+    private static boolean isInChain(final Node node, final List<Entry<PathArgument, Element>> chain) {
+        for (final Entry<PathArgument, Element> pathElement : chain) {
+            if (pathElement.getValue() == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Element getConfigElement(final DataContainerChild<?, ?> editStructure) {
+        if (!(editStructure instanceof ChoiceNode)) {
+            return null;
+        }
+        for (final DataContainerChild<?, ?> child : ((ChoiceNode) editStructure).getValue()) {
+            if (child instanceof AnyXmlNode) {
+                final Node config = ((AnyXmlNode) child).getValue().getNode();
+                return config instanceof Element ? (Element) config : null;
+            }
+        }
+        return null;
+    }
+
+    private static DataContainerChild<?, ?> toEditStructure(final EditNode root) {
+        final Document document = XmlUtil.newDocument();
+        final Element config = document.createElementNS(NETCONF_CONFIG_QNAME.getNamespace().toString(),
+                NETCONF_CONFIG_QNAME.getLocalName());
+        document.appendChild(config);
+        for (final EditNode child : root.children.values()) {
+            appendTo(config, child);
+        }
+
+        final AnyXmlNode configContent = Builders.anyXmlBuilder().withNodeIdentifier(toId(NETCONF_CONFIG_QNAME))
+                .withValue(new DOMSource(config)).build();
+        return Builders.choiceBuilder().withNodeIdentifier(toId(EditContent.QNAME)).withChild(configContent).build();
+    }
+
+    private static void appendTo(final Element parent, final EditNode node) {
+        final Element element = (Element) parent.getOwnerDocument().importNode(node.element, true);
+        if (node.pathToMerge) {
+            final Attr operation = element.getOwnerDocument().createAttributeNS(
+                    NETCONF_OPERATION_QNAME.getNamespace().toString(), NETCONF_OPERATION_QNAME.getLocalName());
+            operation.setTextContent("merge");
+            element.setAttributeNode(operation);
+        }
+        parent.appendChild(element);
+        for (final EditNode child : node.children.values()) {
+            appendTo(element, child);
+        }
+    }
+
+    private static final class EditNode {
+        // Operation set on the element, null for nodes on path to edited nodes
+        private final ModifyAction action;
+        private final Element element;
+        private final Map<PathArgument, EditNode> children = new LinkedHashMap<>();
+        // Set on nodes on path to a merged node
+        private boolean pathToMerge;
+
+        EditNode(final ModifyAction action, final Element element) {
+            this.action = action;
+            this.element = element;
+        }
+
+        boolean isEdited() {
+            return action != null;
+        }
+    }
+}
@@ -29,7 +29,17 @@ public class WriteCandidateRunningTx extends WriteCandidateTx {
     private static final Logger LOG  = LoggerFactory.getLogger(WriteCandidateRunningTx.class);
 
     public WriteCandidateRunningTx(final RemoteDeviceId id, final NetconfBaseOps netOps, final boolean rollbackSupport) {
-        super(id, netOps, rollbackSupport);
+        this(id, netOps, rollbackSupport, false);
+    }
+
+    public WriteCandidateRunningTx(final RemoteDeviceId id, final NetconfBaseOps netOps, final boolean rollbackSupport,
+                                   final boolean batchEdits) {
+        this(id, netOps, rollbackSupport, batchEdits, 0);
+    }
+
+    public WriteCandidateRunningTx(final RemoteDeviceId id, final NetconfBaseOps netOps, final boolean rollbackSupport,
+                                   final boolean batchEdits, final long confirmTimeout) {
+        super(id, netOps, rollbackSupport, batchEdits, confirmTimeout);
     }
 
     @Override
@@ -11,10 +11,13 @@ package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.ExecutionException;
 import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.common.api.TransactionStatus;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
@@ -52,6 +55,14 @@ import org.slf4j.LoggerFactory;
  *   </li>
  *   <li>Commit and Unlock candidate datastore async</li>
  * </ol>
+ * All the RPCs are sent without waiting for replies of the previous ones, the transaction waits only for the
+ * replies of the whole sequence. Since commit is then sent before the edits are known to have succeeded, devices
+ * supporting :confirmed-commit:1.1 can be committed with a confirm timeout instead:
+ * <ol>
+ *   <li>Lock, edit-config N times and confirmed commit are sent back-to-back</li>
+ *   <li>If all of them succeed, the commit is confirmed and candidate unlocked</li>
+ *   <li>Otherwise the confirmed commit is cancelled, candidate discarded and unlocked</li>
+ * </ol>
  */
 //TODO replace custom RPCs future callbacks with NetconfRpcFutureCallback
 public class WriteCandidateTx extends AbstractWriteTx {
@@ -74,8 +85,27 @@ public class WriteCandidateTx extends AbstractWriteTx {
         }
     };
 
+    private final long confirmTimeout;
+    // Confirmed commit sent with the edits, null if not sent (yet)
+    private ListenableFuture<DOMRpcResult> confirmedCommit;
+
     public WriteCandidateTx(final RemoteDeviceId id, final NetconfBaseOps rpc, final boolean rollbackSupport) {
-        super(rpc, id, rollbackSupport);
+        this(id, rpc, rollbackSupport, false);
+    }
+
+    public WriteCandidateTx(final RemoteDeviceId id, final NetconfBaseOps rpc, final boolean rollbackSupport,
+                            final boolean batchEdits) {
+        this(id, rpc, rollbackSupport, batchEdits, 0);
+    }
+
+    /**
+     * @param confirmTimeout timeout of confirmed commit in seconds, 0 to commit without confirmation
+     */
+    public WriteCandidateTx(final RemoteDeviceId id, final NetconfBaseOps rpc, final boolean rollbackSupport,
+                            final boolean batchEdits, final long confirmTimeout) {
+        super(rpc, id, rollbackSupport, batchEdits);
+        Preconditions.checkArgument(confirmTimeout >= 0, "Negative confirm timeout %s", confirmTimeout);
+        this.confirmTimeout = confirmTimeout;
     }
 
     @Override
@@ -111,10 +141,39 @@ public class WriteCandidateTx extends AbstractWriteTx {
 
     @Override
     protected void cleanup() {
+        if (confirmedCommit == null) {
+            rollback(false);
+            return;
+        }
+
+        // A failed RPC completes the transaction before reply to the confirmed commit arrives, wait for it to learn
+        // whether the running datastore contains the changes
+        confirmedCommit.addListener(new Runnable() {
+            @Override
+            public void run() {
+                rollback(isConfirmedCommitPending());
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void rollback(final boolean cancelCommit) {
+        if (cancelCommit) {
+            // Running datastore already contains the changes, roll it back before candidate is discarded
+            netOps.cancelCommit(new NetconfRpcFutureCallback("Cancel commit", id));
+        }
         discardChanges();
         cleanupOnSuccess();
     }
 
+    private boolean isConfirmedCommitPending() {
+        try {
+            return isSuccess(confirmedCommit.get());
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.trace("{}: Confirmed commit failed", id, e);
+            return false;
+        }
+    }
+
     @Override
     public synchronized CheckedFuture<Void, TransactionCommitFailedException> submit() {
         final ListenableFuture<Void> commitFutureAsVoid = Futures.transform(commit(), new Function<RpcResult<TransactionStatus>, Void>() {
@@ -142,12 +201,30 @@ public class WriteCandidateTx extends AbstractWriteTx {
 
     @Override
     public synchronized ListenableFuture<RpcResult<TransactionStatus>> performCommit() {
-        resultsFutures.add(netOps.commit(new NetconfRpcFutureCallback("Commit", id)));
-        ListenableFuture<RpcResult<TransactionStatus>> txResult = resultsToTxStatus();
+        final ListenableFuture<RpcResult<TransactionStatus>> txResult;
+        if (confirmTimeout > 0) {
+            confirmedCommit = netOps.confirmedCommit(new NetconfRpcFutureCallback("Confirmed commit", id), confirmTimeout);
+            resultsFutures.add(confirmedCommit);
+            txResult = Futures.transform(resultsToTxStatus(), new AsyncFunction<RpcResult<TransactionStatus>, RpcResult<TransactionStatus>>() {
+                @Override
+                public ListenableFuture<RpcResult<TransactionStatus>> apply(final RpcResult<TransactionStatus> input) {
+                    // Every RPC of the transaction succeeded, the changes can be kept
+                    return Futures.transform(netOps.commit(new NetconfRpcFutureCallback("Confirming commit", id)), RPC_RESULT_TO_TX_STATUS);
+                }
+            });
+        } else {
+            resultsFutures.add(netOps.commit(new NetconfRpcFutureCallback("Commit", id)));
+            txResult = resultsToTxStatus();
+        }
 
         Futures.addCallback(txResult, new FutureCallback<RpcResult<TransactionStatus>>() {
             @Override
             public void onSuccess(@Nullable RpcResult<TransactionStatus> result) {
+                if (result != null && !result.isSuccessful()) {
+                    // Confirming commit was rejected, do not leave the changes to the confirm timeout
+                    cleanup();
+                    return;
+                }
                 cleanupOnSuccess();
             }
 
@@ -52,7 +52,12 @@ public class WriteRunningTx extends AbstractWriteTx {
 
     public WriteRunningTx(final RemoteDeviceId id, final NetconfBaseOps netOps,
                           final boolean rollbackSupport) {
-        super(netOps, id, rollbackSupport);
+        this(id, netOps, rollbackSupport, false);
+    }
+
+    public WriteRunningTx(final RemoteDeviceId id, final NetconfBaseOps netOps,
+                          final boolean rollbackSupport, final boolean batchEdits) {
+        super(netOps, id, rollbackSupport, batchEdits);
     }
 
     @Override
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of schema contexts shared by netconf devices, keyed by the content of the sources the context was built from.
+ * <p>
+ * Devices of the same model and firmware report the same set of sources, so the schema context is assembled only
+ * once for all of them, even if the sources were downloaded into different schema repositories. Sources are
+ * identified by name, revision and hash of their yang text, so that two devices reporting the same module revision
+ * with different content do not share a context. Concurrent requests for the same set of sources wait for a single
+ * build. Contexts are held weakly, i.e. as long as some device uses them.
+ * <p>
+ * Expects schema context factories accepting all sources, as is the case for factories created by netconf connector.
+ */
+@ThreadSafe
+public final class SchemaContextCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaContextCache.class);
+
+    private static final SchemaContextCache DEFAULT = new SchemaContextCache();
+    private static final HashFunction SOURCE_HASH = Hashing.sha256();
+
+    private final Cache<Map<SourceIdentifier, HashCode>, SchemaContext> contexts =
+            CacheBuilder.newBuilder().weakValues().build();
+
+    /**
+     * @return cache shared by all netconf devices
+     */
+    public static SchemaContextCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get schema context for sources, building it with the factory if no context built from the same content is
+     * cached. Sources whose yang text is not available in the repository are built without caching.
+     *
+     * @param id device requesting the context, for logging
+     * @param repository repository holding the sources
+     * @param factory factory used to build the context
+     * @param sources sources to build the context from
+     * @return schema context
+     * @throws SchemaSourceException if building the context fails, same as the factory would fail
+     */
+    public SchemaContext getSchemaContext(final RemoteDeviceId id, final SchemaRepository repository,
+            final SchemaContextFactory factory, final Collection<SourceIdentifier> sources) throws SchemaSourceException {
+        final Optional<Map<SourceIdentifier, HashCode>> key = contentKey(id, repository, sources);
+        if (!key.isPresent()) {
+            return factory.createSchemaContext(sources).checkedGet();
+        }
+
+        try {
+            return contexts.get(key.get(), new Callable<SchemaContext>() {
+                @Override
+                public SchemaContext call() throws SchemaSourceException {
+                    LOG.debug("{}: Building shared schema context from {}", id, sources);
+                    return factory.createSchemaContext(sources).checkedGet();
+                }
+            });
+        } catch (final ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause(), SchemaSourceException.class);
+            throw new IllegalStateException(id + ": Unable to build schema context from " + sources, e.getCause());
+        } catch (final UncheckedExecutionException | ExecutionError e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private static Optional<Map<SourceIdentifier, HashCode>> contentKey(final RemoteDeviceId id,
+            final SchemaRepository repository, final Collection<SourceIdentifier> sources) {
+        final Map<SourceIdentifier, HashCode> key = new HashMap<>(sources.size());
+        for (final SourceIdentifier source : sources) {
+            try {
+                final CheckedFuture<YangTextSchemaSource, SchemaSourceException> text =
+                        repository.getSchemaSource(source, YangTextSchemaSource.class);
+                key.put(source, text.checkedGet().hash(SOURCE_HASH));
+            } catch (SchemaSourceException | IOException e) {
+                LOG.debug("{}: Unable to read source {}, schema context will not be shared", id, source, e);
+                return Optional.absent();
+            }
+        }
+        return Optional.of(key);
+    }
+}
@@ -13,7 +13,12 @@ import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTr
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
 
 import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
@@ -23,8 +28,12 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.annotation.Nonnull;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.dom.DOMResult;
 import org.opendaylight.controller.config.util.xml.MissingNameSpaceException;
 import org.opendaylight.controller.config.util.xml.XmlElement;
@@ -33,6 +42,7 @@ import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.messages.RawNetconfMessage;
 import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.MessageCounter;
@@ -54,6 +64,10 @@ import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
+/**
+ * Transformer between netconf messages and normalized nodes for a single device schema. Instances are thread safe,
+ * parsers are taken from per-transformer pools, so replies and notifications can be parsed concurrently.
+ */
 public class NetconfMessageTransformer implements MessageTransformer<NetconfMessage> {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfMessageTransformer.class);
@@ -72,12 +86,31 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         }
     };
 
+    // Derived schemas are shared by all transformers using the same schema context
+    private static final LoadingCache<SchemaContext, ContainerSchemaNode> DATA_READ_SCHEMAS =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<SchemaContext, ContainerSchemaNode>() {
+                @Override
+                public ContainerSchemaNode load(@Nonnull final SchemaContext key) {
+                    return NetconfMessageTransformUtil.createSchemaForDataRead(key);
+                }
+            });
+
+    private static final LoadingCache<NotificationDefinition, ContainerSchemaNode> NOTIFICATION_SCHEMAS =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<NotificationDefinition, ContainerSchemaNode>() {
+                @Override
+                public ContainerSchemaNode load(@Nonnull final NotificationDefinition key) {
+                    return NetconfMessageTransformUtil.createSchemaForNotification(key);
+                }
+            });
+
     private final SchemaContext schemaContext;
     private final BaseSchema baseSchema;
     private final MessageCounter counter;
     private final Map<QName, RpcDefinition> mappedRpcs;
     private final Multimap<QName, NotificationDefinition> mappedNotifications;
-    private final DomToNormalizedNodeParserFactory parserFactory;
+    private final Pool<DomToNormalizedNodeParserFactory> parserFactories;
+    private final Pool<NetconfXmlStreamParser> streamParsers;
+    private final ContainerSchemaNode schemaForDataRead;
 
     public NetconfMessageTransformer(final SchemaContext schemaContext, final boolean strictParsing) {
         this(schemaContext, strictParsing, BaseSchema.BASE_NETCONF_CTX);
@@ -86,14 +119,26 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
     public NetconfMessageTransformer(final SchemaContext schemaContext, final boolean strictParsing, final BaseSchema baseSchema) {
         this.counter = new MessageCounter();
         this.schemaContext = schemaContext;
-        parserFactory = DomToNormalizedNodeParserFactory.getInstance(XmlUtils.DEFAULT_XML_CODEC_PROVIDER, schemaContext, strictParsing);
+        parserFactories = new Pool<>(new Supplier<DomToNormalizedNodeParserFactory>() {
+            @Override
+            public DomToNormalizedNodeParserFactory get() {
+                return DomToNormalizedNodeParserFactory.getInstance(XmlUtils.DEFAULT_XML_CODEC_PROVIDER, schemaContext, strictParsing);
+            }
+        });
+        streamParsers = new Pool<>(new Supplier<NetconfXmlStreamParser>() {
+            @Override
+            public NetconfXmlStreamParser get() {
+                return new NetconfXmlStreamParser(schemaContext, strictParsing);
+            }
+        });
+        schemaForDataRead = DATA_READ_SCHEMAS.getUnchecked(schemaContext);
         mappedRpcs = Maps.uniqueIndex(schemaContext.getOperations(), QNAME_FUNCTION);
         mappedNotifications = Multimaps.index(schemaContext.getNotifications(), QNAME_NOREV_FUNCTION);
         this.baseSchema = baseSchema;
     }
 
     @Override
-    public synchronized DOMNotification toNotification(final NetconfMessage message) {
+    public DOMNotification toNotification(final NetconfMessage message) {
         final Map.Entry<Date, XmlElement> stripped = NetconfMessageTransformUtil.stripNotification(message);
         final QName notificationNoRev;
         try {
@@ -107,15 +152,18 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
 
         final NotificationDefinition mostRecentNotification = getMostRecentNotification(notificationDefinitions);
 
-        final ContainerSchemaNode notificationAsContainerSchemaNode = NetconfMessageTransformUtil.createSchemaForNotification(mostRecentNotification);
+        final ContainerSchemaNode notificationAsContainerSchemaNode = NOTIFICATION_SCHEMAS.getUnchecked(mostRecentNotification);
 
         final Element element = stripped.getValue().getDomElement();
         final ContainerNode content;
+        final DomToNormalizedNodeParserFactory parserFactory = parserFactories.borrow();
         try {
             content = parserFactory.getContainerNodeParser().parse(Collections.singleton(element),
                 notificationAsContainerSchemaNode);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException(String.format("Failed to parse notification %s", element), e);
+        } finally {
+            parserFactories.release(parserFactory);
         }
         return new NetconfDeviceNotification(content, stripped.getKey());
     }
@@ -174,18 +222,27 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
 
 
     @Override
-    public synchronized DOMRpcResult toRpcResult(final NetconfMessage message, final SchemaPath rpc) {
+    public DOMRpcResult toRpcResult(final NetconfMessage message, final SchemaPath rpc) {
+        if (message instanceof RawNetconfMessage && !((RawNetconfMessage) message).isDocumentMaterialized()) {
+            final Optional<DOMRpcResult> streamed = toRpcResultFromStream((RawNetconfMessage) message, rpc);
+            if (streamed.isPresent()) {
+                return streamed.get();
+            }
+        }
+
         final NormalizedNode<?, ?> normalizedNode;
         final QName rpcQName = rpc.getLastComponent();
         if (NetconfMessageTransformUtil.isDataRetrievalOperation(rpcQName)) {
             final Element xmlData = NetconfMessageTransformUtil.getDataSubtree(message.getDocument());
-            final ContainerSchemaNode schemaForDataRead = NetconfMessageTransformUtil.createSchemaForDataRead(schemaContext);
             final ContainerNode dataNode;
 
+            final DomToNormalizedNodeParserFactory parserFactory = parserFactories.borrow();
             try {
                 dataNode = parserFactory.getContainerNodeParser().parse(Collections.singleton(xmlData), schemaForDataRead);
             } catch (IllegalArgumentException e) {
                 throw new IllegalArgumentException(String.format("Failed to parse data response %s", xmlData), e);
+            } finally {
+                parserFactories.release(parserFactory);
             }
 
             normalizedNode = Builders.containerBuilder().withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(NetconfMessageTransformUtil.NETCONF_RPC_REPLY_QNAME))
@@ -212,17 +269,108 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
                 normalizedNode = null;
             } else {
                 final Element element = message.getDocument().getDocumentElement();
+                final DomToNormalizedNodeParserFactory parserFactory = parserFactories.borrow();
                 try {
                     normalizedNode = parserFactory.getContainerNodeParser().parse(Collections.singleton(element),
                         rpcDefinition.getOutput());
                 } catch (IllegalArgumentException e) {
                     throw new IllegalArgumentException(String.format("Failed to parse RPC response %s", element), e);
+                } finally {
+                    parserFactories.release(parserFactory);
                 }
             }
         }
         return new DefaultDOMRpcResult(normalizedNode);
     }
 
+    /**
+     * Parse data and rpc output replies straight from the serialized message, without building its DOM document.
+     * Replies the stream parser cannot handle are left to the DOM based path.
+     */
+    private Optional<DOMRpcResult> toRpcResultFromStream(final RawNetconfMessage message, final SchemaPath rpc) {
+        final QName rpcQName = rpc.getLastComponent();
+        final ContainerSchemaNode schema;
+        final boolean dataRetrieval = NetconfMessageTransformUtil.isDataRetrievalOperation(rpcQName);
+        if (dataRetrieval) {
+            schema = schemaForDataRead;
+        } else {
+            final RpcDefinition rpcDefinition = mappedRpcs.get(rpcQName);
+            if (rpcDefinition == null || rpcDefinition.getOutput() == null) {
+                return Optional.absent();
+            }
+            schema = rpcDefinition.getOutput();
+        }
+
+        final NetconfXmlStreamParser parser = streamParsers.borrow();
+        try {
+            final XMLStreamReader reader = message.createXMLStreamReader();
+            try {
+                reader.nextTag();
+                if (dataRetrieval) {
+                    if (!moveToDataElement(reader)) {
+                        return Optional.absent();
+                    }
+                    final ContainerNode dataNode = parser.parseContainer(reader, schema);
+                    return Optional.<DOMRpcResult>of(new DefaultDOMRpcResult(Builders.containerBuilder()
+                            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(NetconfMessageTransformUtil.NETCONF_RPC_REPLY_QNAME))
+                            .withChild(dataNode).build()));
+                }
+                return Optional.<DOMRpcResult>of(new DefaultDOMRpcResult(parser.parseContainer(reader, schema)));
+            } finally {
+                reader.close();
+            }
+        } catch (final NetconfXmlStreamParser.UnsupportedContentException e) {
+            LOG.debug("Unable to stream parse response of {}, falling back to DOM: {}", rpcQName, e.getMessage());
+            return Optional.absent();
+        } catch (final XMLStreamException e) {
+            throw new IllegalArgumentException(String.format("Failed to parse response of %s", rpcQName), e);
+        } finally {
+            streamParsers.release(parser);
+        }
+    }
+
+    private static boolean moveToDataElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 0;
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                if (depth == 1 && NetconfMessageTransformUtil.NETCONF_DATA_QNAME.getLocalName().equals(reader.getLocalName())
+                        && NETCONF_URI.toString().equals(reader.getNamespaceURI())) {
+                    return true;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 0) {
+                    return false;
+                }
+                depth--;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Unbounded pool of objects which are not thread safe. It grows up to the number of threads using
+     * the transformer concurrently.
+     */
+    private static final class Pool<T> {
+        private final Queue<T> instances = new ConcurrentLinkedQueue<>();
+        private final Supplier<T> factory;
+
+        Pool(final Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        T borrow() {
+            final T instance = instances.poll();
+            return instance != null ? instance : factory.get();
+        }
+
+        void release(final T instance) {
+            instances.offer(instance);
+        }
+    }
+
     static class NetconfDeviceNotification implements DOMNotification, DOMEvent {
         private final ContainerNode content;
         private final SchemaPath schemaPath;
@@ -0,0 +1,534 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import static org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter.UNKNOWN_SIZE;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
+import org.opendaylight.yangtools.yang.data.impl.codec.xml.XmlUtils;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Schema aware parser emitting events from {@link XMLStreamReader} directly into a {@link NormalizedNodeStreamWriter},
+ * without building an intermediate DOM tree.
+ *
+ * The parser covers the content usually found in device replies. If it encounters content it cannot stream (list
+ * entries without leading keys, siblings of a list or choice interleaved with other elements, leafref or
+ * instance-identifier leaves), it throws {@link UnsupportedContentException} and the caller is expected to fall back
+ * to the DOM based parser. Instances are not thread safe.
+ */
+final class NetconfXmlStreamParser {
+
+    /**
+     * Thrown when the content cannot be parsed by the stream parser.
+     */
+    static final class UnsupportedContentException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedContentException(final String message) {
+            super(message);
+        }
+    }
+
+    private final SchemaContext schemaContext;
+    private final boolean strictParsing;
+    private final Map<ChildKey, ChildPath> resolvedChildren = new HashMap<>();
+
+    NetconfXmlStreamParser(final SchemaContext schemaContext, final boolean strictParsing) {
+        this.schemaContext = schemaContext;
+        this.strictParsing = strictParsing;
+    }
+
+    /**
+     * Parse the current element as a container. Reader has to be positioned at the start of the element
+     * and is left at its end.
+     */
+    ContainerNode parseContainer(final XMLStreamReader reader, final ContainerSchemaNode schema)
+            throws XMLStreamException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(result)) {
+            writer.startContainerNode(new NodeIdentifier(schema.getQName()), UNKNOWN_SIZE);
+            parseChildren(reader, schema, writer);
+            writer.endNode();
+        } catch (final IOException e) {
+            throw new IllegalStateException("Unable to build container " + schema.getQName(), e);
+        }
+        return (ContainerNode) result.getResult();
+    }
+
+    private void parseChildren(final XMLStreamReader reader, final DataNodeContainer parent,
+                               final NormalizedNodeStreamWriter writer) throws XMLStreamException, IOException {
+        final List<PathArgument> openWrappers = new ArrayList<>();
+        final Set<List<PathArgument>> closedWrappers = new HashSet<>();
+
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+            final ChildPath child = resolveChild(parent, reader.getNamespaceURI(), reader.getLocalName());
+            if (child == null) {
+                if (strictParsing) {
+                    throw new IllegalArgumentException(String.format(
+                            "Schema for node with name %s and namespace %s does not exist in %s",
+                            reader.getLocalName(), reader.getNamespaceURI(), parent));
+                }
+                skipElement(reader);
+                continue;
+            }
+
+            enterWrappers(child.wrappers, openWrappers, closedWrappers, writer);
+            parseChild(reader, child.node, writer);
+        }
+
+        exitWrappers(openWrappers, 0, closedWrappers, writer);
+    }
+
+    /**
+     * Close wrappers not shared with the new child and open the missing ones. Wrappers are expected to be contiguous,
+     * reopening an already closed one would overwrite its previous content.
+     */
+    private static void enterWrappers(final List<Wrapper> wrappers, final List<PathArgument> openWrappers,
+                                      final Set<List<PathArgument>> closedWrappers,
+                                      final NormalizedNodeStreamWriter writer) throws IOException {
+        int common = 0;
+        while (common < wrappers.size() && common < openWrappers.size()
+                && wrappers.get(common).identifier.equals(openWrappers.get(common))) {
+            common++;
+        }
+
+        exitWrappers(openWrappers, common, closedWrappers, writer);
+        for (int i = common; i < wrappers.size(); i++) {
+            final Wrapper wrapper = wrappers.get(i);
+            openWrappers.add(wrapper.identifier);
+            if (closedWrappers.contains(openWrappers)) {
+                throw new UnsupportedContentException("Elements of " + wrapper.identifier + " are not contiguous");
+            }
+            wrapper.start(writer);
+        }
+    }
+
+    private static void exitWrappers(final List<PathArgument> openWrappers, final int keep,
+                                     final Set<List<PathArgument>> closedWrappers,
+                                     final NormalizedNodeStreamWriter writer) throws IOException {
+        while (openWrappers.size() > keep) {
+            closedWrappers.add(ImmutableList.copyOf(openWrappers));
+            openWrappers.remove(openWrappers.size() - 1);
+            writer.endNode();
+        }
+    }
+
+    private void parseChild(final XMLStreamReader reader, final DataSchemaNode schema,
+                            final NormalizedNodeStreamWriter writer) throws XMLStreamException, IOException {
+        if (schema instanceof LeafSchemaNode) {
+            writer.leafNode(new NodeIdentifier(schema.getQName()),
+                    parseValue(reader, ((LeafSchemaNode) schema).getType()));
+        } else if (schema instanceof LeafListSchemaNode) {
+            writer.leafSetEntryNode(schema.getQName(), parseValue(reader, ((LeafListSchemaNode) schema).getType()));
+        } else if (schema instanceof ContainerSchemaNode) {
+            writer.startContainerNode(new NodeIdentifier(schema.getQName()), UNKNOWN_SIZE);
+            parseChildren(reader, (ContainerSchemaNode) schema, writer);
+            writer.endNode();
+        } else if (schema instanceof ListSchemaNode) {
+            parseListEntry(reader, (ListSchemaNode) schema, writer);
+        } else if (schema instanceof AnyXmlSchemaNode) {
+            writer.anyxmlNode(new NodeIdentifier(schema.getQName()), new DOMSource(readElement(reader)));
+        } else {
+            throw new UnsupportedContentException("Unsupported schema node " + schema);
+        }
+    }
+
+    private void parseListEntry(final XMLStreamReader reader, final ListSchemaNode schema,
+                                final NormalizedNodeStreamWriter writer) throws XMLStreamException, IOException {
+        final List<QName> keyDefinition = schema.getKeyDefinition();
+        if (keyDefinition.isEmpty()) {
+            writer.startUnkeyedListItem(new NodeIdentifier(schema.getQName()), UNKNOWN_SIZE);
+            parseChildren(reader, schema, writer);
+            writer.endNode();
+            return;
+        }
+
+        // Entry identifier has to be known before its children are emitted, keys are expected to come first
+        final Map<QName, Object> parsedKeys = new HashMap<>();
+        while (parsedKeys.size() < keyDefinition.size()) {
+            if (nextElement(reader) != XMLStreamConstants.START_ELEMENT) {
+                throw new UnsupportedContentException("Missing keys in entry of " + schema.getQName());
+            }
+            final QName key = findKey(keyDefinition, reader.getNamespaceURI(), reader.getLocalName());
+            if (key == null) {
+                throw new UnsupportedContentException("Keys are not leading elements in entry of " + schema.getQName());
+            }
+            parsedKeys.put(key, parseValue(reader, ((LeafSchemaNode) schema.getDataChildByName(key)).getType()));
+        }
+
+        final Map<QName, Object> keys = new LinkedHashMap<>();
+        for (final QName key : keyDefinition) {
+            keys.put(key, parsedKeys.get(key));
+        }
+
+        writer.startMapEntryNode(new NodeIdentifierWithPredicates(schema.getQName(), keys), UNKNOWN_SIZE);
+        for (final Map.Entry<QName, Object> key : keys.entrySet()) {
+            writer.leafNode(new NodeIdentifier(key.getKey()), key.getValue());
+        }
+        parseChildren(reader, schema, writer);
+        writer.endNode();
+    }
+
+    private static QName findKey(final List<QName> keyDefinition, final String namespace, final String localName) {
+        for (final QName key : keyDefinition) {
+            if (matches(key, namespace, localName)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private Object parseValue(final XMLStreamReader reader, final TypeDefinition<?> type) throws XMLStreamException {
+        final String text = reader.getElementText();
+
+        TypeDefinition<?> baseType = type;
+        while (baseType.getBaseType() != null) {
+            baseType = baseType.getBaseType();
+        }
+
+        if (baseType instanceof IdentityrefTypeDefinition) {
+            return parseIdentity(reader, text);
+        }
+        if (baseType instanceof InstanceIdentifierTypeDefinition || baseType instanceof LeafrefTypeDefinition) {
+            throw new UnsupportedContentException("Unsupported type " + baseType.getQName());
+        }
+
+        final TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>> codec =
+                XmlUtils.DEFAULT_XML_CODEC_PROVIDER.codecFor(baseType);
+        return codec == null ? text : codec.deserialize(text);
+    }
+
+    private QName parseIdentity(final XMLStreamReader reader, final String text) {
+        final String value = text.trim();
+        final int colon = value.indexOf(':');
+        final String prefix = colon == -1 ? XMLConstants.DEFAULT_NS_PREFIX : value.substring(0, colon);
+        final String namespace = reader.getNamespaceContext().getNamespaceURI(prefix);
+        if (namespace == null || namespace.isEmpty()) {
+            throw new UnsupportedContentException("Unable to resolve namespace of identity " + value);
+        }
+
+        final Set<Module> modules = schemaContext.findModuleByNamespace(URI.create(namespace));
+        if (modules.isEmpty()) {
+            throw new UnsupportedContentException("Unable to find module for identity " + value);
+        }
+        return QName.create(modules.iterator().next().getQNameModule(), value.substring(colon + 1));
+    }
+
+    /**
+     * Build a standalone DOM element from the current element, used for anyxml content only.
+     */
+    private static Element readElement(final XMLStreamReader reader) throws XMLStreamException {
+        final Document document = XmlUtil.newDocument();
+        final Deque<Node> parents = new ArrayDeque<>();
+        Node current = document;
+        int depth = 0;
+
+        while (true) {
+            switch (reader.getEventType()) {
+            case XMLStreamConstants.START_ELEMENT:
+                final Element element = document.createElementNS(reader.getNamespaceURI(), qualifiedName(reader));
+                for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                    final String prefix = reader.getNamespacePrefix(i);
+                    element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+                            prefix == null || prefix.isEmpty() ? XMLConstants.XMLNS_ATTRIBUTE
+                                    : XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix, reader.getNamespaceURI(i));
+                }
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    final String prefix = reader.getAttributePrefix(i);
+                    final String localName = reader.getAttributeLocalName(i);
+                    element.setAttributeNS(emptyToNull(reader.getAttributeNamespace(i)),
+                            prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName,
+                            reader.getAttributeValue(i));
+                }
+                current.appendChild(element);
+                parents.push(current);
+                current = element;
+                depth++;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                current = parents.pop();
+                depth--;
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+            case XMLStreamConstants.CDATA:
+                current.appendChild(document.createTextNode(reader.getText()));
+                break;
+            default:
+                break;
+            }
+
+            if (depth == 0) {
+                return document.getDocumentElement();
+            }
+            reader.next();
+        }
+    }
+
+    private static String qualifiedName(final XMLStreamReader reader) {
+        final String prefix = reader.getPrefix();
+        return prefix == null || prefix.isEmpty() ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+    }
+
+    private static String emptyToNull(final String str) {
+        return str == null || str.isEmpty() ? null : str;
+    }
+
+    /**
+     * Move to the next start or end element, skipping whitespace, comments and processing instructions.
+     */
+    private static int nextElement(final XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT || event == XMLStreamConstants.END_ELEMENT) {
+                return event;
+            }
+        }
+        throw new XMLStreamException("Unexpected end of document");
+    }
+
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = nextElement(reader);
+            depth += event == XMLStreamConstants.START_ELEMENT ? 1 : -1;
+        }
+    }
+
+    private ChildPath resolveChild(final DataNodeContainer parent, final String namespace, final String localName) {
+        final ChildKey key = new ChildKey(parent, namespace, localName);
+        ChildPath ret = resolvedChildren.get(key);
+        if (ret == null && !resolvedChildren.containsKey(key)) {
+            final Deque<Object> path = findPath(parent, namespace, localName);
+            ret = path == null ? null : new ChildPath(path);
+            resolvedChildren.put(key, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Find path from parent to the child schema node, including choices and augmentations on the way.
+     */
+    private static Deque<Object> findPath(final DataNodeContainer parent, final String namespace,
+                                          final String localName) {
+        final List<ChoiceSchemaNode> choices = new ArrayList<>();
+        for (final DataSchemaNode child : parent.getChildNodes()) {
+            if (child instanceof ChoiceSchemaNode) {
+                choices.add((ChoiceSchemaNode) child);
+            } else if (matches(child.getQName(), namespace, localName)) {
+                final Deque<Object> result = new ArrayDeque<>();
+                result.push(child);
+                pushAugmentation(parent, child, result);
+                return result;
+            }
+        }
+
+        for (final ChoiceSchemaNode choice : choices) {
+            for (final ChoiceCaseNode caseNode : choice.getCases()) {
+                final Deque<Object> result = findPath(caseNode, namespace, localName);
+                if (result != null) {
+                    result.push(choice);
+                    pushAugmentation(parent, choice, result);
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void pushAugmentation(final DataNodeContainer parent, final DataSchemaNode child,
+                                         final Deque<Object> result) {
+        if (child.isAugmenting() && parent instanceof AugmentationTarget && !(parent instanceof ChoiceSchemaNode)) {
+            for (final AugmentationSchema augmentation : ((AugmentationTarget) parent).getAvailableAugmentations()) {
+                if (augmentation.getDataChildByName(child.getQName()) != null) {
+                    result.push(augmentation);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean matches(final QName qName, final String namespace, final String localName) {
+        return qName.getLocalName().equals(localName) && qName.getNamespace().toString().equals(namespace);
+    }
+
+    private static final class ChildKey {
+        private final DataNodeContainer parent;
+        private final String namespace;
+        private final String localName;
+
+        ChildKey(final DataNodeContainer parent, final String namespace, final String localName) {
+            this.parent = parent;
+            this.namespace = namespace;
+            this.localName = localName;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(parent) + Objects.hashCode(namespace)) + localName.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof ChildKey)) {
+                return false;
+            }
+            final ChildKey other = (ChildKey) obj;
+            return parent == other.parent && Objects.equals(namespace, other.namespace)
+                    && localName.equals(other.localName);
+        }
+    }
+
+    /**
+     * Resolved child, mixin nodes wrapping it in normalized node tree and its schema node.
+     */
+    private static final class ChildPath {
+        private final List<Wrapper> wrappers;
+        private final DataSchemaNode node;
+
+        ChildPath(final Deque<Object> path) {
+            final List<Wrapper> builder = new ArrayList<>();
+            DataSchemaNode last = null;
+            for (final Object element : path) {
+                if (element instanceof AugmentationSchema) {
+                    builder.add(Wrapper.augmentation((AugmentationSchema) element));
+                } else if (element instanceof ChoiceSchemaNode) {
+                    builder.add(Wrapper.choice((ChoiceSchemaNode) element));
+                } else {
+                    last = (DataSchemaNode) element;
+                }
+            }
+
+            if (last instanceof ListSchemaNode) {
+                builder.add(Wrapper.list((ListSchemaNode) last));
+            } else if (last instanceof LeafListSchemaNode) {
+                builder.add(Wrapper.leafList((LeafListSchemaNode) last));
+            }
+
+            this.wrappers = ImmutableList.copyOf(builder);
+            this.node = last;
+        }
+    }
+
+    private enum WrapperType {
+        AUGMENTATION, CHOICE, MAP, ORDERED_MAP, UNKEYED_LIST, LEAF_SET, ORDERED_LEAF_SET
+    }
+
+    private static final class Wrapper {
+        private final WrapperType type;
+        private final PathArgument identifier;
+
+        private Wrapper(final WrapperType type, final PathArgument identifier) {
+            this.type = type;
+            this.identifier = identifier;
+        }
+
+        static Wrapper augmentation(final AugmentationSchema augmentation) {
+            final Set<QName> childNames = new HashSet<>();
+            for (final DataSchemaNode child : augmentation.getChildNodes()) {
+                childNames.add(child.getQName());
+            }
+            return new Wrapper(WrapperType.AUGMENTATION, new AugmentationIdentifier(childNames));
+        }
+
+        static Wrapper choice(final ChoiceSchemaNode choice) {
+            return new Wrapper(WrapperType.CHOICE, new NodeIdentifier(choice.getQName()));
+        }
+
+        static Wrapper list(final ListSchemaNode list) {
+            final WrapperType type;
+            if (list.getKeyDefinition().isEmpty()) {
+                type = WrapperType.UNKEYED_LIST;
+            } else {
+                type = list.isUserOrdered() ? WrapperType.ORDERED_MAP : WrapperType.MAP;
+            }
+            return new Wrapper(type, new NodeIdentifier(list.getQName()));
+        }
+
+        static Wrapper leafList(final LeafListSchemaNode leafList) {
+            return new Wrapper(leafList.isUserOrdered() ? WrapperType.ORDERED_LEAF_SET : WrapperType.LEAF_SET,
+                    new NodeIdentifier(leafList.getQName()));
+        }
+
+        void start(final NormalizedNodeStreamWriter writer) throws IOException {
+            switch (type) {
+            case AUGMENTATION:
+                writer.startAugmentationNode((AugmentationIdentifier) identifier);
+                break;
+            case CHOICE:
+                writer.startChoiceNode((NodeIdentifier) identifier, UNKNOWN_SIZE);
+                break;
+            case MAP:
+                writer.startMapNode((NodeIdentifier) identifier, UNKNOWN_SIZE);
+                break;
+            case ORDERED_MAP:
+                writer.startOrderedMapNode((NodeIdentifier) identifier, UNKNOWN_SIZE);
+                break;
+            case UNKEYED_LIST:
+                writer.startUnkeyedList((NodeIdentifier) identifier, UNKNOWN_SIZE);
+                break;
+            case LEAF_SET:
+                writer.startLeafSet((NodeIdentifier) identifier, UNKNOWN_SIZE);
+                break;
+            case ORDERED_LEAF_SET:
+                writer.startOrderedLeafSet((NodeIdentifier) identifier, UNKNOWN_SIZE);
+                break;
+            default:
+                throw new IllegalStateException("Unhandled wrapper " + type);
+            }
+        }
+    }
+}
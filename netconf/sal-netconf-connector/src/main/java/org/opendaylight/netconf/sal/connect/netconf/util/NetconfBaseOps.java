@@ -8,7 +8,11 @@
 
 package org.opendaylight.netconf.sal.connect.netconf.util;
 
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CANCEL_COMMIT_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CANDIDATE_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_COMMIT_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIRMED_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIRM_TIMEOUT_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_COPY_CONFIG_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_DEFAULT_OPERATION_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_DISCARD_CHANGES_QNAME;
@@ -129,6 +133,26 @@ public final class NetconfBaseOps {
         return future;
     }
 
+    /**
+     * Commit candidate, which has to be confirmed by another commit within the timeout, otherwise the device rolls
+     * running datastore back. Requires :confirmed-commit:1.1 capability.
+     */
+    public ListenableFuture<DOMRpcResult> confirmedCommit(final FutureCallback<DOMRpcResult> callback, final long confirmTimeout) {
+        Preconditions.checkNotNull(callback);
+
+        final ListenableFuture<DOMRpcResult> future = rpc.invokeRpc(toPath(NETCONF_COMMIT_QNAME), getConfirmedCommitContent(confirmTimeout));
+        Futures.addCallback(future, callback);
+        return future;
+    }
+
+    public ListenableFuture<DOMRpcResult> cancelCommit(final FutureCallback<DOMRpcResult> callback) {
+        Preconditions.checkNotNull(callback);
+
+        final ListenableFuture<DOMRpcResult> future = rpc.invokeRpc(toPath(NETCONF_CANCEL_COMMIT_QNAME), null);
+        Futures.addCallback(future, callback);
+        return future;
+    }
+
     public ListenableFuture<DOMRpcResult> validate(final FutureCallback<DOMRpcResult> callback, final QName datastore) {
         Preconditions.checkNotNull(callback);
         Preconditions.checkNotNull(datastore);
@@ -309,6 +333,15 @@ public final class NetconfBaseOps {
                 .withChild(getTargetNode(target)).withChild(getSourceNode(source)).build();
     }
 
+    public static ContainerNode getConfirmedCommitContent(final long confirmTimeout) {
+        Preconditions.checkArgument(confirmTimeout > 0, "Confirm timeout has to be positive, was %s", confirmTimeout);
+        return Builders.containerBuilder().withNodeIdentifier(toId(NETCONF_COMMIT_QNAME))
+                .withChild(Builders.leafBuilder().withNodeIdentifier(toId(NETCONF_CONFIRMED_QNAME)).build())
+                .withChild(Builders.leafBuilder().withNodeIdentifier(toId(NETCONF_CONFIRM_TIMEOUT_QNAME))
+                        .withValue(confirmTimeout).build())
+                .build();
+    }
+
     public static NormalizedNode<?, ?> getValidateContent(final QName source) {
         return Builders.containerBuilder().withNodeIdentifier(toId(NETCONF_VALIDATE_QNAME))
                 .withChild(getSourceNode(source)).build();
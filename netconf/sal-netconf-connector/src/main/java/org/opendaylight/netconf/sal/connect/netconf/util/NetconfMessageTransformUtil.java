@@ -31,6 +31,7 @@ import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.messages.RawNetconfMessage;
 import org.opendaylight.netconf.notifications.NetconfNotification;
 import org.opendaylight.netconf.sal.connect.util.MessageCounter;
 import org.opendaylight.netconf.util.NetconfUtil;
@@ -106,6 +107,9 @@ public class NetconfMessageTransformUtil {
     public static final QName NETCONF_TARGET_QNAME = QName.create(NETCONF_QNAME, "target").intern();
     public static final QName NETCONF_CONFIG_QNAME = QName.create(NETCONF_QNAME, "config").intern();
     public static final QName NETCONF_COMMIT_QNAME = QName.create(NETCONF_QNAME, "commit").intern();
+    public static final QName NETCONF_CONFIRMED_QNAME = QName.create(NETCONF_QNAME, "confirmed").intern();
+    public static final QName NETCONF_CONFIRM_TIMEOUT_QNAME = QName.create(NETCONF_QNAME, "confirm-timeout").intern();
+    public static final QName NETCONF_CANCEL_COMMIT_QNAME = QName.create(NETCONF_QNAME, "cancel-commit").intern();
     public static final QName NETCONF_VALIDATE_QNAME = QName.create(NETCONF_QNAME, "validate").intern();
     public static final QName NETCONF_COPY_CONFIG_QNAME = QName.create(NETCONF_QNAME, "copy-config").intern();
     public static final QName NETCONF_OPERATION_QNAME = QName.create(NETCONF_QNAME, "operation").intern();
@@ -125,6 +129,9 @@ public class NetconfMessageTransformUtil {
     public static final URI NETCONF_CANDIDATE_URI = URI
             .create("urn:ietf:params:netconf:capability:candidate:1.0");
 
+    public static final URI NETCONF_CONFIRMED_COMMIT_URI = URI
+            .create("urn:ietf:params:netconf:capability:confirmed-commit:1.1");
+
     public static final URI NETCONF_NOTIFICATONS_URI = URI
             .create("urn:ietf:params:netconf:capability:notification:1.0");
 
@@ -185,8 +192,8 @@ public class NetconfMessageTransformUtil {
 
     public static void checkValidReply(final NetconfMessage input, final NetconfMessage output)
             throws NetconfDocumentedException {
-        final String inputMsgId = input.getDocument().getDocumentElement().getAttribute(MESSAGE_ID_ATTR);
-        final String outputMsgId = output.getDocument().getDocumentElement().getAttribute(MESSAGE_ID_ATTR);
+        final String inputMsgId = getMessageId(input);
+        final String outputMsgId = getMessageId(output);
 
         if(inputMsgId.equals(outputMsgId) == false) {
             final Map<String,String> errorInfo = ImmutableMap.<String,String>builder()
@@ -201,7 +208,22 @@ public class NetconfMessageTransformUtil {
         }
     }
 
+    /**
+     * @return message-id of the message, empty string if the message has no message-id
+     */
+    public static String getMessageId(final NetconfMessage message) {
+        if (message instanceof RawNetconfMessage) {
+            return ((RawNetconfMessage) message).getMessageId();
+        }
+        final Element root = message.getDocument().getDocumentElement();
+        return root == null ? "" : root.getAttribute(MESSAGE_ID_ATTR);
+    }
+
     public static void checkSuccessReply(final NetconfMessage output) throws NetconfDocumentedException {
+        if (output instanceof RawNetconfMessage && !((RawNetconfMessage) output).isErrorReply()) {
+            // Do not build the document just to find out there is no error
+            return;
+        }
         if(NetconfMessageUtil.isErrorMessage(output)) {
             throw NetconfDocumentedException.fromXMLDocument(output.getDocument());
         }
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.util;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes operational status of devices, e.g. connection status and capabilities of topology nodes. Writes submitted
+ * within a short window are committed together in a single transaction of a transaction chain:
+ * <ul>
+ *   <li>put or delete of a path replaces put or delete of the same path still waiting to be written, so a flapping
+ *   device results in a single write of its latest status</li>
+ *   <li>identical merges of a path are written once, so that every writer can ensure presence of parent containers
+ *   </li>
+ *   <li>otherwise the writes are applied in order of their submission</li>
+ * </ul>
+ * With zero window, every batch is written in its own transaction immediately.
+ * <p>
+ * If a transaction with writes of several batches fails, the batches are resubmitted one by one in their own
+ * transactions, so that a single bad write does not fail writes of other devices.
+ * <p>
+ * Writers obtained by {@link #getShared(DataBroker)} are reference counted, each user has to {@link #close()} the
+ * writer once it is done with it. The last close flushes pending writes and closes the transaction chain.
+ */
+@ThreadSafe
+public final class CoalescingOperationalWriter implements AutoCloseable {
+
+    /**
+     * System property with the window in milliseconds, 0 by default.
+     */
+    public static final String WINDOW_PROPERTY = "org.opendaylight.netconf.status-write-window-millis";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CoalescingOperationalWriter.class);
+
+    private static final long WINDOW_MILLIS = Long.getLong(WINDOW_PROPERTY, 0);
+
+    // Flushes are short, single thread serves all writers
+    private static final ScheduledExecutorService FLUSH_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("netconf-status-writer-%d").setDaemon(true).build());
+
+    @GuardedBy("CoalescingOperationalWriter.class")
+    private static final Map<DataBroker, CoalescingOperationalWriter> SHARED_WRITERS = new IdentityHashMap<>();
+
+    private final DataBroker dataBroker;
+    private final long windowMillis;
+    private final boolean shared;
+
+    @GuardedBy("CoalescingOperationalWriter.class")
+    private int references;
+
+    private final TransactionChainListener transactionChainListener = new TransactionChainListener() {
+        @Override
+        public void onTransactionChainFailed(final TransactionChain<?, ?> chain, final AsyncTransaction<?, ?> transaction,
+                                             final Throwable cause) {
+            LOG.error("TransactionChain({}) {} FAILED!", chain, transaction.getIdentifier(), cause);
+            resetTransactionChain(chain);
+        }
+
+        @Override
+        public void onTransactionChainSuccessful(final TransactionChain<?, ?> chain) {
+            LOG.trace("TransactionChain({}) SUCCESSFUL", chain);
+        }
+    };
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    @GuardedBy("this")
+    private BindingTransactionChain txChain;
+    // Writes waiting for flush in order of their last submission, keyed by path for put and delete
+    @GuardedBy("this")
+    private final Map<Object, Operation> pending = new LinkedHashMap<>();
+    // Batches with writes waiting for flush, kept for resubmission if the coalesced transaction fails
+    @GuardedBy("this")
+    private List<SubmittedBatch> pendingBatches = new ArrayList<>();
+    @GuardedBy("this")
+    private boolean flushScheduled;
+    @GuardedBy("this")
+    private boolean closed;
+
+    /**
+     * @param windowMillis time in milliseconds writes are collected for before they are committed, 0 to commit
+     *                     every batch immediately
+     */
+    public CoalescingOperationalWriter(final DataBroker dataBroker, final long windowMillis) {
+        this(dataBroker, windowMillis, false);
+    }
+
+    private CoalescingOperationalWriter(final DataBroker dataBroker, final long windowMillis, final boolean shared) {
+        Preconditions.checkArgument(windowMillis >= 0, "Negative window %s", windowMillis);
+        this.dataBroker = Preconditions.checkNotNull(dataBroker);
+        this.windowMillis = windowMillis;
+        this.shared = shared;
+        this.txChain = dataBroker.createTransactionChain(transactionChainListener);
+    }
+
+    /**
+     * @return writer shared by all devices writing to the data broker, with window set by {@link #WINDOW_PROPERTY}.
+     *         With zero window nothing would be coalesced, so every caller gets its own writer and transaction chain.
+     *         Caller has to close the writer once it stops writing.
+     */
+    public static CoalescingOperationalWriter getShared(final DataBroker dataBroker) {
+        return getShared(dataBroker, WINDOW_MILLIS);
+    }
+
+    @VisibleForTesting
+    static synchronized CoalescingOperationalWriter getShared(final DataBroker dataBroker, final long windowMillis) {
+        if (windowMillis == 0) {
+            return new CoalescingOperationalWriter(dataBroker, 0);
+        }
+
+        CoalescingOperationalWriter writer = SHARED_WRITERS.get(dataBroker);
+        if (writer == null) {
+            writer = new CoalescingOperationalWriter(dataBroker, windowMillis, true);
+            SHARED_WRITERS.put(dataBroker, writer);
+        }
+        writer.references++;
+        return writer;
+    }
+
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    private ListenableFuture<Void> submit(final List<Operation> operations) {
+        final SubmittedBatch batch = new SubmittedBatch(operations);
+        synchronized (this) {
+            Preconditions.checkState(!closed, "Writer already closed");
+            for (final Operation operation : operations) {
+                // Re-insert to keep order of the last submission
+                pending.remove(operation.getKey());
+                pending.put(operation.getKey(), operation);
+            }
+            pendingBatches.add(batch);
+
+            if (windowMillis == 0) {
+                flush();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                FLUSH_EXECUTOR.schedule(flushTask, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return batch.result;
+    }
+
+    /**
+     * Commit all pending writes now.
+     */
+    public synchronized void flush() {
+        flushScheduled = false;
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
+        final List<InstanceIdentifier<?>> paths = new ArrayList<>(pending.size());
+        for (final Operation operation : pending.values()) {
+            operation.apply(writeTx);
+            paths.add(operation.getPath());
+        }
+        LOG.debug("Committing {} operational status writes in transaction {}", pending.size(), writeTx.getIdentifier());
+        pending.clear();
+
+        final List<SubmittedBatch> batches = pendingBatches;
+        pendingBatches = new ArrayList<>();
+        Futures.addCallback(writeTx.submit(), new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(final Void value) {
+                for (final SubmittedBatch batch : batches) {
+                    batch.result.set(null);
+                }
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                if (batches.size() == 1) {
+                    batches.get(0).result.setException(t);
+                    return;
+                }
+
+                LOG.warn("Transaction {} with operational status writes of {} failed, resubmitting its {} batches "
+                        + "one by one", writeTx.getIdentifier(), paths, batches.size(), t);
+                resubmit(batches.iterator());
+            }
+        });
+    }
+
+    /**
+     * Resubmit batches of a failed transaction in order, each in its own transaction once the previous one
+     * completed. Transactions are not part of the chain, which failed together with the transaction.
+     */
+    private void resubmit(final Iterator<SubmittedBatch> batches) {
+        if (!batches.hasNext()) {
+            return;
+        }
+
+        final SubmittedBatch batch = batches.next();
+        final WriteTransaction writeTx = dataBroker.newWriteOnlyTransaction();
+        for (final Operation operation : batch.operations) {
+            operation.apply(writeTx);
+        }
+        Futures.addCallback(writeTx.submit(), new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(final Void value) {
+                batch.result.set(null);
+                resubmit(batches);
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                batch.result.setException(t);
+                resubmit(batches);
+            }
+        });
+    }
+
+    private synchronized void resetTransactionChain(final TransactionChain<?, ?> failedChain) {
+        failedChain.close();
+        if (txChain == failedChain && !closed) {
+            txChain = dataBroker.createTransactionChain(transactionChainListener);
+            LOG.trace("Resetting TransactionChain {}", txChain);
+        }
+    }
+
+    /**
+     * Flush pending writes and close the writer. Shared writer is closed once all its users closed it.
+     */
+    @Override
+    public void close() {
+        if (shared) {
+            synchronized (CoalescingOperationalWriter.class) {
+                Preconditions.checkState(references > 0, "Shared writer already closed");
+                if (--references > 0) {
+                    return;
+                }
+                SHARED_WRITERS.remove(dataBroker);
+                closeWriter();
+            }
+        } else {
+            closeWriter();
+        }
+    }
+
+    private synchronized void closeWriter() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        txChain.close();
+    }
+
+    /**
+     * Writes submitted together, committed in the same transaction.
+     */
+    public final class Batch {
+        private final List<Operation> operations = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        public <T extends DataObject> Batch put(final InstanceIdentifier<T> path, final T data) {
+            return put(path, data, false);
+        }
+
+        public <T extends DataObject> Batch put(final InstanceIdentifier<T> path, final T data,
+                                                final boolean createMissingParents) {
+            operations.add(new Operation(path, path) {
+                @Override
+                void apply(final WriteTransaction writeTx) {
+                    if (createMissingParents) {
+                        writeTx.put(LogicalDatastoreType.OPERATIONAL, path, data, true);
+                    } else {
+                        writeTx.put(LogicalDatastoreType.OPERATIONAL, path, data);
+                    }
+                }
+            });
+            return this;
+        }
+
+        public <T extends DataObject> Batch merge(final InstanceIdentifier<T> path, final T data) {
+            return merge(LogicalDatastoreType.OPERATIONAL, path, data);
+        }
+
+        /**
+         * Merge into any datastore, meant for ensuring presence of containers shared with configuration.
+         */
+        public <T extends DataObject> Batch merge(final LogicalDatastoreType store, final InstanceIdentifier<T> path,
+                                                  final T data) {
+            operations.add(new Operation(Arrays.asList(store, path, data), path) {
+                @Override
+                void apply(final WriteTransaction writeTx) {
+                    writeTx.merge(store, path, data);
+                }
+            });
+            return this;
+        }
+
+        public Batch delete(final InstanceIdentifier<?> path) {
+            operations.add(new Operation(path, path) {
+                @Override
+                void apply(final WriteTransaction writeTx) {
+                    writeTx.delete(LogicalDatastoreType.OPERATIONAL, path);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * @return future completed once the transaction containing the writes is committed
+         */
+        public ListenableFuture<Void> submit() {
+            return CoalescingOperationalWriter.this.submit(operations);
+        }
+    }
+
+    private static final class SubmittedBatch {
+        private final List<Operation> operations;
+        private final SettableFuture<Void> result = SettableFuture.create();
+
+        SubmittedBatch(final List<Operation> operations) {
+            this.operations = ImmutableList.copyOf(operations);
+        }
+    }
+
+    private abstract static class Operation {
+        private final Object key;
+        private final InstanceIdentifier<?> path;
+
+        Operation(final Object key, final InstanceIdentifier<?> path) {
+            this.key = key;
+            this.path = path;
+        }
+
+        Object getKey() {
+            return key;
+        }
+
+        InstanceIdentifier<?> getPath() {
+            return path;
+        }
+
+        abstract void apply(WriteTransaction writeTx);
+    }
+}
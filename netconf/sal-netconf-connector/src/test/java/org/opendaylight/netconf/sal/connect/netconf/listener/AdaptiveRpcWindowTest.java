@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AdaptiveRpcWindowTest {
+
+    private static final long LATENCY = 1000000L;
+
+    @Test
+    public void testAcquireRelease() throws Exception {
+        final AdaptiveRpcWindow window = new AdaptiveRpcWindow(2);
+        assertEquals(2, window.getWindow());
+        assertTrue(window.tryAcquire());
+        assertTrue(window.tryAcquire());
+        assertFalse(window.tryAcquire());
+        window.release();
+        assertTrue(window.tryAcquire());
+    }
+
+    @Test
+    public void testGrowWithStableLatency() throws Exception {
+        final AdaptiveRpcWindow window = new AdaptiveRpcWindow(10);
+        assertEquals(AdaptiveRpcWindow.INITIAL_WINDOW, window.getWindow());
+
+        for (int i = 0; i < 100; i++) {
+            window.onReply(LATENCY);
+        }
+        assertEquals(10, window.getMaxWindow());
+        assertEquals(10, window.getWindow());
+    }
+
+    @Test
+    public void testShrinkWithGrowingLatency() throws Exception {
+        final AdaptiveRpcWindow window = new AdaptiveRpcWindow(100);
+        for (int i = 0; i < AdaptiveRpcWindow.INITIAL_WINDOW; i++) {
+            window.onReply(LATENCY);
+        }
+        final int grown = window.getWindow();
+
+        for (int i = 0; i < 20; i++) {
+            window.onReply(LATENCY * 10);
+        }
+        final int shrunk = window.getWindow();
+        assertTrue(shrunk < grown);
+
+        // Device got slower permanently, baseline catches up and the window grows again
+        for (int i = 0; i < 200; i++) {
+            window.onReply(LATENCY * 10);
+        }
+        assertTrue(window.getWindow() > shrunk);
+    }
+}
@@ -10,8 +10,11 @@ package org.opendaylight.netconf.sal.connect.netconf.listener;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
@@ -22,10 +25,10 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.opendaylight.netconf.api.xml.XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0;
 import com.google.common.base.CharMatcher;
-import com.google.common.base.Strings;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.netty.channel.ChannelFuture;
@@ -52,6 +55,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.controller.config.util.xml.XmlMappingConstants;
+import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
 import org.opendaylight.netconf.client.NetconfClientDispatcherImpl;
@@ -335,6 +339,30 @@ public class NetconfDeviceCommunicatorTest {
         verifyResponseMessage( resultFuture2.get(), messageID2 );
     }
 
+    @Test
+    public void testOnOutOfOrderResponseMessages() throws Exception {
+        setupSession();
+
+        String messageID1 = UUID.randomUUID().toString();
+        ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest( messageID1, true );
+
+        String messageID2 = UUID.randomUUID().toString();
+        ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest( messageID2, true );
+
+        assertEquals( 2, communicator.getInFlightRequests() );
+
+        communicator.onMessage( mockSession, createSuccessResponseMessage( messageID2 ) );
+        verifyResponseMessage( resultFuture2.get(), messageID2 );
+        assertFalse( resultFuture1.isDone() );
+
+        communicator.onMessage( mockSession, createSuccessResponseMessage( messageID1 ) );
+        verifyResponseMessage( resultFuture1.get(), messageID1 );
+
+        assertEquals( 0, communicator.getInFlightRequests() );
+        assertEquals( 2, communicator.getMaxInFlightRequests() );
+        assertEquals( 0, communicator.getUnmatchedReplies() );
+    }
+
     @Test
     public void testOnResponseMessageWithError() throws Exception {
         setupSession();
@@ -416,19 +444,44 @@ public class NetconfDeviceCommunicatorTest {
         String messageID = UUID.randomUUID().toString();
         ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest( messageID, true );
 
+        // Reply matching no pending request is dropped, it does not fail other requests
         communicator.onMessage( mockSession, createSuccessResponseMessage( UUID.randomUUID().toString() ) );
+        assertFalse( resultFuture.isDone() );
+        assertEquals( 1, communicator.getUnmatchedReplies() );
 
-        RpcError rpcError = verifyErrorRpcResult( resultFuture.get(), RpcError.ErrorType.PROTOCOL,
-                                                  "bad-attribute" );
-        assertEquals( "RpcError message non-empty", true,
-                      !Strings.isNullOrEmpty( rpcError.getMessage() ) );
+        communicator.onMessage( mockSession, createSuccessResponseMessage( messageID ) );
+        verifyResponseMessage( resultFuture.get(), messageID );
+    }
 
-        String errorInfo = rpcError.getInfo();
-        assertNotNull( "RpcError info is null", errorInfo );
-        assertEquals( "Error info contains \"actual-message-id\"", true,
-                      errorInfo.contains( "actual-message-id" ) );
-        assertEquals( "Error info contains \"expected-message-id\"", true,
-                      errorInfo.contains( "expected-message-id" ) );
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSameMessageIdOfPendingRequests() throws Exception {
+        setupSession();
+
+        // Every message transformer of a device counts its message-ids from 0
+        final NetconfMessage message = new NetconfMessage( XmlUtil.readXmlToDocument( "<rpc message-id=\"m-0\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><get/></rpc>" ) );
+        final ChannelFuture mockChannelFuture = mock( ChannelFuture.class );
+        doReturn( mockChannelFuture ).when( mockChannelFuture ).addListener( any( GenericFutureListener.class ) );
+        doReturn( mockChannelFuture ).when( mockSession ).sendMessage( any( NetconfMessage.class ) );
+
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = communicator.sendRequest( message, null );
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = communicator.sendRequest( message, null );
+
+        final ArgumentCaptor<NetconfMessage> sent = ArgumentCaptor.forClass( NetconfMessage.class );
+        verify( mockSession, times( 2 ) ).sendMessage( sent.capture() );
+        assertSame( message, sent.getAllValues().get( 0 ) );
+        final String uniqueId = NetconfMessageTransformUtil.getMessageId( sent.getAllValues().get( 1 ) );
+        assertNotEquals( "m-0", uniqueId );
+        // Caller's message is left intact
+        assertEquals( "m-0", NetconfMessageTransformUtil.getMessageId( message ) );
+
+        communicator.onMessage( mockSession, createSuccessResponseMessage( uniqueId ) );
+        verifyResponseMessage( resultFuture2.get(), uniqueId );
+        assertFalse( resultFuture1.isDone() );
+
+        communicator.onMessage( mockSession, createSuccessResponseMessage( "m-0" ) );
+        verifyResponseMessage( resultFuture1.get(), "m-0" );
     }
 
     @Test
@@ -445,6 +498,9 @@ public class NetconfDeviceCommunicatorTest {
         final String notWorkingMessageID = UUID.randomUUID().toString();
         ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest(notWorkingMessageID, false);
         assertEquals("ListenableFuture is null", false, resultFuture instanceof UncancellableFuture);
+        assertEquals(1, communicator.getRejectedRequests());
+        assertEquals(10, communicator.getInFlightRequests());
+        assertEquals(10, communicator.getRpcWindow());
 
         communicator.onMessage(mockSession, createSuccessResponseMessage(messageID.get(0)));
 
@@ -452,6 +508,46 @@ public class NetconfDeviceCommunicatorTest {
         assertNotNull("ListenableFuture is null", resultFuture);
     }
 
+    @Test
+    public void testRpcPipelining() throws Exception {
+        communicator = new NetconfDeviceCommunicator( new RemoteDeviceId( "test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, 2, true);
+        setupSession();
+
+        ArrayList<String> messageID = new ArrayList<>();
+        ArrayList<ListenableFuture<RpcResult<NetconfMessage>>> resultFutures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            messageID.add(UUID.randomUUID().toString());
+            resultFutures.add(sendRequest(messageID.get(i), true));
+        }
+
+        // Requests over the window are queued, not rejected
+        verify(mockSession, times(2)).sendMessage(any(NetconfMessage.class));
+        assertFalse(resultFutures.get(2).isDone());
+        assertFalse(resultFutures.get(3).isDone());
+        assertEquals(2, communicator.getInFlightRequests());
+        assertEquals(2, communicator.getQueuedRequests());
+        assertEquals(0, communicator.getRejectedRequests());
+
+        // Queued request can still be cancelled
+        assertTrue(resultFutures.get(3).cancel(false));
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID.get(0)));
+        verifyResponseMessage(resultFutures.get(0).get(), messageID.get(0));
+        verify(mockSession, times(3)).sendMessage(any(NetconfMessage.class));
+        assertEquals(1, communicator.getQueuedRequests());
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID.get(1)));
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID.get(2)));
+        verifyResponseMessage(resultFutures.get(1).get(), messageID.get(1));
+        verifyResponseMessage(resultFutures.get(2).get(), messageID.get(2));
+
+        // Cancelled request is never sent
+        verify(mockSession, times(3)).sendMessage(any(NetconfMessage.class));
+        assertEquals(0, communicator.getQueuedRequests());
+        assertEquals(1, communicator.getTimedOutRequests());
+        assertEquals(0, communicator.getInFlightRequests());
+    }
+
     private static NetconfMessage createErrorResponseMessage( final String messageID ) throws Exception {
         String xmlStr =
             "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"" +
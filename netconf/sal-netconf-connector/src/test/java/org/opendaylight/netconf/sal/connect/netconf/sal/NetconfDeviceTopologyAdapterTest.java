@@ -9,6 +9,7 @@
 package org.opendaylight.netconf.sal.connect.netconf.sal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
@@ -18,6 +19,7 @@ import static org.mockito.Mockito.verify;
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.Futures;
 import java.io.InputStream;
+import java.math.BigInteger;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,9 +39,7 @@ import org.mockito.internal.util.collections.Sets;
 import org.opendaylight.controller.cluster.databroker.ConcurrentDOMDataBroker;
 import org.opendaylight.controller.cluster.datastore.node.utils.AugmentationIdentifierGenerator;
 import org.opendaylight.controller.md.sal.binding.impl.BindingDOMDataBrokerAdapter;
-import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
-import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
 import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
@@ -51,11 +51,14 @@ import org.opendaylight.controller.md.sal.dom.store.impl.InMemoryDOMDataStoreFac
 import org.opendaylight.controller.sal.core.api.model.SchemaService;
 import org.opendaylight.controller.sal.core.spi.data.DOMStore;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
+import org.opendaylight.netconf.sal.connect.util.CoalescingOperationalWriter;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionStatus;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeFields;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.RpcStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.RpcStatisticsBuilder;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
@@ -100,8 +103,6 @@ public class NetconfDeviceTopologyAdapterTest {
     private SchemaContext schemaContext = null;
     private String sessionIdForReporting = "netconf-test-session1";
 
-    private BindingTransactionChain transactionChain;
-
     private DataBroker dataBroker;
 
     private ConcurrentDOMDataBroker cDOMDataBroker;
@@ -142,33 +143,20 @@ public class NetconfDeviceTopologyAdapterTest {
         final BindingToNormalizedNodeCodec bindingToNormalized = new BindingToNormalizedNodeCodec(loading, codecRegistry);
         bindingToNormalized.onGlobalContextUpdated(schemaContext);
         dataBroker = new BindingDOMDataBrokerAdapter(cDOMDataBroker, bindingToNormalized);
-
-        transactionChain = dataBroker.createTransactionChain(new TransactionChainListener() {
-            @Override
-            public void onTransactionChainFailed(TransactionChain<?, ?> chain, AsyncTransaction<?, ?> transaction, Throwable cause) {
-
-            }
-
-            @Override
-            public void onTransactionChainSuccessful(TransactionChain<?, ?> chain) {
-
-            }
-        });
-
     }
 
     @Test
     public void testFailedDevice() throws Exception {
 
         doReturn(Futures.immediateCheckedFuture(null)).when(writeTx).submit();
-        NetconfDeviceTopologyAdapter adapter = new NetconfDeviceTopologyAdapter(id, txChain);
+        NetconfDeviceTopologyAdapter adapter = new NetconfDeviceTopologyAdapter(id, new CoalescingOperationalWriter(broker, 0));
         adapter.setDeviceAsFailed(null);
 
         verify(txChain, times(2)).newWriteOnlyTransaction();
         verify(writeTx, times(1)).put(any(LogicalDatastoreType.class), any(InstanceIdentifier.class), any(NetconfNode.class));
         adapter.close();
 
-        adapter = new NetconfDeviceTopologyAdapter(id, transactionChain); //not a mock
+        adapter = new NetconfDeviceTopologyAdapter(id, new CoalescingOperationalWriter(dataBroker, 0)); //not a mock
         adapter.setDeviceAsFailed(null);
 
         Optional<NetconfNode> netconfNode = dataBroker.newReadWriteTransaction().read(LogicalDatastoreType.OPERATIONAL, id.getTopologyBindingPath().augmentation(NetconfNode.class)).checkedGet(5, TimeUnit.SECONDS);
@@ -182,7 +170,7 @@ public class NetconfDeviceTopologyAdapterTest {
     public void testDeviceUpdate() throws Exception {
         doReturn(Futures.immediateCheckedFuture(null)).when(writeTx).submit();
 
-        NetconfDeviceTopologyAdapter adapter = new NetconfDeviceTopologyAdapter(id, txChain);
+        NetconfDeviceTopologyAdapter adapter = new NetconfDeviceTopologyAdapter(id, new CoalescingOperationalWriter(broker, 0));
         adapter.updateDeviceData(true, new NetconfDeviceCapabilities());
 
         verify(txChain, times(2)).newWriteOnlyTransaction();
@@ -191,12 +179,33 @@ public class NetconfDeviceTopologyAdapterTest {
 
     }
 
+    @Test
+    public void testRpcStatisticsUpdate() throws Exception {
+        NetconfDeviceTopologyAdapter adapter = new NetconfDeviceTopologyAdapter(id, new CoalescingOperationalWriter(dataBroker, 0)); //not a mock
+        adapter.updateDeviceData(true, new NetconfDeviceCapabilities());
+
+        final RpcStatistics statistics = new RpcStatisticsBuilder().setInFlightRequests(2L).setQueuedRequests(5L)
+                .setRpcWindow(2L).setRejectedRequests(BigInteger.ONE).setTimedOutRequests(BigInteger.ZERO).build();
+        adapter.updateRpcStatistics(statistics);
+
+        Optional<NetconfNode> netconfNode = dataBroker.newReadWriteTransaction().read(LogicalDatastoreType.OPERATIONAL, id.getTopologyBindingPath().augmentation(NetconfNode.class)).checkedGet(5, TimeUnit.SECONDS);
+
+        assertEquals("Netconf node should be presented.", true, netconfNode.isPresent());
+        assertEquals("Connection status should be connected.", NetconfNodeConnectionStatus.ConnectionStatus.Connected, netconfNode.get().getConnectionStatus());
+        assertEquals("Rpc statistics should be presented.", statistics, netconfNode.get().getRpcStatistics());
+
+        // Statistics of a previous session do not survive device update
+        adapter.updateDeviceData(false, new NetconfDeviceCapabilities());
+        netconfNode = dataBroker.newReadWriteTransaction().read(LogicalDatastoreType.OPERATIONAL, id.getTopologyBindingPath().augmentation(NetconfNode.class)).checkedGet(5, TimeUnit.SECONDS);
+        assertNull("Rpc statistics should be removed.", netconfNode.get().getRpcStatistics());
+    }
+
     @Test
     public void testDeviceAugmentedNodePresence() throws Exception {
 
         Integer dataTestId = 474747;
 
-        NetconfDeviceTopologyAdapter adapter = new NetconfDeviceTopologyAdapter(id, transactionChain);
+        NetconfDeviceTopologyAdapter adapter = new NetconfDeviceTopologyAdapter(id, new CoalescingOperationalWriter(dataBroker, 0));
 
         QName nTestLeafQname = QName.create("urn:TBD:params:xml:ns:yang:network-topology-augment-test", "2016-08-08", "test-id").intern();
 
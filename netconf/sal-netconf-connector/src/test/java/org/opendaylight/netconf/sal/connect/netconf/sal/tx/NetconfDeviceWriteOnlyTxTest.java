@@ -8,6 +8,7 @@
 
 package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -15,17 +16,30 @@ import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CANDIDATE_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIG_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_FILTER_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_RUNNING_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toId;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
 
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opendaylight.controller.config.util.xml.XmlElement;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -33,22 +47,36 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.netconf.sal.connect.netconf.schema.NetconfRemoteSchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.BaseSchema;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.edit.config.input.EditContent;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.NetconfState;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.common.RpcError;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.w3c.dom.Element;
 
 public class NetconfDeviceWriteOnlyTxTest {
 
+    private static final String NAMESPACE = NetconfState.QNAME.getNamespace().toString();
+
     private final RemoteDeviceId id = new RemoteDeviceId("test-mount", new InetSocketAddress(99));
 
     @Mock
@@ -122,6 +150,97 @@ public class NetconfDeviceWriteOnlyTxTest {
         fail("Submit should fail");
     }
 
+    @Test
+    public void testConfirmedCommit() throws Exception {
+        doReturn(Futures.immediateCheckedFuture(new DefaultDOMRpcResult((NormalizedNode<?, ?>) null)))
+                .when(rpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+
+        final WriteCandidateTx tx = new WriteCandidateTx(id, new NetconfBaseOps(rpc, BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS.getSchemaContext()),
+                false, false, 60);
+
+        tx.delete(LogicalDatastoreType.CONFIGURATION, yangIId);
+        tx.submit().checkedGet();
+
+        // commit is confirmed only after replies to all previous RPCs arrived
+        final InOrder inOrder = inOrder(rpc);
+        inOrder.verify(rpc).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_LOCK_QNAME), NetconfBaseOps.getLockContent(NETCONF_CANDIDATE_QNAME));
+        inOrder.verify(rpc).invokeRpc(eq(toPath(NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME)), any(NormalizedNode.class));
+        inOrder.verify(rpc).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_COMMIT_QNAME), NetconfBaseOps.getConfirmedCommitContent(60));
+        inOrder.verify(rpc).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_COMMIT_QNAME), NetconfMessageTransformUtil.COMMIT_RPC_CONTENT);
+        inOrder.verify(rpc).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_UNLOCK_QNAME), NetconfBaseOps.getUnLockContent(NETCONF_CANDIDATE_QNAME));
+        verify(rpc, never()).invokeRpc(eq(toPath(NetconfMessageTransformUtil.NETCONF_DISCARD_CHANGES_QNAME)), any(NormalizedNode.class));
+    }
+
+    @Test
+    public void testConfirmedCommitCancelledAfterFailedEdit() throws Exception {
+        final CheckedFuture<DefaultDOMRpcResult, Exception> successFuture =
+                Futures.immediateCheckedFuture(new DefaultDOMRpcResult((NormalizedNode<?, ?>) null));
+        final CheckedFuture<DefaultDOMRpcResult, Exception> rpcErrorFuture =
+                Futures.immediateCheckedFuture(new DefaultDOMRpcResult(RpcResultBuilder.newError(RpcError.ErrorType.APPLICATION, "a", "m")));
+
+        doReturn(successFuture).doReturn(rpcErrorFuture).doReturn(successFuture)
+                .when(rpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+
+        final WriteCandidateTx tx = new WriteCandidateTx(id, new NetconfBaseOps(rpc, BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS.getSchemaContext()),
+                false, false, 60);
+
+        tx.delete(LogicalDatastoreType.CONFIGURATION, yangIId);
+        try {
+            tx.submit().checkedGet();
+            fail("Submit should fail");
+        } catch (final TransactionCommitFailedException e) {
+            // expected
+        }
+
+        final InOrder inOrder = inOrder(rpc);
+        inOrder.verify(rpc).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_LOCK_QNAME), NetconfBaseOps.getLockContent(NETCONF_CANDIDATE_QNAME));
+        inOrder.verify(rpc).invokeRpc(eq(toPath(NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME)), any(NormalizedNode.class));
+        inOrder.verify(rpc).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_COMMIT_QNAME), NetconfBaseOps.getConfirmedCommitContent(60));
+        inOrder.verify(rpc).invokeRpc(eq(toPath(NetconfMessageTransformUtil.NETCONF_CANCEL_COMMIT_QNAME)), any(NormalizedNode.class));
+        inOrder.verify(rpc).invokeRpc(eq(toPath(NetconfMessageTransformUtil.NETCONF_DISCARD_CHANGES_QNAME)), any(NormalizedNode.class));
+        inOrder.verify(rpc).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_UNLOCK_QNAME), NetconfBaseOps.getUnLockContent(NETCONF_CANDIDATE_QNAME));
+        verify(rpc, never()).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_COMMIT_QNAME), NetconfMessageTransformUtil.COMMIT_RPC_CONTENT);
+    }
+
+    @Test
+    public void testConfirmedCommitCancelledAfterExceptionallyFailedEdit() throws Exception {
+        final CheckedFuture<DefaultDOMRpcResult, Exception> successFuture =
+                Futures.immediateCheckedFuture(new DefaultDOMRpcResult((NormalizedNode<?, ?>) null));
+        final SettableFuture<DefaultDOMRpcResult> confirmedCommit = SettableFuture.create();
+
+        doReturn(successFuture)
+                .doReturn(Futures.immediateFailedCheckedFuture(new IllegalStateException("Session down")))
+                .doReturn(Futures.makeChecked(confirmedCommit, new Function<Exception, Exception>() {
+                    @Override
+                    public Exception apply(final Exception input) {
+                        return input;
+                    }
+                }))
+                .doReturn(successFuture)
+                .when(rpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+
+        final WriteCandidateTx tx = new WriteCandidateTx(id, new NetconfBaseOps(rpc, BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS.getSchemaContext()),
+                false, false, 60);
+
+        tx.delete(LogicalDatastoreType.CONFIGURATION, yangIId);
+        try {
+            tx.submit().checkedGet();
+            fail("Submit should fail");
+        } catch (final TransactionCommitFailedException e) {
+            // expected
+        }
+
+        // Transaction failed before reply to the confirmed commit, rollback waits for it
+        verify(rpc, never()).invokeRpc(eq(toPath(NetconfMessageTransformUtil.NETCONF_DISCARD_CHANGES_QNAME)), any(NormalizedNode.class));
+        confirmedCommit.set(new DefaultDOMRpcResult((NormalizedNode<?, ?>) null));
+
+        final InOrder inOrder = inOrder(rpc);
+        inOrder.verify(rpc).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_COMMIT_QNAME), NetconfBaseOps.getConfirmedCommitContent(60));
+        inOrder.verify(rpc).invokeRpc(eq(toPath(NetconfMessageTransformUtil.NETCONF_CANCEL_COMMIT_QNAME)), any(NormalizedNode.class));
+        inOrder.verify(rpc).invokeRpc(eq(toPath(NetconfMessageTransformUtil.NETCONF_DISCARD_CHANGES_QNAME)), any(NormalizedNode.class));
+        inOrder.verify(rpc).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_UNLOCK_QNAME), NetconfBaseOps.getUnLockContent(NETCONF_CANDIDATE_QNAME));
+    }
+
     @Test
     public void testDiscardChangesNotSentWithoutCandidate() {
         doReturn(Futures.immediateCheckedFuture(new DefaultDOMRpcResult((NormalizedNode<?, ?>) null)))
@@ -140,4 +259,101 @@ public class NetconfDeviceWriteOnlyTxTest {
         inOrder.verify(rpc).invokeRpc(toPath(NetconfMessageTransformUtil.NETCONF_UNLOCK_QNAME), NetconfBaseOps.getUnLockContent(NETCONF_RUNNING_QNAME));
     }
 
+    @Test
+    public void testBatchedEditConfig() throws Exception {
+        final WriteRunningTx tx = createBatchingTx();
+        final QName capabilities = QName.create(NetconfState.QNAME, "capabilities");
+        final QName schemas = QName.create(NetconfState.QNAME, "schemas");
+
+        tx.delete(LogicalDatastoreType.CONFIGURATION, yangIId.node(capabilities));
+        tx.merge(LogicalDatastoreType.CONFIGURATION, yangIId.node(schemas),
+                Builders.containerBuilder().withNodeIdentifier(toId(schemas)).build());
+        // Nothing is sent before submit
+        verify(rpc, times(1)).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        tx.submit();
+
+        final List<Element> configs = getEditConfigContents(1);
+        final XmlElement netconfState = XmlElement.fromDomElement(configs.get(0)).getOnlyChildElement();
+        assertEquals(NetconfState.QNAME.getLocalName(), netconfState.getName());
+        // Ancestors of merged nodes are merged too, the batch is sent with default operation none
+        assertEquals("merge", getOperation(netconfState));
+        assertEquals("delete", getOperation(netconfState.getOnlyChildElement(capabilities.getLocalName(), NAMESPACE)));
+        assertEquals("merge", getOperation(netconfState.getOnlyChildElement(schemas.getLocalName(), NAMESPACE)));
+    }
+
+    @Test
+    public void testBatchedEditConfigOverlappingEdits() throws Exception {
+        final WriteRunningTx tx = createBatchingTx();
+        final QName schemas = QName.create(NetconfState.QNAME, "schemas");
+        final ContainerNode netconfState = Builders.containerBuilder().withNodeIdentifier(toId(NetconfState.QNAME))
+                .build();
+
+        // Replace supersedes previous edit of a descendant
+        tx.delete(LogicalDatastoreType.CONFIGURATION, yangIId.node(schemas));
+        tx.put(LogicalDatastoreType.CONFIGURATION, yangIId, netconfState);
+        // Merge into replaced node has to be applied after the replace
+        tx.merge(LogicalDatastoreType.CONFIGURATION, yangIId.node(schemas),
+                Builders.containerBuilder().withNodeIdentifier(toId(schemas)).build());
+        tx.submit();
+
+        final List<Element> configs = getEditConfigContents(2);
+        final XmlElement replaced = XmlElement.fromDomElement(configs.get(0)).getOnlyChildElement();
+        assertEquals("replace", getOperation(replaced));
+        assertEquals(0, replaced.getChildElements().size());
+        final XmlElement merged = XmlElement.fromDomElement(configs.get(1)).getOnlyChildElement();
+        assertEquals("merge", getOperation(merged.getOnlyChildElement(schemas.getLocalName(), NAMESPACE)));
+    }
+
+    @Test
+    public void testBatchedEditConfigListAndEntry() throws Exception {
+        final WriteRunningTx tx = createBatchingTx();
+        final QName schemas = QName.create(NetconfState.QNAME, "schemas");
+        final QName schema = QName.create(NetconfState.QNAME, "schema");
+        final List<DataContainerChild<? extends PathArgument, ?>> keyValues = new ArrayList<>(
+                NetconfRemoteSchemaYangSourceProvider.createGetSchemaRequest("module", Optional.of("2012-12-12"))
+                        .getValue());
+        final Map<QName, Object> keys = new HashMap<>();
+        for (final DataContainerChild<? extends PathArgument, ?> keyValue : keyValues) {
+            keys.put(keyValue.getNodeType(), keyValue.getValue());
+        }
+        final NodeIdentifierWithPredicates entryId = new NodeIdentifierWithPredicates(schema, keys);
+        final MapEntryNode entry = Builders.mapEntryBuilder().withNodeIdentifier(entryId).withValue(keyValues).build();
+        final YangInstanceIdentifier listPath = yangIId.node(schemas).node(schema);
+
+        // Whole list and its entry are different path arguments, but address the same elements
+        tx.put(LogicalDatastoreType.CONFIGURATION, listPath, Builders.mapBuilder().withNodeIdentifier(toId(schema))
+                .withChild(entry).build());
+        tx.merge(LogicalDatastoreType.CONFIGURATION, listPath.node(entryId), entry);
+        tx.submit();
+
+        final List<Element> configs = getEditConfigContents(2);
+        final XmlElement merged = XmlElement.fromDomElement(configs.get(1)).getOnlyChildElement()
+                .getOnlyChildElement(schemas.getLocalName(), NAMESPACE);
+        assertEquals("merge", getOperation(merged.getOnlyChildElement(schema.getLocalName(), NAMESPACE)));
+    }
+
+    private WriteRunningTx createBatchingTx() {
+        doReturn(Futures.immediateCheckedFuture(new DefaultDOMRpcResult((NormalizedNode<?, ?>) null)))
+                .when(rpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        return new WriteRunningTx(id, new NetconfBaseOps(rpc, BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS.getSchemaContext()),
+                false, true);
+    }
+
+    private List<Element> getEditConfigContents(final int count) {
+        final ArgumentCaptor<NormalizedNode> captor = ArgumentCaptor.forClass(NormalizedNode.class);
+        verify(rpc, times(count)).invokeRpc(eq(toPath(NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME)),
+                captor.capture());
+
+        final List<Element> configs = new ArrayList<>();
+        for (final NormalizedNode<?, ?> editConfig : captor.getAllValues()) {
+            final ChoiceNode editContent = (ChoiceNode) ((ContainerNode) editConfig).getChild(toId(EditContent.QNAME)).get();
+            final AnyXmlNode config = (AnyXmlNode) editContent.getChild(toId(NETCONF_CONFIG_QNAME)).get();
+            configs.add((Element) config.getValue().getNode());
+        }
+        return configs;
+    }
+
+    private static String getOperation(final XmlElement element) {
+        return element.getDomElement().getAttributeNS(NETCONF_CONFIG_QNAME.getNamespace().toString(), "operation");
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.base.Optional;
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+
+public class SchemaContextCacheTest {
+
+    private static final RemoteDeviceId ID = new RemoteDeviceId("id", new InetSocketAddress("localhost", 22));
+    private static final SourceIdentifier SOURCE = RevisionSourceIdentifier.create("test", Optional.of("2016-01-01"));
+    private static final List<SourceIdentifier> SOURCES = Collections.singletonList(SOURCE);
+
+    private SchemaContextCache cache;
+    private SchemaContextFactory factory;
+    private SchemaContext schemaContext;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new SchemaContextCache();
+        schemaContext = mock(SchemaContext.class);
+        factory = mock(SchemaContextFactory.class);
+        doReturn(Futures.immediateCheckedFuture(schemaContext)).when(factory)
+                .createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+    }
+
+    @Test
+    public void testSharedAmongRepositories() throws Exception {
+        final SchemaContext first = cache.getSchemaContext(ID, getRepository("module test {}"), factory, SOURCES);
+        final SchemaContext second = cache.getSchemaContext(ID, getRepository("module test {}"), factory, SOURCES);
+
+        assertSame(schemaContext, first);
+        assertSame(first, second);
+        verify(factory, times(1)).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+    }
+
+    @Test
+    public void testDifferentContent() throws Exception {
+        cache.getSchemaContext(ID, getRepository("module test {}"), factory, SOURCES);
+        doReturn(Futures.immediateCheckedFuture(mock(SchemaContext.class))).when(factory)
+                .createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+        final SchemaContext other = cache.getSchemaContext(ID, getRepository("module test { leaf a; }"), factory, SOURCES);
+
+        assertNotSame(schemaContext, other);
+        verify(factory, times(2)).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+    }
+
+    @Test
+    public void testMissingSourceText() throws Exception {
+        final SchemaRepository repository = mock(SchemaRepository.class);
+        doReturn(Futures.immediateFailedCheckedFuture(new MissingSchemaSourceException("missing", SOURCE)))
+                .when(repository).getSchemaSource(SOURCE, YangTextSchemaSource.class);
+
+        cache.getSchemaContext(ID, repository, factory, SOURCES);
+        cache.getSchemaContext(ID, repository, factory, SOURCES);
+        verify(factory, times(2)).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+    }
+
+    @Test
+    public void testFailureNotCached() throws Exception {
+        final SchemaRepository repository = getRepository("module test {}");
+        doReturn(Futures.immediateFailedCheckedFuture(new SchemaResolutionException("fail"))).when(factory)
+                .createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+        try {
+            cache.getSchemaContext(ID, repository, factory, SOURCES);
+            fail("Exception expected");
+        } catch (final SchemaResolutionException e) {
+            // expected
+        }
+
+        doReturn(Futures.immediateCheckedFuture(schemaContext)).when(factory)
+                .createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+        assertSame(schemaContext, cache.getSchemaContext(ID, repository, factory, SOURCES));
+    }
+
+    @Test
+    public void testConcurrentBuildsCoalesced() throws Exception {
+        final SettableFuture<Void> buildStarted = SettableFuture.create();
+        final SettableFuture<Void> finishBuild = SettableFuture.create();
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws Throwable {
+                buildStarted.set(null);
+                finishBuild.get(5, TimeUnit.SECONDS);
+                return Futures.immediateCheckedFuture(schemaContext);
+            }
+        }).when(factory).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<SchemaContext> first = executor.submit(getSchemaContext());
+            buildStarted.get(5, TimeUnit.SECONDS);
+            final Future<SchemaContext> second = executor.submit(getSchemaContext());
+            finishBuild.set(null);
+
+            assertSame(schemaContext, first.get(5, TimeUnit.SECONDS));
+            assertSame(schemaContext, second.get(5, TimeUnit.SECONDS));
+            verify(factory, times(1)).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<SchemaContext> getSchemaContext() {
+        return new Callable<SchemaContext>() {
+            @Override
+            public SchemaContext call() throws Exception {
+                return cache.getSchemaContext(ID, getRepository("module test {}"), factory, SOURCES);
+            }
+        };
+    }
+
+    private static SchemaRepository getRepository(final String text) {
+        final SchemaRepository repository = mock(SchemaRepository.class);
+        final YangTextSchemaSource source =
+                YangTextSchemaSource.delegateForByteSource(SOURCE, ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        doReturn(Futures.immediateCheckedFuture(source)).when(repository)
+                .getSchemaSource(eq(SOURCE), eq(YangTextSchemaSource.class));
+        return repository;
+    }
+}
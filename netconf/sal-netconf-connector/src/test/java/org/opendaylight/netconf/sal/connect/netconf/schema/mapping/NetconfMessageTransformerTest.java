@@ -9,6 +9,7 @@
 package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -35,9 +36,15 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import javax.xml.transform.dom.DOMSource;
 import org.custommonkey.xmlunit.Diff;
 import org.custommonkey.xmlunit.ElementNameAndAttributeQualifier;
@@ -48,6 +55,7 @@ import org.junit.Test;
 import org.opendaylight.controller.config.util.xml.XmlUtil;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.messages.RawNetconfMessage;
 import org.opendaylight.netconf.sal.connect.netconf.schema.NetconfRemoteSchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
@@ -208,6 +216,90 @@ public class NetconfMessageTransformerTest {
         assertEquals(schemaNode, schemaParent.getValue().iterator().next());
     }
 
+    @Test
+    public void testGetConfigResponseFromRawMessage() throws Exception {
+        final String reply = "<rpc-reply message-id=\"101\"\n" +
+                "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n" +
+                "<data>\n" +
+                "<netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">\n" +
+                "<schemas>\n" +
+                "<schema>\n" +
+                "<identifier>module</identifier>\n" +
+                "<version>2012-12-12</version>\n" +
+                "<format xmlns:x=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">x:yang</format>\n" +
+                "</schema>\n" +
+                "<schema>\n" +
+                "<identifier>module2</identifier>\n" +
+                "<version>2013-12-12</version>\n" +
+                "<format xmlns:x=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">x:yang</format>\n" +
+                "<location>NETCONF</location>\n" +
+                "</schema>\n" +
+                "</schemas>\n" +
+                "</netconf-state>\n" +
+                "</data>\n" +
+                "</rpc-reply>";
+
+        final RawNetconfMessage rawResponse = new RawNetconfMessage(reply.getBytes(StandardCharsets.UTF_8));
+        final DOMRpcResult rawResult = netconfMessageTransformer.toRpcResult(rawResponse, toPath(NETCONF_GET_CONFIG_QNAME));
+        final DOMRpcResult domResult = netconfMessageTransformer.toRpcResult(
+                new NetconfMessage(XmlUtil.readXmlToDocument(reply)), toPath(NETCONF_GET_CONFIG_QNAME));
+
+        // Stream parser was used, document was not needed
+        assertFalse(rawResponse.isDocumentMaterialized());
+        assertEquals(domResult.getResult(), rawResult.getResult());
+    }
+
+    @Test
+    public void testConcurrentGetConfigResponse() throws Exception {
+        final String reply = "<rpc-reply message-id=\"101\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">" +
+                "<data><netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\"><schemas><schema>" +
+                "<identifier>module</identifier><version>2012-12-12</version>" +
+                "<format xmlns:x=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">x:yang</format>" +
+                "</schema></schemas></netconf-state></data></rpc-reply>";
+        final NormalizedNode<?, ?> expected = netconfMessageTransformer.toRpcResult(
+                new NetconfMessage(XmlUtil.readXmlToDocument(reply)), toPath(NETCONF_GET_CONFIG_QNAME)).getResult();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<DOMRpcResult>> results = Lists.newArrayList();
+            for (int i = 0; i < 100; i++) {
+                final boolean raw = i % 2 == 0;
+                results.add(executor.submit(new Callable<DOMRpcResult>() {
+                    @Override
+                    public DOMRpcResult call() throws Exception {
+                        final NetconfMessage message = raw ? new RawNetconfMessage(reply.getBytes(StandardCharsets.UTF_8))
+                                : new NetconfMessage(XmlUtil.readXmlToDocument(reply));
+                        return netconfMessageTransformer.toRpcResult(message, toPath(NETCONF_GET_CONFIG_QNAME));
+                    }
+                }));
+            }
+            for (final Future<DOMRpcResult> result : results) {
+                assertEquals(expected, result.get(10, TimeUnit.SECONDS).getResult());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGetSchemaResponseFromRawMessage() throws Exception {
+        final RawNetconfMessage response = new RawNetconfMessage((
+                "<rpc-reply message-id=\"101\"\n" +
+                        "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n" +
+                        "<data\n" +
+                        "xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">\n" +
+                        "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">\n" +
+                        "Random YANG SCHEMA\n" +
+                        "</xs:schema>\n" +
+                        "</data>\n" +
+                        "</rpc-reply>").getBytes(StandardCharsets.UTF_8));
+        final DOMRpcResult compositeNodeRpcResult = netconfMessageTransformer.toRpcResult(response, toPath(GET_SCHEMA_QNAME));
+        assertTrue(compositeNodeRpcResult.getErrors().isEmpty());
+        assertFalse(response.isDocumentMaterialized());
+        final DOMSource schemaContent = ((AnyXmlNode) ((ContainerNode) compositeNodeRpcResult.getResult()).getValue().iterator().next()).getValue();
+        assertThat(((Element) schemaContent.getNode()).getTextContent(), CoreMatchers.containsString("Random YANG SCHEMA"));
+    }
+
     @Test
     public void testGetConfigRequest() throws Exception {
         final DataContainerChild<?, ?> filter = toFilterStructure(
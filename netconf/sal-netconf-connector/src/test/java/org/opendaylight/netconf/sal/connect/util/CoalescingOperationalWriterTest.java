@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.sal.connect.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopologyBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class CoalescingOperationalWriterTest {
+
+    private static final InstanceIdentifier<NetworkTopology> NETWORK_TOPOLOGY_PATH =
+            InstanceIdentifier.create(NetworkTopology.class);
+    private static final InstanceIdentifier<Node> NODE_PATH = NETWORK_TOPOLOGY_PATH
+            .child(Topology.class, new TopologyKey(new TopologyId("topology-netconf")))
+            .child(Node.class, new NodeKey(new NodeId("device")));
+
+    @Mock
+    private DataBroker dataBroker;
+    @Mock
+    private BindingTransactionChain txChain;
+    @Mock
+    private WriteTransaction writeTx;
+
+    private CoalescingOperationalWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        doReturn(txChain).when(dataBroker).createTransactionChain(any(TransactionChainListener.class));
+        doReturn(writeTx).when(txChain).newWriteOnlyTransaction();
+        doReturn("tx").when(writeTx).getIdentifier();
+        doReturn(Futures.immediateCheckedFuture(null)).when(writeTx).submit();
+        // Window long enough not to flush during the test
+        writer = new CoalescingOperationalWriter(dataBroker, 60000);
+    }
+
+    @Test
+    public void testCoalescePuts() throws Exception {
+        final Node connecting = new NodeBuilder().setNodeId(new NodeId("connecting")).build();
+        final Node connected = new NodeBuilder().setNodeId(new NodeId("connected")).build();
+
+        final ListenableFuture<Void> first = writer.newBatch().put(NODE_PATH, connecting).submit();
+        final ListenableFuture<Void> second = writer.newBatch().put(NODE_PATH, connected).submit();
+        verify(txChain, never()).newWriteOnlyTransaction();
+        assertFalse(first.isDone());
+
+        writer.flush();
+        verify(txChain, times(1)).newWriteOnlyTransaction();
+        verify(writeTx, never()).put(LogicalDatastoreType.OPERATIONAL, NODE_PATH, connecting);
+        verify(writeTx).put(LogicalDatastoreType.OPERATIONAL, NODE_PATH, connected);
+        verify(writeTx, times(1)).submit();
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+    }
+
+    @Test
+    public void testCoalesceMerges() throws Exception {
+        final NetworkTopology networkTopology = new NetworkTopologyBuilder().build();
+        final Node node = new NodeBuilder().setNodeId(new NodeId("device")).build();
+
+        writer.newBatch().merge(NETWORK_TOPOLOGY_PATH, networkTopology).put(NODE_PATH, node).submit();
+        writer.newBatch().merge(NETWORK_TOPOLOGY_PATH, networkTopology).delete(NODE_PATH).submit();
+        writer.flush();
+
+        final InOrder inOrder = inOrder(writeTx);
+        inOrder.verify(writeTx, times(1)).merge(LogicalDatastoreType.OPERATIONAL, NETWORK_TOPOLOGY_PATH, networkTopology);
+        inOrder.verify(writeTx).delete(LogicalDatastoreType.OPERATIONAL, NODE_PATH);
+        inOrder.verify(writeTx).submit();
+        verify(writeTx, never()).put(LogicalDatastoreType.OPERATIONAL, NODE_PATH, node);
+    }
+
+    @Test
+    public void testFlushOnClose() throws Exception {
+        final ListenableFuture<Void> result = writer.newBatch().delete(NODE_PATH).submit();
+        writer.close();
+
+        verify(writeTx).delete(LogicalDatastoreType.OPERATIONAL, NODE_PATH);
+        verify(txChain).close();
+        assertTrue(result.isDone());
+    }
+
+    @Test
+    public void testSharedWriterClosedByLastUser() throws Exception {
+        final CoalescingOperationalWriter first = CoalescingOperationalWriter.getShared(dataBroker, 60000);
+        final CoalescingOperationalWriter second = CoalescingOperationalWriter.getShared(dataBroker, 60000);
+        assertSame(first, second);
+
+        first.close();
+        verify(txChain, never()).close();
+        second.newBatch().delete(NODE_PATH).submit();
+
+        second.close();
+        verify(writeTx).delete(LogicalDatastoreType.OPERATIONAL, NODE_PATH);
+        verify(txChain).close();
+
+        // Released writer is not handed out again
+        final CoalescingOperationalWriter third = CoalescingOperationalWriter.getShared(dataBroker, 60000);
+        assertNotSame(first, third);
+        third.close();
+    }
+
+    @Test
+    public void testZeroWindowWriterNotShared() throws Exception {
+        final CoalescingOperationalWriter first = CoalescingOperationalWriter.getShared(dataBroker, 0);
+        final CoalescingOperationalWriter second = CoalescingOperationalWriter.getShared(dataBroker, 0);
+        assertNotSame(first, second);
+
+        // Every device has its own transaction chain
+        first.close();
+        verify(txChain, times(1)).close();
+        second.close();
+        verify(txChain, times(2)).close();
+    }
+
+    @Test
+    public void testFailedTransactionResubmitsBatches() throws Exception {
+        doReturn(Futures.immediateFailedCheckedFuture(new TransactionCommitFailedException("Failed")))
+                .when(writeTx).submit();
+        final WriteTransaction failingTx = mock(WriteTransaction.class);
+        doReturn(Futures.immediateFailedCheckedFuture(new TransactionCommitFailedException("Failed")))
+                .when(failingTx).submit();
+        final WriteTransaction succeedingTx = mock(WriteTransaction.class);
+        doReturn(Futures.immediateCheckedFuture(null)).when(succeedingTx).submit();
+        doReturn(failingTx).doReturn(succeedingTx).when(dataBroker).newWriteOnlyTransaction();
+
+        final NetworkTopology networkTopology = new NetworkTopologyBuilder().build();
+        final ListenableFuture<Void> first = writer.newBatch().delete(NODE_PATH).submit();
+        final ListenableFuture<Void> second = writer.newBatch().merge(NETWORK_TOPOLOGY_PATH, networkTopology).submit();
+        writer.flush();
+
+        // Bad write of the first batch fails only the first batch
+        verify(failingTx).delete(LogicalDatastoreType.OPERATIONAL, NODE_PATH);
+        assertFailed(first);
+        verify(succeedingTx).merge(LogicalDatastoreType.OPERATIONAL, NETWORK_TOPOLOGY_PATH, networkTopology);
+        second.get();
+    }
+
+    private static void assertFailed(final ListenableFuture<Void> result) throws InterruptedException {
+        try {
+            result.get();
+            fail("Write should fail");
+        } catch (final ExecutionException e) {
+            assertTrue(e.getCause() instanceof TransactionCommitFailedException);
+        }
+    }
+}
@@ -8,6 +8,7 @@
 package org.opendaylight.netconf.sal.rest.impl;
 
 import com.google.common.base.Optional;
+import com.google.common.io.CountingOutputStream;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -27,6 +28,7 @@ import org.opendaylight.netconf.sal.rest.api.RestconfNormalizedNodeWriter;
 import org.opendaylight.netconf.sal.rest.api.RestconfService;
 import org.opendaylight.netconf.sal.restconf.impl.InstanceIdentifierContext;
 import org.opendaylight.netconf.sal.restconf.impl.NormalizedNodeContext;
+import org.opendaylight.netconf.sal.restconf.impl.StatisticsRestconfServiceWrapper;
 import org.opendaylight.restconf.Draft15;
 import org.opendaylight.restconf.utils.RestconfConstants;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
@@ -76,11 +78,18 @@ public class NormalizedNodeJsonBodyWriter implements MessageBodyWriter<Normalize
         final InstanceIdentifierContext<SchemaNode> context = (InstanceIdentifierContext<SchemaNode>) t.getInstanceIdentifierContext();
 
         final SchemaPath path = context.getSchemaNode().getPath();
-        final JsonWriter jsonWriter = createJsonWriter(entityStream, t.getWriterParameters().isPrettyPrint());
-        jsonWriter.beginObject();
-        writeNormalizedNode(jsonWriter,path,context,data, t.getWriterParameters().getDepth());
-        jsonWriter.endObject();
-        jsonWriter.flush();
+        final CountingOutputStream countingStream = new CountingOutputStream(entityStream);
+        final long start = System.nanoTime();
+        try {
+            final JsonWriter jsonWriter = createJsonWriter(countingStream, t.getWriterParameters().isPrettyPrint());
+            jsonWriter.beginObject();
+            writeNormalizedNode(jsonWriter,path,context,data, t.getWriterParameters().getDepth());
+            jsonWriter.endObject();
+            jsonWriter.flush();
+        } finally {
+            StatisticsRestconfServiceWrapper.getInstance().recordSerialization(System.nanoTime() - start,
+                    countingStream.getCount());
+        }
     }
 
     private void writeNormalizedNode(final JsonWriter jsonWriter, SchemaPath path,
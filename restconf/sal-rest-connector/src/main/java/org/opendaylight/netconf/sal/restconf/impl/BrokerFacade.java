@@ -9,6 +9,7 @@ package org.opendaylight.netconf.sal.restconf.impl;
 
 import static org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType.CONFIGURATION;
 import static org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType.OPERATIONAL;
+import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
@@ -18,14 +19,15 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import javax.annotation.Nullable;
 import javax.ws.rs.core.Response.Status;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataBroker.DataChangeScope;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataChangeListener;
@@ -59,6 +61,14 @@ public class BrokerFacade {
     private final static Logger LOG = LoggerFactory.getLogger(BrokerFacade.class);
 
     private final static BrokerFacade INSTANCE = new BrokerFacade();
+    private static final Function<Optional<NormalizedNode<?, ?>>, NormalizedNode<?, ?>> OPTIONAL_TO_NULLABLE =
+            new Function<Optional<NormalizedNode<?, ?>>, NormalizedNode<?, ?>>() {
+                @Override
+                public NormalizedNode<?, ?> apply(final Optional<NormalizedNode<?, ?>> input) {
+                    return input.orNull();
+                }
+            };
+
     private volatile DOMRpcService rpcService;
     private volatile ConsumerSession context;
     private DOMDataBroker domDataBroker;
@@ -88,32 +98,41 @@ public class BrokerFacade {
         }
     }
 
+    /*
+     * Reads are built on futures, but the JAX-RS resources wait for them here: RESTCONF runs on the Jersey 1
+     * container (JAX-RS 1.1), which has no AsyncResponse, so a request thread cannot be released while a read
+     * is pending. Non-blocking variants are not exposed until the front end can use them.
+     */
+
     // READ configuration
     public NormalizedNode<?, ?> readConfigurationData(final YangInstanceIdentifier path) {
         checkPreconditions();
-        return readDataViaTransaction(this.domDataBroker.newReadOnlyTransaction(), CONFIGURATION, path);
+        return waitForRead(readDataViaTransaction(this.domDataBroker.newReadOnlyTransaction(), CONFIGURATION, path),
+                CONFIGURATION, path);
     }
 
     public NormalizedNode<?, ?> readConfigurationData(final DOMMountPoint mountPoint, final YangInstanceIdentifier path) {
-        final Optional<DOMDataBroker> domDataBrokerService = mountPoint.getService(DOMDataBroker.class);
-        if (domDataBrokerService.isPresent()) {
-            return readDataViaTransaction(domDataBrokerService.get().newReadOnlyTransaction(), CONFIGURATION, path);
-        }
-        final String errMsg = "DOM data broker service isn't available for mount point " + path;
-        LOG.warn(errMsg);
-        throw new RestconfDocumentedException(errMsg);
+        return waitForRead(readDataViaTransaction(getMountPointDataBroker(mountPoint, path).newReadOnlyTransaction(),
+                CONFIGURATION, path), CONFIGURATION, path);
     }
 
     // READ operational
     public NormalizedNode<?, ?> readOperationalData(final YangInstanceIdentifier path) {
         checkPreconditions();
-        return readDataViaTransaction(this.domDataBroker.newReadOnlyTransaction(), OPERATIONAL, path);
+        return waitForRead(readDataViaTransaction(this.domDataBroker.newReadOnlyTransaction(), OPERATIONAL, path),
+                OPERATIONAL, path);
     }
 
     public NormalizedNode<?, ?> readOperationalData(final DOMMountPoint mountPoint, final YangInstanceIdentifier path) {
+        return waitForRead(readDataViaTransaction(getMountPointDataBroker(mountPoint, path).newReadOnlyTransaction(),
+                OPERATIONAL, path), OPERATIONAL, path);
+    }
+
+    private static DOMDataBroker getMountPointDataBroker(final DOMMountPoint mountPoint,
+            final YangInstanceIdentifier path) {
         final Optional<DOMDataBroker> domDataBrokerService = mountPoint.getService(DOMDataBroker.class);
         if (domDataBrokerService.isPresent()) {
-            return readDataViaTransaction(domDataBrokerService.get().newReadOnlyTransaction(), OPERATIONAL, path);
+            return domDataBrokerService.get();
         }
         final String errMsg = "DOM data broker service isn't available for mount point " + path;
         LOG.warn(errMsg);
@@ -143,8 +162,8 @@ public class BrokerFacade {
         checkPreconditions();
 
         final DOMDataReadWriteTransaction newReadWriteTransaction = this.domDataBroker.newReadWriteTransaction();
-        final Status status = readDataViaTransaction(newReadWriteTransaction, CONFIGURATION, path) != null ? Status.OK
-                : Status.CREATED;
+        final Status status = waitForRead(readDataViaTransaction(newReadWriteTransaction, CONFIGURATION, path),
+                CONFIGURATION, path) != null ? Status.OK : Status.CREATED;
         final CheckedFuture<Void, TransactionCommitFailedException> future = putDataViaTransaction(
                 newReadWriteTransaction, CONFIGURATION, path, payload, globalSchema);
         return new PutResult(status, future);
@@ -174,8 +193,8 @@ public class BrokerFacade {
         final Optional<DOMDataBroker> domDataBrokerService = mountPoint.getService(DOMDataBroker.class);
         if (domDataBrokerService.isPresent()) {
             final DOMDataReadWriteTransaction newReadWriteTransaction = domDataBrokerService.get().newReadWriteTransaction();
-            final Status status = readDataViaTransaction(newReadWriteTransaction, CONFIGURATION, path) != null
-                    ? Status.OK : Status.CREATED;
+            final Status status = waitForRead(readDataViaTransaction(newReadWriteTransaction, CONFIGURATION, path),
+                    CONFIGURATION, path) != null ? Status.OK : Status.CREATED;
             final CheckedFuture<Void, TransactionCommitFailedException> future = putDataViaTransaction(
                     newReadWriteTransaction, CONFIGURATION, path,
                     payload, mountPoint.getSchemaContext());
@@ -365,36 +384,35 @@ public class BrokerFacade {
         listener.setRegistration(registration);
     }
 
-    private NormalizedNode<?, ?> readDataViaTransaction(final DOMDataReadTransaction transaction,
-            final LogicalDatastoreType datastore, final YangInstanceIdentifier path) {
+    private static ListenableFuture<NormalizedNode<?, ?>> readDataViaTransaction(
+            final DOMDataReadTransaction transaction, final LogicalDatastoreType datastore,
+            final YangInstanceIdentifier path) {
         LOG.trace("Read {} via Restconf: {}", datastore.name(), path);
-        final ListenableFuture<Optional<NormalizedNode<?, ?>>> listenableFuture = transaction.read(datastore, path);
-        final ReadDataResult<NormalizedNode<?, ?>> readData = new ReadDataResult<>();
-        final CountDownLatch responseWaiter = new CountDownLatch(1);
-
-        Futures.addCallback(listenableFuture, new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
-
-            @Override
-            public void onSuccess(final Optional<NormalizedNode<?, ?>> result) {
-                handlingCallback(null, datastore, path, result, readData);
-                responseWaiter.countDown();
-            }
-
-            @Override
-            public void onFailure(final Throwable t) {
-                responseWaiter.countDown();
-                handlingCallback(t, datastore, path, null, null);
-            }
-        });
+        return Futures.transform(transaction.read(datastore, path), OPTIONAL_TO_NULLABLE);
+    }
 
+    /**
+     * Wait for result of a read.
+     *
+     * @param future future of the read
+     * @param datastore datastore read from
+     * @param path path read, for reporting
+     * @return result of the read
+     * @throws RestconfDocumentedException if the read fails
+     */
+    private static <T> T waitForRead(final ListenableFuture<T> future, final LogicalDatastoreType datastore,
+            final Object path) {
         try {
-            responseWaiter.await();
-        } catch (final Exception e) {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
             final String msg = "Problem while waiting for response";
             LOG.warn(msg);
             throw new RestconfDocumentedException(msg, e);
+        } catch (final ExecutionException e) {
+            LOG.warn("Exception by reading {} via Restconf: {}", datastore.name(), path, e.getCause());
+            throw new RestconfDocumentedException("Problem to get data from transaction.", e.getCause());
         }
-        return readData.getResult();
     }
 
     private CheckedFuture<Void, TransactionCommitFailedException> postDataViaTransaction(
@@ -407,13 +425,9 @@ public class BrokerFacade {
             final NormalizedNode<?, ?> emptySubtree = ImmutableNodes.fromInstanceId(schemaContext, path);
             rWTransaction.merge(datastore, YangInstanceIdentifier.create(emptySubtree.getIdentifier()), emptySubtree);
             ensureParentsByMerge(datastore, path, rWTransaction, schemaContext);
-            for(final MapEntryNode child : ((MapNode) payload).getValue()) {
-                final YangInstanceIdentifier childPath = path.node(child.getIdentifier());
-                checkItemDoesNotExists(rWTransaction, datastore, childPath);
-                rWTransaction.put(datastore, childPath, child);
-            }
+            createListEntries(rWTransaction, datastore, path, (MapNode) payload);
         } else {
-            checkItemDoesNotExists(rWTransaction,datastore, path);
+            checkItemsDoNotExist(rWTransaction, datastore, Collections.singletonList(path));
             ensureParentsByMerge(datastore, path, rWTransaction, schemaContext);
             rWTransaction.put(datastore, path, payload);
         }
@@ -430,53 +444,52 @@ public class BrokerFacade {
             final NormalizedNode<?, ?> emptySubtree = ImmutableNodes.fromInstanceId(schemaContext, path);
             rWTransaction.merge(datastore, YangInstanceIdentifier.create(emptySubtree.getIdentifier()), emptySubtree);
             ensureParentsByMerge(datastore, path, rWTransaction, schemaContext);
-            for(final MapEntryNode child : ((MapNode) payload).getValue()) {
-                final YangInstanceIdentifier childPath = path.node(child.getIdentifier());
-                checkItemDoesNotExists(rWTransaction, datastore, childPath);
-                rWTransaction.put(datastore, childPath, child);
-            }
+            createListEntries(rWTransaction, datastore, path, (MapNode) payload);
         } else {
-            checkItemDoesNotExists(rWTransaction,datastore, path);
+            checkItemsDoNotExist(rWTransaction, datastore, Collections.singletonList(path));
             ensureParentsByMerge(datastore, path, rWTransaction, schemaContext);
             rWTransaction.put(datastore, path, payload);
         }
     }
 
+    /**
+     * Create all entries of a list. Existence of all entries is checked at once and all conflicting entries are
+     * reported together. Entries are then written by a single merge of the whole list, which for a mounted device
+     * results in a single edit-config instead of one per entry. Merge of entries known not to exist is equivalent
+     * to their creation.
+     * @param rWTransaction Current transaction
+     * @param datastore Used datastore
+     * @param path Path to the list
+     * @param entries Entries to create
+     */
+    private static void createListEntries(final DOMDataReadWriteTransaction rWTransaction,
+                                          final LogicalDatastoreType datastore, final YangInstanceIdentifier path,
+                                          final MapNode entries) {
+        final List<YangInstanceIdentifier> childPaths = new ArrayList<>(entries.getValue().size());
+        for (final MapEntryNode child : entries.getValue()) {
+            childPaths.add(path.node(child.getIdentifier()));
+        }
+        checkItemsDoNotExist(rWTransaction, datastore, childPaths);
+        rWTransaction.merge(datastore, path, entries);
+    }
+
     /**
      * Check if item already exists. Throws error if it does NOT already exist.
      * @param rWTransaction Current transaction
      * @param store Used datastore
      * @param path Path to item to verify its existence
      */
-    private void checkItemExists(final DOMDataReadWriteTransaction rWTransaction,
-                                 final LogicalDatastoreType store, final YangInstanceIdentifier path) {
-        final CountDownLatch responseWaiter = new CountDownLatch(1);
-        final ReadDataResult<Boolean> readData = new ReadDataResult<>();
-        final CheckedFuture<Boolean, ReadFailedException> future = rWTransaction.exists(store, path);
-
-        Futures.addCallback(future, new FutureCallback<Boolean>() {
-            @Override
-            public void onSuccess(@Nullable final Boolean result) {
-                handlingCallback(null, store, path, Optional.of(result), readData);
-                responseWaiter.countDown();
-            }
-
-            @Override
-            public void onFailure(final Throwable t) {
-                responseWaiter.countDown();
-                handlingCallback(t, store, path, null, null);
-            }
-        });
-
+    private static void checkItemExists(final DOMDataReadWriteTransaction rWTransaction,
+                                        final LogicalDatastoreType store, final YangInstanceIdentifier path) {
+        final Boolean exists;
         try {
-            responseWaiter.await();
-        } catch (final Exception e) {
-            final String msg = "Problem while waiting for response";
-            LOG.warn(msg);
-            throw new RestconfDocumentedException(msg, e);
+            exists = waitForRead(rWTransaction.exists(store, path), store, path);
+        } catch (final RestconfDocumentedException e) {
+            rWTransaction.cancel();
+            throw e;
         }
 
-        if ((readData.getResult() == null) || !readData.getResult()) {
+        if ((exists == null) || !exists) {
             final String errMsg = "Operation via Restconf was not executed because data does not exist";
             LOG.trace("{}:{}", errMsg, path);
             rWTransaction.cancel();
@@ -486,45 +499,39 @@ public class BrokerFacade {
     }
 
     /**
-     * Check if item does NOT already exist. Throws error if it already exists.
+     * Check if items do NOT already exist. Throws error listing all items which already exist. All checks are
+     * issued before waiting for any of them, so a request creating multiple items waits for a single round trip.
      * @param rWTransaction Current transaction
      * @param store Used datastore
-     * @param path Path to item to verify its existence
+     * @param paths Paths to items to verify their existence
      */
-    private void checkItemDoesNotExists(final DOMDataReadWriteTransaction rWTransaction,
-                                        final LogicalDatastoreType store, final YangInstanceIdentifier path) {
-        final CountDownLatch responseWaiter = new CountDownLatch(1);
-        final ReadDataResult<Boolean> readData = new ReadDataResult<>();
-        final CheckedFuture<Boolean, ReadFailedException> future = rWTransaction.exists(store, path);
-
-        Futures.addCallback(future, new FutureCallback<Boolean>() {
-            @Override
-            public void onSuccess(@Nullable final Boolean result) {
-                handlingCallback(null, store, path, Optional.of(result), readData);
-                responseWaiter.countDown();
-            }
-
-            @Override
-            public void onFailure(final Throwable t) {
-                responseWaiter.countDown();
-                handlingCallback(t, store, path, null, null);
-            }
-        });
+    private static void checkItemsDoNotExist(final DOMDataReadWriteTransaction rWTransaction,
+                                             final LogicalDatastoreType store,
+                                             final List<YangInstanceIdentifier> paths) {
+        final List<ListenableFuture<Boolean>> futures = new ArrayList<>(paths.size());
+        for (final YangInstanceIdentifier path : paths) {
+            futures.add(rWTransaction.exists(store, path));
+        }
 
+        final List<Boolean> exists;
         try {
-            responseWaiter.await();
-        } catch (final Exception e) {
-            final String msg = "Problem while waiting for response";
-            LOG.warn(msg);
-            throw new RestconfDocumentedException(msg, e);
+            exists = waitForRead(Futures.allAsList(futures), store, paths);
+        } catch (final RestconfDocumentedException e) {
+            rWTransaction.cancel();
+            throw e;
         }
 
-        if (readData.getResult()) {
-            final String errMsg = "Operation via Restconf was not executed because data already exists";
-            LOG.trace("{}:{}", errMsg, path);
+        final List<RestconfError> errors = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            if (Boolean.TRUE.equals(exists.get(i))) {
+                LOG.trace("Operation via Restconf was not executed because data already exists:{}", paths.get(i));
+                errors.add(new RestconfError(ErrorType.PROTOCOL, ErrorTag.DATA_EXISTS,
+                        "Data already exists for path: " + paths.get(i), paths.get(i)));
+            }
+        }
+        if (!errors.isEmpty()) {
             rWTransaction.cancel();
-            throw new RestconfDocumentedException("Data already exists for path: " + path, ErrorType.PROTOCOL,
-                    ErrorTag.DATA_EXISTS);
+            throw new RestconfDocumentedException("Data already exists", null, errors);
         }
     }
 
@@ -579,47 +586,6 @@ public class BrokerFacade {
         this.domDataBroker = domDataBroker;
     }
 
-    /**
-     * Helper class for result of transaction commit callback.
-     * @param <T> Type of result
-     */
-    private final class ReadDataResult<T> {
-        T result = null;
-
-        T getResult() {
-            return this.result;
-        }
-
-        void setResult(final T result) {
-            this.result = result;
-        }
-    }
-
-    /**
-     * Set result from transaction commit callback.
-     * @param t Throwable if transaction commit failed
-     * @param datastore Datastore from which data are read
-     * @param path Path from which data are read
-     * @param result Result of read from {@code datastore}
-     * @param readData Result value which will be set
-     * @param <X> Result type
-     */
-    protected final static <X> void handlingCallback(final Throwable t, final LogicalDatastoreType datastore,
-                                                     final YangInstanceIdentifier path, final Optional<X> result,
-                                                     final ReadDataResult<X> readData) {
-        if (t != null) {
-            LOG.warn("Exception by reading {} via Restconf: {}", datastore.name(), path, t);
-            throw new RestconfDocumentedException("Problem to get data from transaction.", t);
-        } else {
-            LOG.debug("Reading result data from transaction.");
-            if (result != null) {
-                if (result.isPresent()) {
-                    readData.setResult(result.get());
-                }
-            }
-        }
-    }
-
     public void registerToListenNotification(final NotificationListenerAdapter listener) {
         checkPreconditions();
 
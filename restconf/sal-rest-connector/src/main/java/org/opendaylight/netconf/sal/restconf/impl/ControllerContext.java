@@ -14,6 +14,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import java.io.UnsupportedEncodingException;
@@ -88,6 +90,14 @@ public class ControllerContext implements SchemaContextListener {
 
     private static final YangInstanceIdentifier ROOT = YangInstanceIdentifier.builder().build();
 
+    /**
+     * System property with the maximum number of parsed URIs remembered by {@link #toInstanceIdentifier(String)}
+     * and {@link #toMountPointIdentifier(String)}, 0 disables caching.
+     */
+    public static final String IDENTIFIER_CACHE_SIZE_PROPERTY = "org.opendaylight.restconf.identifier-cache-size";
+
+    private static final int DEFAULT_IDENTIFIER_CACHE_SIZE = 1024;
+
     private final AtomicReference<Map<QName, RpcDefinition>> qnameToRpc =
             new AtomicReference<>(Collections.<QName, RpcDefinition>emptyMap());
 
@@ -96,13 +106,32 @@ public class ControllerContext implements SchemaContextListener {
 
     private DataNormalizer dataNormalizer;
 
+    // Parsed URIs are valid only for the schema and mount service they were resolved with, so both caches
+    // are replaced whenever one of them changes. Cache is replaced after the schema, so that an identifier
+    // resolved against an old schema can only end up in a discarded cache.
+    private volatile Cache<String, InstanceIdentifierContext<?>> identifiers = newIdentifierCache();
+    private volatile Cache<String, InstanceIdentifierContext<?>> mountPointIdentifiers = newIdentifierCache();
+
     public void setGlobalSchema(final SchemaContext globalSchema) {
         this.globalSchema = globalSchema;
         this.dataNormalizer = new DataNormalizer(globalSchema);
+        invalidateIdentifiers();
     }
 
     public void setMountService(final DOMMountPointService mountService) {
         this.mountService = mountService;
+        invalidateIdentifiers();
+    }
+
+    private void invalidateIdentifiers() {
+        this.identifiers = newIdentifierCache();
+        this.mountPointIdentifiers = newIdentifierCache();
+    }
+
+    private static Cache<String, InstanceIdentifierContext<?>> newIdentifierCache() {
+        return CacheBuilder.newBuilder()
+                .maximumSize(Integer.getInteger(IDENTIFIER_CACHE_SIZE_PROPERTY, DEFAULT_IDENTIFIER_CACHE_SIZE))
+                .<String, InstanceIdentifierContext<?>>build();
     }
 
     private ControllerContext() {
@@ -123,7 +152,7 @@ public class ControllerContext implements SchemaContextListener {
     }
 
     public InstanceIdentifierContext<?> toInstanceIdentifier(final String restconfInstance) {
-        return toIdentifier(restconfInstance, false);
+        return toCachedIdentifier(this.identifiers, restconfInstance, false);
     }
 
     public SchemaContext getGlobalSchema() {
@@ -131,7 +160,46 @@ public class ControllerContext implements SchemaContextListener {
     }
 
     public InstanceIdentifierContext<?> toMountPointIdentifier(final String restconfInstance) {
-        return toIdentifier(restconfInstance, true);
+        return toCachedIdentifier(this.mountPointIdentifiers, restconfInstance, true);
+    }
+
+    private InstanceIdentifierContext<?> toCachedIdentifier(final Cache<String, InstanceIdentifierContext<?>> cache,
+            final String restconfInstance, final boolean toMountPointIdentifier) {
+        if (restconfInstance == null) {
+            return toIdentifier(null, toMountPointIdentifier);
+        }
+
+        final InstanceIdentifierContext<?> cached = cache.getIfPresent(restconfInstance);
+        if (cached != null && isMountPointCurrent(cached)) {
+            return cached;
+        }
+
+        // Failures are not cached, they are reported from the parsing below every time
+        final InstanceIdentifierContext<?> parsed = toIdentifier(restconfInstance, toMountPointIdentifier);
+        if (parsed != null) {
+            cache.put(restconfInstance, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Mount points come and go independently of the global schema, so identifier resolved behind a mount point
+     * is reused only while the same mount point with the same schema is still registered.
+     */
+    private boolean isMountPointCurrent(final InstanceIdentifierContext<?> context) {
+        final DOMMountPoint mountPoint = context.getMountPoint();
+        if (mountPoint == null) {
+            return true;
+        }
+
+        final DOMMountPointService service = this.mountService;
+        if (service == null) {
+            return false;
+        }
+
+        final Optional<DOMMountPoint> current = service.getMountPoint(mountPoint.getIdentifier());
+        return current.isPresent() && current.get() == mountPoint
+                && mountPoint.getSchemaContext() == context.getSchemaContext();
     }
 
     private InstanceIdentifierContext<?> toIdentifier(final String restconfInstance, final boolean toMountPointIdentifier) {
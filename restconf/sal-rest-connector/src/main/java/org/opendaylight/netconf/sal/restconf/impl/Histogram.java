@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.restconf.impl;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Lock-free histogram of non-negative values, e.g. request latencies or payload sizes. Values are counted in buckets
+ * by powers of two, so percentiles are reported as the upper bound of their bucket, i.e. within a factor of two
+ * of the exact value.
+ */
+@ThreadSafe
+public final class Histogram {
+
+    // Bucket 0 counts zeros, bucket i counts values in <2^(i-1), 2^i)
+    private static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value non-negative value
+     */
+    public void record(final long value) {
+        Preconditions.checkArgument(value >= 0, "Value %s is negative", value);
+        this.buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(value);
+
+        long current = this.max.get();
+        while (value > current && !this.max.compareAndSet(current, value)) {
+            current = this.max.get();
+        }
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * @return mean of recorded values, 0 if there are none
+     */
+    public long getMean() {
+        final long samples = this.count.get();
+        return samples == 0 ? 0 : this.sum.get() / samples;
+    }
+
+    /**
+     * @return highest recorded value, 0 if there are none
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * @param percentile percentile in range (0, 100]
+     * @return upper bound of values below the percentile, 0 if there are no values
+     */
+    public long getPercentile(final double percentile) {
+        Preconditions.checkArgument(percentile > 0 && percentile <= 100, "Invalid percentile %s", percentile);
+        final long samples = this.count.get();
+        if (samples == 0) {
+            return 0;
+        }
+
+        final long target = (long) Math.ceil(samples * percentile / 100);
+        long counted = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counted += this.buckets.get(i);
+            if (counted >= target) {
+                return Math.min(getMax(), (1L << i) - 1);
+            }
+        }
+        // Buckets were updated concurrently after the count was read
+        return getMax();
+    }
+}
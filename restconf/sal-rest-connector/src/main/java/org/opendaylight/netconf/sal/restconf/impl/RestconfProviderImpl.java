@@ -8,16 +8,27 @@
 package org.opendaylight.netconf.sal.restconf.impl;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import org.opendaylight.controller.config.yang.md.sal.rest.connector.Config;
 import org.opendaylight.controller.config.yang.md.sal.rest.connector.Delete;
 import org.opendaylight.controller.config.yang.md.sal.rest.connector.Get;
+import org.opendaylight.controller.config.yang.md.sal.rest.connector.Latency;
+import org.opendaylight.controller.config.yang.md.sal.rest.connector.ModuleStatistics;
+import org.opendaylight.controller.config.yang.md.sal.rest.connector.MountPointStatistics;
 import org.opendaylight.controller.config.yang.md.sal.rest.connector.Operational;
+import org.opendaylight.controller.config.yang.md.sal.rest.connector.PhaseStatistics;
 import org.opendaylight.controller.config.yang.md.sal.rest.connector.Post;
 import org.opendaylight.controller.config.yang.md.sal.rest.connector.Put;
+import org.opendaylight.controller.config.yang.md.sal.rest.connector.ResponseSize;
 import org.opendaylight.controller.config.yang.md.sal.rest.connector.RestConnectorRuntimeMXBean;
 import org.opendaylight.controller.config.yang.md.sal.rest.connector.Rpcs;
+import org.opendaylight.controller.config.yang.md.sal.rest.connector.StreamStatistics;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMMountPointService;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotificationService;
@@ -26,6 +37,8 @@ import org.opendaylight.controller.sal.core.api.Broker.ProviderSession;
 import org.opendaylight.controller.sal.core.api.Provider;
 import org.opendaylight.controller.sal.core.api.model.SchemaService;
 import org.opendaylight.netconf.sal.rest.api.RestConnector;
+import org.opendaylight.netconf.sal.streams.listeners.Notificator;
+import org.opendaylight.netconf.sal.streams.listeners.StreamSubscribers;
 import org.opendaylight.netconf.sal.streams.websockets.WebSocketServer;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
@@ -85,24 +98,32 @@ public class RestconfProviderImpl implements Provider, AutoCloseable, RestConnec
         get.setReceivedRequests(this.stats.getConfigGet());
         get.setSuccessfulResponses(this.stats.getSuccessGetConfig());
         get.setFailedResponses(this.stats.getFailureGetConfig());
+        get.setInFlightRequests(this.stats.getInFlightConfigGet());
+        get.setLatency(toLatency(this.stats.getConfigGetLatency()));
         config.setGet(get);
 
         final Post post = new Post();
         post.setReceivedRequests(this.stats.getConfigPost());
         post.setSuccessfulResponses(this.stats.getSuccessPost());
         post.setFailedResponses(this.stats.getFailurePost());
+        post.setInFlightRequests(this.stats.getInFlightPost());
+        post.setLatency(toLatency(this.stats.getPostLatency()));
         config.setPost(post);
 
         final Put put = new Put();
         put.setReceivedRequests(this.stats.getConfigPut());
         put.setSuccessfulResponses(this.stats.getSuccessPut());
         put.setFailedResponses(this.stats.getFailurePut());
+        put.setInFlightRequests(this.stats.getInFlightPut());
+        put.setLatency(toLatency(this.stats.getPutLatency()));
         config.setPut(put);
 
         final Delete delete = new Delete();
         delete.setReceivedRequests(this.stats.getConfigDelete());
         delete.setSuccessfulResponses(this.stats.getSuccessDelete());
         delete.setFailedResponses(this.stats.getFailureDelete());
+        delete.setInFlightRequests(this.stats.getInFlightDelete());
+        delete.setLatency(toLatency(this.stats.getDeleteLatency()));
         config.setDelete(delete);
 
         return config;
@@ -116,6 +137,8 @@ public class RestconfProviderImpl implements Provider, AutoCloseable, RestConnec
         get.setReceivedRequests(opGet);
         get.setSuccessfulResponses(this.stats.getSuccessGetOperational());
         get.setFailedResponses(this.stats.getFailureGetOperational());
+        get.setInFlightRequests(this.stats.getInFlightOperationalGet());
+        get.setLatency(toLatency(this.stats.getOperationalGetLatency()));
         operational.setGet(get);
         return operational;
     }
@@ -125,6 +148,101 @@ public class RestconfProviderImpl implements Provider, AutoCloseable, RestConnec
         final BigInteger rpcInvoke = this.stats.getRpc();
         final Rpcs rpcs = new Rpcs();
         rpcs.setReceivedRequests(rpcInvoke);
+        rpcs.setInFlightRequests(this.stats.getInFlightRpc());
+        rpcs.setLatency(toLatency(this.stats.getRpcLatency()));
         return rpcs;
     }
+
+    @Override
+    public List<ModuleStatistics> getModuleStatistics() {
+        final List<ModuleStatistics> modules = new ArrayList<>();
+        for (final Entry<String, Histogram> entry : this.stats.getModuleLatency().entrySet()) {
+            final ModuleStatistics module = new ModuleStatistics();
+            module.setName(entry.getKey());
+            module.setLatency(toLatency(entry.getValue()));
+            modules.add(module);
+        }
+        return modules;
+    }
+
+    @Override
+    public List<MountPointStatistics> getMountPointStatistics() {
+        final List<MountPointStatistics> mountPoints = new ArrayList<>();
+        for (final Entry<String, Histogram> entry : this.stats.getMountPointLatency().entrySet()) {
+            final MountPointStatistics mountPoint = new MountPointStatistics();
+            mountPoint.setName(entry.getKey());
+            mountPoint.setLatency(toLatency(entry.getValue()));
+            mountPoints.add(mountPoint);
+        }
+        return mountPoints;
+    }
+
+    @Override
+    public List<PhaseStatistics> getPhaseStatistics() {
+        final Map<String, Histogram> phases = new LinkedHashMap<>();
+        phases.put("local-request", this.stats.getLocalRequestLatency());
+        phases.put("mounted-request", this.stats.getMountedRequestLatency());
+        phases.put("serialization", this.stats.getSerializationLatency());
+
+        final List<PhaseStatistics> phaseStatistics = new ArrayList<>();
+        for (final Entry<String, Histogram> entry : phases.entrySet()) {
+            final PhaseStatistics phase = new PhaseStatistics();
+            phase.setName(entry.getKey());
+            phase.setLatency(toLatency(entry.getValue()));
+            phaseStatistics.add(phase);
+        }
+        return phaseStatistics;
+    }
+
+    @Override
+    public ResponseSize getResponseSize() {
+        final Histogram histogram = this.stats.getResponseSize();
+        final ResponseSize responseSize = new ResponseSize();
+        responseSize.setSamples(BigInteger.valueOf(histogram.getCount()));
+        responseSize.setMean(BigInteger.valueOf(histogram.getMean()));
+        responseSize.setMax(BigInteger.valueOf(histogram.getMax()));
+        responseSize.setPercentile50(BigInteger.valueOf(histogram.getPercentile(50)));
+        responseSize.setPercentile90(BigInteger.valueOf(histogram.getPercentile(90)));
+        responseSize.setPercentile99(BigInteger.valueOf(histogram.getPercentile(99)));
+        return responseSize;
+    }
+
+    @Override
+    public List<StreamStatistics> getStreamStatistics() {
+        // Notification streams have separate subscribers for each of their notifications
+        final Map<String, StreamStatistics> streams = new LinkedHashMap<>();
+        for (final StreamSubscribers subscribers : Notificator.getAllStreamSubscribers()) {
+            final StreamStatistics stream = streams.get(subscribers.getStreamName());
+            if (stream == null) {
+                final StreamStatistics created = new StreamStatistics();
+                created.setName(subscribers.getStreamName());
+                created.setSubscribers((long) subscribers.getSubscriberCount());
+                created.setPublishedEvents(BigInteger.valueOf(subscribers.getPublishedEvents()));
+                created.setDroppedEvents(BigInteger.valueOf(subscribers.getDroppedEvents()));
+                created.setPendingEvents((long) subscribers.getPendingEvents());
+                created.setMaxLag(BigInteger.valueOf(subscribers.getMaxLagMillis()));
+                streams.put(subscribers.getStreamName(), created);
+            } else {
+                stream.setSubscribers(stream.getSubscribers() + subscribers.getSubscriberCount());
+                stream.setPublishedEvents(stream.getPublishedEvents().add(
+                        BigInteger.valueOf(subscribers.getPublishedEvents())));
+                stream.setDroppedEvents(stream.getDroppedEvents().add(
+                        BigInteger.valueOf(subscribers.getDroppedEvents())));
+                stream.setPendingEvents(stream.getPendingEvents() + subscribers.getPendingEvents());
+                stream.setMaxLag(stream.getMaxLag().max(BigInteger.valueOf(subscribers.getMaxLagMillis())));
+            }
+        }
+        return new ArrayList<>(streams.values());
+    }
+
+    private static Latency toLatency(final Histogram histogram) {
+        final Latency latency = new Latency();
+        latency.setSamples(BigInteger.valueOf(histogram.getCount()));
+        latency.setMean(BigInteger.valueOf(histogram.getMean()));
+        latency.setMax(BigInteger.valueOf(histogram.getMax()));
+        latency.setPercentile50(BigInteger.valueOf(histogram.getPercentile(50)));
+        latency.setPercentile90(BigInteger.valueOf(histogram.getPercentile(90)));
+        latency.setPercentile99(BigInteger.valueOf(histogram.getPercentile(99)));
+        return latency;
+    }
 }
@@ -8,6 +8,11 @@
 package org.opendaylight.netconf.sal.restconf.impl;
 
 import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
@@ -34,6 +39,31 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
     AtomicLong failurePut = new AtomicLong();
     AtomicLong failureDelete = new AtomicLong();
 
+    // Latencies in microseconds, measured from invocation of the service until data are ready to be serialized
+    final Histogram operationalGetLatency = new Histogram();
+    final Histogram configGetLatency = new Histogram();
+    final Histogram rpcLatency = new Histogram();
+    final Histogram configPostLatency = new Histogram();
+    final Histogram configPutLatency = new Histogram();
+    final Histogram configDeleteLatency = new Histogram();
+    final AtomicLong inFlightOperationalGet = new AtomicLong();
+    final AtomicLong inFlightConfigGet = new AtomicLong();
+    final AtomicLong inFlightRpc = new AtomicLong();
+    final AtomicLong inFlightConfigPost = new AtomicLong();
+    final AtomicLong inFlightConfigPut = new AtomicLong();
+    final AtomicLong inFlightConfigDelete = new AtomicLong();
+
+    // Latencies of successful requests by top-level module and mount point of the requested data
+    final ConcurrentMap<String, Histogram> moduleLatency = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, Histogram> mountPointLatency = new ConcurrentHashMap<>();
+
+    // Whole requests without serialization, split by whether the requested data are behind a mount point
+    final Histogram localRequestLatency = new Histogram();
+    final Histogram mountedRequestLatency = new Histogram();
+    // Serialization of responses by body writers
+    final Histogram serializationLatency = new Histogram();
+    final Histogram responseSize = new Histogram();
+
     private static final StatisticsRestconfServiceWrapper INSTANCE = new StatisticsRestconfServiceWrapper(RestconfImpl.getInstance());
 
     final RestconfService delegate;
@@ -79,21 +109,40 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
     @Override
     public NormalizedNodeContext invokeRpc(final String identifier, final NormalizedNodeContext payload, final UriInfo uriInfo) {
         rpc.incrementAndGet();
-        return delegate.invokeRpc(identifier, payload, uriInfo);
+        final long start = startRequest(inFlightRpc);
+        boolean success = false;
+        try {
+            final NormalizedNodeContext result = delegate.invokeRpc(identifier, payload, uriInfo);
+            success = true;
+            return result;
+        } finally {
+            finishRequest(inFlightRpc, rpcLatency, identifier, start, success);
+        }
     }
 
     @Override
     public NormalizedNodeContext invokeRpc(final String identifier, final String noPayload, final UriInfo uriInfo) {
         rpc.incrementAndGet();
-        return delegate.invokeRpc(identifier, noPayload, uriInfo);
+        final long start = startRequest(inFlightRpc);
+        boolean success = false;
+        try {
+            final NormalizedNodeContext result = delegate.invokeRpc(identifier, noPayload, uriInfo);
+            success = true;
+            return result;
+        } finally {
+            finishRequest(inFlightRpc, rpcLatency, identifier, start, success);
+        }
     }
 
     @Override
     public NormalizedNodeContext readConfigurationData(final String identifier, final UriInfo uriInfo) {
         configGet.incrementAndGet();
+        final long start = startRequest(inFlightConfigGet);
+        boolean success = false;
         NormalizedNodeContext normalizedNodeContext = null;
         try {
             normalizedNodeContext = delegate.readConfigurationData(identifier, uriInfo);
+            success = true;
             if (normalizedNodeContext.getData() != null) {
                 successGetConfig.incrementAndGet();
             }
@@ -103,6 +152,8 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
         } catch (Exception e) {
             failureGetConfig.incrementAndGet();
             throw e;
+        } finally {
+            finishRequest(inFlightConfigGet, configGetLatency, identifier, start, success);
         }
         return normalizedNodeContext;
     }
@@ -110,9 +161,12 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
     @Override
     public NormalizedNodeContext readOperationalData(final String identifier, final UriInfo uriInfo) {
         operationalGet.incrementAndGet();
+        final long start = startRequest(inFlightOperationalGet);
+        boolean success = false;
         NormalizedNodeContext normalizedNodeContext = null;
         try {
             normalizedNodeContext = delegate.readOperationalData(identifier, uriInfo);
+            success = true;
             if (normalizedNodeContext.getData() != null) {
                 successGetOperational.incrementAndGet();
             }
@@ -122,6 +176,8 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
         } catch (Exception e) {
             failureGetOperational.incrementAndGet();
             throw e;
+        } finally {
+            finishRequest(inFlightOperationalGet, operationalGetLatency, identifier, start, success);
         }
         return normalizedNodeContext;
     }
@@ -129,9 +185,12 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
     @Override
     public Response updateConfigurationData(final String identifier, final NormalizedNodeContext payload) {
         configPut.incrementAndGet();
+        final long start = startRequest(inFlightConfigPut);
+        boolean success = false;
         Response response = null;
         try {
             response = delegate.updateConfigurationData(identifier, payload);
+            success = true;
             if (response.getStatus() == Status.OK.getStatusCode()) {
                 successPut.incrementAndGet();
             }
@@ -141,6 +200,8 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
         } catch (Exception e) {
             failurePut.incrementAndGet();
             throw e;
+        } finally {
+            finishRequest(inFlightConfigPut, configPutLatency, identifier, start, success);
         }
         return response;
     }
@@ -148,9 +209,12 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
     @Override
     public Response createConfigurationData(final String identifier, final NormalizedNodeContext payload, final UriInfo uriInfo) {
         configPost.incrementAndGet();
+        final long start = startRequest(inFlightConfigPost);
+        boolean success = false;
         Response response = null;
         try {
             response = delegate.createConfigurationData(identifier, payload, uriInfo);
+            success = true;
             if (response.getStatus() == Status.OK.getStatusCode()) {
                 successPost.incrementAndGet();
             }
@@ -160,6 +224,8 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
         } catch (Exception e) {
             failurePost.incrementAndGet();
             throw e;
+        } finally {
+            finishRequest(inFlightConfigPost, configPostLatency, identifier, start, success);
         }
         return response;
     }
@@ -167,9 +233,12 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
     @Override
     public Response createConfigurationData(final NormalizedNodeContext payload, final UriInfo uriInfo) {
         configPost.incrementAndGet();
+        final long start = startRequest(inFlightConfigPost);
+        boolean success = false;
         Response response = null;
         try {
             response = delegate.createConfigurationData(payload, uriInfo);
+            success = true;
             if (response.getStatus() == Status.OK.getStatusCode()) {
                 successPost.incrementAndGet();
             }
@@ -179,6 +248,8 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
         }catch (Exception e) {
             failurePost.incrementAndGet();
             throw e;
+        } finally {
+            finishRequest(inFlightConfigPost, configPostLatency, null, start, success);
         }
         return response;
     }
@@ -186,9 +257,12 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
     @Override
     public Response deleteConfigurationData(final String identifier) {
         configDelete.incrementAndGet();
+        final long start = startRequest(inFlightConfigDelete);
+        boolean success = false;
         Response response = null;
         try {
             response = delegate.deleteConfigurationData(identifier);
+            success = true;
             if (response.getStatus() == Status.OK.getStatusCode()) {
                 successDelete.incrementAndGet();
             }
@@ -198,6 +272,8 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
         } catch (Exception e) {
             failureDelete.incrementAndGet();
             throw e;
+        } finally {
+            finishRequest(inFlightConfigDelete, configDeleteLatency, identifier, start, success);
         }
         return response;
     }
@@ -223,6 +299,108 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
         return delegate.patchConfigurationData(payload, uriInfo);
     }
 
+    /**
+     * Record serialization of a response body.
+     *
+     * @param nanos
+     *            time spent serializing the response in nanoseconds
+     * @param bytes
+     *            size of the response body
+     */
+    public void recordSerialization(final long nanos, final long bytes) {
+        serializationLatency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        responseSize.record(bytes);
+    }
+
+    private static long startRequest(final AtomicLong inFlight) {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Record latency of a finished request. Latencies by module and mount point are recorded only for requests
+     * handled without an exception, so that invalid identifiers do not create new entries.
+     */
+    private void finishRequest(final AtomicLong inFlight, final Histogram latency, final String identifier,
+            final long start, final boolean handled) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        inFlight.decrementAndGet();
+        latency.record(micros);
+        if (identifier == null) {
+            return;
+        }
+
+        final String mountPoint = getMountPoint(identifier);
+        if (mountPoint == null) {
+            localRequestLatency.record(micros);
+        } else {
+            mountedRequestLatency.record(micros);
+        }
+        if (!handled) {
+            return;
+        }
+
+        if (mountPoint != null) {
+            getHistogram(mountPointLatency, mountPoint).record(micros);
+        }
+        final String module = getModule(identifier);
+        if (module != null) {
+            getHistogram(moduleLatency, module).record(micros);
+        }
+    }
+
+    private static Histogram getHistogram(final ConcurrentMap<String, Histogram> histograms, final String key) {
+        Histogram histogram = histograms.get(key);
+        if (histogram == null) {
+            final Histogram created = new Histogram();
+            histogram = histograms.putIfAbsent(key, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * @return identifier of the mount point without surrounding slashes, null if the identifier does not point
+     *         behind a mount point
+     */
+    static String getMountPoint(final String identifier) {
+        final int mount = identifier.indexOf(ControllerContext.MOUNT);
+        if (mount < 0) {
+            return null;
+        }
+        return trimSlashes(identifier.substring(0, mount));
+    }
+
+    /**
+     * @return name of the top-level module of the identifier, behind the mount point if there is one, null if there
+     *         is no module name
+     */
+    static String getModule(final String identifier) {
+        final int mount = identifier.indexOf(ControllerContext.MOUNT);
+        final String path = trimSlashes(mount < 0 ? identifier : identifier.substring(mount
+                + ControllerContext.MOUNT.length()));
+        final int colon = path.indexOf(':');
+        final int slash = path.indexOf('/');
+        if (colon <= 0 || (slash >= 0 && slash < colon)) {
+            return null;
+        }
+        return path.substring(0, colon);
+    }
+
+    private static String trimSlashes(final String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
+
     public BigInteger getConfigDelete() {
         return BigInteger.valueOf(configDelete.get());
     }
@@ -286,4 +464,76 @@ public class StatisticsRestconfServiceWrapper implements RestconfService {
     public BigInteger getFailureDelete() {
         return BigInteger.valueOf(failureDelete.get());
     }
+
+    public BigInteger getInFlightConfigGet() {
+        return BigInteger.valueOf(inFlightConfigGet.get());
+    }
+
+    public BigInteger getInFlightOperationalGet() {
+        return BigInteger.valueOf(inFlightOperationalGet.get());
+    }
+
+    public BigInteger getInFlightRpc() {
+        return BigInteger.valueOf(inFlightRpc.get());
+    }
+
+    public BigInteger getInFlightPost() {
+        return BigInteger.valueOf(inFlightConfigPost.get());
+    }
+
+    public BigInteger getInFlightPut() {
+        return BigInteger.valueOf(inFlightConfigPut.get());
+    }
+
+    public BigInteger getInFlightDelete() {
+        return BigInteger.valueOf(inFlightConfigDelete.get());
+    }
+
+    public Histogram getConfigGetLatency() {
+        return configGetLatency;
+    }
+
+    public Histogram getOperationalGetLatency() {
+        return operationalGetLatency;
+    }
+
+    public Histogram getRpcLatency() {
+        return rpcLatency;
+    }
+
+    public Histogram getPostLatency() {
+        return configPostLatency;
+    }
+
+    public Histogram getPutLatency() {
+        return configPutLatency;
+    }
+
+    public Histogram getDeleteLatency() {
+        return configDeleteLatency;
+    }
+
+    public Map<String, Histogram> getModuleLatency() {
+        return Collections.unmodifiableMap(moduleLatency);
+    }
+
+    public Map<String, Histogram> getMountPointLatency() {
+        return Collections.unmodifiableMap(mountPointLatency);
+    }
+
+    public Histogram getLocalRequestLatency() {
+        return localRequestLatency;
+    }
+
+    public Histogram getMountedRequestLatency() {
+        return mountedRequestLatency;
+    }
+
+    public Histogram getSerializationLatency() {
+        return serializationLatency;
+    }
+
+    public Histogram getResponseSize() {
+        return responseSize;
+    }
 }
\ No newline at end of file
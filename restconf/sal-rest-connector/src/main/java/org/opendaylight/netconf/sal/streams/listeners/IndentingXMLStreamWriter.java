@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writer which indents elements by four spaces, the same way as events were formatted before they were written
+ * directly from normalized nodes. Elements with text content are kept on one line.
+ */
+final class IndentingXMLStreamWriter implements XMLStreamWriter {
+
+    private static final String INDENT = "    ";
+
+    private enum Seen {
+        NOTHING,
+        ELEMENT,
+        DATA
+    }
+
+    private final XMLStreamWriter delegate;
+    private int depth;
+    private Seen state = Seen.NOTHING;
+
+    IndentingXMLStreamWriter(final XMLStreamWriter delegate) {
+        this.delegate = delegate;
+    }
+
+    private void onStartElement() throws XMLStreamException {
+        if (this.depth > 0) {
+            writeIndent(this.depth);
+        }
+        this.depth++;
+        this.state = Seen.NOTHING;
+    }
+
+    private void onEndElement() throws XMLStreamException {
+        this.depth--;
+        if (this.state == Seen.ELEMENT) {
+            writeIndent(this.depth);
+        }
+        this.state = Seen.ELEMENT;
+    }
+
+    private void onEmptyElement() throws XMLStreamException {
+        if (this.depth > 0) {
+            writeIndent(this.depth);
+        }
+        this.state = Seen.ELEMENT;
+    }
+
+    private void writeIndent(final int level) throws XMLStreamException {
+        final StringBuilder indent = new StringBuilder("\n");
+        for (int i = 0; i < level; i++) {
+            indent.append(INDENT);
+        }
+        this.delegate.writeCharacters(indent.toString());
+    }
+
+    @Override
+    public void writeStartElement(final String localName) throws XMLStreamException {
+        onStartElement();
+        this.delegate.writeStartElement(localName);
+    }
+
+    @Override
+    public void writeStartElement(final String namespaceURI, final String localName) throws XMLStreamException {
+        onStartElement();
+        this.delegate.writeStartElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeStartElement(final String prefix, final String localName, final String namespaceURI)
+            throws XMLStreamException {
+        onStartElement();
+        this.delegate.writeStartElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(final String namespaceURI, final String localName) throws XMLStreamException {
+        onEmptyElement();
+        this.delegate.writeEmptyElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeEmptyElement(final String prefix, final String localName, final String namespaceURI)
+            throws XMLStreamException {
+        onEmptyElement();
+        this.delegate.writeEmptyElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(final String localName) throws XMLStreamException {
+        onEmptyElement();
+        this.delegate.writeEmptyElement(localName);
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        onEndElement();
+        this.delegate.writeEndElement();
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        this.delegate.writeEndDocument();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        this.delegate.close();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        this.delegate.flush();
+    }
+
+    @Override
+    public void writeAttribute(final String localName, final String value) throws XMLStreamException {
+        this.delegate.writeAttribute(localName, value);
+    }
+
+    @Override
+    public void writeAttribute(final String prefix, final String namespaceURI, final String localName,
+            final String value) throws XMLStreamException {
+        this.delegate.writeAttribute(prefix, namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeAttribute(final String namespaceURI, final String localName, final String value)
+            throws XMLStreamException {
+        this.delegate.writeAttribute(namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeNamespace(final String prefix, final String namespaceURI) throws XMLStreamException {
+        this.delegate.writeNamespace(prefix, namespaceURI);
+    }
+
+    @Override
+    public void writeDefaultNamespace(final String namespaceURI) throws XMLStreamException {
+        this.delegate.writeDefaultNamespace(namespaceURI);
+    }
+
+    @Override
+    public void writeComment(final String data) throws XMLStreamException {
+        this.delegate.writeComment(data);
+    }
+
+    @Override
+    public void writeProcessingInstruction(final String target) throws XMLStreamException {
+        this.delegate.writeProcessingInstruction(target);
+    }
+
+    @Override
+    public void writeProcessingInstruction(final String target, final String data) throws XMLStreamException {
+        this.delegate.writeProcessingInstruction(target, data);
+    }
+
+    @Override
+    public void writeCData(final String data) throws XMLStreamException {
+        this.state = Seen.DATA;
+        this.delegate.writeCData(data);
+    }
+
+    @Override
+    public void writeDTD(final String dtd) throws XMLStreamException {
+        this.delegate.writeDTD(dtd);
+    }
+
+    @Override
+    public void writeEntityRef(final String name) throws XMLStreamException {
+        this.state = Seen.DATA;
+        this.delegate.writeEntityRef(name);
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        this.delegate.writeStartDocument();
+    }
+
+    @Override
+    public void writeStartDocument(final String version) throws XMLStreamException {
+        this.delegate.writeStartDocument(version);
+    }
+
+    @Override
+    public void writeStartDocument(final String encoding, final String version) throws XMLStreamException {
+        this.delegate.writeStartDocument(encoding, version);
+    }
+
+    @Override
+    public void writeCharacters(final String text) throws XMLStreamException {
+        this.state = Seen.DATA;
+        this.delegate.writeCharacters(text);
+    }
+
+    @Override
+    public void writeCharacters(final char[] text, final int start, final int len) throws XMLStreamException {
+        this.state = Seen.DATA;
+        this.delegate.writeCharacters(text, start, len);
+    }
+
+    @Override
+    public String getPrefix(final String uri) throws XMLStreamException {
+        return this.delegate.getPrefix(uri);
+    }
+
+    @Override
+    public void setPrefix(final String prefix, final String uri) throws XMLStreamException {
+        this.delegate.setPrefix(prefix, uri);
+    }
+
+    @Override
+    public void setDefaultNamespace(final String uri) throws XMLStreamException {
+        this.delegate.setDefaultNamespace(uri);
+    }
+
+    @Override
+    public void setNamespaceContext(final NamespaceContext context) throws XMLStreamException {
+        this.delegate.setNamespaceContext(context);
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return this.delegate.getNamespaceContext();
+    }
+
+    @Override
+    public Object getProperty(final String name) {
+        return this.delegate.getProperty(name);
+    }
+}
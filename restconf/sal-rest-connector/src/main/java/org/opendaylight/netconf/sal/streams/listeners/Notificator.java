@@ -41,6 +41,23 @@ public class Notificator {
         return listenersByStreamName.keySet();
     }
 
+    /**
+     * Returns subscribers of all data change and notification streams. A notification stream for multiple
+     * notifications has subscribers for each of them.
+     */
+    public static List<StreamSubscribers> getAllStreamSubscribers() {
+        final List<StreamSubscribers> subscribers = new ArrayList<>();
+        for (final ListenerAdapter listener : listenersByStreamName.values()) {
+            subscribers.add(listener.getSubscribers());
+        }
+        for (final List<NotificationListenerAdapter> listeners : notificationListenersByStreamName.values()) {
+            for (final NotificationListenerAdapter listener : listeners) {
+                subscribers.add(listener.getSubscribers());
+            }
+        }
+        return subscribers;
+    }
+
     /**
      * Gets {@link ListenerAdapter} specified by stream name.
      *
@@ -72,7 +89,24 @@ public class Notificator {
      * @return New {@link ListenerAdapter} listener from {@link YangInstanceIdentifier} path and stream name.
      */
     public static ListenerAdapter createListener(final YangInstanceIdentifier path, final String streamName) {
-        final ListenerAdapter listener = new ListenerAdapter(path, streamName);
+        return createListener(path, streamName, "XML");
+    }
+
+    /**
+     * Creates new {@link ListenerAdapter} listener from {@link YangInstanceIdentifier} path, stream name and type
+     * of output.
+     *
+     * @param path
+     *            Path to data in data repository.
+     * @param streamName
+     *            The name of the stream.
+     * @param outputType
+     *            Type of output of events (JSON, RESTCONF-JSON, XML).
+     * @return New {@link ListenerAdapter} listener from {@link YangInstanceIdentifier} path and stream name.
+     */
+    public static ListenerAdapter createListener(final YangInstanceIdentifier path, final String streamName,
+            final String outputType) {
+        final ListenerAdapter listener = new ListenerAdapter(path, streamName, outputType);
         try {
             lock.lock();
             listenersByStreamName.put(streamName, listener);
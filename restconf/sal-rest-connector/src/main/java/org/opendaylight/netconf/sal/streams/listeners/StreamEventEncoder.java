@@ -0,0 +1,572 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.gson.stream.JsonWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONCodecFactory;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonWriterFactory;
+import org.opendaylight.yangtools.yang.data.impl.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.util.DataSchemaContextNode;
+import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Encoder of events sent to stream subscribers. Events are written directly from their normalized nodes to the
+ * output buffer, without building an intermediate DOM document.
+ * <p>
+ * Schema lookups needed to write an event are cached per schema context and schema path of the changed node,
+ * so that events for the same part of the data tree are encoded without searching the schema again.
+ */
+abstract class StreamEventEncoder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreamEventEncoder.class);
+
+    static final String NETCONF_NOTIFICATION_NAMESPACE = "urn:ietf:params:xml:ns:netconf:notification:1.0";
+    static final String RESTCONF_NAMESPACE = "urn:ietf:params:xml:ns:yang:ietf-restconf";
+    static final String SAL_REMOTE_NAMESPACE = "urn:opendaylight:params:xml:ns:yang:controller:md:sal:remote";
+
+    private static final String JSON_OUTPUT_TYPE = "JSON";
+    private static final String RESTCONF_JSON_OUTPUT_TYPE = "RESTCONF-JSON";
+
+    private static final LoadingCache<SchemaContext, SchemaCodecs> CODECS =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<SchemaContext, SchemaCodecs>() {
+                @Override
+                public SchemaCodecs load(final SchemaContext key) {
+                    return new SchemaCodecs(key);
+                }
+            });
+
+    private static final StreamEventEncoder XML = new XmlEncoder();
+    private static final StreamEventEncoder JSON = new JsonEncoder();
+
+    /**
+     * @param outputType type of output, JSON, RESTCONF-JSON or XML
+     * @return encoder of the output type, XML encoder for unknown types
+     */
+    static StreamEventEncoder forOutputType(final String outputType) {
+        // RESTCONF-JSON is kept as an alias of JSON for existing subscriptions
+        if (JSON_OUTPUT_TYPE.equals(outputType) || RESTCONF_JSON_OUTPUT_TYPE.equals(outputType)) {
+            return JSON;
+        }
+        return XML;
+    }
+
+    /**
+     * Encode data change event.
+     *
+     * @param schemaContext schema context of the changed data
+     * @param change data change event
+     * @return buffer with the encoded event, absent if the event cannot be encoded
+     */
+    final Optional<ByteBuf> encodeDataChange(final SchemaContext schemaContext,
+            final AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> change) {
+        final SchemaCodecs codecs = CODECS.getUnchecked(schemaContext);
+        final List<DataChangeEntry> entries = new ArrayList<>();
+        addEntries(codecs, change.getCreatedData(), Operation.CREATED, entries);
+        addEntries(codecs, change.getUpdatedData(), Operation.UPDATED, entries);
+        for (final YangInstanceIdentifier path : change.getRemovedPaths()) {
+            final PathSchema schema = codecs.getPathSchema(path);
+            if (!schema.isMixin()) {
+                entries.add(new DataChangeEntry(path, schema, Operation.DELETED, null));
+            }
+        }
+
+        final ByteBuf out = Unpooled.buffer();
+        boolean encoded = false;
+        try {
+            final Writer writer = new OutputStreamWriter(new ByteBufOutputStream(out), StandardCharsets.UTF_8);
+            writeDataChange(writer, codecs, ListenerAdapter.toRFC3339(new Date()), entries);
+            writer.close();
+            encoded = true;
+            return Optional.of(out);
+        } catch (IOException | XMLStreamException e) {
+            LOG.error("Failed to encode data change event {}", change, e);
+            return Optional.absent();
+        } finally {
+            if (!encoded) {
+                out.release();
+            }
+        }
+    }
+
+    /**
+     * Encode notification.
+     *
+     * @param schemaContext schema context of the notification
+     * @param notification notification
+     * @param path schema path of the notification
+     * @return buffer with the encoded notification, absent if the notification cannot be encoded
+     */
+    final Optional<ByteBuf> encodeNotification(final SchemaContext schemaContext, final DOMNotification notification,
+            final SchemaPath path) {
+        final SchemaCodecs codecs = CODECS.getUnchecked(schemaContext);
+        final ByteBuf out = Unpooled.buffer();
+        boolean encoded = false;
+        try {
+            final Writer writer = new OutputStreamWriter(new ByteBufOutputStream(out), StandardCharsets.UTF_8);
+            writeNotification(writer, codecs, ListenerAdapter.toRFC3339(new Date()), notification, path);
+            writer.close();
+            encoded = true;
+            return Optional.of(out);
+        } catch (IOException | XMLStreamException e) {
+            LOG.error("Failed to encode notification {}", notification, e);
+            return Optional.absent();
+        } finally {
+            if (!encoded) {
+                out.release();
+            }
+        }
+    }
+
+    abstract void writeDataChange(Writer out, SchemaCodecs codecs, String eventTime, List<DataChangeEntry> entries)
+            throws IOException, XMLStreamException;
+
+    abstract void writeNotification(Writer out, SchemaCodecs codecs, String eventTime, DOMNotification notification,
+            SchemaPath path) throws IOException, XMLStreamException;
+
+    /**
+     * @return prefix of the name in the path of data change event
+     */
+    abstract String prefixOf(QName name, SchemaCodecs codecs, Map<URI, String> prefixes);
+
+    private static void addEntries(final SchemaCodecs codecs,
+            final Map<YangInstanceIdentifier, NormalizedNode<?, ?>> data, final Operation operation,
+            final List<DataChangeEntry> entries) {
+        for (final Entry<YangInstanceIdentifier, NormalizedNode<?, ?>> entry : data.entrySet()) {
+            final PathSchema schema = codecs.getPathSchema(entry.getKey());
+            if (!schema.isMixin()) {
+                entries.add(new DataChangeEntry(entry.getKey(), schema, operation, entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Format path of data change event. Mixin nodes are left out and each name is qualified by
+     * {@link #prefixOf(QName, SchemaCodecs, Map)}.
+     *
+     * @param prefixes prefixes used by the path, keyed by namespace
+     */
+    final String formatPath(final DataChangeEntry entry, final SchemaCodecs codecs, final Map<URI, String> prefixes) {
+        final StringBuilder text = new StringBuilder();
+        int i = 0;
+        for (final PathArgument pathArgument : entry.path.getPathArguments()) {
+            if (!entry.schema.isIncluded(i++)) {
+                continue;
+            }
+            text.append('/');
+            appendName(text, pathArgument.getNodeType(), codecs, prefixes);
+            if (pathArgument instanceof NodeIdentifierWithPredicates) {
+                for (final Entry<QName, Object> key
+                        : ((NodeIdentifierWithPredicates) pathArgument).getKeyValues().entrySet()) {
+                    text.append('[');
+                    appendName(text, key.getKey(), codecs, prefixes);
+                    text.append("='").append(key.getValue()).append("']");
+                }
+            } else if (pathArgument instanceof NodeWithValue) {
+                text.append("[.='").append(((NodeWithValue) pathArgument).getValue()).append("']");
+            }
+        }
+        return text.toString();
+    }
+
+    private void appendName(final StringBuilder text, final QName name, final SchemaCodecs codecs,
+            final Map<URI, String> prefixes) {
+        text.append(prefixOf(name, codecs, prefixes)).append(':').append(name.getLocalName());
+    }
+
+    private static final class XmlEncoder extends StreamEventEncoder {
+        private static final XMLOutputFactory XML_FACTORY;
+
+        static {
+            XML_FACTORY = XMLOutputFactory.newFactory();
+            XML_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+        }
+
+        @Override
+        void writeDataChange(final Writer out, final SchemaCodecs codecs, final String eventTime,
+                final List<DataChangeEntry> entries) throws IOException, XMLStreamException {
+            final XMLStreamWriter writer = startNotification(out, NETCONF_NOTIFICATION_NAMESPACE, eventTime);
+            writer.writeStartElement("", "data-changed-notification", SAL_REMOTE_NAMESPACE);
+            for (final DataChangeEntry entry : entries) {
+                writer.writeStartElement("", "data-change-event", SAL_REMOTE_NAMESPACE);
+                writePath(writer, entry, codecs);
+                writer.writeStartElement("", "operation", SAL_REMOTE_NAMESPACE);
+                writer.writeCharacters(entry.operation.value);
+                writer.writeEndElement();
+                if (entry.data != null) {
+                    writer.writeStartElement("", "data", SAL_REMOTE_NAMESPACE);
+                    // List entries are written on their own, not wrapped in the list
+                    final SchemaPath path = entry.isListEntry() ? entry.schema.getSchemaPath()
+                            : entry.schema.getSchemaPath().getParent();
+                    writeNode(writer, codecs, path, entry.data);
+                    writer.writeEndElement();
+                }
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+            endNotification(writer);
+        }
+
+        @Override
+        void writeNotification(final Writer out, final SchemaCodecs codecs, final String eventTime,
+                final DOMNotification notification, final SchemaPath path) throws IOException, XMLStreamException {
+            final XMLStreamWriter writer = startNotification(out, RESTCONF_NAMESPACE, eventTime);
+            writer.writeStartElement("", "event", notification.getType().getLastComponent().getNamespace().toString());
+            writeNode(writer, codecs, path, notification.getBody());
+            writer.writeEndElement();
+            endNotification(writer);
+        }
+
+        @Override
+        String prefixOf(final QName name, final SchemaCodecs codecs, final Map<URI, String> prefixes) {
+            final URI namespace = name.getNamespace();
+            String prefix = prefixes.get(namespace);
+            if (prefix == null) {
+                prefix = generateNewPrefix(prefixes);
+                prefixes.put(namespace, prefix);
+            }
+            return prefix;
+        }
+
+        private XMLStreamWriter startNotification(final Writer out, final String namespace,
+                final String eventTime) throws XMLStreamException {
+            final XMLStreamWriter writer = new IndentingXMLStreamWriter(XML_FACTORY.createXMLStreamWriter(out));
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.writeStartElement("", "notification", namespace);
+            writer.writeStartElement("", "eventTime", namespace);
+            writer.writeCharacters(eventTime);
+            writer.writeEndElement();
+            return writer;
+        }
+
+        private static void endNotification(final XMLStreamWriter writer) throws XMLStreamException {
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            // Does not close the underlying output
+            writer.close();
+        }
+
+        private void writePath(final XMLStreamWriter writer, final DataChangeEntry entry, final SchemaCodecs codecs)
+                throws XMLStreamException {
+            final Map<URI, String> prefixes = new HashMap<>();
+            final String path = formatPath(entry, codecs, prefixes);
+            writer.writeStartElement("", "path", SAL_REMOTE_NAMESPACE);
+            for (final Entry<URI, String> prefix : prefixes.entrySet()) {
+                writer.writeNamespace(prefix.getValue(), prefix.getKey().toString());
+            }
+            writer.writeCharacters(path);
+            writer.writeEndElement();
+        }
+
+        private static void writeNode(final XMLStreamWriter writer, final SchemaCodecs codecs, final SchemaPath path,
+                final NormalizedNode<?, ?> data) throws IOException {
+            final NormalizedNodeStreamWriter nnStreamWriter = XMLStreamNormalizedNodeStreamWriter.create(writer,
+                    codecs.getSchemaContext(), path);
+            final NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(nnStreamWriter);
+            nnWriter.write(data);
+            nnWriter.flush();
+        }
+
+        /**
+         * Generates new prefix which consists of four random characters <a-z>.
+         */
+        private static String generateNewPrefix(final Map<URI, String> prefixes) {
+            final Random random = ThreadLocalRandom.current();
+            StringBuilder result;
+            do {
+                result = new StringBuilder();
+                for (int i = 0; i < 4; i++) {
+                    result.append((char) ('a' + random.nextInt(26)));
+                }
+            } while (prefixes.containsValue(result.toString()));
+
+            return result.toString();
+        }
+    }
+
+    /**
+     * Writes events as JSON objects with the same structure as XML events. Data and paths are qualified by module
+     * names, as in RESTCONF JSON encoding.
+     */
+    private static final class JsonEncoder extends StreamEventEncoder {
+
+        @Override
+        void writeDataChange(final Writer out, final SchemaCodecs codecs, final String eventTime,
+                final List<DataChangeEntry> entries) throws IOException {
+            final JsonWriter writer = startNotification(out, eventTime);
+            writer.name("data-changed-notification");
+            writer.beginObject();
+            writer.name("data-change-event");
+            writer.beginArray();
+            for (final DataChangeEntry entry : entries) {
+                writer.beginObject();
+                writer.name("path").value(formatPath(entry, codecs, new HashMap<URI, String>()));
+                writer.name("operation").value(entry.operation.value);
+                if (entry.data != null) {
+                    writer.name("data");
+                    writer.beginObject();
+                    writeNode(writer, codecs, entry.schema.getSchemaPath().getParent(), wrapListEntry(entry));
+                    writer.endObject();
+                }
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+            endNotification(writer);
+        }
+
+        @Override
+        void writeNotification(final Writer out, final SchemaCodecs codecs, final String eventTime,
+                final DOMNotification notification, final SchemaPath path) throws IOException {
+            final JsonWriter writer = startNotification(out, eventTime);
+            writer.name("event");
+            writer.beginObject();
+            writeNode(writer, codecs, path, notification.getBody());
+            writer.endObject();
+            endNotification(writer);
+        }
+
+        @Override
+        String prefixOf(final QName name, final SchemaCodecs codecs, final Map<URI, String> prefixes) {
+            return codecs.getModuleName(name.getModule());
+        }
+
+        private static JsonWriter startNotification(final Writer out, final String eventTime) throws IOException {
+            final JsonWriter writer = JsonWriterFactory.createJsonWriter(out);
+            writer.beginObject();
+            writer.name("notification");
+            writer.beginObject();
+            writer.name("eventTime").value(eventTime);
+            return writer;
+        }
+
+        private static void endNotification(final JsonWriter writer) throws IOException {
+            writer.endObject();
+            writer.endObject();
+            writer.flush();
+        }
+
+        /**
+         * JSON list entries are members of an array named by the list, so list entries are wrapped in their list.
+         */
+        private static NormalizedNode<?, ?> wrapListEntry(final DataChangeEntry entry) {
+            if (entry.data instanceof MapEntryNode) {
+                return ImmutableNodes.mapNodeBuilder(entry.data.getNodeType())
+                        .withChild((MapEntryNode) entry.data).build();
+            } else if (entry.data instanceof UnkeyedListEntryNode) {
+                return Builders.unkeyedListBuilder().withNodeIdentifier(new NodeIdentifier(entry.data.getNodeType()))
+                        .withChild((UnkeyedListEntryNode) entry.data).build();
+            }
+            return entry.data;
+        }
+
+        private static void writeNode(final JsonWriter writer, final SchemaCodecs codecs, final SchemaPath path,
+                final NormalizedNode<?, ?> data) throws IOException {
+            final NormalizedNodeStreamWriter nnStreamWriter = JSONNormalizedNodeStreamWriter.createNestedWriter(
+                    codecs.getJsonCodecs(), path, null, writer);
+            final NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(nnStreamWriter);
+            nnWriter.write(data);
+            nnWriter.flush();
+        }
+    }
+
+    /**
+     * Codecs and schema lookups of a single schema context, shared by all encoders.
+     */
+    static final class SchemaCodecs {
+        private final SchemaContext schemaContext;
+        private final DataSchemaContextTree dataTree;
+        private final Supplier<JSONCodecFactory> jsonCodecs;
+        private final ConcurrentMap<YangInstanceIdentifier, PathSchema> pathSchemas = new ConcurrentHashMap<>();
+        private final ConcurrentMap<QNameModule, String> moduleNames = new ConcurrentHashMap<>();
+
+        SchemaCodecs(final SchemaContext schemaContext) {
+            this.schemaContext = schemaContext;
+            this.dataTree = DataSchemaContextTree.from(schemaContext);
+            this.jsonCodecs = Suppliers.memoize(new Supplier<JSONCodecFactory>() {
+                @Override
+                public JSONCodecFactory get() {
+                    return JSONCodecFactory.create(schemaContext);
+                }
+            });
+        }
+
+        SchemaContext getSchemaContext() {
+            return this.schemaContext;
+        }
+
+        JSONCodecFactory getJsonCodecs() {
+            return this.jsonCodecs.get();
+        }
+
+        String getModuleName(final QNameModule module) {
+            String name = this.moduleNames.get(module);
+            if (name == null) {
+                final Module found = this.schemaContext.findModuleByNamespaceAndRevision(module.getNamespace(),
+                        module.getRevision());
+                Preconditions.checkArgument(found != null, "Module %s is not present in schema context", module);
+                name = found.getName();
+                this.moduleNames.put(module, name);
+            }
+            return name;
+        }
+
+        /**
+         * @return schema of the path, shared by all paths differing only in list keys and leaf-list values
+         */
+        PathSchema getPathSchema(final YangInstanceIdentifier path) {
+            final YangInstanceIdentifier schemaPath = toSchemaPath(path);
+            PathSchema schema = this.pathSchemas.get(schemaPath);
+            if (schema == null) {
+                schema = resolvePathSchema(path);
+                this.pathSchemas.put(schemaPath, schema);
+            }
+            return schema;
+        }
+
+        private PathSchema resolvePathSchema(final YangInstanceIdentifier path) {
+            final List<PathArgument> pathArguments = path.getPathArguments();
+            final boolean[] included = new boolean[pathArguments.size()];
+            DataSchemaContextNode<?> node = this.dataTree.getRoot();
+            int i = 0;
+            for (final PathArgument pathArgument : pathArguments) {
+                node = node.getChild(pathArgument);
+                Preconditions.checkArgument(node != null, "Path %s is not present in schema context", path);
+                included[i++] = !node.isMixin();
+            }
+            return new PathSchema(included, node.isMixin() ? null : node.getDataSchemaNode());
+        }
+
+        private static YangInstanceIdentifier toSchemaPath(final YangInstanceIdentifier path) {
+            final List<PathArgument> pathArguments = new ArrayList<>();
+            for (final PathArgument pathArgument : path.getPathArguments()) {
+                if (pathArgument instanceof NodeIdentifierWithPredicates || pathArgument instanceof NodeWithValue) {
+                    pathArguments.add(new NodeIdentifier(pathArgument.getNodeType()));
+                } else {
+                    pathArguments.add(pathArgument);
+                }
+            }
+            return YangInstanceIdentifier.create(pathArguments);
+        }
+    }
+
+    /**
+     * Schema of a changed node.
+     */
+    static final class PathSchema {
+        private final boolean[] included;
+        private final DataSchemaNode schemaNode;
+
+        PathSchema(final boolean[] included, final DataSchemaNode schemaNode) {
+            this.included = included;
+            this.schemaNode = schemaNode;
+        }
+
+        /**
+         * @return true if the node is a mixin, which does not appear in events
+         */
+        boolean isMixin() {
+            return this.schemaNode == null;
+        }
+
+        /**
+         * @return true if the path argument at the index appears in the event path
+         */
+        boolean isIncluded(final int index) {
+            return this.included[index];
+        }
+
+        SchemaPath getSchemaPath() {
+            return this.schemaNode.getPath();
+        }
+    }
+
+    static final class DataChangeEntry {
+        private final YangInstanceIdentifier path;
+        private final PathSchema schema;
+        private final Operation operation;
+        private final NormalizedNode<?, ?> data;
+
+        DataChangeEntry(final YangInstanceIdentifier path, final PathSchema schema, final Operation operation,
+                final NormalizedNode<?, ?> data) {
+            this.path = path;
+            this.schema = schema;
+            this.operation = operation;
+            this.data = data;
+        }
+
+        boolean isListEntry() {
+            return (this.data instanceof MapEntryNode) || (this.data instanceof UnkeyedListEntryNode);
+        }
+    }
+
+    /**
+     * Consists of three types {@link Operation#CREATED}, {@link Operation#UPDATED} and {@link Operation#DELETED}.
+     */
+    private static enum Operation {
+        CREATED("created"),
+        UPDATED("updated"),
+        DELETED("deleted");
+
+        private final String value;
+
+        private Operation(final String value) {
+            this.value = value;
+        }
+    }
+}
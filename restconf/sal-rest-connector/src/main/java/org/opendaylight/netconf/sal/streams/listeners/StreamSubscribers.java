@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Websocket subscribers of a single stream. Each event is encoded once into a buffer shared by the frames sent to
+ * all subscribers. An event is written to a subscriber only while its channel is writable, otherwise it waits in a
+ * bounded backlog of that subscriber. A full backlog is handled according to {@link OverflowPolicy}, so that a slow
+ * subscriber affects neither the other subscribers nor memory of the server.
+ */
+@ThreadSafe
+public final class StreamSubscribers {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreamSubscribers.class);
+
+    /**
+     * Maximum number of events waiting for a single subscriber.
+     */
+    public static final String MAX_PENDING_EVENTS_PROPERTY = "org.opendaylight.restconf.streams.max-pending-events";
+
+    /**
+     * Name of {@link OverflowPolicy} applied to subscribers with full backlog.
+     */
+    public static final String OVERFLOW_POLICY_PROPERTY = "org.opendaylight.restconf.streams.overflow-policy";
+
+    private static final int DEFAULT_MAX_PENDING_EVENTS = 1000;
+
+    /**
+     * Handling of an event for a subscriber, whose backlog is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the oldest event waiting for the subscriber, so that the subscriber receives the most recent events.
+         */
+        DROP_OLDEST,
+        /**
+         * Drop the new event, so that the subscriber receives events in order until the gap.
+         */
+        DROP_NEWEST,
+        /**
+         * Drop all events waiting for the subscriber and close its channel.
+         */
+        DISCONNECT
+    }
+
+    private final String streamName;
+    private final int maxPendingEvents;
+    private final OverflowPolicy overflowPolicy;
+    private final ConcurrentMap<Channel, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong publishedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    StreamSubscribers(final String streamName) {
+        this(streamName, Integer.getInteger(MAX_PENDING_EVENTS_PROPERTY, DEFAULT_MAX_PENDING_EVENTS),
+                OverflowPolicy.valueOf(System.getProperty(OVERFLOW_POLICY_PROPERTY, OverflowPolicy.DROP_OLDEST.name())));
+    }
+
+    StreamSubscribers(final String streamName, final int maxPendingEvents, final OverflowPolicy overflowPolicy) {
+        Preconditions.checkArgument(maxPendingEvents > 0, "Maximum pending events has to be positive");
+        this.streamName = streamName;
+        this.maxPendingEvents = maxPendingEvents;
+        this.overflowPolicy = Preconditions.checkNotNull(overflowPolicy);
+    }
+
+    /**
+     * Add subscriber channel, does nothing if the channel is already subscribed.
+     *
+     * @param channel
+     *            Channel
+     */
+    void add(final Channel channel) {
+        final Subscriber subscriber = new Subscriber(channel);
+        if (this.subscribers.putIfAbsent(channel, subscriber) == null) {
+            channel.pipeline().addLast(subscriber);
+        }
+    }
+
+    /**
+     * Remove subscriber channel and drop events waiting for it.
+     *
+     * @param channel
+     *            Channel
+     */
+    void remove(final Channel channel) {
+        final Subscriber subscriber = this.subscribers.remove(channel);
+        if (subscriber != null) {
+            subscriber.clear();
+            if (channel.isOpen()) {
+                channel.pipeline().remove(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Remove all subscribers.
+     */
+    void clear() {
+        for (final Channel channel : this.subscribers.keySet()) {
+            remove(channel);
+        }
+    }
+
+    boolean isEmpty() {
+        return this.subscribers.isEmpty();
+    }
+
+    /**
+     * Send event to all subscribers.
+     *
+     * @param data
+     *            serialized event
+     */
+    void publish(final String data) {
+        if (!this.subscribers.isEmpty()) {
+            publish(Unpooled.copiedBuffer(data, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Send encoded event to all subscribers. Subscribers retain the buffer as long as they need it.
+     *
+     * @param content
+     *            encoded event, owned by this method
+     */
+    void publish(final ByteBuf content) {
+        try {
+            if (this.subscribers.isEmpty()) {
+                return;
+            }
+
+            this.publishedEvents.incrementAndGet();
+            for (final Subscriber subscriber : this.subscribers.values()) {
+                if (subscriber.channel.isActive()) {
+                    subscriber.offer(content);
+                } else {
+                    LOG.debug("Subscriber {} is removed - channel is not active yet.", subscriber.channel.remoteAddress());
+                    remove(subscriber.channel);
+                }
+            }
+        } finally {
+            content.release();
+        }
+    }
+
+    /**
+     * Write events waiting for the subscriber channel, as long as it is writable.
+     *
+     * @param channel
+     *            Channel
+     */
+    void drain(final Channel channel) {
+        final Subscriber subscriber = this.subscribers.get(channel);
+        if (subscriber != null) {
+            subscriber.drain();
+        }
+    }
+
+    /**
+     * @return name of the stream
+     */
+    public String getStreamName() {
+        return this.streamName;
+    }
+
+    /**
+     * @return number of subscribers of the stream
+     */
+    public int getSubscriberCount() {
+        return this.subscribers.size();
+    }
+
+    /**
+     * @return number of events published to the stream, while it had subscribers
+     */
+    public long getPublishedEvents() {
+        return this.publishedEvents.get();
+    }
+
+    /**
+     * @return number of events not delivered to a subscriber because of its full backlog, counted per subscriber
+     */
+    public long getDroppedEvents() {
+        return this.droppedEvents.get();
+    }
+
+    /**
+     * @return number of events waiting for all subscribers
+     */
+    public int getPendingEvents() {
+        int pending = 0;
+        for (final Subscriber subscriber : this.subscribers.values()) {
+            pending += subscriber.getPendingEvents();
+        }
+        return pending;
+    }
+
+    /**
+     * @return age of the oldest event waiting for any subscriber in milliseconds, 0 if no event is waiting
+     */
+    public long getMaxLagMillis() {
+        final long now = System.nanoTime();
+        long maxLag = 0;
+        for (final Subscriber subscriber : this.subscribers.values()) {
+            maxLag = Math.max(maxLag, subscriber.getLagNanos(now));
+        }
+        return TimeUnit.NANOSECONDS.toMillis(maxLag);
+    }
+
+    /**
+     * Single subscriber with its backlog. Registered in the channel pipeline, so that the backlog is written once
+     * the channel becomes writable again.
+     */
+    private final class Subscriber extends ChannelInboundHandlerAdapter {
+        private final Channel channel;
+        @GuardedBy("this")
+        private final Deque<PendingEvent> pending = new ArrayDeque<>();
+
+        Subscriber(final Channel channel) {
+            this.channel = channel;
+        }
+
+        synchronized void offer(final ByteBuf content) {
+            if (this.pending.isEmpty() && this.channel.isWritable()) {
+                write(content.duplicate().retain());
+                return;
+            }
+
+            if (this.pending.size() >= StreamSubscribers.this.maxPendingEvents) {
+                switch (StreamSubscribers.this.overflowPolicy) {
+                    case DROP_OLDEST:
+                        this.pending.poll().content.release();
+                        StreamSubscribers.this.droppedEvents.incrementAndGet();
+                        break;
+                    case DROP_NEWEST:
+                        StreamSubscribers.this.droppedEvents.incrementAndGet();
+                        return;
+                    case DISCONNECT:
+                        LOG.warn("Subscriber {} of stream {} is too slow, disconnecting", this.channel.remoteAddress(),
+                                StreamSubscribers.this.streamName);
+                        StreamSubscribers.this.droppedEvents.addAndGet(this.pending.size() + 1);
+                        clear();
+                        this.channel.close();
+                        return;
+                    default:
+                        throw new IllegalStateException("Unhandled policy " + StreamSubscribers.this.overflowPolicy);
+                }
+            }
+            this.pending.add(new PendingEvent(content.duplicate().retain(), System.nanoTime()));
+        }
+
+        synchronized void drain() {
+            while (!this.pending.isEmpty() && this.channel.isWritable()) {
+                write(this.pending.poll().content);
+            }
+        }
+
+        synchronized void clear() {
+            for (final PendingEvent event : this.pending) {
+                event.content.release();
+            }
+            this.pending.clear();
+        }
+
+        synchronized int getPendingEvents() {
+            return this.pending.size();
+        }
+
+        synchronized long getLagNanos(final long now) {
+            final PendingEvent oldest = this.pending.peek();
+            return oldest == null ? 0 : now - oldest.timestamp;
+        }
+
+        private void write(final ByteBuf content) {
+            LOG.debug("Data are sent to subscriber {}:", this.channel.remoteAddress());
+            this.channel.writeAndFlush(new TextWebSocketFrame(content));
+        }
+
+        @Override
+        public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+            drain();
+            super.channelWritabilityChanged(ctx);
+        }
+
+        @Override
+        public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+            // Events waiting for a closed channel would otherwise be held until the next publish
+            StreamSubscribers.this.remove(this.channel);
+            super.channelInactive(ctx);
+        }
+    }
+
+    private static final class PendingEvent {
+        final ByteBuf content;
+        final long timestamp;
+
+        PendingEvent(final ByteBuf content, final long timestamp) {
+            this.content = content;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -10,12 +10,14 @@ package org.opendaylight.controller.sal.restconf.impl.test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -25,12 +27,15 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
 import java.util.concurrent.Future;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataBroker.DataChangeScope;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
@@ -60,8 +65,12 @@ import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 
@@ -84,6 +93,8 @@ public class BrokerFacadeTest {
     private final QName qname = TestUtils.buildQName("interfaces","test:module", "2014-01-09");
     private final SchemaPath type = SchemaPath.create(true, qname);
     private final YangInstanceIdentifier instanceID = YangInstanceIdentifier.builder().node(qname).build();
+    private final QName contQName = TestUtils.buildQName("cont", "test:module", "2014-01-09");
+    private final QName lst1QName = TestUtils.buildQName("lst1", "test:module", "2014-01-09");
 
     @Mock private DOMDataReadOnlyTransaction rTransaction;
     @Mock private DOMDataWriteTransaction wTransaction;
@@ -140,6 +151,25 @@ public class BrokerFacadeTest {
         assertSame("readOperationalData", this.dummyNode, actualNode);
     }
 
+    @Test
+    public void testReadMissingConfigurationDataFromMountPoint() {
+        when(this.mockMountInstance.getService(DOMDataBroker.class)).thenReturn(Optional.of(this.domDataBroker));
+        when(this.rTransaction.read(LogicalDatastoreType.CONFIGURATION, this.instanceID)).thenReturn(
+                Futures.immediateCheckedFuture(Optional.<NormalizedNode<?, ?>>absent()));
+
+        assertNull("readConfigurationData",
+                this.brokerFacade.readConfigurationData(this.mockMountInstance, this.instanceID));
+    }
+
+    @Test(expected = RestconfDocumentedException.class)
+    public void testReadConfigurationDataFailed() {
+        when(this.rTransaction.read(any(LogicalDatastoreType.class), any(YangInstanceIdentifier.class))).thenReturn(
+                Futures.<Optional<NormalizedNode<?, ?>>, ReadFailedException>immediateFailedCheckedFuture(
+                        new ReadFailedException("mock")));
+
+        this.brokerFacade.readConfigurationData(this.instanceID);
+    }
+
     @Test(expected = RestconfDocumentedException.class)
     public void testReadOperationalDataWithNoDataBroker() {
         this.brokerFacade.setDomDataBroker(null);
@@ -228,6 +258,81 @@ public class BrokerFacadeTest {
         }
     }
 
+    @Test
+    public void testCommitConfigurationDataPostListEntries() {
+        final YangInstanceIdentifier listPath = YangInstanceIdentifier.builder().node(this.contQName)
+                .node(this.lst1QName).build();
+        final MapNode entries = createListEntries("a", "b");
+        when(this.rwTransaction.exists(eq(LogicalDatastoreType.CONFIGURATION), any(YangInstanceIdentifier.class)))
+                .thenReturn(wrapExistence(false));
+
+        this.brokerFacade.commitConfigurationDataPost(ControllerContext.getInstance().getGlobalSchema(), listPath,
+                entries);
+
+        // all entries checked first, then written by a single merge
+        final InOrder inOrder = inOrder(this.rwTransaction);
+        inOrder.verify(this.rwTransaction, times(2)).exists(eq(LogicalDatastoreType.CONFIGURATION),
+                any(YangInstanceIdentifier.class));
+        inOrder.verify(this.rwTransaction).merge(LogicalDatastoreType.CONFIGURATION, listPath, entries);
+        inOrder.verify(this.rwTransaction).submit();
+        verify(this.rwTransaction, never()).put(eq(LogicalDatastoreType.CONFIGURATION),
+                any(YangInstanceIdentifier.class), any(NormalizedNode.class));
+    }
+
+    @Test
+    public void testCommitConfigurationDataPostListEntriesAlreadyExist() {
+        final YangInstanceIdentifier listPath = YangInstanceIdentifier.builder().node(this.contQName)
+                .node(this.lst1QName).build();
+        when(this.rwTransaction.exists(eq(LogicalDatastoreType.CONFIGURATION), any(YangInstanceIdentifier.class)))
+                .thenReturn(wrapExistence(true));
+
+        try {
+            this.brokerFacade.commitConfigurationDataPost(ControllerContext.getInstance().getGlobalSchema(),
+                    listPath, createListEntries("a", "b"));
+            fail("Post of existing entries should fail");
+        } catch (final RestconfDocumentedException e) {
+            // both conflicts are reported
+            assertEquals(2, e.getErrors().size());
+            for (final RestconfError error : e.getErrors()) {
+                assertEquals(RestconfError.ErrorTag.DATA_EXISTS, error.getErrorTag());
+            }
+        }
+        verify(this.rwTransaction).cancel();
+        verify(this.rwTransaction, never()).submit();
+    }
+
+    @Test(timeout = 10000)
+    public void testCommitConfigurationDataPostListEntriesChecksIssuedTogether() {
+        final YangInstanceIdentifier listPath = YangInstanceIdentifier.builder().node(this.contQName)
+                .node(this.lst1QName).build();
+        // the first check completes only once the second one is issued, waiting for it first would never return
+        final SettableFuture<Boolean> first = SettableFuture.create();
+        when(this.rwTransaction.exists(eq(LogicalDatastoreType.CONFIGURATION), any(YangInstanceIdentifier.class)))
+                .thenReturn(Futures.makeChecked(first, ReadFailedException.MAPPER))
+                .thenAnswer(new Answer<CheckedFuture<Boolean, ReadFailedException>>() {
+                    @Override
+                    public CheckedFuture<Boolean, ReadFailedException> answer(final InvocationOnMock invocation) {
+                        first.set(false);
+                        return wrapExistence(false);
+                    }
+                });
+
+        this.brokerFacade.commitConfigurationDataPost(ControllerContext.getInstance().getGlobalSchema(), listPath,
+                createListEntries("a", "b"));
+
+        verify(this.rwTransaction).merge(eq(LogicalDatastoreType.CONFIGURATION), eq(listPath), any(MapNode.class));
+        verify(this.rwTransaction).submit();
+    }
+
+    private MapNode createListEntries(final String... keys) {
+        final QName keyQName = QName.create(this.lst1QName, "lf11");
+        final CollectionNodeBuilder<MapEntryNode, MapNode> builder = ImmutableNodes.mapNodeBuilder(this.lst1QName);
+        for (final String key : keys) {
+            builder.withChild(ImmutableNodes.mapEntry(this.lst1QName, keyQName, key));
+        }
+        return builder.build();
+    }
+
     /**
      * Positive test of delete operation when data to delete exits. Returned value and order of steps are validated.
      */
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.controller.sal.restconf.impl.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.opendaylight.netconf.sal.restconf.impl.Histogram;
+
+public class HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        final Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50, histogram.getMean());
+        assertEquals(100, histogram.getMax());
+        // 50th value falls into bucket <32, 64)
+        assertEquals(63, histogram.getPercentile(50));
+        // Upper bound of the last bucket is limited by the highest value
+        assertEquals(100, histogram.getPercentile(90));
+        assertEquals(100, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testZeroValues() {
+        final Histogram histogram = new Histogram();
+        histogram.record(0);
+        histogram.record(0);
+        histogram.record(1000);
+
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(1000, histogram.getPercentile(99));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeValue() {
+        new Histogram().record(-1);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final Histogram histogram = new Histogram();
+        final int threads = 4;
+        final int values = 10000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch done = new CountDownLatch(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < values; i++) {
+                            histogram.record(i);
+                        }
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * values, histogram.getCount());
+        assertEquals(values - 1, histogram.getMax());
+    }
+}
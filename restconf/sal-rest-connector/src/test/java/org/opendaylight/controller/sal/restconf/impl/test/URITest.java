@@ -9,6 +9,8 @@ package org.opendaylight.controller.sal.restconf.impl.test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
@@ -155,6 +157,39 @@ public class URITest {
         controllerContext.toInstanceIdentifier("simple-nodes:users/yang-ext:mount/test-interface2:class");
     }
 
+    @Test
+    public void testToInstanceIdentifierCached() {
+        final InstanceIdentifierContext<?> first = controllerContext.toInstanceIdentifier("simple-nodes:user/foo/boo");
+        assertSame(first, controllerContext.toInstanceIdentifier("simple-nodes:user/foo/boo"));
+
+        // Schema update invalidates already parsed identifiers
+        controllerContext.setSchemas(controllerContext.getGlobalSchema());
+        final InstanceIdentifierContext<?> reparsed = controllerContext.toInstanceIdentifier("simple-nodes:user/foo/boo");
+        assertNotSame(first, reparsed);
+        assertEquals(first.getInstanceIdentifier(), reparsed.getInstanceIdentifier());
+    }
+
+    @Test
+    public void testMountPointIdentifierCachedWhileMountPointExists() throws FileNotFoundException, ReactorException {
+        final DOMMountPointService mountService = mock(DOMMountPointService.class);
+        controllerContext.setMountService(mountService);
+        final SchemaContext mountSchema = TestUtils.loadSchemaContext("/test-config-data/yang2");
+        final DOMMountPoint mountInstance = mock(DOMMountPoint.class);
+        when(mountInstance.getSchemaContext()).thenReturn(mountSchema);
+        when(mountService.getMountPoint(any(YangInstanceIdentifier.class))).thenReturn(Optional.of(mountInstance));
+
+        final String uri = "simple-nodes:users/yang-ext:mount/test-interface2:class";
+        final InstanceIdentifierContext<?> first = controllerContext.toInstanceIdentifier(uri);
+        assertSame(mountInstance, first.getMountPoint());
+        assertSame(first, controllerContext.toInstanceIdentifier(uri));
+
+        // Re-registered mount point has to be resolved again
+        final DOMMountPoint newMountInstance = mock(DOMMountPoint.class);
+        when(newMountInstance.getSchemaContext()).thenReturn(mountSchema);
+        when(mountService.getMountPoint(any(YangInstanceIdentifier.class))).thenReturn(Optional.of(newMountInstance));
+        assertSame(newMountInstance, controllerContext.toInstanceIdentifier(uri).getMountPoint());
+    }
+
     public void initMountService(final boolean withSchema) throws FileNotFoundException, ReactorException {
         final DOMMountPointService mountService = mock(DOMMountPointService.class);
         controllerContext.setMountService(mountService);
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.netty.buffer.ByteBuf;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.controller.sal.restconf.impl.test.TestUtils;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class StreamEventEncoderTest {
+
+    private static final String TEST_NAMESPACE = "test:module";
+    private static final String TOASTER_NAMESPACE = "http://netconfcentral.org/ns/toaster";
+
+    private static final QName CONT = QName.create(TEST_NAMESPACE, "2014-01-09", "cont");
+    private static final QName CONT1 = QName.create(CONT, "cont1");
+    private static final QName LST1 = QName.create(CONT, "lst1");
+    private static final QName LF11 = QName.create(CONT, "lf11");
+    private static final QName TOAST_DONE = QName.create(TOASTER_NAMESPACE, "2009-11-20", "toastDone");
+    private static final QName TOAST_STATUS = QName.create(TOAST_DONE, "toastStatus");
+
+    private SchemaContext schemaContext;
+    private AsyncDataChangeEvent<YangInstanceIdentifier, NormalizedNode<?, ?>> change;
+    private DOMNotification notification;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        this.schemaContext = TestUtils.loadSchemaContext("/full-versions/test-module", "/streams");
+
+        final YangInstanceIdentifier listPath = YangInstanceIdentifier.of(CONT).node(LST1);
+        final YangInstanceIdentifier entryPath = listPath.node(new NodeIdentifierWithPredicates(LST1, LF11, "a"));
+        final MapEntryNode entry = ImmutableNodes.mapEntry(LST1, LF11, "a");
+
+        // Created list (mixin) is not part of the event, only its entry
+        this.change = mock(AsyncDataChangeEvent.class);
+        doReturn(ImmutableMap.of(listPath, ImmutableNodes.mapNodeBuilder(LST1).withChild(entry).build(),
+                entryPath, entry)).when(this.change).getCreatedData();
+        doReturn(Collections.emptyMap()).when(this.change).getUpdatedData();
+        doReturn(Collections.singleton(YangInstanceIdentifier.of(CONT).node(CONT1))).when(this.change)
+                .getRemovedPaths();
+
+        this.notification = mock(DOMNotification.class);
+        doReturn(SchemaPath.create(true, TOAST_DONE)).when(this.notification).getType();
+        doReturn(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOAST_DONE))
+                .withChild(ImmutableNodes.leafNode(TOAST_STATUS, "done")).build()).when(this.notification).getBody();
+    }
+
+    @Test
+    public void testDataChangeXml() throws Exception {
+        final Document document = parseXml(StreamEventEncoder.forOutputType("XML")
+                .encodeDataChange(this.schemaContext, this.change));
+
+        final NodeList events = document.getElementsByTagNameNS(StreamEventEncoder.SAL_REMOTE_NAMESPACE,
+                "data-change-event");
+        assertEquals(2, events.getLength());
+
+        final Element created = (Element) events.item(0);
+        final Element path = getChild(created, StreamEventEncoder.SAL_REMOTE_NAMESPACE, "path");
+        final String prefix = path.lookupPrefix(TEST_NAMESPACE);
+        assertEquals("/" + prefix + ":cont/" + prefix + ":lst1[" + prefix + ":lf11='a']", path.getTextContent());
+        assertEquals("created",
+                getChild(created, StreamEventEncoder.SAL_REMOTE_NAMESPACE, "operation").getTextContent());
+        final Element data = getChild(created, StreamEventEncoder.SAL_REMOTE_NAMESPACE, "data");
+        final Element lst1 = getChild(data, TEST_NAMESPACE, "lst1");
+        assertEquals("a", getChild(lst1, TEST_NAMESPACE, "lf11").getTextContent());
+
+        final Element deleted = (Element) events.item(1);
+        assertEquals("deleted",
+                getChild(deleted, StreamEventEncoder.SAL_REMOTE_NAMESPACE, "operation").getTextContent());
+        assertEquals(0, deleted.getElementsByTagNameNS(StreamEventEncoder.SAL_REMOTE_NAMESPACE, "data").getLength());
+    }
+
+    @Test
+    public void testDataChangeJson() throws Exception {
+        final JsonObject notification = parseJson(StreamEventEncoder.forOutputType("JSON")
+                .encodeDataChange(this.schemaContext, this.change));
+
+        assertTrue(notification.has("eventTime"));
+        final JsonArray events = notification.getAsJsonObject("data-changed-notification")
+                .getAsJsonArray("data-change-event");
+        assertEquals(2, events.size());
+
+        final JsonObject created = events.get(0).getAsJsonObject();
+        assertEquals("/test-module:cont/test-module:lst1[test-module:lf11='a']",
+                created.get("path").getAsString());
+        assertEquals("created", created.get("operation").getAsString());
+        final JsonArray lst1 = created.getAsJsonObject("data").getAsJsonArray("test-module:lst1");
+        assertEquals("a", lst1.get(0).getAsJsonObject().get("lf11").getAsString());
+
+        final JsonObject deleted = events.get(1).getAsJsonObject();
+        assertEquals("/test-module:cont/test-module:cont1", deleted.get("path").getAsString());
+        assertEquals("deleted", deleted.get("operation").getAsString());
+        assertFalse(deleted.has("data"));
+    }
+
+    @Test
+    public void testNotificationXml() throws Exception {
+        final Document document = parseXml(StreamEventEncoder.forOutputType("XML")
+                .encodeNotification(this.schemaContext, this.notification, SchemaPath.create(true, TOAST_DONE)));
+
+        final Element event = getChild(document.getDocumentElement(), TOASTER_NAMESPACE, "event");
+        final Element toastDone = getChild(event, TOASTER_NAMESPACE, "toastDone");
+        assertEquals("done", getChild(toastDone, TOASTER_NAMESPACE, "toastStatus").getTextContent());
+    }
+
+    @Test
+    public void testNotificationJson() throws Exception {
+        final JsonObject notification = parseJson(StreamEventEncoder.forOutputType("JSON")
+                .encodeNotification(this.schemaContext, this.notification, SchemaPath.create(true, TOAST_DONE)));
+
+        assertTrue(notification.has("eventTime"));
+        final JsonObject toastDone = notification.getAsJsonObject("event").getAsJsonObject("toaster:toastDone");
+        assertEquals("done", toastDone.get("toastStatus").getAsString());
+    }
+
+    @Test
+    public void testRestconfJsonAlias() {
+        assertSame(StreamEventEncoder.forOutputType("JSON"), StreamEventEncoder.forOutputType("RESTCONF-JSON"));
+    }
+
+    @Test
+    public void testXmlIndented() throws Exception {
+        final String xml = toString(StreamEventEncoder.forOutputType("XML")
+                .encodeNotification(this.schemaContext, this.notification, SchemaPath.create(true, TOAST_DONE)));
+
+        assertTrue(xml, xml.contains("\n    <eventTime>"));
+        assertTrue(xml, xml.contains("\n            <toastStatus>done</toastStatus>\n"));
+    }
+
+    private static String toString(final Optional<ByteBuf> encoded) {
+        assertTrue(encoded.isPresent());
+        try {
+            return encoded.get().toString(StandardCharsets.UTF_8);
+        } finally {
+            encoded.get().release();
+        }
+    }
+
+    private static Document parseXml(final Optional<ByteBuf> encoded) throws Exception {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(
+                new ByteArrayInputStream(toString(encoded).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static JsonObject parseJson(final Optional<ByteBuf> encoded) {
+        return new JsonParser().parse(toString(encoded)).getAsJsonObject().getAsJsonObject("notification");
+    }
+
+    private static Element getChild(final Element parent, final String namespace, final String localName) {
+        final NodeList children = parent.getElementsByTagNameNS(namespace, localName);
+        assertTrue("Missing " + localName, children.getLength() > 0);
+        return (Element) children.item(0);
+    }
+}
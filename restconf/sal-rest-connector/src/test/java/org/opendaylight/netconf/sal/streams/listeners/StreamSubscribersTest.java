@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.streams.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandler;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opendaylight.netconf.sal.streams.listeners.StreamSubscribers.OverflowPolicy;
+
+public class StreamSubscribersTest {
+
+    private Channel fast;
+    private Channel slow;
+
+    @Before
+    public void setUp() {
+        fast = mockChannel(true);
+        slow = mockChannel(false);
+    }
+
+    @Test
+    public void testSharedFrameContent() {
+        final StreamSubscribers subscribers = new StreamSubscribers("stream", 10, OverflowPolicy.DROP_OLDEST);
+        final Channel other = mockChannel(true);
+        subscribers.add(fast);
+        subscribers.add(other);
+
+        subscribers.publish("event");
+
+        final TextWebSocketFrame first = getWrittenFrames(fast, 1).get(0);
+        final TextWebSocketFrame second = getWrittenFrames(other, 1).get(0);
+        assertEquals("event", first.text());
+        // Both frames are views of the same encoded event
+        assertSame(first.content().unwrap(), second.content().unwrap());
+        assertEquals(2, first.content().refCnt());
+        first.release();
+        second.release();
+        assertEquals(0, first.content().refCnt());
+    }
+
+    @Test
+    public void testSlowSubscriberDropOldest() {
+        final StreamSubscribers subscribers = new StreamSubscribers("stream", 2, OverflowPolicy.DROP_OLDEST);
+        subscribers.add(fast);
+        subscribers.add(slow);
+
+        subscribers.publish("1");
+        subscribers.publish("2");
+        subscribers.publish("3");
+
+        // Fast subscriber is not affected by the slow one
+        assertEquals(3, getWrittenFrames(fast, 3).size());
+        verify(slow, never()).writeAndFlush(any());
+        assertEquals(2, subscribers.getPendingEvents());
+        assertEquals(1, subscribers.getDroppedEvents());
+        assertEquals(3, subscribers.getPublishedEvents());
+
+        doReturn(true).when(slow).isWritable();
+        subscribers.drain(slow);
+
+        final List<TextWebSocketFrame> frames = getWrittenFrames(slow, 2);
+        assertEquals("2", frames.get(0).text());
+        assertEquals("3", frames.get(1).text());
+        assertEquals(0, subscribers.getPendingEvents());
+        assertEquals(0, subscribers.getMaxLagMillis());
+    }
+
+    @Test
+    public void testSlowSubscriberDropNewest() {
+        final StreamSubscribers subscribers = new StreamSubscribers("stream", 2, OverflowPolicy.DROP_NEWEST);
+        subscribers.add(slow);
+
+        subscribers.publish("1");
+        subscribers.publish("2");
+        subscribers.publish("3");
+
+        doReturn(true).when(slow).isWritable();
+        subscribers.drain(slow);
+
+        final List<TextWebSocketFrame> frames = getWrittenFrames(slow, 2);
+        assertEquals("1", frames.get(0).text());
+        assertEquals("2", frames.get(1).text());
+        assertEquals(1, subscribers.getDroppedEvents());
+    }
+
+    @Test
+    public void testSlowSubscriberDisconnect() {
+        final StreamSubscribers subscribers = new StreamSubscribers("stream", 1, OverflowPolicy.DISCONNECT);
+        subscribers.add(slow);
+
+        subscribers.publish("1");
+        subscribers.publish("2");
+
+        verify(slow).close();
+        assertEquals(0, subscribers.getPendingEvents());
+        assertEquals(2, subscribers.getDroppedEvents());
+    }
+
+    @Test
+    public void testRemoveReleasesPendingEvents() {
+        final StreamSubscribers subscribers = new StreamSubscribers("stream", 10, OverflowPolicy.DROP_OLDEST);
+        subscribers.add(slow);
+        subscribers.publish("1");
+        assertEquals(1, subscribers.getPendingEvents());
+
+        subscribers.remove(slow);
+        assertTrue(subscribers.isEmpty());
+        assertEquals(0, subscribers.getPendingEvents());
+    }
+
+    @Test
+    public void testInactiveChannelReleasesPendingEvents() throws Exception {
+        final StreamSubscribers subscribers = new StreamSubscribers("stream", 10, OverflowPolicy.DROP_OLDEST);
+        subscribers.add(slow);
+        final ArgumentCaptor<ChannelHandler> handler = ArgumentCaptor.forClass(ChannelHandler.class);
+        verify(slow.pipeline()).addLast(handler.capture());
+
+        final ByteBuf event = Unpooled.copiedBuffer("1", StandardCharsets.UTF_8);
+        subscribers.publish(event);
+        assertEquals(1, subscribers.getPendingEvents());
+        assertEquals(1, event.refCnt());
+
+        doReturn(false).when(slow).isOpen();
+        ((ChannelInboundHandler) handler.getValue()).channelInactive(mock(ChannelHandlerContext.class));
+        assertTrue(subscribers.isEmpty());
+        assertEquals(0, subscribers.getPendingEvents());
+        assertEquals(0, event.refCnt());
+    }
+
+    private static Channel mockChannel(final boolean writable) {
+        final Channel channel = mock(Channel.class);
+        doReturn(mock(ChannelPipeline.class)).when(channel).pipeline();
+        doReturn(true).when(channel).isActive();
+        doReturn(true).when(channel).isOpen();
+        doReturn(writable).when(channel).isWritable();
+        return channel;
+    }
+
+    private static List<TextWebSocketFrame> getWrittenFrames(final Channel channel, final int count) {
+        final ArgumentCaptor<TextWebSocketFrame> captor = ArgumentCaptor.forClass(TextWebSocketFrame.class);
+        verify(channel, times(count)).writeAndFlush(captor.capture());
+        return captor.getAllValues();
+    }
+}